@@ -82,6 +82,15 @@ class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
         return array.length;
     }
 
+    /**
+     * Gets the underlying array, or {@code null} if the source is closed.
+     *
+     * @return the array the bytes are read from
+     */
+    byte[] getArray() {
+        return array;
+    }
+
     public void close() throws java.io.IOException {
         array = null;
     }
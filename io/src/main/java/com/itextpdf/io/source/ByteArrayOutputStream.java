@@ -43,6 +43,13 @@
  */
 package com.itextpdf.io.source;
 
+/**
+ * Unsynchronized variant of {@link java.io.ByteArrayOutputStream}.
+ * Content streams are written a few bytes at a time, so the monitor
+ * acquired by the base class on every write dominates the cost of serialization.
+ * <br>
+ * None of the methods are synchronized, so the stream isn't thread-safe.
+ */
 public class ByteArrayOutputStream extends java.io.ByteArrayOutputStream{
 
     public ByteArrayOutputStream() {
@@ -64,4 +71,69 @@ public class ByteArrayOutputStream extends java.io.ByteArrayOutputStream{
         this.count = bytes.length;
         return this;
     }
+
+    @Override
+    public void write(int b) {
+        if (count == buf.length) {
+            grow(count + 1);
+        }
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || off > b.length || len < 0 || off + len - b.length > 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        int newCount = count + len;
+        if (newCount - buf.length > 0) {
+            grow(newCount);
+        }
+        System.arraycopy(b, off, buf, count, len);
+        count = newCount;
+    }
+
+    @Override
+    public void writeTo(java.io.OutputStream out) throws java.io.IOException {
+        out.write(buf, 0, count);
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return java.util.Arrays.copyOf(buf, count);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count);
+    }
+
+    @Override
+    public String toString(String charsetName) throws java.io.UnsupportedEncodingException {
+        return new String(buf, 0, count, charsetName);
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError();
+        }
+        int newCapacity = buf.length << 1;
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        if (newCapacity < 0) {
+            newCapacity = Integer.MAX_VALUE - 8 >= minCapacity ? Integer.MAX_VALUE - 8 : minCapacity;
+        }
+        buf = java.util.Arrays.copyOf(buf, newCapacity);
+    }
 }
@@ -171,7 +171,7 @@ class ByteBufferRandomAccessSource implements IRandomAccessSource, Serializable
      * @param buffer ByteBuffer
      * @return boolean true on success
      */
-    private static boolean clean(final java.nio.ByteBuffer buffer) {
+    static boolean clean(final java.nio.ByteBuffer buffer) {
         if (buffer == null || !buffer.isDirect())
             return false;
 
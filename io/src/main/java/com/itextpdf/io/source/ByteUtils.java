@@ -123,6 +123,29 @@ public final class ByteUtils {
         return buffer == null ? buf.getInternalBuffer() : null;
     }
 
+    /**
+     * Puts the decimal digits of the number into the buffer at its position and advances the position.
+     *
+     * @param n      the number
+     * @param buffer the buffer, which must have at least 11 bytes remaining
+     * @return the number of the put bytes
+     */
+    static int putIsoBytes(int n, java.nio.ByteBuffer buffer) {
+        int start = buffer.position();
+        long value = n;
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int end = buffer.position() + longSize(value);
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, bytes[(int) (value % 10)]);
+            value /= 10;
+        }
+        ((java.nio.Buffer) buffer).position(end);
+        return end - start;
+    }
+
     static byte[] getIsoBytes(double d, ByteBuffer buffer) {
         return getIsoBytes(d, buffer, HighPrecision);
     }
@@ -0,0 +1,213 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An output stream which collects the written bytes in a direct {@link ByteBuffer} and writes them
+ * to a {@link WritableByteChannel}, e.g. a {@link java.nio.channels.FileChannel}, when the buffer is full.
+ * <br>
+ * Unlike {@link java.io.BufferedOutputStream}, the stream isn't synchronized, and the channel gets the bytes
+ * straight from the native memory of the buffer. The buffers of the default size are pooled, so that creating
+ * many streams doesn't allocate direct memory each time.
+ * <br>
+ * The stream isn't thread-safe.
+ */
+public class ChannelOutputStream extends java.io.OutputStream implements IBufferedOutputStream {
+
+    /**
+     * The default size of the buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 0x40000;
+
+    private static final int MAX_POOLED_BUFFERS = 8;
+
+    private static final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger pooledBuffersCount = new AtomicInteger();
+
+    private final WritableByteChannel channel;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a stream with a buffer of the default size.
+     *
+     * @param channel the channel to write the bytes to
+     */
+    public ChannelOutputStream(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a stream with a buffer of the given size.
+     *
+     * @param channel    the channel to write the bytes to
+     * @param bufferSize the size of the buffer
+     */
+    public ChannelOutputStream(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.channel = channel;
+        this.buffer = acquireBuffer(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!buffer.hasRemaining()) {
+            drainBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                drainBuffer();
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The buffered bytes are written to the channel first if the buffer doesn't have enough space left.
+     */
+    @Override
+    public ByteBuffer getBuffer(int length) throws IOException {
+        ensureOpen();
+        if (length > buffer.capacity()) {
+            return null;
+        }
+        if (buffer.remaining() < length) {
+            drainBuffer();
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     *
+     * @throws IOException on error
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drainBuffer();
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and closes the channel.
+     *
+     * @throws IOException on error
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            drainBuffer();
+        } finally {
+            releaseBuffer(buffer);
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private static ByteBuffer acquireBuffer(int bufferSize) {
+        if (bufferSize == DEFAULT_BUFFER_SIZE) {
+            ByteBuffer pooled = bufferPool.poll();
+            if (pooled != null) {
+                pooledBuffersCount.decrementAndGet();
+                return pooled;
+            }
+        }
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (buffer.capacity() != DEFAULT_BUFFER_SIZE) {
+            return;
+        }
+        if (pooledBuffersCount.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            ((Buffer) buffer).clear();
+            bufferPool.offer(buffer);
+        } else {
+            pooledBuffersCount.decrementAndGet();
+        }
+    }
+}
@@ -47,7 +47,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.zip.Deflater;
 
-public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
+public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream implements IFinishable {
 
     public DeflaterOutputStream(OutputStream out, int level, int size) {
         super(out, new Deflater(level), size);
@@ -0,0 +1,200 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An output stream which writes to a file through memory-mapped regions of the file.
+ * <br>
+ * The bytes are put straight into the pages of the file in the operating system cache, without system calls
+ * for every buffer of data. The file grows by a region at a time and is truncated to the written length
+ * when the stream is closed.
+ * <br>
+ * The stream isn't thread-safe.
+ */
+public class MappedFileOutputStream extends java.io.OutputStream implements IBufferedOutputStream {
+
+    /**
+     * The default size of the mapped regions.
+     */
+    public static final int DEFAULT_REGION_SIZE = 1 << 26;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    /**
+     * Creates a stream which writes to the file, replacing its content.
+     *
+     * @param filename the name of the file
+     * @throws IOException on error
+     */
+    public MappedFileOutputStream(String filename) throws IOException {
+        this(new File(filename));
+    }
+
+    /**
+     * Creates a stream which writes to the file, replacing its content.
+     *
+     * @param file the file
+     * @throws IOException on error
+     */
+    public MappedFileOutputStream(File file) throws IOException {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Creates a stream which writes to the file, replacing its content.
+     *
+     * @param file       the file
+     * @param regionSize the size of the regions of the file, which are mapped into memory
+     * @throws IOException on error
+     */
+    public MappedFileOutputStream(File file, int regionSize) throws IOException {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("Region size must be positive");
+        }
+        this.regionSize = regionSize;
+        this.file = new RandomAccessFile(file, "rw");
+        try {
+            this.file.setLength(0);
+            this.channel = this.file.getChannel();
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!region.hasRemaining()) {
+            nextRegion();
+        }
+        region.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (!region.hasRemaining()) {
+                nextRegion();
+            }
+            int n = Math.min(len, region.remaining());
+            region.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The next region is mapped if the current one is full. No buffer is returned if the bytes
+     * would have to be split between two regions.
+     */
+    @Override
+    public ByteBuffer getBuffer(int length) throws IOException {
+        ensureOpen();
+        if (!region.hasRemaining() && length <= regionSize) {
+            nextRegion();
+        }
+        return region.remaining() >= length ? region : null;
+    }
+
+    /**
+     * Does nothing, since the written bytes are already in the file pages of the operating system.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+    }
+
+    /**
+     * Unmaps the file and truncates it to the written length.
+     *
+     * @throws IOException on error
+     */
+    @Override
+    public void close() throws IOException {
+        if (region == null) {
+            return;
+        }
+        long length = regionStart + region.position();
+        ByteBufferRandomAccessSource.clean(region);
+        region = null;
+        try {
+            channel.truncate(length);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void nextRegion() throws IOException {
+        regionStart += region.capacity();
+        ByteBufferRandomAccessSource.clean(region);
+        region = null;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (region == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
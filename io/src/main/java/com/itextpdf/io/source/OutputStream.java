@@ -51,6 +51,8 @@ public class OutputStream<T extends java.io.OutputStream> extends java.io.Output
 
     private static final long serialVersionUID = -5337390096148526418L;
 
+    private static final int MAX_INTEGER_LENGTH = 11;
+
     //long=19 + max frac=6 => 26 => round to 32.
     private final ByteBuffer numBuffer = new ByteBuffer(32);
 
@@ -127,14 +129,34 @@ public class OutputStream<T extends java.io.OutputStream> extends java.io.Output
 
     public T writeInteger(int value) {
         try {
-            ByteUtils.getIsoBytes(value, numBuffer.reset());
-            write(numBuffer.getInternalBuffer(), numBuffer.capacity() - numBuffer.size(), numBuffer.size());
+            java.nio.ByteBuffer directBuffer = getDirectBuffer(MAX_INTEGER_LENGTH);
+            if (directBuffer != null) {
+                currentPos += ByteUtils.putIsoBytes(value, directBuffer);
+            } else {
+                ByteUtils.getIsoBytes(value, numBuffer.reset());
+                write(numBuffer.getInternalBuffer(), numBuffer.capacity() - numBuffer.size(), numBuffer.size());
+            }
             return (T) this;
         } catch (java.io.IOException e) {
             throw new IOException(IOException.CannotWriteIntNumber, e);
         }
     }
 
+    /**
+     * Gets the buffer of the underlying stream, into which the bytes can be put directly
+     * instead of passing them to {@link #write(byte[], int, int)}.
+     *
+     * @param length the number of bytes which are going to be put
+     * @return the buffer with at least the given number of bytes remaining, or {@code null}
+     * if the bytes must be written through {@link #write(byte[], int, int)}
+     * @throws java.io.IOException on error
+     * @see IBufferedOutputStream
+     */
+    protected java.nio.ByteBuffer getDirectBuffer(int length) throws java.io.IOException {
+        return outputStream instanceof IBufferedOutputStream
+                ? ((IBufferedOutputStream) outputStream).getBuffer(length) : null;
+    }
+
     public T writeFloat(float value) {
         return writeFloat(value, ByteUtils.HighPrecision);
     }
@@ -183,6 +183,16 @@ public class PdfTokenizer implements Closeable, Serializable {
         return outBuf.toByteArray();
     }
 
+    /**
+     * Gets the buffer the current token is read into. The buffer is reused for the subsequent tokens,
+     * so its content shall be copied if it is needed after the next token is read.
+     *
+     * @return the buffer holding the content of the current token.
+     */
+    public ByteBuffer getByteContentBuffer() {
+        return outBuf;
+    }
+
     public String getStringValue() {
         return new String(outBuf.getInternalBuffer(), 0, outBuf.size());
     }
@@ -337,6 +347,10 @@ public class PdfTokenizer implements Closeable, Serializable {
     }
 
     public boolean nextToken() throws java.io.IOException {
+        byte[] sourceArray = file.getSourceArray();
+        if (sourceArray != null) {
+            return nextToken(sourceArray);
+        }
         int ch;
         outBuf.reset();
         do {
@@ -504,6 +518,199 @@ public class PdfTokenizer implements Closeable, Serializable {
         return true;
     }
 
+    /**
+     * Reads the next token directly from the array of an in-memory source, such as a content stream,
+     * instead of reading every byte through the {@link RandomAccessFileOrArray}.
+     * The tokens are the same as the ones read by the generic code of {@link #nextToken()}.
+     *
+     * @param bytes the array of the source
+     * @return {@code true} if a token was read, {@code false} if the end of the source was reached
+     * @throws java.io.IOException on error
+     */
+    private boolean nextToken(byte[] bytes) throws java.io.IOException {
+        int pos = (int) file.getPosition();
+        int ch;
+        outBuf.reset();
+        do {
+            ch = byteAt(bytes, pos++);
+        } while (ch != -1 && isWhitespace(ch));
+        if (ch == -1) {
+            file.seek(pos);
+            type = TokenType.EndOfFile;
+            return false;
+        }
+        switch (ch) {
+            case '[': {
+                type = TokenType.StartArray;
+                break;
+            }
+            case ']': {
+                type = TokenType.EndArray;
+                break;
+            }
+            case '/': {
+                type = TokenType.Name;
+                int start = pos;
+                do {
+                    ch = byteAt(bytes, pos++);
+                } while (!delims[ch + 1]);
+                outBuf.append(bytes, start, pos - 1 - start);
+                if (ch != -1)
+                    pos--;
+                break;
+            }
+            case '>': {
+                ch = byteAt(bytes, pos++);
+                if (ch != '>') {
+                    file.seek(pos);
+                    throwError(IOException.GtNotExpected);
+                }
+                type = TokenType.EndDic;
+                break;
+            }
+            case '<': {
+                int v1 = byteAt(bytes, pos++);
+                if (v1 == '<') {
+                    type = TokenType.StartDic;
+                    break;
+                }
+                type = TokenType.String;
+                hexString = true;
+                int v2 = 0;
+                while (true) {
+                    while (isWhitespace(v1))
+                        v1 = byteAt(bytes, pos++);
+                    if (v1 == '>')
+                        break;
+                    outBuf.append(v1);
+                    v1 = ByteBuffer.getHex(v1);
+                    if (v1 < 0)
+                        break;
+                    v2 = byteAt(bytes, pos++);
+                    while (isWhitespace(v2))
+                        v2 = byteAt(bytes, pos++);
+                    if (v2 == '>') {
+                        break;
+                    }
+                    outBuf.append(v2);
+                    v2 = ByteBuffer.getHex(v2);
+                    if (v2 < 0)
+                        break;
+                    v1 = byteAt(bytes, pos++);
+                }
+                if (v1 < 0 || v2 < 0) {
+                    file.seek(pos);
+                    throwError(IOException.ErrorReadingString);
+                }
+                break;
+            }
+            case '%': {
+                type = TokenType.Comment;
+                do {
+                    ch = byteAt(bytes, pos++);
+                } while (ch != -1 && ch != '\r' && ch != '\n');
+                break;
+            }
+            case '(': {
+                type = TokenType.String;
+                hexString = false;
+                int start = pos;
+                int nesting = 0;
+                while (true) {
+                    ch = byteAt(bytes, pos++);
+                    if (ch == -1)
+                        break;
+                    if (ch == '(') {
+                        ++nesting;
+                    } else if (ch == ')') {
+                        --nesting;
+                        if (nesting == -1)
+                            break;
+                    } else if (ch == '\\') {
+                        ch = byteAt(bytes, pos++);
+                        if (ch < 0)
+                            break;
+                    }
+                }
+                // the content is kept as is, escape sequences are decoded by getDecodedStringContent
+                outBuf.append(bytes, start, pos - 1 - start);
+                if (ch == -1) {
+                    file.seek(pos);
+                    throwError(IOException.ErrorReadingString);
+                }
+                break;
+            }
+            default: {
+                if (ch == '-' || ch == '+' || ch == '.' || (ch >= '0' && ch <= '9')) {
+                    type = TokenType.Number;
+                    boolean isReal = false;
+                    int numberOfMinuses = 0;
+                    if (ch == '-') {
+                        // Take care of number like "--234". If Acrobat can read them so must we.
+                        do {
+                            ++numberOfMinuses;
+                            ch = byteAt(bytes, pos++);
+                        } while (ch == '-');
+                        outBuf.append('-');
+                    } else {
+                        outBuf.append(ch);
+                        ch = byteAt(bytes, pos++);
+                    }
+                    while (ch >= '0' && ch <= '9') {
+                        outBuf.append(ch);
+                        ch = byteAt(bytes, pos++);
+                    }
+
+                    if (ch == '.') {
+                        isReal = true;
+                        outBuf.append(ch);
+                        ch = byteAt(bytes, pos++);
+
+                        // Minus after '.' and everything after it is ignored, as Adobe Reader does
+                        int numberOfMinusesAfterDot = 0;
+                        if (ch == '-') {
+                            numberOfMinusesAfterDot++;
+                            ch = byteAt(bytes, pos++);
+                        }
+                        while (ch >= '0' && ch <= '9') {
+                            if (numberOfMinusesAfterDot == 0) {
+                                outBuf.append(ch);
+                            }
+                            ch = byteAt(bytes, pos++);
+                        }
+                    }
+
+                    if (numberOfMinuses > 1 && !isReal) {
+                        // Numbers of integer type and with more than one minus before them
+                        // are interpreted by Acrobat as zero.
+                        outBuf.reset();
+                        outBuf.append('0');
+                    }
+                } else {
+                    type = TokenType.Other;
+                    int start = pos - 1;
+                    do {
+                        ch = byteAt(bytes, pos++);
+                    } while (!delims[ch + 1]);
+                    outBuf.append(bytes, start, pos - 1 - start);
+                }
+                if (ch != -1)
+                    pos--;
+                break;
+            }
+        }
+        file.seek(pos);
+        return true;
+    }
+
+    /**
+     * Gets the byte at the given position of the array the way the sources read it,
+     * i.e. as an unsigned value, or -1 if the position is beyond the end of the array.
+     */
+    private static int byteAt(byte[] bytes, int pos) {
+        return pos < bytes.length ? bytes[pos] & 0xff : -1;
+    }
+
     public long getLongValue() {
         return Long.parseLong(getStringValue());
     }
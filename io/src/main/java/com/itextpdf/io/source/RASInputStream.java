@@ -61,6 +61,11 @@ public class RASInputStream extends InputStream {
      */
     private long position = 0;
 
+    /**
+     * The marked position in the source.
+     */
+    private long markedPosition = 0;
+
     /**
      * Creates an input stream based on the source.
      * @param source The source.
@@ -75,7 +80,9 @@ public class RASInputStream extends InputStream {
     @Override
     public int read(byte[] b, int off, int len) throws java.io.IOException {
         int count = source.get(position, b, off, len);
-        position += count;
+        if (count > 0) {
+            position += count;
+        }
         return count;
     }
 
@@ -84,6 +91,36 @@ public class RASInputStream extends InputStream {
      */
     @Override
     public int read() throws java.io.IOException {
-        return source.get(position++);
+        int b = source.get(position);
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The read limit is ignored, since the source can always be repositioned.
+     */
+    @Override
+    public synchronized void mark(int readlimit) {
+        markedPosition = position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void reset() {
+        position = markedPosition;
     }
 }
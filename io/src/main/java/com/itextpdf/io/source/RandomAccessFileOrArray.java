@@ -276,6 +276,20 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
         isBack = false;
     }
 
+    /**
+     * Gets the array of an in-memory source, so that the bytes at the current position can be read from it directly.
+     * The position shall then be updated with {@link #seek(long)}.
+     *
+     * @return the array the source reads from, or {@code null} if the source is not an array
+     * or a byte is pushed back, as the bytes shall be read through this object then
+     */
+    byte[] getSourceArray() {
+        if (!isBack && byteSource instanceof ArrayRandomAccessSource) {
+            return ((ArrayRandomAccessSource) byteSource).getArray();
+        }
+        return null;
+    }
+
     /**
      * Gets the current position of the source considering the pushed byte to the source.
      *
@@ -43,6 +43,7 @@
  */
 package com.itextpdf.io.util;
 
+import com.itextpdf.io.source.IBufferedOutputStream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -165,7 +166,8 @@ public final class FileUtil {
     }
 
     public static java.io.OutputStream wrapWithBufferedOutputStream(OutputStream outputStream) {
-        if (outputStream instanceof ByteArrayOutputStream || (outputStream instanceof BufferedOutputStream)) {
+        if (outputStream instanceof ByteArrayOutputStream || (outputStream instanceof BufferedOutputStream)
+                || outputStream instanceof IBufferedOutputStream) {
             return outputStream;
         } else {
             return new BufferedOutputStream(outputStream);
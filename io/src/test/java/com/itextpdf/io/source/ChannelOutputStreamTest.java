@@ -0,0 +1,167 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class ChannelOutputStreamTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/io/source/ChannelOutputStreamTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void writeTest() throws IOException {
+        byte[] expected = createData(1000000);
+        String filename = destinationFolder + "writeTest.bin";
+        FileChannel channel = new FileOutputStream(filename).getChannel();
+        ChannelOutputStream os = new ChannelOutputStream(channel, 1000);
+        writeMixed(os, expected);
+        os.close();
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertArrayEquals(expected, Files.readAllBytes(new File(filename).toPath()));
+    }
+
+    @Test
+    public void flushTest() throws IOException {
+        String filename = destinationFolder + "flushTest.bin";
+        RandomAccessFile file = new RandomAccessFile(filename, "rw");
+        ChannelOutputStream os = new ChannelOutputStream(file.getChannel());
+        os.write(new byte[] {1, 2, 3});
+        Assert.assertEquals(0, file.length());
+        os.flush();
+        Assert.assertEquals(3, file.length());
+        os.close();
+    }
+
+    @Test
+    public void pooledBufferTest() throws IOException {
+        // Buffers of the default size are reused by the next streams
+        for (int i = 0; i < 3; i++) {
+            String filename = destinationFolder + "pooledBufferTest" + i + ".bin";
+            ChannelOutputStream os = new ChannelOutputStream(new FileOutputStream(filename).getChannel());
+            byte[] expected = createData(ChannelOutputStream.DEFAULT_BUFFER_SIZE + i);
+            writeMixed(os, expected);
+            os.close();
+            // Closing twice does nothing
+            os.close();
+            Assert.assertArrayEquals(expected, Files.readAllBytes(new File(filename).toPath()));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void writeToClosedStreamTest() throws IOException {
+        ChannelOutputStream os = new ChannelOutputStream(
+                new FileOutputStream(destinationFolder + "writeToClosedStreamTest.bin").getChannel());
+        os.close();
+        os.write(1);
+    }
+
+    @Test
+    public void writeIntegersTest() throws IOException {
+        // Buffers big enough for the digits get them directly, the smallest one falls back to copying
+        int[] bufferSizes = new int[] {7, 11, 1000};
+        for (int bufferSize : bufferSizes) {
+            String filename = destinationFolder + "writeIntegersTest" + bufferSize + ".bin";
+            ChannelOutputStream os = new ChannelOutputStream(new FileOutputStream(filename).getChannel(), bufferSize);
+            String expected = writeIntegers(os);
+            Assert.assertEquals(expected, new String(Files.readAllBytes(new File(filename).toPath()), "ISO-8859-1"));
+        }
+    }
+
+    static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    static void writeMixed(java.io.OutputStream os, byte[] data) throws IOException {
+        Random random = new Random(0);
+        int pos = 0;
+        while (pos < data.length) {
+            int len = Math.min(data.length - pos, random.nextInt(3) == 0 ? 1 : random.nextInt(5000));
+            if (len == 1) {
+                os.write(data[pos]);
+            } else {
+                os.write(data, pos, len);
+            }
+            pos += len;
+        }
+    }
+
+    static String writeIntegers(java.io.OutputStream os) throws IOException {
+        StringBuilder expected = new StringBuilder();
+        OutputStream<java.io.OutputStream> output = new OutputStream<>(os);
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            int value = i % 100 == 0 ? Integer.MIN_VALUE + 1 : i % 10 == 0 ? Integer.MAX_VALUE : random.nextInt();
+            if (i % 3 == 0) {
+                value %= 1000;
+            }
+            output.writeInteger(value);
+            output.writeSpace();
+            expected.append(value).append(' ');
+        }
+        Assert.assertEquals(expected.length(), output.getCurrentPos());
+        output.close();
+        return expected.toString();
+    }
+}
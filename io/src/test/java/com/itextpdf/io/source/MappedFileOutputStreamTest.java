@@ -0,0 +1,114 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+@Category(UnitTest.class)
+public class MappedFileOutputStreamTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/io/source/MappedFileOutputStreamTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void writeSeveralRegionsTest() throws IOException {
+        byte[] expected = ChannelOutputStreamTest.createData(1000000);
+        File file = new File(destinationFolder + "writeSeveralRegionsTest.bin");
+        MappedFileOutputStream os = new MappedFileOutputStream(file, 4096);
+        ChannelOutputStreamTest.writeMixed(os, expected);
+        os.close();
+        os.close();
+        Assert.assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void writeIntegersTest() throws IOException {
+        // Digits which don't fit into the rest of a region are copied through the regular write
+        File file = new File(destinationFolder + "writeIntegersTest.bin");
+        String expected = ChannelOutputStreamTest.writeIntegers(new MappedFileOutputStream(file, 4096));
+        Assert.assertEquals(expected, new String(Files.readAllBytes(file.toPath()), "ISO-8859-1"));
+    }
+
+    @Test
+    public void replaceExistingFileTest() throws IOException {
+        String filename = destinationFolder + "replaceExistingFileTest.bin";
+        FileOutputStream fos = new FileOutputStream(filename);
+        fos.write(new byte[10000]);
+        fos.close();
+
+        MappedFileOutputStream os = new MappedFileOutputStream(filename);
+        os.write(new byte[] {1, 2, 3});
+        os.flush();
+        os.close();
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(new File(filename).toPath()));
+    }
+
+    @Test
+    public void emptyFileTest() throws IOException {
+        File file = new File(destinationFolder + "emptyFileTest.bin");
+        new MappedFileOutputStream(file).close();
+        Assert.assertEquals(0, file.length());
+    }
+
+    @Test(expected = IOException.class)
+    public void writeToClosedStreamTest() throws IOException {
+        MappedFileOutputStream os = new MappedFileOutputStream(destinationFolder + "writeToClosedStreamTest.bin");
+        os.close();
+        os.write(new byte[1], 0, 1);
+    }
+}
@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.crypto;
 
+import javax.crypto.Cipher;
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
@@ -52,11 +53,22 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
 
 /**
  * Creates an AES Cipher with CBC and padding PKCS5/7.
+ * <p>
+ * The data is processed by a JCE cipher if AES with the given key length is supported by JCE,
+ * otherwise by the BouncyCastle implementation.
  * @author Paulo Soares
  */
 public class AESCipher {
 
+    private static final byte[] EMPTY = new byte[0];
+
     private PaddedBufferedBlockCipher bp;
+
+    private Cipher jceCipher;
+    private boolean forEncryption;
+    // the data which is not processed yet, the last block is kept until doFinal to handle the padding
+    private final byte[] buf = new byte[JceAesCipherPool.BLOCK_SIZE];
+    private int bufOff;
     
     /**
      * Creates a new instance of AESCipher
@@ -67,27 +79,98 @@ public class AESCipher {
      * @param iv initialization vector to be used in cipher
      */
     public AESCipher(boolean forEncryption, byte[] key, byte[] iv) {
-        BlockCipher aes = new AESFastEngine();
-        BlockCipher cbc = new CBCBlockCipher(aes);
-        bp = new PaddedBufferedBlockCipher(cbc);
-        KeyParameter kp = new KeyParameter(key);
-        ParametersWithIV piv = new ParametersWithIV(kp, iv);
-        bp.init(forEncryption, piv);
+        this(forEncryption, key, iv, true);
+    }
+
+    /**
+     * Creates a new instance of AESCipher
+     *
+     * @param forEncryption if true the cipher is initialised for
+     * encryption, if false for decryption
+     * @param key the key to be used in the cipher
+     * @param iv initialization vector to be used in cipher
+     * @param useJce if false the BouncyCastle implementation is used even if JCE supports the key
+     */
+    AESCipher(boolean forEncryption, byte[] key, byte[] iv, boolean useJce) {
+        this.forEncryption = forEncryption;
+        if (useJce) {
+            jceCipher = JceAesCipherPool.acquire(forEncryption, key, iv);
+        }
+        if (jceCipher == null) {
+            BlockCipher aes = new AESFastEngine();
+            BlockCipher cbc = new CBCBlockCipher(aes);
+            bp = new PaddedBufferedBlockCipher(cbc);
+            KeyParameter kp = new KeyParameter(key);
+            ParametersWithIV piv = new ParametersWithIV(kp, iv);
+            bp.init(forEncryption, piv);
+        }
     }
     
     public byte[] update(byte[] inp, int inpOff, int inpLen) {
-        int neededLen = bp.getUpdateOutputSize(inpLen);
+        int neededLen = getUpdateOutputSize(inpLen);
         byte[] outp;
         if (neededLen > 0) {
             outp = new byte[neededLen];
         } else {
-            outp = new byte[0];
+            outp = EMPTY;
         }
-        bp.processBytes(inp, inpOff, inpLen, outp, 0);
+        update(inp, inpOff, inpLen, outp, 0);
         return outp;
     }
+
+    /**
+     * Gets the number of bytes {@link #update(byte[], int, int, byte[], int)} writes for the input of the given length.
+     *
+     * @param inpLen the length of the input
+     * @return the length of the output
+     */
+    public int getUpdateOutputSize(int inpLen) {
+        if (bp != null) {
+            return bp.getUpdateOutputSize(inpLen);
+        }
+        return inpLen + bufOff - getKeptLength(inpLen + bufOff);
+    }
+
+    /**
+     * Processes the data, writing the result to the given array.
+     *
+     * @param inp     the input data
+     * @param inpOff  the offset of the data in the input array
+     * @param inpLen  the length of the data
+     * @param outp    the output array, shall have at least {@link #getUpdateOutputSize(int)} bytes after outpOff
+     * @param outpOff the offset of the result in the output array
+     * @return the number of the written bytes
+     */
+    public int update(byte[] inp, int inpOff, int inpLen, byte[] outp, int outpOff) {
+        if (bp != null) {
+            return bp.processBytes(inp, inpOff, inpLen, outp, outpOff);
+        }
+        int total = bufOff + inpLen;
+        int toProcess = total - getKeptLength(total);
+        int written = 0;
+        if (toProcess > 0) {
+            if (bufOff > 0) {
+                int gap = buf.length - bufOff;
+                System.arraycopy(inp, inpOff, buf, bufOff, gap);
+                inpOff += gap;
+                inpLen -= gap;
+                written = JceAesCipherPool.processBlocks(jceCipher, buf, 0, buf.length, outp, outpOff);
+                toProcess -= buf.length;
+                bufOff = 0;
+            }
+            written += JceAesCipherPool.processBlocks(jceCipher, inp, inpOff, toProcess, outp, outpOff + written);
+            inpOff += toProcess;
+            inpLen -= toProcess;
+        }
+        System.arraycopy(inp, inpOff, buf, bufOff, inpLen);
+        bufOff += inpLen;
+        return written;
+    }
     
     public byte[] doFinal() {
+        if (bp == null) {
+            return doFinalJce();
+        }
         int neededLen = bp.getOutputSize(0);
         byte[] outp = new byte[neededLen];
         int n;
@@ -105,4 +188,56 @@ public class AESCipher {
             return outp;
     }
 
+    private byte[] doFinalJce() {
+        if (jceCipher == null) {
+            return EMPTY;
+        }
+        byte[] outp;
+        if (forEncryption) {
+            int blockSize = buf.length;
+            outp = new byte[bufOff == blockSize ? 2 * blockSize : blockSize];
+            int n = 0;
+            if (bufOff == blockSize) {
+                n = JceAesCipherPool.processBlocks(jceCipher, buf, 0, blockSize, outp, 0);
+                bufOff = 0;
+            }
+            byte padding = (byte) (blockSize - bufOff);
+            for (int i = bufOff; i < blockSize; i++) {
+                buf[i] = padding;
+            }
+            JceAesCipherPool.processBlocks(jceCipher, buf, 0, blockSize, outp, n);
+        } else if (bufOff != buf.length) {
+            // the incomplete last block can't be decrypted, the same way as BouncyCastle does, return a block of zeros
+            outp = bufOff == 0 ? EMPTY : new byte[buf.length];
+        } else {
+            byte[] block = new byte[buf.length];
+            JceAesCipherPool.processBlocks(jceCipher, buf, 0, buf.length, block, 0);
+            int padding = block[block.length - 1] & 0xff;
+            boolean validPadding = padding > 0 && padding <= block.length;
+            for (int i = block.length - padding; validPadding && i < block.length; i++) {
+                validPadding = (block[i] & 0xff) == padding;
+            }
+            if (validPadding) {
+                outp = new byte[block.length - padding];
+                System.arraycopy(block, 0, outp, 0, outp.length);
+            } else {
+                // the corrupted padding is reported by BouncyCastle with an exception, which results in zeros
+                outp = new byte[block.length];
+            }
+        }
+        bufOff = 0;
+        JceAesCipherPool.release(jceCipher);
+        jceCipher = null;
+        return outp;
+    }
+
+    /**
+     * Gets the number of bytes which are kept unprocessed from the data of the given length: the last block
+     * is always kept, even if it is complete.
+     */
+    private int getKeptLength(int length) {
+        int leftOver = length % buf.length;
+        return leftOver == 0 ? Math.min(buf.length, length) : leftOver;
+    }
+
 }
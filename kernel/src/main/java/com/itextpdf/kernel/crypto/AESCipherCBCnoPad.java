@@ -43,6 +43,8 @@
  */
 package com.itextpdf.kernel.crypto;
 
+import java.util.Arrays;
+import javax.crypto.Cipher;
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
@@ -51,6 +53,9 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
 
 /**
  * Creates an AES Cipher with CBC and no padding.
+ * <p>
+ * The data is processed by a JCE cipher if AES with the given key length is supported by JCE,
+ * otherwise by the BouncyCastle implementation.
  *
  * @author Paulo Soares
  */
@@ -58,6 +63,11 @@ public class AESCipherCBCnoPad {
 
     private BlockCipher cbc;
 
+    private boolean forEncryption;
+    private byte[] key;
+    // the chaining value for the next block, the JCE cipher is only held while a block is processed
+    private byte[] chainingVector;
+
     /**
      * Creates a new instance of AESCipher with CBC and no padding
      * @param forEncryption if true the cipher is initialised for
@@ -65,10 +75,7 @@ public class AESCipherCBCnoPad {
      * @param key the key to be used in the cipher
      */
     public AESCipherCBCnoPad(boolean forEncryption, byte[] key) {
-        BlockCipher aes = new AESFastEngine();
-        cbc = new CBCBlockCipher(aes);
-        KeyParameter kp = new KeyParameter(key);
-        cbc.init(forEncryption, kp);
+        this(forEncryption, key, null);
     }
 
     /**
@@ -79,17 +86,40 @@ public class AESCipherCBCnoPad {
      * @param initVector initialization vector to be used in cipher
      */
     public AESCipherCBCnoPad(boolean forEncryption, byte[] key, byte[] initVector) {
+        Cipher jceCipher = JceAesCipherPool.acquire(forEncryption, key, initVector);
+        if (jceCipher != null) {
+            JceAesCipherPool.release(jceCipher);
+            this.forEncryption = forEncryption;
+            this.key = key;
+            this.chainingVector = initVector != null ? initVector : new byte[JceAesCipherPool.BLOCK_SIZE];
+            return;
+        }
         BlockCipher aes = new AESFastEngine();
         cbc = new CBCBlockCipher(aes);
         KeyParameter kp = new KeyParameter(key);
-        ParametersWithIV piv = new ParametersWithIV(kp, initVector);
-        cbc.init(forEncryption, piv);
+        if (initVector != null) {
+            cbc.init(forEncryption, new ParametersWithIV(kp, initVector));
+        } else {
+            cbc.init(forEncryption, kp);
+        }
     }
 
     public byte[] processBlock(byte[] inp, int inpOff, int inpLen) {
-        if ((inpLen % cbc.getBlockSize()) != 0)
+        int blockSize = cbc != null ? cbc.getBlockSize() : JceAesCipherPool.BLOCK_SIZE;
+        if ((inpLen % blockSize) != 0)
             throw new IllegalArgumentException("Not multiple of block: " + inpLen);
         byte[] outp = new byte[inpLen];
+        if (cbc == null) {
+            if (inpLen > 0) {
+                Cipher jceCipher = JceAesCipherPool.acquire(forEncryption, key, chainingVector);
+                JceAesCipherPool.processBlocks(jceCipher, inp, inpOff, inpLen, outp, 0);
+                JceAesCipherPool.release(jceCipher);
+                byte[] lastCipherBlock = forEncryption ? outp : inp;
+                int lastCipherBlockOff = forEncryption ? inpLen - blockSize : inpOff + inpLen - blockSize;
+                chainingVector = Arrays.copyOfRange(lastCipherBlock, lastCipherBlockOff, lastCipherBlockOff + blockSize);
+            }
+            return outp;
+        }
         int baseOffset = 0;
         while (inpLen > 0) {
             cbc.processBlock(inp, inpOff, outp, baseOffset);
@@ -0,0 +1,148 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Provides the JCE ciphers which perform AES in CBC mode without padding. The JCE implementation of AES
+ * usually uses the AES instructions of the processor.
+ * <p>
+ * Looking up a cipher is much more expensive than initializing it with a new key, so the released ciphers are
+ * kept for the next objects encrypted or decrypted in the same thread.
+ */
+final class JceAesCipherPool {
+
+    static final int BLOCK_SIZE = 16;
+
+    private static final String TRANSFORMATION = "AES/CBC/NoPadding";
+    private static final int MAX_IDLE_CIPHERS = 4;
+
+    private static final int MAX_KEY_LENGTH = getMaxKeyLength();
+
+    private static final ThreadLocal<ArrayDeque<Cipher>> IDLE_CIPHERS = new ThreadLocal<ArrayDeque<Cipher>>() {
+        @Override
+        protected ArrayDeque<Cipher> initialValue() {
+            return new ArrayDeque<>(MAX_IDLE_CIPHERS);
+        }
+    };
+
+    private JceAesCipherPool() {
+    }
+
+    /**
+     * Gets a cipher initialized with the given key and initialization vector.
+     *
+     * @param forEncryption true for encryption, false for decryption
+     * @param key           the key, 16, 24 or 32 bytes long
+     * @param iv            the initialization vector, null for the zero vector
+     * @return the initialized cipher or null if AES with the given key isn't supported by JCE,
+     *         in which case another implementation shall be used
+     */
+    static Cipher acquire(boolean forEncryption, byte[] key, byte[] iv) {
+        if (key.length * 8 > MAX_KEY_LENGTH) {
+            return null;
+        }
+        ArrayDeque<Cipher> idleCiphers = IDLE_CIPHERS.get();
+        Cipher cipher = idleCiphers.poll();
+        try {
+            if (cipher == null) {
+                cipher = Cipher.getInstance(TRANSFORMATION);
+            }
+            cipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"),
+                    new IvParameterSpec(iv != null ? iv : new byte[BLOCK_SIZE]));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cipher which is not used anymore, so that it could be reused in the same thread.
+     *
+     * @param cipher the cipher obtained by {@link #acquire(boolean, byte[], byte[])}
+     */
+    static void release(Cipher cipher) {
+        ArrayDeque<Cipher> idleCiphers = IDLE_CIPHERS.get();
+        if (idleCiphers.size() < MAX_IDLE_CIPHERS) {
+            idleCiphers.push(cipher);
+        }
+    }
+
+    /**
+     * Processes whole blocks of data.
+     *
+     * @param cipher  the cipher obtained by {@link #acquire(boolean, byte[], byte[])}
+     * @param inp     the input data
+     * @param inpOff  the offset of the data in the input array
+     * @param inpLen  the length of the data, a multiple of {@link #BLOCK_SIZE}
+     * @param outp    the output array
+     * @param outpOff the offset of the processed data in the output array
+     * @return the number of the written bytes, which is equal to inpLen
+     */
+    static int processBlocks(Cipher cipher, byte[] inp, int inpOff, int inpLen, byte[] outp, int outpOff) {
+        if (inpLen == 0) {
+            return 0;
+        }
+        try {
+            return cipher.update(inp, inpOff, inpLen, outp, outpOff);
+        } catch (GeneralSecurityException e) {
+            // the output array is sized by the callers
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static int getMaxKeyLength() {
+        try {
+            Cipher.getInstance(TRANSFORMATION);
+            return Cipher.getMaxAllowedKeyLength("AES");
+        } catch (GeneralSecurityException e) {
+            return 0;
+        }
+    }
+}
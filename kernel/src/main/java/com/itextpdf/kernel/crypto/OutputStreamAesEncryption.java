@@ -47,6 +47,13 @@ import com.itextpdf.kernel.PdfException;
 import java.io.IOException;
 
 public class OutputStreamAesEncryption extends OutputStreamEncryption {
+
+    private static final int CHUNK_SIZE = 0x10000;
+    private static final int AES_BLOCK_SIZE = 16;
+
+    // a buffer for the encrypted data per thread, it is taken while used, so that nested streams don't share it
+    private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<>();
+
     protected AESCipher cipher;
     private boolean finished;
 
@@ -108,10 +115,28 @@ public class OutputStreamAesEncryption extends OutputStreamEncryption {
      *                     stream is closed.
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        byte[] b2 = cipher.update(b, off, len);
-        if (b2 == null || b2.length == 0)
+        if (len <= 0) {
             return;
-        out.write(b2, 0, b2.length);
+        }
+        byte[] buffer = BUFFER.get();
+        if (buffer == null) {
+            buffer = new byte[CHUNK_SIZE + 2 * AES_BLOCK_SIZE];
+        } else {
+            BUFFER.set(null);
+        }
+        try {
+            while (len > 0) {
+                int chunk = Math.min(len, CHUNK_SIZE);
+                int n = cipher.update(b, off, chunk, buffer, 0);
+                if (n > 0) {
+                    out.write(buffer, 0, n);
+                }
+                off += chunk;
+                len -= chunk;
+            }
+        } finally {
+            BUFFER.set(buffer);
+        }
     }
 
     public void finish() {
@@ -315,9 +315,12 @@ public class PdfType0Font extends PdfFont {
             // perform actual conversion
             byte[] bytes = new byte[totalByteCount];
             int offset = 0;
-            for (int i = glyphLine.start; i < glyphLine.end; i++) {
-                longTag.add(glyphLine.get(i).getCode());
-                offset = cmapEncoding.fillCmapBytes(glyphLine.get(i).getCode(), bytes, offset);
+            // the font may be used by several pages generated concurrently, see PdfDocument#addNewPages
+            synchronized (longTag) {
+                for (int i = glyphLine.start; i < glyphLine.end; i++) {
+                    longTag.add(glyphLine.get(i).getCode());
+                    offset = cmapEncoding.fillCmapBytes(glyphLine.get(i).getCode(), bytes, offset);
+                }
             }
             return bytes;
         } else {
@@ -327,7 +330,9 @@ public class PdfType0Font extends PdfFont {
 
     @Override
     public byte[] convertToBytes(Glyph glyph) {
-        longTag.add(glyph.getCode());
+        synchronized (longTag) {
+            longTag.add(glyph.getCode());
+        }
         return cmapEncoding.getCmapBytes(glyph.getCode());
     }
 
@@ -671,7 +676,9 @@ public class PdfType0Font extends PdfFont {
 
     private void convertToBytes(Glyph glyph, ByteBuffer result) {
         int code = glyph.getCode();
-        longTag.add(code);
+        synchronized (longTag) {
+            longTag.add(code);
+        }
         cmapEncoding.fillCmapBytes(code, result);
     }
 
@@ -0,0 +1,197 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Compact storage of cross-reference entries for which {@link PdfXrefTable} doesn't keep
+ * {@link PdfIndirectReference} instances. Entries are stored by object number in parallel primitive arrays,
+ * which takes several bytes per entry instead of a full object per entry.
+ * <p>
+ * Two kinds of entries are stored here:
+ * <ul>
+ *     <li>entries read from the document which haven't been requested yet (see {@link ReaderProperties#setLazyXrefLoading(boolean)});</li>
+ *     <li>entries of the objects which have already been written to the output document
+ *     (see {@link WriterProperties#useCompactXref()}).</li>
+ * </ul>
+ */
+class CompactXrefEntries implements Serializable {
+
+    private static final long serialVersionUID = -2745924389207561326L;
+
+    static final byte NONE = 0;
+    /**
+     * Free entry read from the document. Offset field holds the number of the next free object.
+     */
+    static final byte FREE = 1;
+    /**
+     * In-use entry read from the document. Offset field holds the object offset.
+     */
+    static final byte IN_USE = 2;
+    /**
+     * Entry read from the document for the object in an object stream. Offset field holds the index of the object
+     * in the object stream, generation field holds the number of the object stream.
+     */
+    static final byte COMPRESSED = 3;
+    /**
+     * Entry of the object which has been written to the document body. Offset field holds the object offset.
+     */
+    static final byte FLUSHED = 4;
+    /**
+     * Entry of the object which has been written to an object stream. Offset field holds the index of the object
+     * in the object stream, generation field holds the number of the object stream.
+     */
+    static final byte FLUSHED_COMPRESSED = 5;
+
+    private byte[] types;
+    private long[] offsets;
+    private int[] generations;
+
+    CompactXrefEntries(int capacity) {
+        types = new byte[capacity];
+        offsets = new long[capacity];
+        generations = new int[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            types = Arrays.copyOf(types, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+    }
+
+    /**
+     * Sets the entry for the given object number.
+     *
+     * @param objNr            object number.
+     * @param type             one of the entry type constants.
+     * @param offsetOrIndex    object offset, index in the object stream or number of the next free object.
+     * @param genOrObjStreamNr object generation or number of the object stream containing the object.
+     */
+    void set(int objNr, byte type, long offsetOrIndex, int genOrObjStreamNr) {
+        ensureCapacity(objNr + 1);
+        types[objNr] = type;
+        offsets[objNr] = offsetOrIndex;
+        generations[objNr] = genOrObjStreamNr;
+    }
+
+    byte getType(int objNr) {
+        return objNr < types.length ? types[objNr] : NONE;
+    }
+
+    boolean contains(int objNr) {
+        return getType(objNr) != NONE;
+    }
+
+    boolean isFlushed(int objNr) {
+        byte type = getType(objNr);
+        return type == FLUSHED || type == FLUSHED_COMPRESSED;
+    }
+
+    boolean isCompressed(int objNr) {
+        byte type = getType(objNr);
+        return type == COMPRESSED || type == FLUSHED_COMPRESSED;
+    }
+
+    long getOffsetOrIndex(int objNr) {
+        return offsets[objNr];
+    }
+
+    void setOffsetOrIndex(int objNr, long offsetOrIndex) {
+        offsets[objNr] = offsetOrIndex;
+    }
+
+    int getGenOrObjStreamNumber(int objNr) {
+        return generations[objNr];
+    }
+
+    /**
+     * Gets generation of the entry. Entries in object streams always have zero generation.
+     */
+    int getGenNumber(int objNr) {
+        return isCompressed(objNr) ? 0 : generations[objNr];
+    }
+
+    void remove(int objNr) {
+        if (objNr < types.length) {
+            types[objNr] = NONE;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(types, NONE);
+    }
+
+    /**
+     * Creates {@link PdfIndirectReference} instance which corresponds to the entry.
+     *
+     * @param document document the reference belongs to.
+     * @param objNr    object number.
+     * @return created reference.
+     */
+    PdfIndirectReference createReference(PdfDocument document, int objNr) {
+        PdfIndirectReference reference;
+        switch (types[objNr]) {
+            case FREE:
+                reference = (PdfIndirectReference) new PdfIndirectReference(document, objNr, generations[objNr],
+                        offsets[objNr]).setState(PdfObject.FREE);
+                break;
+            case COMPRESSED:
+            case FLUSHED_COMPRESSED:
+                reference = new PdfIndirectReference(document, objNr, 0, offsets[objNr]);
+                reference.setObjStreamNumber(generations[objNr]);
+                break;
+            default:
+                reference = new PdfIndirectReference(document, objNr, generations[objNr], offsets[objNr]);
+                break;
+        }
+        if (isFlushed(objNr)) {
+            reference.setState(PdfObject.FLUSHED);
+        }
+        return reference;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates the content of a range of pages, splitting the range between the workers of a fork-join pool.
+ * The pages shall be added to the document before the task is started, the task only changes
+ * their content streams and resources.
+ */
+class PageContentGenerationTask extends RecursiveAction {
+
+    private static final long serialVersionUID = -3017427385014364470L;
+
+    private final PdfPage[] pages;
+    private final int firstPageNumber;
+    private final IPageContentGenerator generator;
+    private final int from;
+    private final int to;
+
+    PageContentGenerationTask(PdfPage[] pages, int firstPageNumber, IPageContentGenerator generator) {
+        this(pages, firstPageNumber, generator, 0, pages.length);
+    }
+
+    private PageContentGenerationTask(PdfPage[] pages, int firstPageNumber, IPageContentGenerator generator, int from, int to) {
+        this.pages = pages;
+        this.firstPageNumber = firstPageNumber;
+        this.generator = generator;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            generator.generateContent(pages[from], firstPageNumber + from);
+        } else if (to > from) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new PageContentGenerationTask(pages, firstPageNumber, generator, from, middle),
+                    new PageContentGenerationTask(pages, firstPageNumber, generator, middle, to));
+        }
+    }
+}
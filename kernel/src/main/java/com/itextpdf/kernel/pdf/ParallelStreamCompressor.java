@@ -0,0 +1,277 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.compression.ICompressionProvider;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compresses the content of flushed {@link PdfStream} objects on worker threads. The worker threads are
+ * either provided by the user or taken from a pool shared by all the documents, so their number doesn't
+ * grow with the number of the documents written at the same time.
+ * <br>
+ * Flushed objects are queued in the order they were flushed and are written by the thread that owns
+ * the {@link PdfWriter} strictly in this order, so the resultant document is byte-identical to the one produced
+ * with sequential compression. The number of queued objects is limited: when the limit is reached,
+ * flushing blocks until the oldest object is compressed and written.
+ */
+final class ParallelStreamCompressor {
+
+    private static final int MAX_PENDING_OBJECTS_PER_THREAD = 4;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final PdfWriter writer;
+    private final ExecutorService executor;
+    private final int maxPendingObjects;
+    private final Deque<PendingObject> pendingObjects = new ArrayDeque<>();
+
+    /**
+     * The object which is being written at the moment.
+     */
+    private PendingObject currentObject;
+
+    /**
+     * Creates the compressor of the streams of the document.
+     *
+     * @param writer       the writer of the document
+     * @param threadsCount the number of worker threads to be used by the document at the same time
+     * @param executor     the executor to compress the streams, or null to use the shared pool
+     */
+    ParallelStreamCompressor(PdfWriter writer, int threadsCount, ExecutorService executor) {
+        this.writer = writer;
+        this.maxPendingObjects = threadsCount * MAX_PENDING_OBJECTS_PER_THREAD;
+        this.executor = executor != null ? executor : SharedExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Queues the flushed object for writing. If the object is a stream which content shall be compressed,
+     * the compression is started on the worker threads.
+     * <br>
+     * Only dictionaries, arrays and the streams which content is compressed by this compressor are queued.
+     * Other streams may be modified while written, e.g. their indirect /Length may be replaced, and other
+     * objects may be shared instances, e.g. the same {@link PdfIndirectReference} may be the content of several
+     * indirect objects, so such objects are written immediately after the queued objects. The queued objects
+     * are not modified while written, so the objects they refer to can be marked to be flushed right away,
+     * exactly as in sequential writing.
+     *
+     * @param pdfObject the flushed object
+     * @return true, if the object was queued, false if it shall be written immediately
+     * @throws IOException on error while writing previously queued objects
+     */
+    boolean submit(PdfObject pdfObject) throws IOException {
+        boolean toCompress = pdfObject.getType() == PdfObject.STREAM && isCompressionAllowed((PdfStream) pdfObject);
+        if (!toCompress && pdfObject.getType() != PdfObject.DICTIONARY && pdfObject.getType() != PdfObject.ARRAY) {
+            writePendingObjects();
+            return false;
+        }
+        while (!pendingObjects.isEmpty() && pendingObjects.peekFirst().isReady()) {
+            writeFirstPendingObject();
+        }
+        if (!toCompress && pendingObjects.isEmpty()) {
+            return false;
+        }
+        Future<ByteArrayOutputStream> compressedContent = null;
+        if (toCompress) {
+            compressedContent = executor.submit(new CompressionTask((PdfStream) pdfObject,
+                    getEffectiveCompressionLevel((PdfStream) pdfObject), writer.getCompressionProvider()));
+        }
+        pendingObjects.addLast(new PendingObject(pdfObject, compressedContent));
+        while (pendingObjects.size() > maxPendingObjects) {
+            writeFirstPendingObject();
+        }
+        return true;
+    }
+
+    /**
+     * Waits for all the queued objects to be compressed and writes them.
+     *
+     * @throws IOException on error while writing
+     */
+    void writePendingObjects() throws IOException {
+        while (!pendingObjects.isEmpty()) {
+            writeFirstPendingObject();
+        }
+    }
+
+    /**
+     * Gets the compressed content of the stream, if the stream is being written and its content
+     * has been compressed by this compressor.
+     *
+     * @param pdfStream the stream which is being written
+     * @return compressed stream content, or null if the stream content was not compressed by this compressor
+     * @throws IOException on error while compressing
+     */
+    ByteArrayOutputStream getCompressedContent(PdfStream pdfStream) throws IOException {
+        if (currentObject == null || currentObject.pdfObject != pdfStream || currentObject.compressedContent == null) {
+            return null;
+        }
+        try {
+            return currentObject.compressedContent.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotWriteToPdfStream, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PdfException(PdfException.CannotWriteToPdfStream, cause);
+        }
+    }
+
+    /**
+     * Discards the queued objects and cancels their compression. The executor is not shut down,
+     * since it may be used by other documents.
+     */
+    void shutdown() {
+        for (PendingObject pendingObject : pendingObjects) {
+            if (pendingObject.compressedContent != null) {
+                pendingObject.compressedContent.cancel(false);
+            }
+        }
+        pendingObjects.clear();
+    }
+
+    private void writeFirstPendingObject() throws IOException {
+        currentObject = pendingObjects.pollFirst();
+        try {
+            writer.writeFlushedObject(currentObject.pdfObject);
+        } finally {
+            currentObject = null;
+        }
+    }
+
+    private boolean isCompressionAllowed(PdfStream pdfStream) {
+        return writer.isStreamContentToBeCompressed(pdfStream) && !isIndirectEntry(pdfStream, PdfName.Length)
+                && !isIndirectEntry(pdfStream, PdfName.Filter) && !isIndirectEntry(pdfStream, PdfName.DecodeParms);
+    }
+
+    private static boolean isIndirectEntry(PdfDictionary dictionary, PdfName key) {
+        PdfObject value = dictionary.get(key, false);
+        return value != null && (value.isIndirectReference() || value.getIndirectReference() != null);
+    }
+
+    private int getEffectiveCompressionLevel(PdfStream pdfStream) {
+        int compressionLevel = pdfStream.getCompressionLevel();
+        return compressionLevel != CompressionConstants.UNDEFINED_COMPRESSION ? compressionLevel
+                : writer.getCompressionLevel();
+    }
+
+    private static final class PendingObject {
+        final PdfObject pdfObject;
+        final Future<ByteArrayOutputStream> compressedContent;
+
+        PendingObject(PdfObject pdfObject, Future<ByteArrayOutputStream> compressedContent) {
+            this.pdfObject = pdfObject;
+            this.compressedContent = compressedContent;
+        }
+
+        boolean isReady() {
+            return compressedContent == null || compressedContent.isDone();
+        }
+    }
+
+    private static final class CompressionTask implements Callable<ByteArrayOutputStream> {
+        private final PdfStream pdfStream;
+        private final int compressionLevel;
+        private final ICompressionProvider compressionProvider;
+
+        CompressionTask(PdfStream pdfStream, int compressionLevel, ICompressionProvider compressionProvider) {
+            this.pdfStream = pdfStream;
+            this.compressionLevel = compressionLevel;
+            this.compressionProvider = compressionProvider;
+        }
+
+        @Override
+        public ByteArrayOutputStream call() throws IOException {
+            return PdfOutputStream.flateCompress(pdfStream, compressionLevel, compressionProvider);
+        }
+    }
+
+    /**
+     * Holds the pool used by all the documents, which don't provide their own executor. The pool is created
+     * on first use, and its threads are stopped when they stay idle.
+     */
+    private static final class SharedExecutorHolder {
+        static final ExecutorService EXECUTOR = createSharedExecutor();
+
+        private static ExecutorService createSharedExecutor() {
+            int threadsCount = Runtime.getRuntime().availableProcessors();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threadsCount, threadsCount,
+                    IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new CompressionThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    private static final class CompressionThreadFactory implements ThreadFactory {
+        private final String namePrefix = "itext-stream-compression-";
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
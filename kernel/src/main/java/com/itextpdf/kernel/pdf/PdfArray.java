@@ -225,6 +225,9 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
 
     public void add(PdfObject pdfObject) {
         list.add(pdfObject);
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -236,6 +239,9 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
      */
     public void add(int index, PdfObject element) {
         list.add(index, element);
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -247,7 +253,11 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
      * @see java.util.List#set(int, Object)
      */
     public PdfObject set(int index, PdfObject element) {
-        return list.set(index, element);
+        PdfObject previous = list.set(index, element);
+        if (shouldTrackModification() && (element == null || !element.equals(previous))) {
+            setModified();
+        }
+        return previous;
     }
 
     /**
@@ -258,6 +268,9 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
      */
     public void addAll(Collection<PdfObject> c) {
         list.addAll(c);
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -288,6 +301,9 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
      */
     public void remove(int index) {
         list.remove(index);
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -297,13 +313,20 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
      * @see java.util.List#remove(Object)
      */
     public void remove(PdfObject o) {
-        if (list.remove(o))
+        if (list.remove(o)) {
+            if (shouldTrackModification()) {
+                setModified();
+            }
             return;
+        }
         if (o == null)
             return;
         for (PdfObject pdfObject : list) {
             if (PdfObject.equalContent(o, pdfObject)) {
                 list.remove(pdfObject);
+                if (shouldTrackModification()) {
+                    setModified();
+                }
                 break;
             }
         }
@@ -311,6 +334,9 @@ public class PdfArray extends PdfObject implements Iterable<PdfObject> {
 
     public void clear() {
         list.clear();
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -455,13 +455,10 @@ public class PdfCatalog extends PdfObjectWrapper<PdfDictionary> {
         PdfDestination d = null;
         if (dest.isArray()) {
             PdfObject pageObject = ((PdfArray) dest).get(0);
-            for (PdfPage oldPage : page2page.keySet()) {
-                if (oldPage.getPdfObject() == pageObject) {
-                    // in the copiedArray old page ref will be correctly replaced by the new page ref as this page is already copied
-                    PdfArray copiedArray = (PdfArray) dest.copyTo(toDocument, false);
-                    d = new PdfExplicitDestination(copiedArray);
-                    break;
-                }
+            if (findCopiedPage(pageObject, page2page) != null) {
+                // in the copiedArray old page ref will be correctly replaced by the new page ref as this page is already copied
+                PdfArray copiedArray = (PdfArray) dest.copyTo(toDocument, false);
+                d = new PdfExplicitDestination(copiedArray);
             }
         } else if (dest.isString() || dest.isName()) {
             PdfNameTree destsTree = getNameTree(PdfName.Dests);
@@ -472,19 +469,17 @@ public class PdfCatalog extends PdfObjectWrapper<PdfDictionary> {
                 PdfObject pageObject = srcDestArray.get(0);
                 if (pageObject instanceof PdfNumber)
                     pageObject = getDocument().getPage(((PdfNumber) pageObject).intValue() + 1).getPdfObject();
-                for (PdfPage oldPage : page2page.keySet()) {
-                    if (oldPage.getPdfObject() == pageObject) {
-                        d = new PdfStringDestination(srcDestName);
-                        if (!isEqualSameNameDestExist(page2page, toDocument, srcDestName, srcDestArray, oldPage)) {
-                            // in the copiedArray old page ref will be correctly replaced by the new page ref as this page is already copied
-                            PdfArray copiedArray = (PdfArray) srcDestArray.copyTo(toDocument, false);
-                            // here we can safely replace first item of the array because array of NamedDestination or StringDestination
-                            // never refers to page in another document via PdfNumber, but should always refer to page within current document
-                            // via page object reference.
-                            copiedArray.set(0, page2page.get(oldPage).getPdfObject());
-                            toDocument.addNamedDestination(srcDestName, copiedArray);
-                        }
-                        break;
+                PdfPage oldPage = findCopiedPage(pageObject, page2page);
+                if (oldPage != null) {
+                    d = new PdfStringDestination(srcDestName);
+                    if (!isEqualSameNameDestExist(page2page, toDocument, srcDestName, srcDestArray, oldPage)) {
+                        // in the copiedArray old page ref will be correctly replaced by the new page ref as this page is already copied
+                        PdfArray copiedArray = (PdfArray) srcDestArray.copyTo(toDocument, false);
+                        // here we can safely replace first item of the array because array of NamedDestination or StringDestination
+                        // never refers to page in another document via PdfNumber, but should always refer to page within current document
+                        // via page object reference.
+                        copiedArray.set(0, page2page.get(oldPage).getPdfObject());
+                        toDocument.addNamedDestination(srcDestName, copiedArray);
                     }
                 }
             }
@@ -492,6 +487,27 @@ public class PdfCatalog extends PdfObjectWrapper<PdfDictionary> {
         return d;
     }
 
+    /**
+     * Finds the copied page which is the wrapper of the page object. The page is looked up by its
+     * number, so that copying of many destinations doesn't iterate over all of the copied pages.
+     * Only the page objects which are no longer in the page tree are searched among the copied pages.
+     */
+    private PdfPage findCopiedPage(PdfObject pageObject, Map<PdfPage, PdfPage> page2page) {
+        if (pageObject instanceof PdfDictionary) {
+            int pageNum = getDocument().getPageNumber((PdfDictionary) pageObject);
+            if (pageNum > 0) {
+                PdfPage page = getDocument().getPage(pageNum);
+                return page.getPdfObject() == pageObject && page2page.containsKey(page) ? page : null;
+            }
+        }
+        for (PdfPage oldPage : page2page.keySet()) {
+            if (oldPage.getPdfObject() == pageObject) {
+                return oldPage;
+            }
+        }
+        return null;
+    }
+
     private boolean isEqualSameNameDestExist(Map<PdfPage, PdfPage> page2page, PdfDocument toDocument, String srcDestName, PdfArray srcDestArray, PdfPage oldPage) {
         PdfArray sameNameDest = (PdfArray) toDocument.getCatalog().getNameTree(PdfName.Dests).getNames().get(srcDestName);
         boolean equalSameNameDestExists = false;
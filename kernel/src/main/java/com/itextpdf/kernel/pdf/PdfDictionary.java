@@ -311,7 +311,11 @@ public class PdfDictionary extends PdfObject {
      */
     public PdfObject put(PdfName key, PdfObject value) {
         assert value != null;
-        return map.put(key, value);
+        PdfObject previous = map.put(key, value);
+        if (shouldTrackModification() && !value.equals(previous)) {
+            setModified();
+        }
+        return previous;
     }
 
     /**
@@ -321,7 +325,11 @@ public class PdfDictionary extends PdfObject {
      * @return the removed value associated with the specified key
      */
     public PdfObject remove(PdfName key) {
-        return map.remove(key);
+        PdfObject removed = map.remove(key);
+        if (removed != null && shouldTrackModification()) {
+            setModified();
+        }
+        return removed;
     }
 
     /**
@@ -331,6 +339,9 @@ public class PdfDictionary extends PdfObject {
      */
     public void putAll(PdfDictionary d) {
         map.putAll(d.map);
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
@@ -338,6 +349,9 @@ public class PdfDictionary extends PdfObject {
      */
     public void clear() {
         map.clear();
+        if (shouldTrackModification()) {
+            setModified();
+        }
     }
 
     /**
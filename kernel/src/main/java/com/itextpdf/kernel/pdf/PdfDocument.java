@@ -101,6 +101,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -198,7 +199,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     protected boolean flushUnusedObjects = false;
 
-    private Map<PdfIndirectReference, PdfFont> documentFonts = new HashMap<>();
+    private final Map<PdfIndirectReference, PdfFont> documentFonts = new HashMap<>();
     private PdfFont defaultFont = null;
 
     protected transient TagStructureContext tagStructureContext;
@@ -462,6 +463,54 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return page;
     }
 
+    /**
+     * Creates and adds the specified number of new pages to the end of document, generating their content
+     * in parallel by the workers of the passed fork-join pool. The pages are added and afterwards flushed
+     * in the order of their numbers by the calling thread, only the content is generated concurrently.
+     * <p>
+     * The generator shall only change the passed page, e.g. draw on it with a new
+     * {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas} and add resources to it. Fonts may be shared
+     * by the pages, other objects shall not. The objects created by the generator are numbered
+     * in the order they are created by the workers, so the numbers may differ from one run to another.
+     * The generator shall not change the tag structure. The document shall not be used by other threads
+     * until the pages are added.
+     *
+     * @param numberOfPages number of pages to add
+     * @param pageSize      page size of the new pages
+     * @param generator     the generator of the content of the pages
+     * @param pool          the fork-join pool the content is generated in
+     */
+    public void addNewPages(int numberOfPages, PageSize pageSize, IPageContentGenerator generator, ForkJoinPool pool) {
+        checkClosingStatus();
+        int firstPageNumber = getNumberOfPages() + 1;
+        PdfPage[] pages = new PdfPage[numberOfPages];
+        for (int i = 0; i < numberOfPages; i++) {
+            pages[i] = addNewPage(pageSize);
+        }
+        pool.invoke(new PageContentGenerationTask(pages, firstPageNumber, generator));
+        for (PdfPage page : pages) {
+            page.flush();
+        }
+    }
+
+    /**
+     * Creates and adds the specified number of new pages to the end of document, generating their content
+     * in parallel by a fork-join pool with the parallelism equal to the number of available processors.
+     * See {@link #addNewPages(int, PageSize, IPageContentGenerator, ForkJoinPool)} for the details.
+     *
+     * @param numberOfPages number of pages to add
+     * @param pageSize      page size of the new pages
+     * @param generator     the generator of the content of the pages
+     */
+    public void addNewPages(int numberOfPages, PageSize pageSize, IPageContentGenerator generator) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            addNewPages(numberOfPages, pageSize, generator, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Creates and inserts new page to the document.
      *
@@ -882,8 +931,8 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
 
                     writer.flushModifiedWaitingObjects(forbiddenToFlush);
-                    for (int i = 0; i < xref.size(); i++) {
-                        PdfIndirectReference indirectReference = xref.get(i);
+                    for (int i = xref.getNextModifiedObjNumber(0); i != -1; i = xref.getNextModifiedObjNumber(i + 1)) {
+                        PdfIndirectReference indirectReference = xref.getLoaded(i);
                         if (indirectReference != null && !indirectReference.isFree()
                                 && indirectReference.checkState(PdfObject.MODIFIED) && !indirectReference.checkState(PdfObject.FLUSHED)
                                 && !forbiddenToFlush.contains(indirectReference)) {
@@ -938,6 +987,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
                 }
 
+                // Objects waiting for parallel compression shall be encrypted, so write them before removing crypto.
+                writer.writePendingObjects();
+
                 // To avoid encryption of XrefStream and Encryption dictionary remove crypto.
                 // NOTE. No need in reverting, because it is the last operation with the document.
                 writer.crypto = null;
@@ -1716,10 +1768,12 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfFont getFont(PdfDictionary dictionary) {
         assert dictionary.getIndirectReference() != null;
-        if (documentFonts.containsKey(dictionary.getIndirectReference())) {
-            return documentFonts.get(dictionary.getIndirectReference());
-        } else {
-            return addFont(PdfFontFactory.createFont(dictionary));
+        synchronized (documentFonts) {
+            if (documentFonts.containsKey(dictionary.getIndirectReference())) {
+                return documentFonts.get(dictionary.getIndirectReference());
+            } else {
+                return addFont(PdfFontFactory.createFont(dictionary));
+            }
         }
     }
 
@@ -1750,10 +1804,13 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      * @return the same PdfFont instance.
      */
     public PdfFont addFont(PdfFont font) {
-        font.makeIndirect(this);
-        // forbid release for font dictionaries that are stored in #documentFonts collection
-        font.setForbidRelease();
-        documentFonts.put(font.getPdfObject().getIndirectReference(), font);
+        // fonts may be added by several pages generated concurrently, see #addNewPages
+        synchronized (documentFonts) {
+            font.makeIndirect(this);
+            // forbid release for font dictionaries that are stored in #documentFonts collection
+            font.setForbidRelease();
+            documentFonts.put(font.getPdfObject().getIndirectReference(), font);
+        }
         return font;
     }
 
@@ -1919,6 +1976,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
             }
             xref.initFreeReferencesList(this);
             if (writer != null) {
+                if (writer.properties.compactXref) {
+                    xref.initFlushedReferencesCompaction(this);
+                }
                 if (reader != null && reader.hasXrefStm() && writer.properties.isFullCompression == null) {
                     writer.properties.isFullCompression = true;
                 }
@@ -47,6 +47,7 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
 
 public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
@@ -935,6 +936,11 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
      */
     public static Map<String, PdfName> staticNames;
 
+    /**
+     * shared instances of the names read from documents
+     */
+    private static final PdfNameTable internedNames;
+
     /**
      * Use reflection to cache all the public static final names so
      * future <code>PdfName</code> additions don't have to be "added twice".
@@ -943,6 +949,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
      */
     static {
         staticNames = PdfNameLoader.loadNames();
+        internedNames = new PdfNameTable(staticNames.values());
     }
 
     private static PdfName createDirectName(String name) {
@@ -974,10 +981,34 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
         super(content);
     }
 
+    PdfName(byte[] content, boolean directOnly) {
+        super(content);
+        this.directOnly = directOnly;
+    }
+
     private PdfName() {
         super();
     }
 
+    /**
+     * Gets a shared instance of the name with the passed content, as it is written in a document
+     * (i.e. with the <code>#</code> escapes not decoded). Standard names resolve to the constants
+     * of this class, other names are shared between all the documents. Shared instances are direct only.
+     * A new instance is created if the name can not be shared.
+     *
+     * @param content buffer containing the name content, shall not be null.
+     * @param offset  the offset of the name content in the buffer
+     * @param length  the length of the name content
+     * @return the shared or newly created {@link PdfName} instance.
+     */
+    public static PdfName intern(byte[] content, int offset, int length) {
+        PdfName name = internedNames.get(content, offset, length);
+        if (name == null) {
+            name = new PdfName(Arrays.copyOfRange(content, offset, offset + length));
+        }
+        return name;
+    }
+
     @Override
     public byte getType() {
         return PdfObject.NAME;
@@ -998,6 +1029,9 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
      */
     @Override
     public int compareTo(PdfName o) {
+        if (this == o) {
+            return 0;
+        }
         return getValue().compareTo(o.getValue());
     }
 
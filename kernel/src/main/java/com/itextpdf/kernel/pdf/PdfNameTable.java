@@ -0,0 +1,147 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free table of shared {@link PdfName} instances, keyed by the raw (not unescaped) name bytes.
+ * The table has a fixed number of slots and every lookup probes a fixed number of them, so hostile
+ * documents with lots of distinct names can neither grow it nor make lookups slower. When all probed
+ * slots are taken, the first of them which does not hold a standard name is overwritten.
+ */
+final class PdfNameTable {
+
+    private static final int CAPACITY_BITS = 13;
+    private static final int CAPACITY = 1 << CAPACITY_BITS;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_PROBES = 8;
+
+    /**
+     * Names longer than this are not interned: they are unlikely to repeat and are expensive to compare.
+     */
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private final AtomicReferenceArray<PdfName> names = new AtomicReferenceArray<>(CAPACITY);
+    private final boolean[] preloaded = new boolean[CAPACITY];
+
+    PdfNameTable(Collection<PdfName> standardNames) {
+        for (PdfName name : standardNames) {
+            byte[] content = name.getInternalContent();
+            if (content.length > MAX_NAME_LENGTH) {
+                continue;
+            }
+            int hash = hash(content, 0, content.length);
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int index = (hash + probe) & MASK;
+                if (names.get(index) == null) {
+                    names.set(index, name);
+                    preloaded[index] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the shared name with the given raw content, adding it to the table if needed.
+     *
+     * @return the shared name, or <code>null</code> if the name is not eligible for interning.
+     */
+    PdfName get(byte[] buffer, int offset, int length) {
+        if (length > MAX_NAME_LENGTH) {
+            return null;
+        }
+        int hash = hash(buffer, offset, length);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (hash + probe) & MASK;
+            PdfName name = names.get(index);
+            if (name == null) {
+                name = createName(buffer, offset, length);
+                if (names.compareAndSet(index, null, name)) {
+                    return name;
+                }
+                name = names.get(index);
+            }
+            if (contentEquals(name.getInternalContent(), buffer, offset, length)) {
+                return name;
+            }
+        }
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (hash + probe) & MASK;
+            if (!preloaded[index]) {
+                PdfName name = createName(buffer, offset, length);
+                names.set(index, name);
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static PdfName createName(byte[] buffer, int offset, int length) {
+        return new PdfName(Arrays.copyOfRange(buffer, offset, offset + length), true);
+    }
+
+    private static boolean contentEquals(byte[] content, byte[] buffer, int offset, int length) {
+        if (content.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (content[i] != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] buffer, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return (hash * 0x9E3779B9) >>> (32 - CAPACITY_BITS);
+    }
+}
@@ -54,6 +54,17 @@ public class PdfNumber extends PdfPrimitiveObject {
 
     private static final long serialVersionUID = -250799718574024246L;
 
+    /**
+     * The largest integer, which is exactly representable as a double along with all smaller integers.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * The powers of ten, which are exactly representable as doubles.
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
     private double value;
     private boolean isDouble;
     private boolean changed = false;
@@ -174,14 +185,61 @@ public class PdfNumber extends PdfPrimitiveObject {
     }
 
     protected void generateValue() {
-        try {
-            value = java.lang.Double.parseDouble(new String(content, StandardCharsets.ISO_8859_1));
-        } catch (NumberFormatException e) {
-            value = java.lang.Double.NaN;
+        value = parseDecimal(content);
+        if (java.lang.Double.isNaN(value)) {
+            try {
+                value = java.lang.Double.parseDouble(new String(content, StandardCharsets.ISO_8859_1));
+            } catch (NumberFormatException e) {
+                value = java.lang.Double.NaN;
+            }
         }
         isDouble = true;
     }
 
+    /**
+     * Parses a number of the form [+-]digits[.digits] without creating a string, which is how almost
+     * all numbers of content streams look like. The digits are accumulated into an integer, which is then
+     * divided by a power of ten. As long as both are exactly representable, the division gives the same
+     * correctly rounded result as {@link java.lang.Double#parseDouble(String)}.
+     *
+     * @param content the bytes of the number
+     * @return the value of the number, or {@link java.lang.Double#NaN} if the number shall be parsed in a generic way
+     */
+    private static double parseDecimal(byte[] content) {
+        int length = content.length;
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (content[0] == '-' || content[0] == '+')) {
+            negative = content[0] == '-';
+            i = 1;
+        }
+        long mantissa = 0;
+        boolean hasDigits = false;
+        int fractionDigits = -1;
+        for (; i < length; i++) {
+            int ch = content[i];
+            if (ch >= '0' && ch <= '9') {
+                mantissa = mantissa * 10 + (ch - '0');
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return java.lang.Double.NaN;
+                }
+                hasDigits = true;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (ch == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return java.lang.Double.NaN;
+            }
+        }
+        if (!hasDigits || fractionDigits >= EXACT_POWERS_OF_TEN.length) {
+            return java.lang.Double.NaN;
+        }
+        double result = fractionDigits > 0 ? mantissa / EXACT_POWERS_OF_TEN[fractionDigits] : (double) mantissa;
+        return negative ? -result : result;
+    }
+
     @Override
     protected void copyContent(PdfObject from, PdfDocument document) {
         super.copyContent(from, document);
@@ -347,6 +347,22 @@ public abstract class PdfObject implements Serializable {
         return this;
     }
 
+    /**
+     * Checks if the object shall be marked as modified when its content is changed, i.e. if it is an indirect
+     * object of a document opened in append mode with modifications tracking
+     * (see {@link StampingProperties#useModificationsTracking()}) and it isn't marked as modified yet.
+     * It is checked by the methods changing the content of {@link PdfDictionary}, {@link PdfArray}
+     * and {@link PdfStream}, so that the changed objects are written to the incremental update
+     * even if {@link #setModified()} wasn't called for them.
+     */
+    boolean shouldTrackModification() {
+        if (indirectReference == null || indirectReference.checkState(MODIFIED)) {
+            return false;
+        }
+        PdfDocument document = indirectReference.getDocument();
+        return document != null && document.properties.appendMode && document.properties.modificationsTracking;
+    }
+
     /**
      * Checks if it's forbidden to release this {@link PdfObject} instance.
      * Some objects are vital for the living period of {@link PdfDocument} or may be
@@ -365,6 +381,11 @@ public abstract class PdfObject implements Serializable {
         } else {
             if (indirectReference != null && indirectReference.getReader() != null
                     && !indirectReference.checkState(FLUSHED)) {
+                PdfWriter writer = indirectReference.getDocument().getWriter();
+                if (writer != null) {
+                    // flushed objects waiting for parallel compression may refer to this object
+                    writer.writePendingObjects();
+                }
                 indirectReference.refersTo = null;
                 indirectReference = null;
                 setState(READ_ONLY);
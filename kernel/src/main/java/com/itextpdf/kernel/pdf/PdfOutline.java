@@ -68,6 +68,7 @@ public class PdfOutline implements Serializable {
     public static int FLAG_BOLD = 2;
 
     private List<PdfOutline> children = new ArrayList<>();
+    private int flushedChildrenCount = 0;
     private String title;
     private PdfDictionary content;
     private PdfDestination destination;
@@ -220,8 +221,8 @@ public class PdfOutline implements Serializable {
     public void setOpen(boolean open) {
         if (!open)
             content.put(PdfName.Count, new PdfNumber(-1));
-        else if (children.size() > 0)
-            content.put(PdfName.Count, new PdfNumber(children.size()));
+        else if (getChildrenCount() > 0)
+            content.put(PdfName.Count, new PdfNumber(getChildrenCount()));
         else
             content.remove(PdfName.Count);
     }
@@ -262,7 +263,7 @@ public class PdfOutline implements Serializable {
 
         PdfNumber count = this.content.getAsNumber(PdfName.Count);
         if (count == null || count.getValue() != -1) {
-            content.put(PdfName.Count, new PdfNumber(children.size() + 1));
+            content.put(PdfName.Count, new PdfNumber(getChildrenCount() + 1));
         }
         children.add(position, outline);
 
@@ -300,6 +301,27 @@ public class PdfOutline implements Serializable {
     }
 
 
+    /**
+     * Flushes all children of this outline except the last one, together with their descendants,
+     * and removes them from the list of children.
+     * <p>
+     * The last child is kept, because its content is updated when the next child is added.
+     * This allows to keep the memory usage flat when a large outline tree is built by appending
+     * outlines to its end, e.g. when many documents are merged.
+     * Flushed outlines can't be changed anymore and are not returned by {@link #getAllChildren()}.
+     */
+    public void flushChildrenExceptLast() {
+        int childrenToFlush = children.size() - 1;
+        if (childrenToFlush <= 0) {
+            return;
+        }
+        for (int i = 0; i < childrenToFlush; i++) {
+            children.get(i).flushWithDescendants();
+        }
+        children.subList(0, childrenToFlush).clear();
+        flushedChildrenCount += childrenToFlush;
+    }
+
     /**
      * Clear list of children.
      */
@@ -318,26 +340,37 @@ public class PdfOutline implements Serializable {
 
     /**
      * Remove this outline from the document.
+     * <p>
+     * An outline which is flushed, or whose previous sibling is flushed, can't be removed anymore,
+     * since the flushed sibling can't be updated to skip it.
      */
     void removeOutline() {
         if (!pdfDoc.hasOutlines() || isOutlineRoot()) {
             pdfDoc.getCatalog().remove(PdfName.Outlines);
             return;
         }
+        if (content.isFlushed()) {
+            return;
+        }
+        PdfDictionary next = content.getAsDictionary(PdfName.Next);
+        PdfDictionary prev = content.getAsDictionary(PdfName.Prev);
+        if (prev != null && prev.isFlushed()) {
+            return;
+        }
         PdfOutline parent = this.parent;
         List<PdfOutline> children = parent.children;
         children.remove(this);
         PdfDictionary parentContent = parent.content;
         if (children.size() > 0) {
-            parentContent.put(PdfName.First, children.get(0).content);
+            if (parent.flushedChildrenCount == 0) {
+                parentContent.put(PdfName.First, children.get(0).content);
+            }
             parentContent.put(PdfName.Last, children.get(children.size() - 1).content);
-        } else {
+        } else if (parent.flushedChildrenCount == 0) {
             parent.removeOutline();
             return;
         }
 
-        PdfDictionary next = content.getAsDictionary(PdfName.Next);
-        PdfDictionary prev = content.getAsDictionary(PdfName.Prev);
         if (prev != null) {
             if (next != null) {
                 prev.put(PdfName.Next, next);
@@ -372,4 +405,16 @@ public class PdfOutline implements Serializable {
         PdfDictionary outlineRoot = getOutlineRoot();
         return outlineRoot == content;
     }
+
+    private int getChildrenCount() {
+        return flushedChildrenCount + children.size();
+    }
+
+    private void flushWithDescendants() {
+        for (PdfOutline child : children) {
+            child.flushWithDescendants();
+        }
+        children.clear();
+        content.flush();
+    }
 }
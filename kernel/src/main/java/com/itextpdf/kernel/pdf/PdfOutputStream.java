@@ -46,10 +46,12 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
-import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.source.IFinishable;
 import com.itextpdf.io.source.OutputStream;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
+import com.itextpdf.kernel.pdf.compression.CompressionProviders;
+import com.itextpdf.kernel.pdf.compression.ICompressionProvider;
 import com.itextpdf.kernel.pdf.filters.FlateDecodeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -296,14 +298,16 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
 
             if (pdfStream.getInputStream() != null) {
                 java.io.OutputStream fout = this;
-                DeflaterOutputStream def = null;
+                java.io.OutputStream def = null;
                 OutputStreamEncryption ose = null;
                 if (crypto != null && !crypto.isEmbeddedFilesOnly()) {
                     fout = ose = crypto.getEncryptionStream(fout);
                 }
                 if (toCompress && (allowCompression || userDefinedCompression)) {
                     updateCompressionFilter(pdfStream);
-                    fout = def = new DeflaterOutputStream(fout, pdfStream.getCompressionLevel(), 0x8000);
+                    // a compressing stream which can't be finished is closed, it shall not close this stream
+                    fout = def = getCompressionProvider().createDeflateStream(new NonClosingOutputStream(fout),
+                            pdfStream.getCompressionLevel());
                 }
                 this.write((PdfDictionary) pdfStream);
                 writeBytes(PdfOutputStream.stream);
@@ -316,7 +320,7 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                     fout.write(buf, 0, n);
                 }
                 if (def != null) {
-                    def.finish();
+                    finishDeflateStream(def);
                 }
                 if (ose != null) {
                     ose.finish();
@@ -325,13 +329,16 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 length.setValue((int) (getCurrentPos() - beginStreamContent));
                 pdfStream.updateLength(length.intValue());
                 writeBytes(PdfOutputStream.endstream);
-            } else {
-                //When document is opened in stamping mode the output stream can be uninitialized.
+            } else if (!writeRawContent(pdfStream,
+                    userDefinedCompression || toCompress && !containsFlateFilter(pdfStream) && allowCompression)) {
+                //When document is opened in stamping mode or the stream has been copied from another document,
+                //the output stream can be uninitialized.
                 //We have to initialize it and write all data from streams input to streams output.
-                if (pdfStream.getOutputStream() == null && pdfStream.getIndirectReference().getReader() != null) {
+                if (pdfStream.getOutputStream() == null
+                        && (pdfStream.getRawContent() != null || pdfStream.getIndirectReference().getReader() != null)) {
                     // If new specific compression is set for stream,
                     // then compressed stream should be decoded and written with new compression settings
-                    byte[] bytes = pdfStream.getIndirectReference().getReader().readStreamBytes(pdfStream, false);
+                    byte[] bytes = pdfStream.getBytes(false);
                     if (userDefinedCompression) {
                         bytes = decodeFlateBytes(pdfStream, bytes);
                     }
@@ -344,17 +351,7 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                     if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) {
                         // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
-                        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        }
-                        zip.finish();
+                        byteArrayStream = compressStreamContent(pdfStream);
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
@@ -389,6 +386,107 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Writes the stream with its content transferred from the source document as it is, if the stream content
+     * hasn't been loaded into memory and doesn't need to be re-encoded or re-encrypted.
+     *
+     * @param pdfStream the stream to write
+     * @param toEncode  whether the stream content shall be compressed or re-compressed on writing
+     * @return true if the stream has been written, false if it shall be written with its content loaded into memory
+     * @throws IOException on error
+     */
+    private boolean writeRawContent(PdfStream pdfStream, boolean toEncode) throws IOException {
+        if (toEncode || pdfStream.getOutputStream() != null) {
+            return false;
+        }
+        RawStreamContent rawContent = pdfStream.getRawContent();
+        if (rawContent == null
+                || !rawContent.canBeCopiedVerbatim(crypto, checkEncryption(pdfStream), pdfStream.getIndirectReference())) {
+            return false;
+        }
+        pdfStream.put(PdfName.Length, new PdfNumber(rawContent.getLength()));
+        pdfStream.updateLength(rawContent.getLength());
+        this.write((PdfDictionary) pdfStream);
+        writeBytes(PdfOutputStream.stream);
+        rawContent.writeTo(this);
+        writeBytes(PdfOutputStream.endstream);
+        return true;
+    }
+
+    /**
+     * Compresses the content of the stream which is kept in memory with the stream's compression level.
+     *
+     * @param pdfStream the stream, which content shall be compressed
+     * @return the compressed stream content
+     * @throws IOException on error
+     */
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        return flateCompress(pdfStream, pdfStream.getCompressionLevel(), getCompressionProvider());
+    }
+
+    /**
+     * Gets the {@link ICompressionProvider} used for compressing the streams written to this output stream.
+     *
+     * @return the compression provider of the document writer, or the default one if there is no document
+     */
+    ICompressionProvider getCompressionProvider() {
+        return document != null ? document.getWriter().getCompressionProvider() : CompressionProviders.getDefault();
+    }
+
+    /**
+     * Checks whether the stream content kept in memory will be Flate-compressed when the stream is written.
+     * Unlike {@link #write(PdfObject)}, the stream itself is not modified by this method.
+     *
+     * @param pdfStream the stream to check
+     * @return true, if the stream content will be compressed on writing, otherwise false
+     */
+    boolean isStreamContentToBeCompressed(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.getOutputStream() == null) {
+            return false;
+        }
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        int compressionLevel = pdfStream.getCompressionLevel();
+        if (!userDefinedCompression) {
+            compressionLevel = document != null ?
+                    document.getWriter().getCompressionLevel() :
+                    CompressionConstants.DEFAULT_COMPRESSION;
+        }
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return compressionLevel != CompressionConstants.NO_COMPRESSION && !containsFlateFilter(pdfStream)
+                && (allowCompression || userDefinedCompression);
+    }
+
+    static ByteArrayOutputStream flateCompress(PdfStream pdfStream, int compressionLevel,
+            ICompressionProvider compressionProvider) throws IOException {
+        ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+        java.io.OutputStream zip = compressionProvider.createDeflateStream(byteArrayStream, compressionLevel);
+        if (pdfStream instanceof PdfObjectStream) {
+            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
+            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+        } else {
+            assert pdfStream.getOutputStream() != null : "Error in outputStream";
+            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+        }
+        finishDeflateStream(zip);
+        return byteArrayStream;
+    }
+
+    /**
+     * Writes the remaining data of a stream created by {@link ICompressionProvider#createDeflateStream}.
+     * The streams which are neither {@link IFinishable} nor {@link java.util.zip.DeflaterOutputStream}
+     * can only be completed by closing them.
+     */
+    private static void finishDeflateStream(java.io.OutputStream deflateStream) throws IOException {
+        if (deflateStream instanceof IFinishable) {
+            ((IFinishable) deflateStream).finish();
+        } else if (deflateStream instanceof java.util.zip.DeflaterOutputStream) {
+            ((java.util.zip.DeflaterOutputStream) deflateStream).finish();
+        } else {
+            deflateStream.close();
+        }
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
@@ -560,4 +658,31 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         out.defaultWriteObject();
         outputStream = tempOutputStream;
     }
+
+    private static class NonClosingOutputStream extends java.io.OutputStream {
+        private final java.io.OutputStream out;
+
+        NonClosingOutputStream(java.io.OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -51,7 +51,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Algorithm for construction {@link PdfPages} tree
@@ -63,6 +65,12 @@ class PdfPagesTree implements Serializable {
     private final int leafSize = 10;
 
     private List<PdfIndirectReference> pageRefs;
+    /**
+     * Zero-based positions of the loaded page references. Only the positions below {@link #indexedPageRefsCount}
+     * are known to be up to date, the rest of the list is indexed lazily on the next lookup.
+     */
+    private Map<PdfIndirectReference, Integer> pageRefsIndex;
+    private int indexedPageRefsCount;
     private List<PdfPages> parents;
     private List<PdfPage> pages;
     private PdfDocument document;
@@ -79,6 +87,7 @@ class PdfPagesTree implements Serializable {
     public PdfPagesTree(PdfCatalog pdfCatalog) {
         this.document = pdfCatalog.getDocument();
         this.pageRefs = new ArrayList<>();
+        this.pageRefsIndex = new HashMap<>();
         this.parents = new ArrayList<>();
         this.pages = new ArrayList<>();
         if (pdfCatalog.getPdfObject().containsKey(PdfName.Pages)) {
@@ -159,6 +168,14 @@ class PdfPagesTree implements Serializable {
      * in this tree, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfPage page) {
+        if (page == null) {
+            return 0;
+        }
+        int pageNum = findPageRef(page.getPdfObject().getIndirectReference());
+        if (pageNum >= 0 && pages.get(pageNum) == page) {
+            return pageNum + 1;
+        }
+        // the page may be another wrapper of the same dictionary
         return pages.indexOf(page) + 1;
     }
 
@@ -167,16 +184,18 @@ class PdfPagesTree implements Serializable {
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
-        int pageNum = pageRefs.indexOf(pageDictionary.getIndirectReference());
+        PdfIndirectReference pageRef = pageDictionary.getIndirectReference();
+        int pageNum = findPageRef(pageRef);
         if (pageNum >= 0) {
             return pageNum + 1;
         }
         for (int i = 0; i < pageRefs.size(); i++) {
             if (pageRefs.get(i) == null) {
                 loadPage(i);
-            }
-            if (pageRefs.get(i).equals(pageDictionary.getIndirectReference())) {
-                return i + 1;
+                pageNum = findPageRef(pageRef);
+                if (pageNum >= 0) {
+                    return pageNum + 1;
+                }
             }
         }
 
@@ -213,6 +232,9 @@ class PdfPagesTree implements Serializable {
         pdfPage.parentPages = pdfPages;
         pageRefs.add(pdfPage.getPdfObject().getIndirectReference());
         pages.add(pdfPage);
+        if (indexedPageRefsCount == pageRefs.size() - 1) {
+            indexPageRef(indexedPageRefsCount++);
+        }
     }
 
     /**
@@ -238,6 +260,7 @@ class PdfPagesTree implements Serializable {
         correctPdfPagesFromProperty(parentIndex + 1, +1);
         pageRefs.add(index, pdfPage.getPdfObject().getIndirectReference());
         pages.add(index, pdfPage);
+        indexedPageRefsCount = Math.min(indexedPageRefsCount, index);
     }
 
     /**
@@ -312,6 +335,8 @@ class PdfPagesTree implements Serializable {
 
     protected void clearPageRefs() {
         pageRefs = null;
+        pageRefsIndex = null;
+        indexedPageRefsCount = 0;
         pages = null;
     }
 
@@ -435,6 +460,9 @@ class PdfPagesTree implements Serializable {
                 } else {
                     pageRefs.set(from + i, kid.getIndirectReference());
                 }
+                if (from + i < indexedPageRefsCount) {
+                    indexPageRef(from + i);
+                }
 
             }
         }
@@ -456,8 +484,12 @@ class PdfPagesTree implements Serializable {
             } else {
                 correctPdfPagesFromProperty(parentIndex + 1, -1);
             }
-            pageRefs.remove(pageNum);
+            PdfIndirectReference removedPageRef = pageRefs.remove(pageNum);
             pages.remove(pageNum);
+            if (removedPageRef != null && Integer.valueOf(pageNum).equals(pageRefsIndex.get(removedPageRef))) {
+                pageRefsIndex.remove(removedPageRef);
+            }
+            indexedPageRefsCount = Math.min(indexedPageRefsCount, pageNum);
             return true;
         } else {
             return false;
@@ -479,6 +511,36 @@ class PdfPagesTree implements Serializable {
         return low;
     }
 
+    // zero-based index
+    private void indexPageRef(int pageNum) {
+        PdfIndirectReference pageRef = pageRefs.get(pageNum);
+        if (pageRef != null) {
+            Integer indexed = pageRefsIndex.get(pageRef);
+            // the same page may be referenced twice, the first occurrence is the one to be found
+            if (indexed == null || indexed >= pageNum || !pageRef.equals(pageRefs.get((int) indexed))) {
+                pageRefsIndex.put(pageRef, pageNum);
+            }
+        }
+    }
+
+    // zero-based index of the first occurrence of the page reference, or -1 if it is not loaded
+    private int findPageRef(PdfIndirectReference pageRef) {
+        Integer pageNum = pageRefsIndex.get(pageRef);
+        if (!isPageRefIndexed(pageRef, pageNum) && indexedPageRefsCount < pageRefs.size()) {
+            // pages have been inserted or removed since the last lookup
+            for (int i = indexedPageRefsCount; i < pageRefs.size(); i++) {
+                indexPageRef(i);
+            }
+            indexedPageRefsCount = pageRefs.size();
+            pageNum = pageRefsIndex.get(pageRef);
+        }
+        return isPageRefIndexed(pageRef, pageNum) ? (int) pageNum : -1;
+    }
+
+    private boolean isPageRefIndexed(PdfIndirectReference pageRef, Integer pageNum) {
+        return pageNum != null && pageNum < indexedPageRefsCount && pageRef.equals(pageRefs.get((int) pageNum));
+    }
+
     private void correctPdfPagesFromProperty(int index, int correction) {
         for (int i = index; i < parents.size(); i++) {
             if (parents.get(i) != null) {
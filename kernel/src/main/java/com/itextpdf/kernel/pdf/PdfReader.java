@@ -48,22 +48,29 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.securityhandler.UnsupportedSecurityHandlerException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +88,8 @@ public class PdfReader implements Closeable, Serializable {
     private static final byte[] endstream = ByteUtils.getIsoBytes("endstream");
     private static final byte[] endobj = ByteUtils.getIsoBytes("endobj");
 
+    private static final int RAW_COPY_BUFFER_SIZE = 0x10000;
+
     protected static boolean correctStreamLength = true;
 
     private boolean unethicalReading;
@@ -93,6 +102,9 @@ public class PdfReader implements Closeable, Serializable {
     // For internal usage only
     private String sourcePath;
 
+    // Streams copied from this document, which content is still read from the document on demand
+    private transient Set<PdfStream> rawContentCopies;
+
     protected PdfTokenizer tokens;
     protected PdfEncryption decrypt;
 
@@ -190,7 +202,14 @@ public class PdfReader implements Closeable, Serializable {
      *
      * @throws IOException on error.
      */
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        if (rawContentCopies != null) {
+            // The document content won't be available any more, so the copied streams shall keep it in memory
+            for (PdfStream copy : rawContentCopies) {
+                copy.loadRawContent();
+            }
+            rawContentCopies = null;
+        }
         tokens.close();
     }
 
@@ -336,42 +355,49 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
+        RawStreamContent content = getRawStreamContent(stream);
+        return content != null ? readStreamBytesRaw(content) : null;
+    }
+
+    /**
+     * Gets the location of the stream bytes in the document. Unlike the stream itself,
+     * it isn't affected by the changes of the stream content.
+     *
+     * @param stream the stream read by this reader
+     * @return the location of the stream bytes, or null if the stream has no bytes in the document
+     * @throws IOException on error
+     */
+    synchronized RawStreamContent getRawStreamContent(PdfStream stream) throws IOException {
         PdfName type = stream.getAsName(PdfName.Type);
         if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
             checkPdfStreamLength(stream);
         long offset = stream.getOffset();
         if (offset <= 0)
             return null;
-        int length = stream.getLength();
+        // Cross-reference streams are read before they get an indirect reference
+        PdfIndirectReference reference = stream.getIndirectReference();
+        int objNumber = reference != null ? reference.getObjNumber() : 0;
+        int genNumber = reference != null ? reference.getGenNumber() : 0;
+        return new RawStreamContent(this, offset, Math.max(stream.getLength(), 0),
+                objNumber, genNumber, isStreamToBeDecrypted(stream));
+    }
+
+    /**
+     * Reads and decrypts the stream bytes stored at the passed location.
+     */
+    synchronized byte[] readStreamBytesRaw(RawStreamContent content) throws IOException {
+        int length = content.getLength();
         if (length <= 0)
             return new byte[0];
         RandomAccessFileOrArray file = tokens.getSafeFile();
         byte[] bytes = null;
         try {
-            file.seek(stream.getOffset());
+            file.seek(content.getOffset());
             bytes = new byte[length];
             file.readFully(bytes);
-            if (decrypt != null && !decrypt.isEmbeddedFilesOnly()) {
-                PdfObject filter = stream.get(PdfName.Filter, true);
-                boolean skip = false;
-                if (filter != null) {
-                    if (PdfName.Crypt.equals(filter)) {
-                        skip = true;
-                    } else if (filter.getType() == PdfObject.ARRAY) {
-                        PdfArray filters = (PdfArray) filter;
-                        for (int k = 0; k < filters.size(); k++) {
-                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
-                                skip = true;
-                                break;
-                            }
-                        }
-                    }
-                    filter.release();
-                }
-                if (!skip) {
-                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
-                    bytes = decrypt.decryptByteArray(bytes);
-                }
+            if (content.isEncrypted()) {
+                decrypt.setHashKeyForNextObject(content.getObjNumber(), content.getGenNumber());
+                bytes = decrypt.decryptByteArray(bytes);
             }
         } finally {
             try {
@@ -383,16 +409,178 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     /**
-     * Reads, decrypt and optionally decode stream bytes into {@link ByteArrayInputStream}.
+     * Writes the stream bytes stored at the passed location to the output as they are, i.e. without decryption.
+     * The bytes are transferred in chunks, so that the whole stream isn't kept in memory.
+     */
+    synchronized void copyStreamBytesRaw(RawStreamContent content, OutputStream out) throws IOException {
+        int length = content.getLength();
+        if (length <= 0)
+            return;
+        RandomAccessFileOrArray file = tokens.getSafeFile();
+        try {
+            file.seek(content.getOffset());
+            byte[] buffer = new byte[Math.min(length, RAW_COPY_BUFFER_SIZE)];
+            int remaining = length;
+            while (remaining > 0) {
+                int n = Math.min(remaining, buffer.length);
+                file.readFully(buffer, 0, n);
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        } finally {
+            try {
+                file.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * Registers a stream copied from this document, which content is read from the document on demand.
+     * Such streams load their content into memory when the reader is closed.
+     */
+    void registerRawContentCopy(PdfStream copy) {
+        if (rawContentCopies == null) {
+            rawContentCopies = Collections.newSetFromMap(new WeakHashMap<PdfStream, Boolean>());
+        }
+        rawContentCopies.add(copy);
+    }
+
+    /**
+     * Creates a stream which reads and decrypts the stream bytes from the document on the fly.
+     */
+    private synchronized InputStream readStreamRaw(PdfStream stream) throws IOException {
+        RawStreamContent content = getRawStreamContent(stream);
+        if (content == null)
+            return null;
+        if (content.getLength() <= 0)
+            return new ByteArrayInputStream(new byte[0]);
+        IRandomAccessSource source = new WindowRandomAccessSource(tokens.getSafeFile().createSourceView(),
+                content.getOffset(), content.getLength());
+        InputStream rawStream = new RASInputStream(source);
+        if (content.isEncrypted()) {
+            decrypt.setHashKeyForNextObject(content.getObjNumber(), content.getGenNumber());
+            rawStream = decrypt.getDecryptionStream(rawStream);
+        }
+        return rawStream;
+    }
+
+    private boolean isStreamToBeDecrypted(PdfStream stream) {
+        if (decrypt == null || decrypt.isEmbeddedFilesOnly()) {
+            return false;
+        }
+        PdfObject filter = stream.get(PdfName.Filter, true);
+        boolean skip = false;
+        if (filter != null) {
+            if (PdfName.Crypt.equals(filter)) {
+                skip = true;
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                PdfArray filters = (PdfArray) filter;
+                for (int k = 0; k < filters.size(); k++) {
+                    if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
+                        skip = true;
+                        break;
+                    }
+                }
+            }
+            filter.release();
+        }
+        return !skip;
+    }
+
+    /**
+     * Reads, decrypt and optionally decode stream bytes into {@link InputStream}.
      * User is responsible for closing returned stream.
+     * <br>
+     * Unlike {@link #readStreamBytes(PdfStream, boolean)}, the stream data is read from the document and decoded
+     * on the fly as the returned stream is read, so memory consumption doesn't depend on the size of the stream.
+     * The filters which don't support decoding on the fly (see {@link IStreamingFilterHandler})
+     * are applied to the whole data at once. The returned stream can only be read while this reader is open.
      *
      * @param decode true if to get decoded stream, false if to leave it originally encoded.
      * @return InputStream or {@code null} if reading was failed.
      * @throws IOException on error.
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
-        byte[] bytes = readStreamBytes(stream, decode);
-        return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        InputStream rawStream = readStreamRaw(stream);
+        if (decode && rawStream != null) {
+            return decodeStream(rawStream, stream);
+        } else {
+            return rawStream;
+        }
+    }
+
+    /**
+     * Decode the data of the stream applying the filters specified in the provided dictionary using
+     * default filter handlers. The data is decoded on the fly as the returned stream is read.
+     *
+     * @param inputStream      the stream of the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @return the stream of the decoded data, or {@code null} if decoding was failed
+     * @throws IOException on error
+     * @throws PdfException if there are any problems decoding the data
+     */
+    public static InputStream decodeStream(InputStream inputStream, PdfDictionary streamDictionary) throws IOException {
+        return decodeStream(inputStream, streamDictionary, FilterHandlers.getDefaultFilterHandlers());
+    }
+
+    /**
+     * Decode the data of the stream applying the filters specified in the provided dictionary using
+     * the provided filter handlers. The data is decoded on the fly by the handlers implementing
+     * {@link IStreamingFilterHandler}, the other ones are applied to the whole data at once.
+     *
+     * @param inputStream      the stream of the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of the decoded data, or {@code null} if decoding was failed
+     * @throws IOException on error
+     * @throws PdfException if there are any problems decoding the data
+     */
+    public static InputStream decodeStream(InputStream inputStream, PdfDictionary streamDictionary,
+            Map<PdfName, IFilterHandler> filterHandlers) throws IOException {
+        if (inputStream == null) {
+            return null;
+        }
+        PdfArray filters = getFilters(streamDictionary);
+
+        // the decoded data isn't kept in memory, so only the size of the suspicious streams is limited
+        long maxStreamSize = -1;
+        if (null != streamDictionary.getIndirectReference() && containsDuplicateFilters(filters)) {
+            MemoryLimitsAwareHandler memoryLimitsAwareHandler = streamDictionary.getIndirectReference().getDocument().memoryLimitsAwareHandler;
+            if (null != memoryLimitsAwareHandler) {
+                maxStreamSize = memoryLimitsAwareHandler.getMaxSizeOfSingleDecompressedPdfStream();
+            }
+        }
+
+        PdfArray dp = getDecodeParams(streamDictionary);
+        InputStream decodedStream = inputStream;
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null)
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            if (filterHandler instanceof IStreamingFilterHandler) {
+                decodedStream = ((IStreamingFilterHandler) filterHandler).decode(decodedStream, filterName, decodeParams, streamDictionary);
+            } else {
+                byte[] b;
+                try {
+                    b = StreamUtil.inputStreamToArray(decodedStream);
+                } finally {
+                    decodedStream.close();
+                }
+                b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
+                if (b == null) {
+                    return null;
+                }
+                decodedStream = new ByteArrayInputStream(b);
+            }
+            if (maxStreamSize >= 0) {
+                decodedStream = new MemoryLimitsAwareInputStream(decodedStream, maxStreamSize);
+            }
+        }
+        return decodedStream;
     }
 
     /**
@@ -420,6 +608,43 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
+        PdfArray filters = getFilters(streamDictionary);
+
+        MemoryLimitsAwareHandler memoryLimitsAwareHandler = null;
+        if (null != streamDictionary.getIndirectReference() && containsDuplicateFilters(filters)) {
+            memoryLimitsAwareHandler = streamDictionary.getIndirectReference().getDocument().memoryLimitsAwareHandler;
+        }
+        if (null == memoryLimitsAwareHandler) {
+            return applyFilters(b, filters, streamDictionary, filterHandlers, null);
+        }
+        // the handler tracks the stream being currently decompressed, so such streams are decoded one at a time
+        synchronized (memoryLimitsAwareHandler) {
+            memoryLimitsAwareHandler.beginDecompressedPdfStreamProcessing();
+            b = applyFilters(b, filters, streamDictionary, filterHandlers, memoryLimitsAwareHandler);
+            memoryLimitsAwareHandler.endDecompressedPdfStreamProcessing();
+        }
+        return b;
+    }
+
+    private static byte[] applyFilters(byte[] b, PdfArray filters, PdfDictionary streamDictionary,
+                                       Map<PdfName, IFilterHandler> filterHandlers, MemoryLimitsAwareHandler memoryLimitsAwareHandler) {
+        PdfArray dp = getDecodeParams(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null)
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
+            if (null != memoryLimitsAwareHandler) {
+                memoryLimitsAwareHandler.considerBytesOccupiedByDecompressedPdfStream(b.length);
+            }
+        }
+        return b;
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
         PdfObject filter = streamDictionary.get(PdfName.Filter);
         PdfArray filters = new PdfArray();
         if (filter != null) {
@@ -429,28 +654,25 @@ public class PdfReader implements Closeable, Serializable {
                 filters = ((PdfArray) filter);
             }
         }
+        return filters;
+    }
 
-        MemoryLimitsAwareHandler memoryLimitsAwareHandler = null;
-        if (null != streamDictionary.getIndirectReference()) {
-            memoryLimitsAwareHandler = streamDictionary.getIndirectReference().getDocument().memoryLimitsAwareHandler;
-        }
-        if (null != memoryLimitsAwareHandler) {
-            HashSet<PdfName> filterSet = new HashSet<>();
-            int index;
-            for (index = 0; index < filters.size(); index++) {
-                PdfName filterName = filters.getAsName(index);
-                if (!filterSet.add(filterName)) {
-                    memoryLimitsAwareHandler.beginDecompressedPdfStreamProcessing();
-                    break;
-                }
-            }
-            if (index == filters.size()) {
-                // The stream isn't suspicious. We shouldn't process it.
-
-                memoryLimitsAwareHandler = null;
+    /**
+     * Checks whether some filter is applied more than once. Such streams are suspicious, their decoding
+     * is controlled by {@link MemoryLimitsAwareHandler}.
+     */
+    private static boolean containsDuplicateFilters(PdfArray filters) {
+        HashSet<PdfName> filterSet = new HashSet<>();
+        for (int index = 0; index < filters.size(); index++) {
+            PdfName filterName = filters.getAsName(index);
+            if (!filterSet.add(filterName)) {
+                return true;
             }
         }
+        return false;
+    }
 
+    private static PdfArray getDecodeParams(PdfDictionary streamDictionary) {
         PdfArray dp = new PdfArray();
         PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
         if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
@@ -465,34 +687,21 @@ public class PdfReader implements Closeable, Serializable {
             }
             dpo.release();
         }
-        for (int j = 0; j < filters.size(); ++j) {
-            PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+        return dp;
+    }
 
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
+    private static PdfDictionary getDecodeParams(PdfArray dp, int filterIndex) {
+        if (filterIndex < dp.size()) {
+            PdfObject dpEntry = dp.get(filterIndex, true);
+            if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+                return null;
+            } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+                return (PdfDictionary) dpEntry;
             } else {
-                decodeParams = null;
+                throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
             }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
-            if (null != memoryLimitsAwareHandler) {
-                memoryLimitsAwareHandler.considerBytesOccupiedByDecompressedPdfStream(b.length);
-            }
-        }
-        if (null != memoryLimitsAwareHandler) {
-            memoryLimitsAwareHandler.endDecompressedPdfStreamProcessing();
         }
-        return b;
+        return null;
     }
 
     /**
@@ -673,6 +882,9 @@ public class PdfReader implements Closeable, Serializable {
         } catch (IllegalArgumentException exc) {
             throw new PdfException(PdfException.PdfVersionNotValid, version);
         }
+        if (properties.lazyXrefLoading) {
+            pdfDocument.getXref().initLazyLoading(pdfDocument);
+        }
         try {
             readXref();
         } catch (RuntimeException ex) {
@@ -748,8 +960,23 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
-    protected PdfObject readObject(PdfIndirectReference reference) {
-        return readObject(reference, true);
+    /**
+     * Reads the object the passed reference points to. Reading is synchronized on the reader,
+     * so that the objects of a document opened in reading mode may be requested from several threads.
+     *
+     * @param reference the reference to the object to read
+     * @return the read object.
+     */
+    protected synchronized PdfObject readObject(PdfIndirectReference reference) {
+        // another thread may have read the object while this one was waiting for the lock
+        if (reference.refersTo != null || reference.checkState(PdfObject.FREE)) {
+            return reference.refersTo;
+        }
+        PdfObject object = readObject(reference, true);
+        if (object != null) {
+            reference.setRefersTo(object);
+        }
+        return object;
     }
 
     protected PdfObject readObject(boolean readAsDirect) throws IOException {
@@ -860,9 +1087,8 @@ public class PdfReader implements Closeable, Serializable {
 
     protected PdfName readPdfName(boolean readAsDirect) {
         if (readAsDirect) {
-            PdfName cachedName = PdfName.staticNames.get(tokens.getStringValue());
-            if (cachedName != null)
-                return cachedName;
+            ByteBuffer content = tokens.getByteContentBuffer();
+            return PdfName.intern(content.getInternalBuffer(), 0, content.size());
         }
         // an indirect name (how odd...), or a non-standard one
         return new PdfName(tokens.getByteContent());
@@ -991,7 +1217,16 @@ public class PdfReader implements Closeable, Serializable {
                     end--;
                     continue;
                 }
-                PdfIndirectReference reference = xref.get(num);
+                PdfIndirectReference reference = xref.getLoaded(num);
+                if (reference == null && xref.isLazyLoading()) {
+                    if (xref.hasLazyEntry(num)) {
+                        // entry has already been read from the more recent xref section
+                        continue;
+                    }
+                    boolean free = checkXrefSectionEntryType(pos);
+                    xref.addLazyEntry(num, free ? CompactXrefEntries.FREE : CompactXrefEntries.IN_USE, pos, gen);
+                    continue;
+                }
                 boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen;
                 // for references that are added by xref table itself (like 0 entry)
                 boolean refFirstEncountered = reference == null
@@ -1006,16 +1241,8 @@ public class PdfReader implements Closeable, Serializable {
                     continue;
                 }
 
-                if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
-                    if (pos == 0) {
-                        tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
-                    }
-                } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
-                    if (refFirstEncountered) {
-                        reference.setState(PdfObject.FREE);
-                    }
-                } else {
-                    tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+                if (checkXrefSectionEntryType(pos) && refFirstEncountered) {
+                    reference.setState(PdfObject.FREE);
                 }
 
                 if (refFirstEncountered) {
@@ -1117,6 +1344,12 @@ public class PdfReader implements Closeable, Serializable {
                         field3 = (field3 << 8) + (b[bptr++] & 0xff);
                     }
                     int base = start;
+                    PdfIndirectReference loadedReference = xref.getLoaded(base);
+                    if (loadedReference == null && xref.isLazyLoading()) {
+                        addLazyXrefStreamEntry(xref, base, type, field2, field3);
+                        ++start;
+                        continue;
+                    }
                     PdfIndirectReference newReference;
                     switch (type) {
                         case 0:
@@ -1133,7 +1366,7 @@ public class PdfReader implements Closeable, Serializable {
                             throw new PdfException(PdfException.InvalidXrefStream);
                     }
 
-                    PdfIndirectReference reference = xref.get(base);
+                    PdfIndirectReference reference = loadedReference;
                     boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == newReference.getGenNumber();
                     // for references that are added by xref table itself (like 0 entry)
                     boolean refFirstEncountered = reference == null
@@ -1173,7 +1406,10 @@ public class PdfReader implements Closeable, Serializable {
                     continue;
                 int num = obj[0];
                 int gen = obj[1];
-                PdfIndirectReference reference = xref.get(num);
+                if (xref.fixLazyEntryOffset(num, gen, pos)) {
+                    continue;
+                }
+                PdfIndirectReference reference = xref.getLoaded(num);
                 if (reference != null && reference.getGenNumber() == gen) {
                     reference.fixOffset(pos);
                 }
@@ -1232,6 +1468,55 @@ public class PdfReader implements Closeable, Serializable {
         return memorySavingMode;
     }
 
+    /**
+     * Checks the type keyword of the cross-reference section entry which is the current token.
+     *
+     * @param pos offset of the entry.
+     * @return true if the entry is free, false if the entry is in use.
+     */
+    private boolean checkXrefSectionEntryType(long pos) {
+        if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
+            if (pos == 0) {
+                tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
+            }
+            return false;
+        } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
+            return true;
+        } else {
+            tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+            return false;
+        }
+    }
+
+    private static void addLazyXrefStreamEntry(PdfXrefTable xref, int objNr, int type, long field2, int field3) {
+        byte lazyType;
+        long offsetOrIndex;
+        int genOrObjStreamNr;
+        switch (type) {
+            case 0:
+                lazyType = CompactXrefEntries.FREE;
+                offsetOrIndex = field2;
+                genOrObjStreamNr = field3;
+                break;
+            case 1:
+                lazyType = CompactXrefEntries.IN_USE;
+                offsetOrIndex = field2;
+                genOrObjStreamNr = field3;
+                break;
+            case 2:
+                lazyType = CompactXrefEntries.COMPRESSED;
+                offsetOrIndex = field3;
+                genOrObjStreamNr = (int) field2;
+                break;
+            default:
+                throw new PdfException(PdfException.InvalidXrefStream);
+        }
+        // entry could have been already read from the more recent xref stream
+        if (!xref.hasLazyEntry(objNr)) {
+            xref.addLazyEntry(objNr, lazyType, offsetOrIndex, genOrObjStreamNr);
+        }
+    }
+
     private void readDecryptObj() {
         if (encrypted)
             return;
@@ -1312,7 +1597,7 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
-    private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
+    private synchronized void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
         long fileLength = tokens.length();
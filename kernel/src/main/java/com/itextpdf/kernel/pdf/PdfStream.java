@@ -66,6 +66,8 @@ public class PdfStream extends PdfDictionary {
     private InputStream inputStream;
     private long offset;
     private int length = -1;
+    // Location of the content of a stream copied from a document opened by a reader, which isn't loaded into memory.
+    private RawStreamContent rawContent;
 
     /**
      * Constructs a {@code PdfStream}-object.
@@ -254,6 +256,15 @@ public class PdfStream extends PdfDictionary {
             } catch (IOException ioe) {
                 throw new PdfException(PdfException.CannotGetPdfStreamBytes, ioe, this);
             }
+        } else if (rawContent != null) {
+            try {
+                bytes = rawContent.getBytes();
+                if (decoded && containsKey(PdfName.Filter)) {
+                    bytes = PdfReader.decodeBytes(bytes, this);
+                }
+            } catch (IOException ioe) {
+                throw new PdfException(PdfException.CannotGetPdfStreamBytes, ioe, this);
+            }
         } else if (getIndirectReference() != null) {
             // This logic makes sense only for the case when PdfStream was created by reader and in this
             // case PdfStream instance always has indirect reference and is never in the MustBeIndirect state
@@ -298,6 +309,16 @@ public class PdfStream extends PdfDictionary {
         if (inputStream != null) {
             throw new PdfException(PdfException.CannotSetDataToPdfStreamWhichWasCreatedByInputStream);
         }
+        if (shouldTrackModification()) {
+            setModified();
+        }
+        if (rawContent != null) {
+            if (append) {
+                loadRawContent();
+            } else {
+                rawContent = null;
+            }
+        }
 
         boolean outputStreamIsUninitialized = outputStream == null;
         if (outputStreamIsUninitialized) {
@@ -359,6 +380,20 @@ public class PdfStream extends PdfDictionary {
         super.copyContent(from, document);
         PdfStream stream = (PdfStream) from;
         assert inputStream == null : "Try to copy the PdfStream that has been just created.";
+        RawStreamContent sourceContent;
+        try {
+            sourceContent = stream.getRawContent();
+        } catch (IOException ioe) {
+            throw new PdfException(PdfException.CannotCopyObjectContent, ioe, stream);
+        }
+        if (sourceContent != null) {
+            // The content is read from the source document only when it's needed,
+            // which allows to write it to the output as it is, without loading it into memory.
+            outputStream = null;
+            rawContent = sourceContent;
+            sourceContent.getReader().registerRawContentCopy(this);
+            return;
+        }
         byte[] bytes = stream.getBytes(false);
         try {
             outputStream.write(bytes);
@@ -377,6 +412,7 @@ public class PdfStream extends PdfDictionary {
      */
     protected void releaseContent() {
         super.releaseContent();
+        rawContent = null;
         try {
             if (outputStream != null) {
                 outputStream.close();
@@ -391,6 +427,38 @@ public class PdfStream extends PdfDictionary {
         return inputStream;
     }
 
+    /**
+     * Gets the location of the stream content in the document it has been read or copied from,
+     * if the content hasn't been changed or loaded into memory.
+     *
+     * @return the location of the stream content, or null if the content is kept in memory
+     * @throws IOException on error
+     */
+    RawStreamContent getRawContent() throws IOException {
+        if (rawContent != null) {
+            return rawContent;
+        }
+        if (outputStream == null && inputStream == null && !isFlushed() && getIndirectReference() != null) {
+            PdfReader reader = getIndirectReference().getReader();
+            if (reader != null) {
+                return reader.getRawStreamContent(this);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the content of a copied stream into memory, if it's still read from the source document on demand.
+     */
+    void loadRawContent() {
+        if (rawContent != null && outputStream == null && !isFlushed()) {
+            byte[] bytes = getBytes(false);
+            outputStream = new PdfOutputStream(new ByteArrayOutputStream(bytes.length));
+            outputStream.writeBytes(bytes);
+        }
+        rawContent = null;
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         if (inputStream == null || inputStream instanceof Serializable) {
             out.defaultWriteObject();
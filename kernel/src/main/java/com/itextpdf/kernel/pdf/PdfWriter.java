@@ -47,6 +47,9 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.compression.CompressionProviders;
+import com.itextpdf.kernel.pdf.compression.ICompressionProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,6 +96,11 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     private SmartModePdfObjectsSerializer smartModeSerializer = new SmartModePdfObjectsSerializer();
 
+    /**
+     * Is used to compress streams on worker threads if parallel compression is enabled.
+     */
+    private transient ParallelStreamCompressor parallelCompressor;
+
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
 
@@ -162,6 +170,16 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return properties.compressionLevel;
     }
 
+    /**
+     * Gets the {@link ICompressionProvider} used for compressing the content of the streams.
+     *
+     * @return the compression provider set in {@link WriterProperties}, or the default one
+     * if it was not specified, see {@link CompressionProviders#getDefault()}.
+     */
+    public ICompressionProvider getCompressionProvider() {
+        return properties.compressionProvider != null ? properties.compressionProvider : CompressionProviders.getDefault();
+    }
+
     /**
      * Sets default compression level for @see PdfStream.
      * For more details @see {@link com.itextpdf.io.source.DeflaterOutputStream}.
@@ -169,6 +187,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      * @param compressionLevel compression level.
      */
     public PdfWriter setCompressionLevel(int compressionLevel) {
+        writePendingObjects();
         this.properties.setCompressionLevel(compressionLevel);
         return this;
     }
@@ -233,6 +252,15 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * No buffer is returned when the written bytes are duplicated into another stream.
+     */
+    @Override
+    protected java.nio.ByteBuffer getDirectBuffer(int length) throws java.io.IOException {
+        return duplicateStream == null ? super.getDirectBuffer(length) : null;
+    }
 
     /**
      * Close the writer and underlying streams.
@@ -242,6 +270,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     @Override
     public void close() throws IOException {
         try {
+            if (parallelCompressor != null) {
+                parallelCompressor.shutdown();
+                parallelCompressor = null;
+            }
             super.close();
         } finally {
             try {
@@ -267,7 +299,8 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream = new PdfObjectStream(document);
         } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
             objectStream.flush();
-            objectStream = new PdfObjectStream(objectStream);
+            // the content of the flushed object stream may still be waiting for compression, so it can't be reused
+            objectStream = parallelCompressor != null ? new PdfObjectStream(document) : new PdfObjectStream(objectStream);
         }
         return objectStream;
     }
@@ -295,35 +328,54 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (isFullCompression() && canBeInObjStm) {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
+        } else if (getParallelCompressor() != null && submitToParallelCompressor(pdfObject)) {
+            // the object will be written and released when all the objects flushed before it are written
+            indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+            markContentToFlush(pdfObject);
+            return;
         } else {
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
-        switch (pdfObject.getType()) {
-            case PdfObject.BOOLEAN:
-            case PdfObject.NAME:
-            case PdfObject.NULL:
-            case PdfObject.NUMBER:
-            case PdfObject.STRING:
-                ((PdfPrimitiveObject) pdfObject).content = null;
-                break;
-            case PdfObject.ARRAY:
-                PdfArray array = ((PdfArray) pdfObject);
-                markArrayContentToFlush(array);
-                array.releaseContent();
-                break;
-            case PdfObject.STREAM:
-            case PdfObject.DICTIONARY:
-                PdfDictionary dictionary = ((PdfDictionary) pdfObject);
-                markDictionaryContentToFlush(dictionary);
-                dictionary.releaseContent();
-                break;
-            case PdfObject.INDIRECT_REFERENCE:
-                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        markContentToFlush(pdfObject);
+        releaseFlushedContent(pdfObject);
+    }
+
+    /**
+     * Writes the object, which writing has been postponed by parallel compression, and releases its content.
+     *
+     * @param pdfObject flushed object to write
+     * @throws IOException on error
+     */
+    void writeFlushedObject(PdfObject pdfObject) throws IOException {
+        pdfObject.getIndirectReference().setOffset(getCurrentPos());
+        writeToBody(pdfObject);
+        releaseFlushedContent(pdfObject);
+    }
+
+    /**
+     * Writes all the flushed objects, which are waiting for parallel compression.
+     * Shall be called before any operation which relies on the current position of the writer
+     * or which may make the objects referenced from the flushed objects unwritable.
+     */
+    void writePendingObjects() {
+        if (parallelCompressor != null) {
+            try {
+                parallelCompressor.writePendingObjects();
+            } catch (IOException e) {
+                throw new PdfException(PdfException.IoException, e);
+            }
         }
     }
 
+    @Override
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        ByteArrayOutputStream compressedContent = parallelCompressor != null
+                ? parallelCompressor.getCompressedContent(pdfStream) : null;
+        return compressedContent != null ? compressedContent : super.compressStreamContent(pdfStream);
+    }
+
 
     protected PdfObject copyObject(PdfObject obj, PdfDocument documentTo, boolean allowDuplicating) {
         if (obj instanceof PdfIndirectReference)
@@ -355,7 +407,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)) {
             serializedContent = smartModeSerializer.serializeObject(obj);
             PdfIndirectReference objectRef = smartModeSerializer.getSavedSerializedObject(serializedContent);
-            if (objectRef != null) {
+            if (objectRef != null && smartModeSerializer.isDuplicateConfirmed(obj, serializedContent, copiedObjects)) {
                 copiedObjects.put(copiedObjectKey, objectRef);
                 return objectRef.refersTo;
             }
@@ -368,7 +420,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             }
             PdfIndirectReference indRef = newObject.makeIndirect(documentTo).getIndirectReference();
             if (serializedContent != null) {
-                smartModeSerializer.saveSerializedObject(serializedContent, indRef);
+                smartModeSerializer.saveSerializedObject(serializedContent, indRef, indirectReference);
             }
             copiedObjects.put(copiedObjectKey, indRef);
         }
@@ -413,7 +465,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         while (needFlush) {
             needFlush = false;
             for (int i = 1; i < xref.size(); i++) {
-                PdfIndirectReference indirectReference = xref.get(i);
+                PdfIndirectReference indirectReference = xref.getLoaded(i);
                 if (indirectReference != null && !indirectReference.isFree()
                         && indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)
                         && !forbiddenToFlush.contains(indirectReference)) {
@@ -429,6 +481,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream.flush();
             objectStream = null;
         }
+        writePendingObjects();
     }
 
     /**
@@ -437,8 +490,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects(Set<PdfIndirectReference> forbiddenToFlush) {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
-            PdfIndirectReference indirectReference = xref.get(i);
+        // only the objects which were marked as modified are visited
+        for (int i = xref.getNextModifiedObjNumber(1); i != -1; i = xref.getNextModifiedObjNumber(i + 1)) {
+            PdfIndirectReference indirectReference = xref.getLoaded(i);
             if (null != indirectReference && !indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
                 boolean isModified = indirectReference.checkState(PdfObject.MODIFIED);
                 if (isModified) {
@@ -455,6 +509,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream.flush();
             objectStream = null;
         }
+        writePendingObjects();
     }
 
     /**
@@ -468,8 +523,8 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             if (copiedObject.getKey().docId == docId) {
                 if (copiedObject.getValue().refersTo != null) {
                     copiedObject.getValue().refersTo.flush();
-                    remove.add(copiedObject.getKey());
                 }
+                remove.add(copiedObject.getKey());
             }
         }
         for (PdfDocument.IndirectRefDescription ird : remove) {
@@ -483,6 +538,80 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    private ParallelStreamCompressor getParallelCompressor() {
+        if (parallelCompressor == null && properties.parallelCompressionThreadsCount > 0) {
+            parallelCompressor = new ParallelStreamCompressor(this, properties.parallelCompressionThreadsCount,
+                    properties.parallelCompressionExecutor);
+        }
+        return parallelCompressor;
+    }
+
+    private boolean submitToParallelCompressor(PdfObject pdfObject) throws IOException {
+        // Writing makes the objects, which must be indirect, indirect. Do it now, so that they get
+        // the same numbers as in sequential writing, even if the object is written later.
+        makeContentIndirect(pdfObject);
+        return parallelCompressor.submit(pdfObject);
+    }
+
+    private void makeContentIndirect(PdfObject pdfObject) {
+        if (pdfObject.getType() == PdfObject.ARRAY) {
+            PdfArray array = (PdfArray) pdfObject;
+            for (int i = 0; i < array.size(); i++) {
+                makeDirectObjectIndirect(array.get(i, false));
+            }
+        } else if (pdfObject.getType() == PdfObject.DICTIONARY || pdfObject.getType() == PdfObject.STREAM) {
+            PdfDictionary dictionary = (PdfDictionary) pdfObject;
+            for (PdfName key : dictionary.keySet()) {
+                makeDirectObjectIndirect(dictionary.get(key, false));
+            }
+        }
+    }
+
+    private void makeDirectObjectIndirect(PdfObject pdfObject) {
+        if (pdfObject == null || pdfObject.getIndirectReference() != null) {
+            return;
+        }
+        if (pdfObject.checkState(PdfObject.MUST_BE_INDIRECT)) {
+            pdfObject.makeIndirect(document);
+        } else {
+            makeContentIndirect(pdfObject);
+        }
+    }
+
+    private void markContentToFlush(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.ARRAY:
+                markArrayContentToFlush((PdfArray) pdfObject);
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                markDictionaryContentToFlush((PdfDictionary) pdfObject);
+                break;
+            case PdfObject.INDIRECT_REFERENCE:
+                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        }
+    }
+
+    private void releaseFlushedContent(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.BOOLEAN:
+            case PdfObject.NAME:
+            case PdfObject.NULL:
+            case PdfObject.NUMBER:
+            case PdfObject.STRING:
+                ((PdfPrimitiveObject) pdfObject).content = null;
+                break;
+            case PdfObject.ARRAY:
+                ((PdfArray) pdfObject).releaseContent();
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                ((PdfDictionary) pdfObject).releaseContent();
+                break;
+        }
+        document.getXref().compactFlushedReference(pdfObject.getIndirectReference());
+    }
+
     private void markDictionaryContentToFlush(PdfDictionary dictionary) {
         for (PdfObject item : dictionary.values(false)) {
             markObjectToFlush(item);
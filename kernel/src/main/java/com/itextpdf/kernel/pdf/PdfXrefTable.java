@@ -81,6 +81,27 @@ class PdfXrefTable implements Serializable {
      */
     private final TreeMap<Integer, PdfIndirectReference> freeReferencesLinkedList;
 
+    /**
+     * Entries for which no {@link PdfIndirectReference} instance is kept in the table. It is {@code null} unless
+     * either lazy loading or compaction of flushed references is enabled.
+     */
+    private CompactXrefEntries compactEntries;
+
+    /**
+     * Document to which references created for compact entries belong.
+     */
+    private PdfDocument compactEntriesDocument;
+
+    private boolean lazyLoading;
+    private boolean flushedReferencesCompaction;
+
+    /**
+     * Numbers of the objects which were marked as modified in append mode. Only these objects are written to the
+     * incremental update, so tracking them makes the cost of closing the document proportional to the number of
+     * changes rather than to the size of the original document.
+     */
+    private final TreeSet<Integer> modifiedObjNumbers = new TreeSet<>();
+
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
     }
@@ -107,6 +128,9 @@ class PdfXrefTable implements Serializable {
         this.count = Math.max(this.count, objNr);
         ensureCount(objNr);
         xref[objNr] = reference;
+        if (compactEntries != null) {
+            compactEntries.remove(objNr);
+        }
         return reference;
     }
 
@@ -115,12 +139,142 @@ class PdfXrefTable implements Serializable {
     }
 
     public PdfIndirectReference get(int index) {
+        if (index > count) {
+            return null;
+        }
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && compactEntries != null && compactEntries.contains(index)) {
+            if (compactEntries.isFlushed(index)) {
+                // flushed entries are never stored back to the table, a lightweight view is returned instead
+                reference = compactEntries.createReference(compactEntriesDocument, index);
+            } else {
+                reference = materializeLazyEntry(index);
+            }
+        }
+        return reference;
+    }
+
+    /**
+     * Gets indirect reference by object number only if it is kept in the table. Unlike {@link #get(int)}
+     * this method doesn't create {@link PdfIndirectReference} instances for compact entries.
+     *
+     * @param index object number.
+     * @return indirect reference or {@code null} if there is no reference instance for the given object number.
+     */
+    PdfIndirectReference getLoaded(int index) {
         if (index > count) {
             return null;
         }
         return xref[index];
     }
 
+    /**
+     * Enables lazy loading of the cross-reference entries. After this method is invoked, entries added via
+     * {@link #addLazyEntry(int, byte, long, int)} are kept in the compact primitive form and corresponding
+     * {@link PdfIndirectReference} instances are only created when they are first requested.
+     *
+     * @param document the document for which indirect references will be created.
+     */
+    void initLazyLoading(PdfDocument document) {
+        initCompactEntries(document);
+        lazyLoading = true;
+    }
+
+    /**
+     * Enables compaction of flushed references. After this method is invoked, {@link PdfIndirectReference} instances
+     * of the flushed objects are replaced with compact entries by {@link #compactFlushedReference(PdfIndirectReference)}.
+     * If such reference is requested via {@link #get(int)} afterwards, a new instance in the flushed state is returned.
+     *
+     * @param document the document for which indirect references will be created.
+     */
+    void initFlushedReferencesCompaction(PdfDocument document) {
+        initCompactEntries(document);
+        flushedReferencesCompaction = true;
+    }
+
+    boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    boolean hasLazyEntry(int index) {
+        return compactEntries != null && compactEntries.contains(index) && !compactEntries.isFlushed(index);
+    }
+
+    /**
+     * Adds a cross-reference entry which is stored in a compact form until it is requested.
+     *
+     * @param objNr object number.
+     * @param type  {@link CompactXrefEntries#FREE}, {@link CompactXrefEntries#IN_USE} or {@link CompactXrefEntries#COMPRESSED}.
+     * @param offsetOrIndex object offset, index in the object stream or next free object number.
+     * @param genOrObjStreamNr object generation or number of the object stream containing the object.
+     */
+    void addLazyEntry(int objNr, byte type, long offsetOrIndex, int genOrObjStreamNr) {
+        assert isLazyLoading();
+        this.count = Math.max(this.count, objNr);
+        ensureCount(objNr);
+        compactEntries.set(objNr, type, offsetOrIndex, genOrObjStreamNr);
+    }
+
+    /**
+     * Updates offset of the lazily indexed entry which is not in an object stream.
+     *
+     * @return true if the lazy entry with given object number and generation was found, false otherwise.
+     */
+    boolean fixLazyEntryOffset(int objNr, int genNr, long offset) {
+        if (compactEntries != null && compactEntries.getType(objNr) == CompactXrefEntries.IN_USE
+                && compactEntries.getGenOrObjStreamNumber(objNr) == genNr) {
+            compactEntries.setOffsetOrIndex(objNr, offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the flushed reference with a compact entry if compaction of flushed references is enabled.
+     * Nothing is done if the table doesn't hold exactly this reference instance.
+     *
+     * @param reference flushed indirect reference.
+     */
+    void compactFlushedReference(PdfIndirectReference reference) {
+        int objNr = reference.getObjNumber();
+        if (!flushedReferencesCompaction || objNr > count || xref[objNr] != reference || !reference.checkState(PdfObject.FLUSHED)) {
+            return;
+        }
+        if (reference.getObjStreamNumber() == 0) {
+            compactEntries.set(objNr, CompactXrefEntries.FLUSHED, reference.getOffset(), reference.getGenNumber());
+        } else {
+            compactEntries.set(objNr, CompactXrefEntries.FLUSHED_COMPRESSED, reference.getIndex(), reference.getObjStreamNumber());
+        }
+        xref[objNr] = null;
+    }
+
+    /**
+     * Remembers that the object was marked as modified. Nothing is done if the document isn't opened in append mode,
+     * because in other modes all the objects of the table are written anyway.
+     *
+     * @param reference indirect reference which is marked as modified.
+     */
+    synchronized void markModified(PdfIndirectReference reference) {
+        PdfDocument document = reference.getDocument();
+        if (document != null && document.properties.appendMode) {
+            modifiedObjNumbers.add(reference.getObjNumber());
+        }
+    }
+
+    /**
+     * Gets the smallest number, not less than the given one, of the object marked as modified in append mode.
+     * Objects which are marked as modified while iterating with this method are also found if their numbers are
+     * greater than the current one, e.g. the objects created while flushing other modified objects.
+     * Note that the modified state could have been cleared afterwards, so it shall be checked by the caller.
+     *
+     * @param objNr object number to start the search from.
+     * @return object number or -1 if there are no such objects.
+     */
+    synchronized int getNextModifiedObjNumber(int objNr) {
+        Integer next = modifiedObjNumbers.ceiling(objNr);
+        return next != null ? (int) next : -1;
+    }
+
     void markReadingCompleted() {
         readingCompleted = true;
     }
@@ -136,6 +290,13 @@ class PdfXrefTable implements Serializable {
         xref[0].setState(PdfObject.FREE);
         TreeSet<Integer> freeReferences = new TreeSet<>();
         for (int i = 1; i < size(); ++i) {
+            if (hasLazyEntry(i)) {
+                if (compactEntries.getType(i) != CompactXrefEntries.FREE) {
+                    continue;
+                }
+                // free entries take part in the free references linked list, so they are materialized right away
+                materializeLazyEntry(i);
+            }
             PdfIndirectReference ref = xref[i];
             if (ref == null || ref.isFree()) {
                 freeReferences.add(i);
@@ -181,18 +342,19 @@ class PdfXrefTable implements Serializable {
     }
 
     //For Object streams
-    PdfIndirectReference createNewIndirectReference(PdfDocument document) {
+    synchronized PdfIndirectReference createNewIndirectReference(PdfDocument document) {
         PdfIndirectReference reference = new PdfIndirectReference(document, ++count);
         add(reference);
         return (PdfIndirectReference) reference.setState(PdfObject.MODIFIED);
     }
 
     /**
-     * Creates next available indirect reference.
+     * Creates next available indirect reference. The object numbers may be reserved concurrently by several
+     * threads, e.g. when the content of pages is generated in parallel.
      *
      * @return created indirect reference.
      */
-    protected PdfIndirectReference createNextIndirectReference(PdfDocument document) {
+    protected synchronized PdfIndirectReference createNextIndirectReference(PdfDocument document) {
         PdfIndirectReference reference = new PdfIndirectReference(document, ++count);
         add(reference);
         return (PdfIndirectReference) reference.setState(PdfObject.MODIFIED);
@@ -236,11 +398,11 @@ class PdfXrefTable implements Serializable {
      */
     protected void writeXrefTableAndTrailer(PdfDocument document, PdfObject fileId, PdfObject crypto) throws IOException {
         PdfWriter writer = document.getWriter();
+        writer.writePendingObjects();
 
         if (!document.properties.appendMode) {
             for (int i = count; i > 0; --i) {
-                PdfIndirectReference lastRef = xref[i];
-                if (lastRef == null || lastRef.isFree()) {
+                if (!hasEntry(i) || isFreeEntry(i)) {
                     removeFreeRefFromList(i);
                     --count;
                 } else {
@@ -288,23 +450,23 @@ class PdfXrefTable implements Serializable {
                 int first = (int) sections.get(k);
                 int len = (int) sections.get(k + 1);
                 for (int i = first; i < first + len; i++) {
-                    PdfIndirectReference reference = xrefTable.get(i);
-                    if (reference.isFree()) {
+                    if (xrefTable.isFreeEntry(i)) {
                         xrefStream.getOutputStream().write(0);
-                        xrefStream.getOutputStream().write(reference.getOffset(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getGenNumber(), 2);
-                    } else if (reference.getObjStreamNumber() == 0) {
+                        xrefStream.getOutputStream().write(xrefTable.getEntryOffset(i), offsetSize);
+                        xrefStream.getOutputStream().write(xrefTable.getEntryGenNumber(i), 2);
+                    } else if (xrefTable.getEntryObjStreamNumber(i) == 0) {
                         xrefStream.getOutputStream().write(1);
-                        xrefStream.getOutputStream().write(reference.getOffset(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getGenNumber(), 2);
+                        xrefStream.getOutputStream().write(xrefTable.getEntryOffset(i), offsetSize);
+                        xrefStream.getOutputStream().write(xrefTable.getEntryGenNumber(i), 2);
                     } else {
                         xrefStream.getOutputStream().write(2);
-                        xrefStream.getOutputStream().write(reference.getObjStreamNumber(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getIndex(), 2);
+                        xrefStream.getOutputStream().write(xrefTable.getEntryObjStreamNumber(i), offsetSize);
+                        xrefStream.getOutputStream().write(xrefTable.getEntryIndex(i), 2);
                     }
                 }
             }
             xrefStream.flush();
+            writer.writePendingObjects();
             xRefStmPos = startxref;
         }
 
@@ -326,13 +488,11 @@ class PdfXrefTable implements Serializable {
                 int len = (int) sections.get(k + 1);
                 writer.writeInteger(first).writeSpace().writeInteger(len).writeByte((byte) '\n');
                 for (int i = first; i < first + len; i++) {
-                    PdfIndirectReference reference = xrefTable.get(i);
-
-                    StringBuilder off = new StringBuilder("0000000000").append(reference.getOffset());
-                    StringBuilder gen = new StringBuilder("00000").append(reference.getGenNumber());
+                    StringBuilder off = new StringBuilder("0000000000").append(xrefTable.getEntryOffset(i));
+                    StringBuilder gen = new StringBuilder("00000").append(xrefTable.getEntryGenNumber(i));
                     writer.writeString(off.substring(off.length() - 10, off.length())).writeSpace().
                             writeString(gen.substring(gen.length() - 5, gen.length())).writeSpace();
-                    if (reference.isFree()) {
+                    if (xrefTable.isFreeEntry(i)) {
                         writer.writeBytes(freeXRefEntry);
                     } else {
                         writer.writeBytes(inUseXRefEntry);
@@ -375,21 +535,22 @@ class PdfXrefTable implements Serializable {
             }
             xref[i] = null;
         }
+        if (compactEntries != null) {
+            compactEntries.clear();
+        }
+        modifiedObjNumbers.clear();
         count = 1;
     }
 
     private List<Integer> createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
+        if (document.properties.appendMode) {
+            return createModifiedSections(dropObjectsFromObjectStream);
+        }
         List<Integer> sections = new ArrayList<>();
         int first = 0;
         int len = 0;
         for (int i = 0; i < size(); i++) {
-            PdfIndirectReference reference = xref[i];
-            if (document.properties.appendMode && reference != null &&
-                    (!reference.checkState(PdfObject.MODIFIED) || dropObjectsFromObjectStream && reference.getObjStreamNumber() != 0)) {
-                reference = null;
-            }
-
-            if (reference == null) {
+            if (!hasEntry(i)) {
                 if (len > 0) {
                     sections.add(first);
                     sections.add(len);
@@ -412,6 +573,52 @@ class PdfXrefTable implements Serializable {
         return sections;
     }
 
+    /**
+     * Creates sections of the incremental update. Only the objects marked as modified are visited, the rest of
+     * the table is never iterated over.
+     */
+    private List<Integer> createModifiedSections(boolean dropObjectsFromObjectStream) {
+        List<Integer> sections = new ArrayList<>();
+        int first = 0;
+        int len = 0;
+        // the head of the free references list doesn't belong to any document, so it is checked explicitly
+        int i = xref[0].checkState(PdfObject.MODIFIED) ? 0 : getNextModifiedObjNumber(1);
+        for (; i != -1 && i < size(); i = getNextModifiedObjNumber(i + 1)) {
+            PdfIndirectReference reference = xref[i];
+            boolean inSection;
+            if (reference != null) {
+                inSection = reference.checkState(PdfObject.MODIFIED)
+                        && !(dropObjectsFromObjectStream && reference.getObjStreamNumber() != 0);
+            } else {
+                // objects are flushed in append mode only if they are modified,
+                // entries which are read lazily and never requested are not modified
+                inSection = compactEntries != null && compactEntries.isFlushed(i)
+                        && !(dropObjectsFromObjectStream && compactEntries.isCompressed(i));
+            }
+
+            if (inSection && len > 0 && first + len == i) {
+                len++;
+            } else {
+                if (len > 0) {
+                    sections.add(first);
+                    sections.add(len);
+                }
+                if (inSection) {
+                    first = i;
+                    len = 1;
+                } else {
+                    len = 0;
+                }
+            }
+        }
+        if (len > 0) {
+            sections.add(first);
+            sections.add(len);
+        }
+
+        return sections;
+    }
+
     /**
      * Gets size of the offset. Max size is 2^40, i.e. 1 Tb.
      */
@@ -523,5 +730,72 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(xref, 0, newXref, 0, xref.length);
         xref = newXref;
+        if (compactEntries != null) {
+            compactEntries.ensureCapacity(capacity);
+        }
+    }
+
+    private void initCompactEntries(PdfDocument document) {
+        compactEntriesDocument = document;
+        if (compactEntries == null) {
+            compactEntries = new CompactXrefEntries(xref.length);
+        }
+    }
+
+    private PdfIndirectReference materializeLazyEntry(int objNr) {
+        PdfIndirectReference reference = compactEntries.createReference(compactEntriesDocument, objNr);
+        compactEntries.remove(objNr);
+        xref[objNr] = reference;
+        return reference;
+    }
+
+    private boolean hasEntry(int objNr) {
+        return xref[objNr] != null || compactEntries != null && compactEntries.contains(objNr);
+    }
+
+    private boolean isFreeEntry(int objNr) {
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return reference.isFree();
+        }
+        return compactEntries.getType(objNr) == CompactXrefEntries.FREE;
+    }
+
+    private int getEntryGenNumber(int objNr) {
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return reference.getGenNumber();
+        }
+        return compactEntries.getGenNumber(objNr);
+    }
+
+    private int getEntryObjStreamNumber(int objNr) {
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return reference.getObjStreamNumber();
+        }
+        return compactEntries.isCompressed(objNr) ? compactEntries.getGenOrObjStreamNumber(objNr) : 0;
+    }
+
+    /**
+     * Gets entry offset in the same way as {@link PdfIndirectReference#getOffset()} does.
+     */
+    private long getEntryOffset(int objNr) {
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return reference.getOffset();
+        }
+        return compactEntries.isCompressed(objNr) ? -1 : compactEntries.getOffsetOrIndex(objNr);
+    }
+
+    /**
+     * Gets entry index in the object stream in the same way as {@link PdfIndirectReference#getIndex()} does.
+     */
+    private int getEntryIndex(int objNr) {
+        PdfIndirectReference reference = xref[objNr];
+        if (reference != null) {
+            return reference.getIndex();
+        }
+        return compactEntries.isCompressed(objNr) ? (int) compactEntries.getOffsetOrIndex(objNr) : -1;
     }
 }
@@ -0,0 +1,138 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * The location of the stream bytes in a document opened by a {@link PdfReader}.
+ * <br>
+ * It allows to get the bytes of a stream which has been copied from the document without keeping
+ * them in memory, and to transfer unmodified stream bytes to an output as they are.
+ */
+final class RawStreamContent implements Serializable {
+
+    private static final long serialVersionUID = 5393402262419380591L;
+
+    private final PdfReader reader;
+    private final long offset;
+    private final int length;
+    private final int objNumber;
+    private final int genNumber;
+    private final boolean encrypted;
+
+    RawStreamContent(PdfReader reader, long offset, int length, int objNumber, int genNumber, boolean encrypted) {
+        this.reader = reader;
+        this.offset = offset;
+        this.length = length;
+        this.objNumber = objNumber;
+        this.genNumber = genNumber;
+        this.encrypted = encrypted;
+    }
+
+    PdfReader getReader() {
+        return reader;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    int getObjNumber() {
+        return objNumber;
+    }
+
+    int getGenNumber() {
+        return genNumber;
+    }
+
+    boolean isEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * Reads and decrypts the stream bytes.
+     *
+     * @return the stream bytes, encoded with the stream filters
+     * @throws IOException on error
+     */
+    byte[] getBytes() throws IOException {
+        return reader.readStreamBytesRaw(this);
+    }
+
+    /**
+     * Writes the stream bytes to the output as they are stored in the document, i.e. without decryption.
+     *
+     * @param out the output
+     * @throws IOException on error
+     */
+    void writeTo(OutputStream out) throws IOException {
+        reader.copyStreamBytesRaw(this, out);
+    }
+
+    /**
+     * Checks whether the stored stream bytes are valid as they are for the stream written by the output.
+     * This is the case if neither the source nor the output encrypt the stream, or if both of them
+     * encrypt it with the same encryption and the same object key, which happens when a document
+     * is stamped with preserved encryption.
+     *
+     * @param crypto         the encryption of the output, or null
+     * @param encryptOnWrite whether the output encrypts the stream
+     * @param target         the reference of the stream in the output
+     * @return true if the bytes can be written as they are, otherwise false
+     */
+    boolean canBeCopiedVerbatim(PdfEncryption crypto, boolean encryptOnWrite, PdfIndirectReference target) {
+        if (!encrypted) {
+            return !encryptOnWrite;
+        }
+        return encryptOnWrite && crypto == reader.decrypt && target != null
+                && target.getObjNumber() == objNumber && target.getGenNumber() == genNumber;
+    }
+}
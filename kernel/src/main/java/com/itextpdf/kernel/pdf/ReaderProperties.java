@@ -66,6 +66,8 @@ public class ReaderProperties implements Serializable {
 
     protected MemoryLimitsAwareHandler memoryLimitsAwareHandler;
 
+    protected boolean lazyXrefLoading;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -120,4 +122,21 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines if cross-reference entries shall be loaded lazily.
+     * <p>
+     * By default all cross-reference entries are converted to {@link PdfIndirectReference} instances
+     * when the document is opened. If lazy loading is enabled, cross-reference sections and streams are indexed
+     * into a compact table of offsets and {@link PdfIndirectReference} instances are only created when
+     * corresponding objects are requested for the first time. This reduces opening time and memory consumption
+     * for big documents of which only a small part is processed.
+     *
+     * @param lazyXrefLoading true to enable lazy loading of cross-reference entries, false to disable it.
+     * @return this {@link ReaderProperties} instance.
+     */
+    public ReaderProperties setLazyXrefLoading(boolean lazyXrefLoading) {
+        this.lazyXrefLoading = lazyXrefLoading;
+        return this;
+    }
+
 }
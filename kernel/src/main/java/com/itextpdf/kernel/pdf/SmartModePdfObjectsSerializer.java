@@ -42,32 +42,69 @@
  */
 package com.itextpdf.kernel.pdf;
 
-import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Finds the duplicates of the objects copied in smart mode.
+ * <p>
+ * Every object is identified by the SHA-256 digest of its structure, which is calculated on the fly without
+ * retaining the serialized content. An indirect object nested in the serialized one contributes its own digest,
+ * which is calculated once and cached by the source document, so the cache holds one small fixed-size entry
+ * per object. The bytes of the streams read from unencrypted documents are fed to the digest directly
+ * from the document, without loading them into memory.
+ * <p>
+ * The structure of the object to be copied is also compared with the source of the duplicate found by the digest,
+ * as long as that source is still available. The bytes of the streams are not compared, as well as the objects
+ * whose source is no longer available: the digest alone identifies them, which is why a collision-resistant
+ * digest is used.
+ */
 class SmartModePdfObjectsSerializer implements Serializable {
 
     private static final long serialVersionUID = 2502203520776244051L;
 
-    private transient MessageDigest md5;
+    private static final int MAX_LEVEL = 100;
+
+    /**
+     * Digests used for the objects being serialized, indexed by the nesting depth of the indirect objects.
+     */
+    private transient List<MessageDigest> digests;
     private HashMap<SerializedObjectContent, PdfIndirectReference> serializedContentToObj = new HashMap<>();
+    /**
+     * Source objects of the saved copies, kept only to compare them with the objects having the same digest.
+     */
+    private transient HashMap<SerializedObjectContent, WeakReference<PdfIndirectReference>> serializedContentToSource
+            = new HashMap<>();
 
     SmartModePdfObjectsSerializer() {
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (Exception e) {
-            throw new PdfException(e);
-        }
+        digests = new ArrayList<>();
+        getDigest(0);
     }
 
     public void saveSerializedObject(SerializedObjectContent serializedContent, PdfIndirectReference objectReference) {
         serializedContentToObj.put(serializedContent, objectReference);
     }
 
+    void saveSerializedObject(SerializedObjectContent serializedContent, PdfIndirectReference objectReference,
+                              PdfIndirectReference sourceReference) {
+        saveSerializedObject(serializedContent, objectReference);
+        if (serializedContentToSource == null) {
+            serializedContentToSource = new HashMap<>();
+        }
+        serializedContentToSource.put(serializedContent, new WeakReference<>(sourceReference));
+    }
+
     public PdfIndirectReference getSavedSerializedObject(SerializedObjectContent serializedContent) {
         if (serializedContent != null) {
             return serializedContentToObj.get(serializedContent);
@@ -85,100 +122,234 @@ class SmartModePdfObjectsSerializer implements Serializable {
 
         byte[] content = serializedCache.get(indRef);
         if (content == null) {
-            ByteBuffer bb = new ByteBuffer();
-            int level = 100;
+            MessageDigest digest = getDigest(0);
+            digest.reset();
             try {
-                serObject(obj, bb, level, serializedCache);
+                serObject(obj, digest, MAX_LEVEL, 0, serializedCache);
             } catch (SelfReferenceException e) {
                 return null;
             }
-            content = bb.toByteArray();
+            content = digest.digest();
         }
         return new SerializedObjectContent(content);
     }
 
-    private void serObject(PdfObject obj, ByteBuffer bb, int level, Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
+    /**
+     * Checks whether the object to be copied is indeed the same as the object which has been copied
+     * before with the same digest. The structures of the objects are compared only as long as the source
+     * document of the previously copied object is still open, otherwise the SHA-256 digest is trusted.
+     * The digest is also trusted for the bytes of the streams, so they are neither read nor compared.
+     *
+     * @param obj               the object to be copied
+     * @param serializedContent the digest of the object to be copied
+     * @param copiedObjects     the already copied objects of the source documents
+     * @return false if the objects are different.
+     */
+    boolean isDuplicateConfirmed(PdfObject obj, SerializedObjectContent serializedContent,
+                                 Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects) {
+        WeakReference<PdfIndirectReference> savedSource = serializedContentToSource != null
+                ? serializedContentToSource.get(serializedContent) : null;
+        PdfIndirectReference source = savedSource != null ? savedSource.get() : null;
+        if (source == null || source.getDocument().isClosed()) {
+            return true;
+        }
+        PdfObject original = source.getRefersTo();
+        if (original == null) {
+            return true;
+        }
+        return equalContents(obj, original, MAX_LEVEL, copiedObjects,
+                new IdentityHashMap<PdfIndirectReference, PdfIndirectReference>());
+    }
+
+    private void serObject(PdfObject obj, MessageDigest digest, int level, int depth,
+                           Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
         if (level <= 0) {
             return;
         }
         if (obj == null) {
-            bb.append("$Lnull");
+            update(digest, "$Lnull");
             return;
         }
-        PdfIndirectReference reference = null;
-        ByteBuffer savedBb = null;
 
         if (obj.isIndirectReference()) {
-            reference = (PdfIndirectReference) obj;
+            PdfIndirectReference reference = (PdfIndirectReference) obj;
             byte[] cached = serializedCache.get(reference);
-            if (cached != null) {
-                bb.append(cached);
-                return;
-            } else {
-
-                if (serializedCache.keySet().contains(reference)) {
+            if (cached == null) {
+                if (serializedCache.containsKey(reference)) {
                     //referencing itself
                     throw new SelfReferenceException();
                 }
                 serializedCache.put(reference, null);
 
-                savedBb = bb;
-                bb = new ByteBuffer();
-                obj = reference.getRefersTo();
+                MessageDigest referenceDigest = getDigest(depth + 1);
+                referenceDigest.reset();
+                serObject(reference.getRefersTo(), referenceDigest, level, depth + 1, serializedCache);
+                cached = referenceDigest.digest();
+                serializedCache.put(reference, cached);
             }
+            update(digest, "$R");
+            digest.update(cached);
+            return;
         }
 
         if (obj.isStream()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
-            bb.append("$B");
-            if (level > 0) {
-                bb.append(md5.digest(((PdfStream) obj).getBytes(false)));
-            }
+            serDic((PdfDictionary) obj, digest, level - 1, depth, serializedCache);
+            update(digest, "$B");
+            serStreamBytes((PdfStream) obj, digest);
         } else if (obj.isDictionary()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
+            serDic((PdfDictionary) obj, digest, level - 1, depth, serializedCache);
         } else if (obj.isArray()) {
-            serArray((PdfArray) obj, bb, level - 1, serializedCache);
+            serArray((PdfArray) obj, digest, level - 1, depth, serializedCache);
         } else if (obj.isString()) {
             // TODO specify length for strings, streams, may be names?
-            bb.append("$S").append(obj.toString());
+            update(digest, "$S");
+            update(digest, obj.toString());
         } else if (obj.isName()) {
-            bb.append("$N").append(obj.toString());
+            update(digest, "$N");
+            update(digest, obj.toString());
         } else {
             // PdfNull case is also here
-            bb.append("$L").append(obj.toString());
-        }
-
-        if (savedBb != null) {
-            serializedCache.put(reference, bb.toByteArray());
-            savedBb.append(bb.getInternalBuffer(), 0, bb.size());
+            update(digest, "$L");
+            update(digest, obj.toString());
         }
     }
 
-    private void serDic(PdfDictionary dic, ByteBuffer bb, int level,
+    private void serDic(PdfDictionary dic, MessageDigest digest, int level, int depth,
                         Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
-        bb.append("$D");
+        update(digest, "$D");
         if (level <= 0)
             return;
         for (PdfName key : dic.keySet()) {
             if (isKeyRefersBack(dic, key)) {
                 continue;
             }
-            serObject(key, bb, level, serializedCache);
-            serObject(dic.get(key, false), bb, level, serializedCache);
+            serObject(key, digest, level, depth, serializedCache);
+            serObject(dic.get(key, false), digest, level, depth, serializedCache);
 
         }
-        bb.append("$\\D");
+        update(digest, "$\\D");
     }
 
-    private void serArray(PdfArray array, ByteBuffer bb, int level,
+    private void serArray(PdfArray array, MessageDigest digest, int level, int depth,
                           Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
-        bb.append("$A");
+        update(digest, "$A");
         if (level <= 0)
             return;
         for (int k = 0; k < array.size(); ++k) {
-            serObject(array.get(k, false), bb, level, serializedCache);
+            serObject(array.get(k, false), digest, level, depth, serializedCache);
         }
-        bb.append("$\\A");
+        update(digest, "$\\A");
+    }
+
+    private void serStreamBytes(PdfStream stream, MessageDigest digest) {
+        try {
+            RawStreamContent rawContent = stream.getRawContent();
+            if (rawContent != null && !rawContent.isEncrypted()) {
+                rawContent.writeTo(new DigestUpdatingOutputStream(digest));
+                return;
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotGetPdfStreamBytes, e, stream);
+        }
+        byte[] bytes = stream.getBytes(false);
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    private boolean equalObjects(PdfObject obj, PdfObject original, int level,
+                                 Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects,
+                                 Map<PdfIndirectReference, PdfIndirectReference> confirmed) {
+        if (level <= 0) {
+            return true;
+        }
+        if (obj == null || original == null) {
+            return obj == original;
+        }
+        obj = toReferenceIfIndirect(obj);
+        original = toReferenceIfIndirect(original);
+        if (obj.isIndirectReference() != original.isIndirectReference()) {
+            return false;
+        }
+        if (obj.isIndirectReference()) {
+            PdfIndirectReference reference = (PdfIndirectReference) obj;
+            PdfIndirectReference originalReference = (PdfIndirectReference) original;
+            if (reference == originalReference || confirmed.get(reference) == originalReference
+                    || originalReference.getDocument().isClosed()) {
+                return true;
+            }
+            PdfIndirectReference copy = copiedObjects.get(new PdfDocument.IndirectRefDescription(reference));
+            if (copy != null && copy == copiedObjects.get(new PdfDocument.IndirectRefDescription(originalReference))) {
+                return true;
+            }
+            confirmed.put(reference, originalReference);
+            PdfObject refersTo = reference.getRefersTo();
+            PdfObject originalRefersTo = originalReference.getRefersTo();
+            if (refersTo == null || originalRefersTo == null) {
+                return refersTo == originalRefersTo;
+            }
+            return equalContents(refersTo, originalRefersTo, level, copiedObjects, confirmed);
+        }
+        return equalContents(obj, original, level, copiedObjects, confirmed);
+    }
+
+    private boolean equalContents(PdfObject obj, PdfObject original, int level,
+                                  Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects,
+                                  Map<PdfIndirectReference, PdfIndirectReference> confirmed) {
+        if (obj.getType() != original.getType()) {
+            return false;
+        }
+        switch (obj.getType()) {
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                return equalDictionaries((PdfDictionary) obj, (PdfDictionary) original, level - 1, copiedObjects, confirmed);
+            case PdfObject.ARRAY: {
+                PdfArray array = (PdfArray) obj;
+                PdfArray originalArray = (PdfArray) original;
+                if (array.size() != originalArray.size()) {
+                    return false;
+                }
+                for (int k = 0; k < array.size() && level > 1; ++k) {
+                    if (!equalObjects(array.get(k, false), originalArray.get(k, false), level - 1, copiedObjects, confirmed)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            default:
+                return obj.toString().equals(original.toString());
+        }
+    }
+
+    private boolean equalDictionaries(PdfDictionary dic, PdfDictionary original, int level,
+                                      Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects,
+                                      Map<PdfIndirectReference, PdfIndirectReference> confirmed) {
+        if (level <= 0) {
+            return true;
+        }
+        int keysCount = 0;
+        for (PdfName key : dic.keySet()) {
+            if (isKeyRefersBack(dic, key)) {
+                continue;
+            }
+            keysCount++;
+            PdfObject originalValue = original.get(key, false);
+            if (originalValue == null || isKeyRefersBack(original, key)
+                    || !equalObjects(dic.get(key, false), originalValue, level, copiedObjects, confirmed)) {
+                return false;
+            }
+        }
+        for (PdfName key : original.keySet()) {
+            if (!isKeyRefersBack(original, key)) {
+                keysCount--;
+            }
+        }
+        return keysCount == 0;
+    }
+
+    private static PdfObject toReferenceIfIndirect(PdfObject obj) {
+        PdfIndirectReference reference = obj.isIndirectReference() ? null : obj.getIndirectReference();
+        return reference != null ? reference : obj;
     }
 
     private boolean isKeyRefersBack(PdfDictionary dic, PdfName key) {
@@ -188,6 +359,42 @@ class SmartModePdfObjectsSerializer implements Serializable {
                 || key.equals(PdfName.Parent);
     }
 
+    private MessageDigest getDigest(int depth) {
+        if (digests == null) {
+            digests = new ArrayList<>();
+        }
+        while (digests.size() <= depth) {
+            try {
+                digests.add(MessageDigest.getInstance("SHA-256"));
+            } catch (Exception e) {
+                throw new PdfException(e);
+            }
+        }
+        return digests.get(depth);
+    }
+
+    private static void update(MessageDigest digest, String str) {
+        digest.update(ByteUtils.getIsoBytes(str));
+    }
+
+    private static class DigestUpdatingOutputStream extends OutputStream {
+        private final MessageDigest digest;
+
+        DigestUpdatingOutputStream(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+
     private static class SelfReferenceException extends Exception {
     }
 }
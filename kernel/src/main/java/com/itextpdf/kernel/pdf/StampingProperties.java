@@ -51,6 +51,7 @@ public class StampingProperties extends DocumentProperties implements Serializab
 
     protected boolean appendMode = false;
     protected boolean preserveEncryption = false;
+    protected boolean modificationsTracking = false;
 
     public StampingProperties() {
     }
@@ -59,6 +60,7 @@ public class StampingProperties extends DocumentProperties implements Serializab
         super(other);
         this.appendMode = other.appendMode;
         this.preserveEncryption = other.preserveEncryption;
+        this.modificationsTracking = other.modificationsTracking;
     }
 
     /**
@@ -79,4 +81,19 @@ public class StampingProperties extends DocumentProperties implements Serializab
         this.preserveEncryption = true;
         return this;
     }
+
+    /**
+     * Defines if the indirect objects changed via the methods of {@link PdfDictionary}, {@link PdfArray}
+     * and {@link PdfStream} will be marked as modified automatically, so that there is no need to call
+     * {@link PdfObject#setModified()} for them. Makes sense only in append mode, see {@link #useAppendMode()}.
+     * Note that the changes made by iText itself while processing the document are tracked as well,
+     * so the incremental update may contain more objects than the ones changed explicitly.
+     * Direct objects are not tracked, the indirect object containing them shall still be marked as modified.
+     * By default, only the objects marked via {@link PdfObject#setModified()} are written in append mode.
+     * @return this {@link StampingProperties} instance
+     */
+    public StampingProperties useModificationsTracking() {
+        this.modificationsTracking = true;
+        return this;
+    }
 }
@@ -43,8 +43,13 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.pdf.compression.CompressionProviders;
+import com.itextpdf.kernel.pdf.compression.FastCompressionProvider;
+import com.itextpdf.kernel.pdf.compression.ICompressionProvider;
+
 import java.io.Serializable;
 import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
 
 public class WriterProperties implements Serializable {
 
@@ -62,6 +67,10 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+    protected boolean compactXref;
+    protected int parallelCompressionThreadsCount;
+    protected transient ExecutorService parallelCompressionExecutor;
+    protected transient ICompressionProvider compressionProvider;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected boolean addUAXmpMetadata;
@@ -113,6 +122,65 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables compact cross-reference table.
+     * <br>
+     * By default the document keeps a {@link PdfIndirectReference} instance for every object until it is closed.
+     * In compact mode, as soon as an object is flushed, its reference is replaced in the cross-reference table
+     * with a compact entry of several bytes holding only the object offset and generation. This considerably reduces
+     * memory consumption for documents with millions of objects, e.g. when merging many documents.
+     * <br>
+     * Note that in compact mode flushed objects are no longer reachable via the document,
+     * e.g. {@link PdfDocument#getPdfObject(int)} returns {@code null} for the objects which have been already flushed.
+     *
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties useCompactXref() {
+        this.compactXref = true;
+        return this;
+    }
+
+    /**
+     * Enables parallel compression of streams.
+     * <br>
+     * By default the content of each stream is compressed by the thread which flushes the stream.
+     * When parallel compression is enabled, flushed streams are compressed by worker threads,
+     * while the flushed objects are still written in the order of flushing, so the resultant document
+     * is identical to the one written without parallel compression.
+     * <br>
+     * The worker threads are shared by all the documents: unless an executor is set with
+     * {@link #setParallelCompressionExecutor(ExecutorService)}, a shared pool of daemon threads is used,
+     * one thread per available processor. The number of flushed objects of the document waiting
+     * for compression is limited depending on the specified number of threads, so flushing blocks
+     * if the worker threads don't keep up.
+     *
+     * @param threadsCount the number of worker threads to be used by the document at the same time,
+     *                     or 0 to compress streams on the flushing thread
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setParallelCompression(int threadsCount) {
+        if (threadsCount < 0) {
+            throw new IllegalArgumentException("The number of parallel compression threads can not be negative.");
+        }
+        this.parallelCompressionThreadsCount = threadsCount;
+        return this;
+    }
+
+    /**
+     * Sets the executor which compresses the streams when parallel compression is enabled with
+     * {@link #setParallelCompression(int)}, instead of the shared pool of daemon threads.
+     * <br>
+     * The executor is not shut down when the document is closed, so the same executor may be used
+     * by many documents.
+     *
+     * @param executor the executor to compress the streams, or {@code null} to use the shared pool
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setParallelCompressionExecutor(ExecutorService executor) {
+        this.parallelCompressionExecutor = executor;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * For PDF 2.0 documents, metadata will be added in any case.
@@ -136,6 +204,20 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines the codec used for compressing the content of the streams of the document.
+     * <br>
+     * By default {@link CompressionProviders#getDefault()} is used. For example {@link FastCompressionProvider}
+     * can be set to speed up writing at the cost of a larger resultant document.
+     *
+     * @param compressionProvider the {@link ICompressionProvider} to use, or {@code null} to use the default one
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setCompressionProvider(ICompressionProvider compressionProvider) {
+        this.compressionProvider = compressionProvider;
+        return this;
+    }
+
     /**
      * Defines if full compression mode is enabled. If enabled, not only the content of the pdf document will be
      * compressed, but also the pdf document inner structure.
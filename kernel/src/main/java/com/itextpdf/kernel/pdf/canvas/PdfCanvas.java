@@ -53,6 +53,9 @@ import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.DeviceCmyk;
+import com.itextpdf.kernel.colors.DeviceGray;
+import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.colors.PatternColor;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfType0Font;
@@ -1622,6 +1625,8 @@ public class PdfCanvas implements Serializable {
     public PdfCanvas setColor(PdfColorSpace colorSpace, float[] colorValue, PdfPattern pattern, boolean fill) {
         boolean setColorValueOnly = false;
         Color oldColor = fill ? currentGs.getFillColor() : currentGs.getStrokeColor();
+        if (isSameDeviceColor(oldColor, colorSpace, colorValue))
+            return this;
         Color newColor = createColor(colorSpace, colorValue, pattern);
         if (oldColor.equals(newColor))
             return this;
@@ -2291,7 +2296,7 @@ public class PdfCanvas implements Serializable {
         }
         if (document.getPdfVersion().compareTo(PdfVersion.PDF_2_0) >= 0) {
             os.write(PdfName.Length).writeSpace();
-            os.write(new PdfNumber(imageBytes.length)).writeNewLine();
+            os.writeInteger(imageBytes.length).writeNewLine();
         }
         os.writeBytes(ID);
         os.writeBytes(imageBytes).writeNewLine().writeBytes(EI).writeNewLine();
@@ -2505,6 +2510,41 @@ public class PdfCanvas implements Serializable {
         return Color.makeColor(colorSpace, colorValue);
     }
 
+    /**
+     * Checks whether setting the given device color would leave the current color unchanged,
+     * without creating the intermediate {@link Color} instance. Only values which would not be
+     * clamped by the device color constructors are taken into account.
+     */
+    private static boolean isSameDeviceColor(Color oldColor, PdfColorSpace colorSpace, float[] colorValue) {
+        if (colorValue == null) {
+            return false;
+        }
+        Class<? extends Color> expectedClass;
+        if (colorSpace instanceof PdfDeviceCs.Gray) {
+            expectedClass = DeviceGray.class;
+        } else if (colorSpace instanceof PdfDeviceCs.Rgb) {
+            expectedClass = DeviceRgb.class;
+        } else if (colorSpace instanceof PdfDeviceCs.Cmyk) {
+            expectedClass = DeviceCmyk.class;
+        } else {
+            return false;
+        }
+        if (oldColor.getClass() != expectedClass) {
+            return false;
+        }
+        float[] oldValue = oldColor.getColorValue();
+        if (oldValue.length > colorValue.length) {
+            return false;
+        }
+        for (int i = 0; i < oldValue.length; i++) {
+            float value = colorValue[i];
+            if (!(value >= 0 && value <= 1) || Float.floatToIntBits(value) != Float.floatToIntBits(oldValue[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private PdfArray getDashPatternArray(float phase) {
         return getDashPatternArray(null, phase);
     }
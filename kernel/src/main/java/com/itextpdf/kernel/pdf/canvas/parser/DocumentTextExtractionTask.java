@@ -0,0 +1,106 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Extracts the text of a range of pages, splitting the range between the workers of a fork-join pool.
+ * Each page is processed by its own {@link PdfCanvasProcessor} and strategy, the results are stored by page index.
+ * <p>
+ * The pages and their resources shall be loaded before the task is started, the objects they refer to are read
+ * on demand, which is synchronized by the {@link com.itextpdf.kernel.pdf.PdfReader}.
+ * The fonts are shared by all workers through a {@link ParsedFontCache}.
+ */
+class DocumentTextExtractionTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 4826374201718497373L;
+
+    private final ExtractionContext context;
+    private final int from;
+    private final int to;
+
+    DocumentTextExtractionTask(PdfPage[] pages, ITextExtractionStrategyFactory strategyFactory) {
+        this(new ExtractionContext(pages, strategyFactory), 0, pages.length);
+    }
+
+    private DocumentTextExtractionTask(ExtractionContext context, int from, int to) {
+        this.context = context;
+        this.from = from;
+        this.to = to;
+    }
+
+    String[] getResults() {
+        return context.results;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            ITextExtractionStrategy strategy = context.strategyFactory.createStrategy();
+            new PdfCanvasProcessor(strategy, context.fontCache).processPageContent(context.pages[from]);
+            context.results[from] = strategy.getResultantText();
+        } else if (to > from) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new DocumentTextExtractionTask(context, from, middle), new DocumentTextExtractionTask(context, middle, to));
+        }
+    }
+
+    private static class ExtractionContext {
+        final PdfPage[] pages;
+        final ITextExtractionStrategyFactory strategyFactory;
+        final String[] results;
+        final ParsedFontCache fontCache = new ParsedFontCache();
+
+        ExtractionContext(PdfPage[] pages, ITextExtractionStrategyFactory strategyFactory) {
+            this.pages = pages;
+            this.strategyFactory = strategyFactory;
+            this.results = new String[pages.length];
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the fonts created from font dictionaries while content streams are processed.
+ * <p>
+ * Every {@link PdfCanvasProcessor} keeps its own fonts, so processing each page with a new processor
+ * parses the encodings, ToUnicode CMaps and widths of the same fonts over and over again.
+ * A cache passed to {@link PdfCanvasProcessor#PdfCanvasProcessor(com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener, ParsedFontCache)}
+ * is shared by all such processors, including the ones that work in different threads.
+ * <p>
+ * Fonts are cached by the indirect reference of their dictionary, fonts which are direct objects are not cached.
+ * The cache holds at most the given number of fonts, the least recently used font is evicted when it is full.
+ * The cache may be shared between documents, fonts are cached per document and reference. Since a font keeps
+ * its document in memory, the fonts of closed documents are removed from the cache whenever a new font is added.
+ */
+public class ParsedFontCache {
+
+    /**
+     * The default maximal number of the cached fonts.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final Map<FontKey, PdfFont> fonts;
+    private final Object fontCreationLock = new Object();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache which holds at most {@link #DEFAULT_MAX_SIZE} fonts.
+     */
+    public ParsedFontCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache which holds at most the given number of fonts.
+     *
+     * @param maxSize the maximal number of the cached fonts, shall be positive
+     */
+    public ParsedFontCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximal size of the fonts cache shall be positive");
+        }
+        this.maxSize = maxSize;
+        this.fonts = new LinkedHashMap<FontKey, PdfFont>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2397841806315725461L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FontKey, PdfFont> eldest) {
+                if (size() > ParsedFontCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the font for the given font dictionary, the font is created if it is not in the cache yet.
+     * Fonts are created one at a time, as creation of a font may modify its dictionary.
+     *
+     * @param fontDict the font dictionary
+     * @return the font
+     */
+    public PdfFont getFont(PdfDictionary fontDict) {
+        PdfIndirectReference reference = fontDict.getIndirectReference();
+        if (reference == null) {
+            synchronized (fontCreationLock) {
+                return PdfFontFactory.createFont(fontDict);
+            }
+        }
+        FontKey key = new FontKey(reference);
+        PdfFont font = findFont(key, true);
+        if (font == null) {
+            synchronized (fontCreationLock) {
+                // another thread may have created the font while this one was waiting
+                font = findFont(key, false);
+                if (font == null) {
+                    font = PdfFontFactory.createFont(fontDict);
+                    synchronized (fonts) {
+                        removeFontsOfClosedDocuments();
+                        fonts.put(key, font);
+                    }
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Gets the number of the requests which were served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        synchronized (fonts) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Gets the number of the requests of indirect font dictionaries which required creation of a font.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        synchronized (fonts) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Gets the number of the fonts which were removed from the cache to keep its size within the limit.
+     *
+     * @return the number of evicted fonts
+     */
+    public long getEvictionCount() {
+        synchronized (fonts) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Gets the ratio of the cache hits to all requests of indirect font dictionaries.
+     *
+     * @return the hit rate from 0 to 1, or 0 if there were no requests
+     */
+    public double getHitRate() {
+        synchronized (fonts) {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+        }
+    }
+
+    /**
+     * Gets the number of the cached fonts.
+     *
+     * @return the number of the cached fonts
+     */
+    public int size() {
+        synchronized (fonts) {
+            return fonts.size();
+        }
+    }
+
+    /**
+     * Removes all fonts from the cache. The statistics are kept.
+     */
+    public void clear() {
+        synchronized (fonts) {
+            fonts.clear();
+        }
+    }
+
+    private PdfFont findFont(FontKey key, boolean countRequest) {
+        synchronized (fonts) {
+            PdfFont font = fonts.get(key);
+            if (countRequest) {
+                if (font != null) {
+                    hitCount++;
+                } else {
+                    missCount++;
+                }
+            }
+            return font;
+        }
+    }
+
+    private void removeFontsOfClosedDocuments() {
+        for (Iterator<FontKey> iterator = fonts.keySet().iterator(); iterator.hasNext(); ) {
+            PdfDocument document = iterator.next().document;
+            if (document != null && document.isClosed()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * References of different documents are equal if their object numbers are, so the document is a part of the key.
+     */
+    private static final class FontKey {
+        private final PdfDocument document;
+        private final PdfIndirectReference reference;
+
+        FontKey(PdfIndirectReference reference) {
+            this.document = reference.getDocument();
+            this.reference = reference;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey) o;
+            return document == other.document && reference.equals(other.reference);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(document) + reference.hashCode();
+        }
+    }
+}
@@ -86,6 +86,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ISelectiveEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
@@ -123,6 +124,16 @@ public class PdfCanvasProcessor {
      */
     protected final Set<EventType> supportedEvents;
 
+    /**
+     * Indicates whether the clipping path is calculated, see {@link ISelectiveEventListener#isClippingPathNeeded()}.
+     */
+    private final boolean clippingPathNeeded;
+
+    /**
+     * Indicates whether the paths are built, which is only needed for the clipping path and {@link EventType#RENDER_PATH}.
+     */
+    private final boolean pathNeeded;
+
     protected Path currentPath = new Path();
 
     /**
@@ -168,6 +179,11 @@ public class PdfCanvasProcessor {
      */
     private Map<Integer, WeakReference<PdfFont>> cachedFonts = new HashMap<>();
 
+    /**
+     * The fonts cache shared with other processors, or {@code null} if the processor keeps its own fonts.
+     */
+    private ParsedFontCache sharedFontCache;
+
     /**
      * A stack containing marked content info.
      */
@@ -182,6 +198,9 @@ public class PdfCanvasProcessor {
     public PdfCanvasProcessor(IEventListener eventListener) {
         this.eventListener = eventListener;
         this.supportedEvents = eventListener.getSupportedEvents();
+        this.clippingPathNeeded = !(eventListener instanceof ISelectiveEventListener)
+                || ((ISelectiveEventListener) eventListener).isClippingPathNeeded();
+        this.pathNeeded = clippingPathNeeded || supportedEvents == null || supportedEvents.contains(EventType.RENDER_PATH);
         operators = new HashMap<>();
         populateOperators();
         xobjectDoHandlers = new HashMap<>();
@@ -205,6 +224,20 @@ public class PdfCanvasProcessor {
         }
     }
 
+    /**
+     * Creates a new PDF Content Stream Processor that will send its output to the
+     * designated render listener and will take the fonts from the given cache.
+     * A cache may be shared by processors of different pages and threads, so the fonts
+     * of a page are not parsed again for every page that uses them.
+     *
+     * @param eventListener the {@link IEventListener} that will receive rendering notifications
+     * @param fontCache     the {@link ParsedFontCache} shared with other processors
+     */
+    public PdfCanvasProcessor(IEventListener eventListener, ParsedFontCache fontCache) {
+        this(eventListener);
+        this.sharedFontCache = fontCache;
+    }
+
     /**
      * Registers a Do handler that will be called when Do for the provided XObject subtype is encountered during content processing.
      * <br>
@@ -300,9 +333,12 @@ public class PdfCanvasProcessor {
      * @param page the page to process
      */
     public void processPageContent(PdfPage page) {
-        initClippingPath(page);
-        ParserGraphicsState gs = getGraphicsState();
-        eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+        // the clipping path is only calculated for the listeners which need it
+        if (clippingPathNeeded) {
+            initClippingPath(page);
+            ParserGraphicsState gs = getGraphicsState();
+            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+        }
         processContent(page.getContentBytes(), page.getResources());
     }
 
@@ -396,7 +432,11 @@ public class PdfCanvasProcessor {
             registerContentOperator("j", new SetLineJoinOperator());
             registerContentOperator("M", new SetMiterLimitOperator());
             registerContentOperator("d", new SetLineDashPatternOperator());
+        }
 
+        // the paths are neither built nor painted if nobody needs them
+        if (pathNeeded && (supportedEvents == null || supportedEvents.contains(EventType.CLIP_PATH_CHANGED)
+                || supportedEvents.contains(EventType.RENDER_PATH))) {
             int fillStroke = PathRenderInfo.FILL | PathRenderInfo.STROKE;
             registerContentOperator("m", new MoveToOperator());
             registerContentOperator("l", new LineToOperator());
@@ -431,13 +471,17 @@ public class PdfCanvasProcessor {
      */
     protected void paintPath(int operation, int rule) {
         ParserGraphicsState gs = getGraphicsState();
-        PathRenderInfo renderInfo = new PathRenderInfo(this.markedContentStack, gs, currentPath, operation, rule, isClip, clippingRule);
-        eventOccurred(renderInfo, EventType.RENDER_PATH);
+        if (isEventSupported(EventType.RENDER_PATH)) {
+            PathRenderInfo renderInfo = new PathRenderInfo(this.markedContentStack, gs, currentPath, operation, rule, isClip, clippingRule);
+            eventOccurred(renderInfo, EventType.RENDER_PATH);
+        }
 
         if (isClip) {
             isClip = false;
-            gs.clip(currentPath, clippingRule);
-            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            if (clippingPathNeeded) {
+                gs.clip(currentPath, clippingRule);
+                eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            }
         }
 
         currentPath = new Path();
@@ -483,7 +527,9 @@ public class PdfCanvasProcessor {
      * @return the font
      */
     protected PdfFont getFont(PdfDictionary fontDict) {
-        if (fontDict.getIndirectReference() == null) {
+        if (sharedFontCache != null) {
+            return sharedFontCache.getFont(fontDict);
+        } else if (fontDict.getIndirectReference() == null) {
             return PdfFontFactory.createFont(fontDict);
         } else {
             int n = fontDict.getIndirectReference().getObjNumber();
@@ -535,7 +581,7 @@ public class PdfCanvasProcessor {
      * @param type event type
      */
     protected void eventOccurred(IEventData data, EventType type) {
-        if (supportedEvents == null || supportedEvents.contains(type)) {
+        if (isEventSupported(type)) {
             eventListener.eventOccurred(data, type);
         }
         if (data instanceof AbstractRenderInfo) {
@@ -543,6 +589,17 @@ public class PdfCanvasProcessor {
         }
     }
 
+    /**
+     * Checks whether the listener is interested in the events of the given type, so that the data of
+     * the events the listener doesn't support, such as the {@link PathRenderInfo}, is not created.
+     *
+     * @param type the event type
+     * @return {@code true} if the events of the type shall be created and sent to the listener
+     */
+    protected boolean isEventSupported(EventType type) {
+        return supportedEvents == null || supportedEvents.contains(type);
+    }
+
     /**
      * Displays text.
      *
@@ -1067,8 +1124,10 @@ public class PdfCanvasProcessor {
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.gsStack.pop();
-            ParserGraphicsState gs = processor.getGraphicsState();
-            processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            if (processor.clippingPathNeeded) {
+                ParserGraphicsState gs = processor.getGraphicsState();
+                processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            }
         }
     }
 
@@ -43,12 +43,21 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ISelectiveEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfPage;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public final class PdfTextExtractor {
 
@@ -93,6 +102,84 @@ public final class PdfTextExtractor {
      * @return the extracted text
      */
     public static String getTextFromPage(PdfPage page) {
-        return getTextFromPage(page, new LocationTextExtractionStrategy());
+        return getTextFromPage(page, new TextOnlyExtractionStrategy());
+    }
+
+    /**
+     * Extracts text from all pages of a document. The pages are processed in parallel by the workers
+     * of the passed fork-join pool, each page with its own strategy created by the passed factory.
+     * The document shall be opened in reading mode and shall not be used by other threads
+     * until the extraction is finished.
+     *
+     * @param document        the document for the text to be extracted from
+     * @param strategyFactory the factory of the strategies to use for extracting text
+     * @param pool            the fork-join pool the pages are processed in
+     * @return the list of the extracted texts, in the order of the pages
+     */
+    public static List<String> getTextFromDocument(PdfDocument document, ITextExtractionStrategyFactory strategyFactory, ForkJoinPool pool) {
+        PdfPage[] pages = new PdfPage[document.getNumberOfPages()];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = document.getPage(i + 1);
+            // page resources are initialized lazily, do it before the pages are shared with the workers
+            pages[i].getResources();
+        }
+        DocumentTextExtractionTask task = new DocumentTextExtractionTask(pages, strategyFactory);
+        pool.invoke(task);
+        return Arrays.asList(task.getResults());
+    }
+
+    /**
+     * Extracts text from all pages of a document. The pages are processed in parallel by a fork-join pool
+     * with the parallelism equal to the number of available processors, each page with its own strategy
+     * created by the passed factory.
+     * The document shall be opened in reading mode and shall not be used by other threads
+     * until the extraction is finished.
+     *
+     * @param document        the document for the text to be extracted from
+     * @param strategyFactory the factory of the strategies to use for extracting text
+     * @return the list of the extracted texts, in the order of the pages
+     */
+    public static List<String> getTextFromDocument(PdfDocument document, ITextExtractionStrategyFactory strategyFactory) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return getTextFromDocument(document, strategyFactory, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Extracts text from all pages of a document using the default strategy, processing the pages in parallel.
+     * Note: the default strategy is subject to change. If using a specific strategy
+     * is important, please use {@link PdfTextExtractor#getTextFromDocument(PdfDocument, ITextExtractionStrategyFactory)}.
+     *
+     * @param document the document for the text to be extracted from
+     * @return the list of the extracted texts, in the order of the pages
+     */
+    public static List<String> getTextFromDocument(PdfDocument document) {
+        return getTextFromDocument(document, new ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy() {
+                return new TextOnlyExtractionStrategy();
+            }
+        });
+    }
+
+    /**
+     * The default strategy for the methods which return only the text. Neither the paths nor the clipping path
+     * can affect the text it extracts, so they are not processed.
+     */
+    private static class TextOnlyExtractionStrategy extends LocationTextExtractionStrategy implements ISelectiveEventListener {
+        private static final Set<EventType> SUPPORTED_EVENTS = Collections.unmodifiableSet(EnumSet.of(EventType.RENDER_TEXT));
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return SUPPORTED_EVENTS;
+        }
+
+        @Override
+        public boolean isClippingPathNeeded() {
+            return false;
+        }
     }
 }
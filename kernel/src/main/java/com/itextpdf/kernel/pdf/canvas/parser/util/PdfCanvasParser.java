@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.pdf.canvas.parser.util;
 
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
@@ -201,8 +202,10 @@ public class PdfCanvasParser {
             case String:
                 PdfString str = new PdfString(tokeniser.getDecodedStringContent()).setHexWriting(tokeniser.isHexString());
                 return str;
-            case Name:
-                return new PdfName(tokeniser.getByteContent());
+            case Name: {
+                ByteBuffer content = tokeniser.getByteContentBuffer();
+                return PdfName.intern(content.getInternalBuffer(), 0, content.size());
+            }
             case Number:
                 //use PdfNumber(byte[]) here, as in this case number parsing won't happen until it's needed.
                 return new PdfNumber(tokeniser.getByteContent());
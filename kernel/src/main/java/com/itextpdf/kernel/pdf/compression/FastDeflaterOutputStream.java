@@ -0,0 +1,637 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.compression;
+
+import com.itextpdf.io.source.IFinishable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+
+/**
+ * A pure Java zlib stream encoder used by {@link FastCompressionProvider}.
+ * <br>
+ * The data is split into chunks of {@link #CHUNK_SIZE} bytes, each chunk is encoded as a single deflate block.
+ * Matches are searched with a single probe of a hash table of 4-byte sequences and the first found match
+ * is always taken. Every block is written as a stored, a fixed Huffman or a dynamic Huffman block,
+ * whichever is the smallest.
+ */
+final class FastDeflaterOutputStream extends OutputStream implements IFinishable {
+
+    private static final int WINDOW_SIZE = 1 << 15;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_HASH_BITS = 15;
+    private static final int MIN_HASH_BITS = 8;
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_MATCH = 258;
+
+    // positions inside longer matches are not hashed to keep the speed on highly repetitive data
+    private static final int MAX_INSERT_LENGTH = 16;
+    // the number of literals emitted in a row grows each 32 failed probes on incompressible data
+    private static final int SKIP_SHIFT = 5;
+
+    private static final int MAX_STORED_BLOCK_SIZE = 0xFFFF;
+    private static final int OUT_BUFFER_SIZE = 0x4000;
+
+    private static final int END_OF_BLOCK = 256;
+    private static final int LIT_LEN_CODES = 286;
+    private static final int DIST_CODES = 30;
+    private static final int CODE_LENGTH_CODES = 19;
+    private static final int MAX_CODE_LENGTH = 15;
+    private static final int MAX_CODE_LENGTH_CODE_LENGTH = 7;
+
+    private static final int[] LENGTH_BASE = {3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31,
+            35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227, 258};
+    private static final int[] LENGTH_EXTRA = {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2,
+            3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0};
+    private static final int[] DIST_BASE = {1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193,
+            257, 385, 513, 769, 1025, 1537, 2049, 3073, 4097, 6145, 8193, 12289, 16385, 24577};
+    private static final int[] DIST_EXTRA = {0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6,
+            7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13};
+    private static final int[] CODE_LENGTH_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+    private static final byte[] LENGTH_CODE = new byte[MAX_MATCH + 1];
+    private static final byte[] DIST_CODE = new byte[WINDOW_SIZE + 1];
+
+    // the fixed code also assigns codes to the two unused symbols 286 and 287
+    private static final int FIXED_LIT_LEN_CODES_COUNT = 288;
+    private static final int[] FIXED_LIT_LEN_LENGTHS = new int[FIXED_LIT_LEN_CODES_COUNT];
+    private static final int[] FIXED_LIT_LEN_CODES = new int[FIXED_LIT_LEN_CODES_COUNT];
+    private static final int[] FIXED_DIST_LENGTHS = new int[DIST_CODES];
+    private static final int[] FIXED_DIST_CODES = new int[DIST_CODES];
+
+    static {
+        for (int code = 0; code < LENGTH_BASE.length; code++) {
+            for (int i = 0; i < 1 << LENGTH_EXTRA[code]; i++) {
+                int length = LENGTH_BASE[code] + i;
+                if (length <= MAX_MATCH) {
+                    LENGTH_CODE[length] = (byte) code;
+                }
+            }
+        }
+        // 258 has its own code without extra bits
+        LENGTH_CODE[MAX_MATCH] = (byte) (LENGTH_BASE.length - 1);
+        for (int code = 0; code < DIST_BASE.length; code++) {
+            for (int i = 0; i < 1 << DIST_EXTRA[code]; i++) {
+                DIST_CODE[DIST_BASE[code] + i] = (byte) code;
+            }
+        }
+        for (int i = 0; i < FIXED_LIT_LEN_CODES_COUNT; i++) {
+            FIXED_LIT_LEN_LENGTHS[i] = i < 144 ? 8 : i < 256 ? 9 : i < 280 ? 7 : 8;
+        }
+        Arrays.fill(FIXED_DIST_LENGTHS, 5);
+        buildCodes(FIXED_LIT_LEN_LENGTHS, FIXED_LIT_LEN_CODES_COUNT, FIXED_LIT_LEN_CODES);
+        buildCodes(FIXED_DIST_LENGTHS, DIST_CODES, FIXED_DIST_CODES);
+    }
+
+    private final OutputStream out;
+    private final boolean store;
+    private final Adler32 adler = new Adler32();
+
+    private byte[] buffer = new byte[0x1000];
+    private int chunkStart;
+    private int bufferEnd;
+
+    private int[] hashTable;
+    private int hashShift;
+
+    // a literal byte or a match encoded as (length << 16 | distance)
+    private int[] items;
+    private int itemsCount;
+    private long extraBitsCount;
+    private final int[] litLenFreqs = new int[LIT_LEN_CODES];
+    private final int[] distFreqs = new int[DIST_CODES];
+    private final int[] litLenLengths = new int[LIT_LEN_CODES];
+    private final int[] litLenCodes = new int[LIT_LEN_CODES];
+    private final int[] distLengths = new int[DIST_CODES];
+    private final int[] distCodes = new int[DIST_CODES];
+
+    private final byte[] outBuffer = new byte[OUT_BUFFER_SIZE];
+    private int outPos;
+    private long bitBuffer;
+    private int bitCount;
+
+    private boolean finished;
+
+    FastDeflaterOutputStream(OutputStream out, boolean store) {
+        this.out = out;
+        this.store = store;
+        // CMF: deflate with 32K window, FLG: the fastest algorithm, no dictionary
+        outBuffer[outPos++] = 0x78;
+        outBuffer[outPos++] = 0x01;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        adler.update(b, off, len);
+        while (len > 0) {
+            int chunkEnd = chunkStart + CHUNK_SIZE;
+            int n = Math.min(len, chunkEnd - bufferEnd);
+            ensureBufferCapacity(bufferEnd + n);
+            System.arraycopy(b, off, buffer, bufferEnd, n);
+            bufferEnd += n;
+            off += n;
+            len -= n;
+            if (bufferEnd == chunkEnd) {
+                compressChunk(false);
+                slideWindow();
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        compressChunk(true);
+        alignToByte();
+        int checksum = (int) adler.getValue();
+        writeByte(checksum >>> 24);
+        writeByte(checksum >>> 16);
+        writeByte(checksum >>> 8);
+        writeByte(checksum);
+        flushOutBuffer();
+        buffer = null;
+        hashTable = null;
+        items = null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushOutBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void ensureBufferCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            int newLength = Math.max(capacity, Math.min(buffer.length * 2, WINDOW_SIZE + CHUNK_SIZE));
+            buffer = Arrays.copyOf(buffer, newLength);
+        }
+    }
+
+    private void slideWindow() {
+        int shift = bufferEnd - WINDOW_SIZE;
+        System.arraycopy(buffer, shift, buffer, 0, WINDOW_SIZE);
+        chunkStart = bufferEnd = WINDOW_SIZE;
+        if (hashTable != null) {
+            int[] table = hashTable;
+            for (int i = 0; i < table.length; i++) {
+                int position = table[i] - shift;
+                table[i] = position < 0 ? -1 : position;
+            }
+        }
+    }
+
+    private void compressChunk(boolean last) throws IOException {
+        if (store) {
+            writeStoredBlocks(chunkStart, bufferEnd, last);
+            return;
+        }
+        if (hashTable == null) {
+            // the whole data is known if the first chunk is the last one, so smaller tables are enough
+            int hashBits = last ? 32 - Integer.numberOfLeadingZeros(bufferEnd) : MAX_HASH_BITS;
+            hashBits = Math.max(MIN_HASH_BITS, Math.min(MAX_HASH_BITS, hashBits));
+            hashTable = new int[1 << hashBits];
+            Arrays.fill(hashTable, -1);
+            hashShift = 32 - hashBits;
+            items = new int[last ? bufferEnd : CHUNK_SIZE];
+        }
+        itemsCount = 0;
+        extraBitsCount = 0;
+        Arrays.fill(litLenFreqs, 0);
+        Arrays.fill(distFreqs, 0);
+        findMatches(chunkStart, bufferEnd);
+        writeBlock(chunkStart, bufferEnd, last);
+    }
+
+    private void findMatches(int start, int end) {
+        byte[] buf = buffer;
+        int[] table = hashTable;
+        int lastHashedPosition = end - MIN_MATCH;
+        int pos = start;
+        int misses = 0;
+        while (pos <= lastHashedPosition) {
+            int sequence = readInt(buf, pos);
+            int hash = (sequence * 0x9E3779B1) >>> hashShift;
+            int candidate = table[hash];
+            table[hash] = pos;
+            if (candidate >= 0 && pos - candidate <= WINDOW_SIZE && readInt(buf, candidate) == sequence) {
+                int maxLength = Math.min(MAX_MATCH, end - pos);
+                int length = MIN_MATCH;
+                while (length < maxLength && buf[candidate + length] == buf[pos + length]) {
+                    length++;
+                }
+                addMatch(length, pos - candidate);
+                int matchEnd = pos + length;
+                if (length <= MAX_INSERT_LENGTH) {
+                    int insertEnd = Math.min(matchEnd, lastHashedPosition + 1);
+                    for (int p = pos + 1; p < insertEnd; p++) {
+                        table[(readInt(buf, p) * 0x9E3779B1) >>> hashShift] = p;
+                    }
+                }
+                pos = matchEnd;
+                misses = 0;
+            } else {
+                int literalsEnd = Math.min(end, pos + 1 + (misses++ >> SKIP_SHIFT));
+                while (pos < literalsEnd) {
+                    addLiteral(buf[pos++] & 0xFF);
+                }
+            }
+        }
+        while (pos < end) {
+            addLiteral(buf[pos++] & 0xFF);
+        }
+    }
+
+    private static int readInt(byte[] buf, int pos) {
+        return (buf[pos] & 0xFF) | (buf[pos + 1] & 0xFF) << 8 | (buf[pos + 2] & 0xFF) << 16 | buf[pos + 3] << 24;
+    }
+
+    private void addLiteral(int literal) {
+        items[itemsCount++] = literal;
+        litLenFreqs[literal]++;
+    }
+
+    private void addMatch(int length, int distance) {
+        items[itemsCount++] = length << 16 | distance;
+        int lengthCode = LENGTH_CODE[length];
+        int distCode = DIST_CODE[distance];
+        litLenFreqs[END_OF_BLOCK + 1 + lengthCode]++;
+        distFreqs[distCode]++;
+        extraBitsCount += LENGTH_EXTRA[lengthCode] + DIST_EXTRA[distCode];
+    }
+
+    private void writeBlock(int start, int end, boolean last) throws IOException {
+        litLenFreqs[END_OF_BLOCK]++;
+        buildCodeLengths(litLenFreqs, LIT_LEN_CODES, MAX_CODE_LENGTH, litLenLengths);
+        buildCodeLengths(distFreqs, DIST_CODES, MAX_CODE_LENGTH, distLengths);
+        int litLenCount = LIT_LEN_CODES;
+        while (litLenCount > END_OF_BLOCK + 1 && litLenLengths[litLenCount - 1] == 0) {
+            litLenCount--;
+        }
+        int distCount = DIST_CODES;
+        while (distCount > 1 && distLengths[distCount - 1] == 0) {
+            distCount--;
+        }
+
+        // run-length encoding of the code lengths, each entry is (extra bits value << 8 | symbol)
+        int[] codeLengths = new int[litLenCount + distCount];
+        System.arraycopy(litLenLengths, 0, codeLengths, 0, litLenCount);
+        System.arraycopy(distLengths, 0, codeLengths, litLenCount, distCount);
+        int[] runs = new int[codeLengths.length];
+        int runsCount = encodeCodeLengths(codeLengths, runs);
+        int[] codeLengthFreqs = new int[CODE_LENGTH_CODES];
+        for (int i = 0; i < runsCount; i++) {
+            codeLengthFreqs[runs[i] & 0xFF]++;
+        }
+        int[] codeLengthLengths = new int[CODE_LENGTH_CODES];
+        buildCodeLengths(codeLengthFreqs, CODE_LENGTH_CODES, MAX_CODE_LENGTH_CODE_LENGTH, codeLengthLengths);
+        int codeLengthCount = CODE_LENGTH_CODES;
+        while (codeLengthCount > 4 && codeLengthLengths[CODE_LENGTH_ORDER[codeLengthCount - 1]] == 0) {
+            codeLengthCount--;
+        }
+
+        long dynamicBits = 3 + 5 + 5 + 4 + 3 * codeLengthCount + extraBitsCount;
+        for (int i = 0; i < runsCount; i++) {
+            int symbol = runs[i] & 0xFF;
+            dynamicBits += codeLengthLengths[symbol] + codeLengthExtraBits(symbol);
+        }
+        long fixedBits = 3 + extraBitsCount;
+        for (int i = 0; i < LIT_LEN_CODES; i++) {
+            dynamicBits += (long) litLenFreqs[i] * litLenLengths[i];
+            fixedBits += (long) litLenFreqs[i] * FIXED_LIT_LEN_LENGTHS[i];
+        }
+        for (int i = 0; i < DIST_CODES; i++) {
+            dynamicBits += (long) distFreqs[i] * distLengths[i];
+            fixedBits += (long) distFreqs[i] * FIXED_DIST_LENGTHS[i];
+        }
+        int storedBlocksCount = Math.max(1, (end - start + MAX_STORED_BLOCK_SIZE - 1) / MAX_STORED_BLOCK_SIZE);
+        long storedBits = (long) storedBlocksCount * (3 + 7 + 32) + 8L * (end - start);
+
+        if (storedBits < fixedBits && storedBits < dynamicBits) {
+            writeStoredBlocks(start, end, last);
+        } else if (fixedBits <= dynamicBits) {
+            putBits(last ? 1 : 0, 1);
+            putBits(1, 2);
+            writeItems(FIXED_LIT_LEN_CODES, FIXED_LIT_LEN_LENGTHS, FIXED_DIST_CODES, FIXED_DIST_LENGTHS);
+        } else {
+            putBits(last ? 1 : 0, 1);
+            putBits(2, 2);
+            putBits(litLenCount - (END_OF_BLOCK + 1), 5);
+            putBits(distCount - 1, 5);
+            putBits(codeLengthCount - 4, 4);
+            for (int i = 0; i < codeLengthCount; i++) {
+                putBits(codeLengthLengths[CODE_LENGTH_ORDER[i]], 3);
+            }
+            int[] codeLengthCodes = new int[CODE_LENGTH_CODES];
+            buildCodes(codeLengthLengths, CODE_LENGTH_CODES, codeLengthCodes);
+            for (int i = 0; i < runsCount; i++) {
+                int symbol = runs[i] & 0xFF;
+                putBits(codeLengthCodes[symbol], codeLengthLengths[symbol]);
+                int extraBits = codeLengthExtraBits(symbol);
+                if (extraBits > 0) {
+                    putBits(runs[i] >>> 8, extraBits);
+                }
+            }
+            buildCodes(litLenLengths, LIT_LEN_CODES, litLenCodes);
+            buildCodes(distLengths, DIST_CODES, distCodes);
+            writeItems(litLenCodes, litLenLengths, distCodes, distLengths);
+        }
+    }
+
+    private void writeItems(int[] litLenCodes, int[] litLenLengths, int[] distCodes, int[] distLengths)
+            throws IOException {
+        int[] items = this.items;
+        for (int i = 0; i < itemsCount; i++) {
+            int item = items[i];
+            if (item < END_OF_BLOCK) {
+                putBits(litLenCodes[item], litLenLengths[item]);
+            } else {
+                int length = item >>> 16;
+                int distance = item & 0xFFFF;
+                int lengthCode = LENGTH_CODE[length];
+                int lengthSymbol = END_OF_BLOCK + 1 + lengthCode;
+                putBits(litLenCodes[lengthSymbol], litLenLengths[lengthSymbol]);
+                if (LENGTH_EXTRA[lengthCode] > 0) {
+                    putBits(length - LENGTH_BASE[lengthCode], LENGTH_EXTRA[lengthCode]);
+                }
+                int distCode = DIST_CODE[distance];
+                putBits(distCodes[distCode], distLengths[distCode]);
+                if (DIST_EXTRA[distCode] > 0) {
+                    putBits(distance - DIST_BASE[distCode], DIST_EXTRA[distCode]);
+                }
+            }
+        }
+        putBits(litLenCodes[END_OF_BLOCK], litLenLengths[END_OF_BLOCK]);
+    }
+
+    private void writeStoredBlocks(int start, int end, boolean last) throws IOException {
+        int pos = start;
+        do {
+            int length = Math.min(MAX_STORED_BLOCK_SIZE, end - pos);
+            putBits(last && pos + length == end ? 1 : 0, 1);
+            putBits(0, 2);
+            alignToByte();
+            writeByte(length);
+            writeByte(length >>> 8);
+            writeByte(~length);
+            writeByte(~length >>> 8);
+            flushOutBuffer();
+            out.write(buffer, pos, length);
+            pos += length;
+        } while (pos < end);
+    }
+
+    private static int encodeCodeLengths(int[] lengths, int[] runs) {
+        int runsCount = 0;
+        int i = 0;
+        while (i < lengths.length) {
+            int length = lengths[i];
+            int run = 1;
+            while (i + run < lengths.length && lengths[i + run] == length) {
+                run++;
+            }
+            i += run;
+            if (length == 0) {
+                while (run >= 11) {
+                    int n = Math.min(run, 138);
+                    runs[runsCount++] = (n - 11) << 8 | 18;
+                    run -= n;
+                }
+                if (run >= 3) {
+                    runs[runsCount++] = (run - 3) << 8 | 17;
+                    run = 0;
+                }
+            } else {
+                runs[runsCount++] = length;
+                run--;
+                while (run >= 3) {
+                    int n = Math.min(run, 6);
+                    runs[runsCount++] = (n - 3) << 8 | 16;
+                    run -= n;
+                }
+            }
+            while (run-- > 0) {
+                runs[runsCount++] = length;
+            }
+        }
+        return runsCount;
+    }
+
+    private static int codeLengthExtraBits(int symbol) {
+        switch (symbol) {
+            case 16:
+                return 2;
+            case 17:
+                return 3;
+            case 18:
+                return 7;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Builds the lengths of a complete length-limited Huffman code for the given symbol frequencies.
+     * If less than two symbols are used, one or two dummy symbols get a code, since decoders don't
+     * accept incomplete codes.
+     */
+    private static void buildCodeLengths(int[] freqs, int symbolsCount, int maxLength, int[] lengths) {
+        Arrays.fill(lengths, 0, symbolsCount, 0);
+        // frequency in the high bits, symbol in the low bits
+        long[] leaves = new long[symbolsCount];
+        int used = 0;
+        for (int symbol = 0; symbol < symbolsCount; symbol++) {
+            if (freqs[symbol] > 0) {
+                leaves[used++] = (long) freqs[symbol] << 16 | symbol;
+            }
+        }
+        if (used < 2) {
+            int first = used == 1 ? (int) (leaves[0] & 0xFFFF) : 0;
+            lengths[first] = 1;
+            lengths[first == 0 ? 1 : 0] = 1;
+            return;
+        }
+        Arrays.sort(leaves, 0, used);
+
+        // two-queue construction: leaves are sorted, internal nodes are created in non-decreasing weight order
+        int nodesCount = 2 * used - 1;
+        long[] weights = new long[nodesCount];
+        int[] parents = new int[nodesCount];
+        for (int i = 0; i < used; i++) {
+            weights[i] = leaves[i] >>> 16;
+        }
+        int nextLeaf = 0;
+        int nextInternal = used;
+        for (int node = used; node < nodesCount; node++) {
+            for (int child = 0; child < 2; child++) {
+                int picked;
+                if (nextLeaf < used && (nextInternal >= node || weights[nextLeaf] <= weights[nextInternal])) {
+                    picked = nextLeaf++;
+                } else {
+                    picked = nextInternal++;
+                }
+                weights[node] += weights[picked];
+                parents[picked] = node;
+            }
+        }
+        int[] depths = new int[nodesCount];
+        int[] lengthCounts = new int[used + 1];
+        int maxDepth = 0;
+        for (int node = nodesCount - 2; node >= 0; node--) {
+            depths[node] = depths[parents[node]] + 1;
+            if (node < used) {
+                lengthCounts[depths[node]]++;
+                maxDepth = Math.max(maxDepth, depths[node]);
+            }
+        }
+
+        // limit the code lengths keeping the code complete: two sibling leaves at the deepest level are moved
+        // to a shallower level, where they replace a leaf which becomes their parent
+        for (int depth = maxDepth; depth > maxLength; depth--) {
+            while (lengthCounts[depth] > 0) {
+                int j = depth - 2;
+                while (lengthCounts[j] == 0) {
+                    j--;
+                }
+                lengthCounts[depth] -= 2;
+                lengthCounts[depth - 1]++;
+                lengthCounts[j + 1] += 2;
+                lengthCounts[j]--;
+            }
+        }
+
+        // the least frequent symbols get the longest codes
+        int leaf = 0;
+        for (int length = Math.min(maxDepth, maxLength); length > 0; length--) {
+            for (int i = 0; i < lengthCounts[length]; i++) {
+                lengths[(int) (leaves[leaf++] & 0xFFFF)] = length;
+            }
+        }
+    }
+
+    /**
+     * Builds the canonical Huffman codes for the given code lengths.
+     * The codes are bit-reversed, since deflate writes them starting from the most significant bit.
+     */
+    private static void buildCodes(int[] lengths, int symbolsCount, int[] codes) {
+        int[] lengthCounts = new int[MAX_CODE_LENGTH + 1];
+        for (int i = 0; i < symbolsCount; i++) {
+            lengthCounts[lengths[i]]++;
+        }
+        lengthCounts[0] = 0;
+        int[] nextCodes = new int[MAX_CODE_LENGTH + 1];
+        int code = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            code = (code + lengthCounts[length - 1]) << 1;
+            nextCodes[length] = code;
+        }
+        for (int i = 0; i < symbolsCount; i++) {
+            int length = lengths[i];
+            if (length != 0) {
+                codes[i] = Integer.reverse(nextCodes[length]++) >>> (32 - length);
+            }
+        }
+    }
+
+    private void putBits(int value, int count) throws IOException {
+        bitBuffer |= (long) value << bitCount;
+        bitCount += count;
+        if (bitCount >= 32) {
+            if (outPos > OUT_BUFFER_SIZE - 4) {
+                flushOutBuffer();
+            }
+            byte[] buf = outBuffer;
+            long bits = bitBuffer;
+            buf[outPos] = (byte) bits;
+            buf[outPos + 1] = (byte) (bits >>> 8);
+            buf[outPos + 2] = (byte) (bits >>> 16);
+            buf[outPos + 3] = (byte) (bits >>> 24);
+            outPos += 4;
+            bitBuffer = bits >>> 32;
+            bitCount -= 32;
+        }
+    }
+
+    private void alignToByte() throws IOException {
+        while (bitCount > 0) {
+            writeByte((int) bitBuffer);
+            bitBuffer >>>= 8;
+            bitCount -= 8;
+        }
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (outPos == OUT_BUFFER_SIZE) {
+            flushOutBuffer();
+        }
+        outBuffer[outPos++] = (byte) b;
+    }
+
+    private void flushOutBuffer() throws IOException {
+        if (outPos > 0) {
+            out.write(outBuffer, 0, outPos);
+            outPos = 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A codec used by iText for the zlib/deflate compressed data (the FlateDecode filter).
+ * <br>
+ * The provider is used for compressing the content of the streams on writing and for decoding
+ * FlateDecode streams on reading. The default provider is {@link JdkCompressionProvider},
+ * another one can be set either globally via {@link CompressionProviders#setDefault(ICompressionProvider)}
+ * or for a single document via {@link com.itextpdf.kernel.pdf.WriterProperties#setCompressionProvider(ICompressionProvider)}.
+ * <br>
+ * Implementations shall be thread-safe, i.e. the streams shall be independent of each other.
+ */
+public interface ICompressionProvider {
+
+    /**
+     * Creates an output stream which writes the zlib-compressed data (RFC 1950) to the specified stream.
+     * <br>
+     * The returned stream should implement {@link com.itextpdf.io.source.IFinishable} or extend
+     * {@link java.util.zip.DeflaterOutputStream}: finishing the stream writes all the remaining compressed data,
+     * but doesn't close the specified stream. Any other stream is completed by closing it.
+     *
+     * @param out              the stream to write the compressed data to
+     * @param compressionLevel the compression level from 0 to 9 or -1 for the default level,
+     *                         see {@link com.itextpdf.kernel.pdf.CompressionConstants}
+     * @return the compressing output stream
+     * @throws IOException if an I/O error occurs
+     */
+    OutputStream createDeflateStream(OutputStream out, int compressionLevel) throws IOException;
+
+    /**
+     * Creates an input stream which reads and decompresses the zlib-compressed data (RFC 1950)
+     * from the specified stream.
+     *
+     * @param in the stream to read the compressed data from
+     * @return the decompressing input stream
+     * @throws IOException if an I/O error occurs
+     */
+    InputStream createInflateStream(InputStream in) throws IOException;
+}
@@ -51,12 +51,14 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 
 /**
  * Handles ASCII85Decode filter
  */
-public class ASCII85DecodeFilter extends MemoryLimitsAwareFilter {
+public class ASCII85DecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * {@inheritDoc}
@@ -68,6 +70,15 @@ public class ASCII85DecodeFilter extends MemoryLimitsAwareFilter {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        return new ASCII85DecodeInputStream(encodedStream);
+    }
+
     /**
      * Decodes the input bytes according to ASCII85.
      *
@@ -52,11 +52,13 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles ASCIIHexDecode filter
  */
-public class ASCIIHexDecodeFilter extends MemoryLimitsAwareFilter {
+public class ASCIIHexDecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * {@inheritDoc}
@@ -68,6 +70,15 @@ public class ASCIIHexDecodeFilter extends MemoryLimitsAwareFilter {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        return new ASCIIHexDecodeInputStream(encodedStream);
+    }
+
     /**
      * Decodes a byte[] according to ASCII Hex encoding.
      *
@@ -0,0 +1,208 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A base class for the streams which decode the data read from another stream portion by portion.
+ */
+abstract class DecodeInputStream extends InputStream {
+
+    private static final int INPUT_BUFFER_SIZE = 0x2000;
+
+    private final InputStream in;
+    private final byte[] inputBuffer = new byte[INPUT_BUFFER_SIZE];
+    private int inputPosition;
+    private int inputLimit;
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean finished;
+
+    DecodeInputStream(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureDecodedData()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len && ensureDecodedData()) {
+            int n = Math.min(len - count, limit - position);
+            System.arraycopy(buffer, position, b, off + count, n);
+            position += n;
+            count += n;
+        }
+        return count > 0 ? count : -1;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && ensureDecodedData()) {
+            int count = (int) Math.min(n - skipped, limit - position);
+            position += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decodes the next portion of data.
+     *
+     * @param buffer the buffer to write the decoded data to, starting from the beginning
+     * @return the number of decoded bytes, or -1 if the end of data is reached
+     * @throws IOException if an I/O error occurs
+     */
+    abstract int decode(byte[] buffer) throws IOException;
+
+    /**
+     * Reads the next byte of the encoded data.
+     *
+     * @return the next byte of the encoded data, or -1 if the end of the encoded stream is reached
+     * @throws IOException if an I/O error occurs
+     */
+    final int readEncoded() throws IOException {
+        if (inputPosition == inputLimit) {
+            int n = in.read(inputBuffer, 0, inputBuffer.length);
+            if (n <= 0) {
+                return -1;
+            }
+            inputPosition = 0;
+            inputLimit = n;
+        }
+        return inputBuffer[inputPosition++] & 0xff;
+    }
+
+    /**
+     * Reads the encoded data until the array is full or the end of the encoded stream is reached.
+     *
+     * @param b the array to read the data to
+     * @param off the start offset in the array
+     * @param len the number of bytes to read
+     * @return the number of read bytes
+     * @throws IOException if an I/O error occurs
+     */
+    final int readEncoded(byte[] b, int off, int len) throws IOException {
+        int count = 0;
+        while (count < len) {
+            if (inputPosition == inputLimit) {
+                int n = in.read(inputBuffer, 0, inputBuffer.length);
+                if (n <= 0) {
+                    break;
+                }
+                inputPosition = 0;
+                inputLimit = n;
+            }
+            int n = Math.min(len - count, inputLimit - inputPosition);
+            System.arraycopy(inputBuffer, inputPosition, b, off + count, n);
+            inputPosition += n;
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a byte of the encoded data which hasn't been read yet, without consuming it.
+     *
+     * @param index the index of the byte relative to the next byte to read, less than the input buffer size
+     * @return the byte of the encoded data, or -1 if the end of the encoded stream is reached before it
+     * @throws IOException if an I/O error occurs
+     */
+    final int peekEncoded(int index) throws IOException {
+        while (inputLimit - inputPosition <= index) {
+            if (inputPosition > 0) {
+                System.arraycopy(inputBuffer, inputPosition, inputBuffer, 0, inputLimit - inputPosition);
+                inputLimit -= inputPosition;
+                inputPosition = 0;
+            }
+            int n = in.read(inputBuffer, inputLimit, inputBuffer.length - inputLimit);
+            if (n <= 0) {
+                return -1;
+            }
+            inputLimit += n;
+        }
+        return inputBuffer[inputPosition + index] & 0xff;
+    }
+
+    private boolean ensureDecodedData() throws IOException {
+        while (position >= limit) {
+            if (finished) {
+                return false;
+            }
+            int n = decode(buffer);
+            if (n < 0) {
+                finished = true;
+                return false;
+            }
+            position = 0;
+            limit = n;
+        }
+        return true;
+    }
+}
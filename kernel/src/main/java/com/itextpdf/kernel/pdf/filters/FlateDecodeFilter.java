@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.pdf.filters;
 
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.MemoryLimitsAwareException;
 import com.itextpdf.kernel.pdf.MemoryLimitsAwareFilter;
@@ -50,17 +51,18 @@ import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.compression.CompressionProviders;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.zip.InflaterInputStream;
+import java.io.InputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
+public class FlateDecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * Creates a FlateDecodeFilter.
@@ -119,6 +121,21 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If the decoder doesn't decode strictly, a corrupted stream ends at the point of corruption
+     * instead of throwing an exception.
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        InputStream inflaterStream = strictDecoding
+                ? CompressionProviders.getDefault().createInflateStream(encodedStream)
+                : new LenientInputStream(encodedStream);
+        return decodePredictor(inflaterStream, decodeParams);
+    }
+
     /**
      * Defines how the corrupted streams should be treated.
      *
@@ -148,9 +165,9 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
      */
     private static byte[] flateDecode(byte[] in, boolean strict, ByteArrayOutputStream out) {
         ByteArrayInputStream stream = new ByteArrayInputStream(in);
-        InflaterInputStream zip = new InflaterInputStream(stream);
         byte[] b = new byte[strict ? 4092 : 1];
         try {
+            InputStream zip = CompressionProviders.getDefault().createInflateStream(stream);
             int n;
             while ((n = zip.read(b)) >= 0) {
                 out.write(b, 0, n);
@@ -227,58 +244,7 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
                 return fout.toByteArray();
             }
 
-            switch (filter) {
-                case 0: //PNG_FILTER_NONE
-                    break;
-                case 1: //PNG_FILTER_SUB
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += curr[i - bytesPerPixel];
-                    }
-                    break;
-                case 2: //PNG_FILTER_UP
-                    for (int i = 0; i < bytesPerRow; i++) {
-                        curr[i] += prior[i];
-                    }
-                    break;
-                case 3: //PNG_FILTER_AVERAGE
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += (byte) (prior[i] / 2);
-                    }
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += (byte) (((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff)) / 2);
-                    }
-                    break;
-                case 4: //PNG_FILTER_PAETH
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += prior[i];
-                    }
-
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        int a = curr[i - bytesPerPixel] & 0xff;
-                        int b = prior[i] & 0xff;
-                        int c = prior[i - bytesPerPixel] & 0xff;
-
-                        int p = a + b - c;
-                        int pa = Math.abs(p - a);
-                        int pb = Math.abs(p - b);
-                        int pc = Math.abs(p - c);
-
-                        int ret;
-
-                        if (pa <= pb && pa <= pc) {
-                            ret = a;
-                        } else if (pb <= pc) {
-                            ret = b;
-                        } else {
-                            ret = c;
-                        }
-                        curr[i] += (byte) ret;
-                    }
-                    break;
-                default:
-                    // Error -- unknown filter type
-                    throw new PdfException(PdfException.PngFilterUnknown);
-            }
+            decodePngRow(filter, curr, prior, bytesPerPixel, bytesPerRow);
             try {
                 fout.write(curr);
             } catch (IOException ioe) {
@@ -292,4 +258,203 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
             curr = tmp;
         }
     }
+
+    /**
+     * Creates a stream which reverses the prediction of the data read from the passed stream.
+     *
+     * @param in           the stream of the data to decode
+     * @param decodeParams PdfDictionary of decodeParams.
+     * @return the stream of the decoded data, or the passed stream if no prediction is applied
+     */
+    public static InputStream decodePredictor(InputStream in, PdfObject decodeParams) {
+        if (decodeParams == null || decodeParams.getType() != PdfObject.DICTIONARY)
+            return in;
+        PdfDictionary dic = (PdfDictionary) decodeParams;
+        PdfObject obj = dic.get(PdfName.Predictor);
+        if (obj == null || obj.getType() != PdfObject.NUMBER)
+            return in;
+        int predictor = ((PdfNumber) obj).intValue();
+        if (predictor < 10 && predictor != 2)
+            return in;
+        int width = 1;
+        obj = dic.get(PdfName.Columns);
+        if (obj != null && obj.getType() == PdfObject.NUMBER)
+            width = ((PdfNumber) obj).intValue();
+        int colors = 1;
+        obj = dic.get(PdfName.Colors);
+        if (obj != null && obj.getType() == PdfObject.NUMBER)
+            colors = ((PdfNumber) obj).intValue();
+        int bpc = 8;
+        obj = dic.get(PdfName.BitsPerComponent);
+        if (obj != null && obj.getType() == PdfObject.NUMBER)
+            bpc = ((PdfNumber) obj).intValue();
+        int bytesPerPixel = colors * bpc / 8;
+        int bytesPerRow = (colors * width * bpc + 7) / 8;
+        if (predictor == 2 && (bpc != 8 || bytesPerRow <= 0)) {
+            return in;
+        }
+        return new PredictorDecodeInputStream(in, predictor == 2, bytesPerPixel, Math.max(bytesPerRow, 0));
+    }
+
+    /**
+     * Reverses the PNG prediction of a row.
+     *
+     * @param filter        the PNG filter type of the row
+     * @param curr          the row, which is decoded in place
+     * @param prior         the previous decoded row, filled with zeros for the first row
+     * @param bytesPerPixel the number of bytes per complete pixel
+     * @param bytesPerRow   the number of bytes in a row
+     */
+    static void decodePngRow(int filter, byte[] curr, byte[] prior, int bytesPerPixel, int bytesPerRow) {
+        switch (filter) {
+            case 0: //PNG_FILTER_NONE
+                break;
+            case 1: //PNG_FILTER_SUB
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    curr[i] += curr[i - bytesPerPixel];
+                }
+                break;
+            case 2: //PNG_FILTER_UP
+                for (int i = 0; i < bytesPerRow; i++) {
+                    curr[i] += prior[i];
+                }
+                break;
+            case 3: //PNG_FILTER_AVERAGE
+                for (int i = 0; i < bytesPerPixel; i++) {
+                    curr[i] += (byte) (prior[i] / 2);
+                }
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    curr[i] += (byte) (((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff)) / 2);
+                }
+                break;
+            case 4: //PNG_FILTER_PAETH
+                for (int i = 0; i < bytesPerPixel; i++) {
+                    curr[i] += prior[i];
+                }
+
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    int a = curr[i - bytesPerPixel] & 0xff;
+                    int b = prior[i] & 0xff;
+                    int c = prior[i - bytesPerPixel] & 0xff;
+
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+
+                    int ret;
+
+                    if (pa <= pb && pa <= pc) {
+                        ret = a;
+                    } else if (pb <= pc) {
+                        ret = b;
+                    } else {
+                        ret = c;
+                    }
+                    curr[i] += (byte) ret;
+                }
+                break;
+            default:
+                // Error -- unknown filter type
+                throw new PdfException(PdfException.PngFilterUnknown);
+        }
+    }
+
+    /**
+     * Inflates a stream that may be corrupted. Decoding ends at the point of corruption.
+     * <br>
+     * Data is inflated in bulk while the stream is valid. If the encoded stream can be repositioned without
+     * buffering its data, the first failure restarts inflating from the beginning and the rest of the data
+     * is inflated byte by byte, so that all decodable bytes are recovered, as {@link #flateDecode(byte[], boolean)}
+     * does. Other streams, e.g. a {@link java.io.BufferedInputStream}, which would keep the whole encoded data
+     * in memory if marked, are not replayed: decoding ends at the failure of the bulk inflating.
+     */
+    private static final class LenientInputStream extends InputStream {
+        private final InputStream encodedStream;
+        private final boolean replayable;
+        private InputStream inflaterStream;
+        private long position;
+        private boolean byteByByte;
+        private boolean ended;
+
+        LenientInputStream(InputStream encodedStream) throws IOException {
+            this.encodedStream = encodedStream;
+            this.replayable = encodedStream instanceof RASInputStream
+                    || encodedStream instanceof ByteArrayInputStream;
+            if (replayable) {
+                encodedStream.mark(Integer.MAX_VALUE);
+            }
+            this.inflaterStream = CompressionProviders.getDefault().createInflateStream(encodedStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (ended) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (!byteByByte) {
+                try {
+                    int n = inflaterStream.read(b, off, len);
+                    if (n > 0) {
+                        position += n;
+                    }
+                    return n;
+                } catch (IOException e) {
+                    if (!replayable || !restart()) {
+                        ended = true;
+                        return -1;
+                    }
+                }
+            }
+            int count = 0;
+            while (count < len) {
+                int c;
+                try {
+                    c = inflaterStream.read();
+                } catch (IOException e) {
+                    ended = true;
+                    break;
+                }
+                if (c < 0) {
+                    break;
+                }
+                b[off + count++] = (byte) c;
+            }
+            position += count;
+            return count > 0 ? count : -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflaterStream.close();
+        }
+
+        private boolean restart() {
+            try {
+                encodedStream.reset();
+                inflaterStream = CompressionProviders.getDefault().createInflateStream(encodedStream);
+                long toSkip = position;
+                while (toSkip > 0) {
+                    long skipped = inflaterStream.skip(toSkip);
+                    if (skipped <= 0) {
+                        return false;
+                    }
+                    toSkip -= skipped;
+                }
+                byteByByte = true;
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
 }
@@ -46,10 +46,12 @@ import com.itextpdf.kernel.pdf.MemoryLimitsAwareException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.compression.CompressionProviders;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.zip.InflaterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles strict FlateDecode filter.
@@ -67,6 +69,15 @@ public class FlateDecodeStrictFilter extends FlateDecodeFilter {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        return decodePredictor(CompressionProviders.getDefault().createInflateStream(encodedStream), decodeParams);
+    }
+
     /**
      * A helper to flateDecode.
      *
@@ -76,9 +87,9 @@ public class FlateDecodeStrictFilter extends FlateDecodeFilter {
      */
     private static byte[] flateDecode(byte[] in, ByteArrayOutputStream out) {
         ByteArrayInputStream stream = new ByteArrayInputStream(in);
-        InflaterInputStream zip = new InflaterInputStream(stream);
         byte[] b = new byte[4092];
         try {
+            InputStream zip = CompressionProviders.getDefault().createInflateStream(stream);
             int n;
             while ((n = zip.read(b)) >= 0) {
                 out.write(b, 0, n);
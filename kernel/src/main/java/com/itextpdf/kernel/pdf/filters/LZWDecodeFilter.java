@@ -49,11 +49,13 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles LZWDECODE filter
  */
-public class LZWDecodeFilter extends MemoryLimitsAwareFilter {
+public class LZWDecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * {@inheritDoc}
@@ -66,6 +68,15 @@ public class LZWDecodeFilter extends MemoryLimitsAwareFilter {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        return FlateDecodeFilter.decodePredictor(new LZWDecodeInputStream(encodedStream), decodeParams);
+    }
+
     /**
      * Decodes a byte[] according to the LZW encoding.
      *
@@ -0,0 +1,192 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the LZW encoded data on the fly, see {@link LZWDecoder}.
+ * <br>
+ * Instead of keeping a separate array for every string of the table as {@link LZWDecoder} does,
+ * each string is stored as a reference to its prefix string and its last byte.
+ */
+final class LZWDecodeInputStream extends DecodeInputStream {
+
+    private static final int TABLE_SIZE = 8192;
+    private static final int CLEAR_TABLE = 256;
+    private static final int END_OF_INFORMATION = 257;
+
+    private static final int[] AND_TABLE = {511, 1023, 2047, 4095};
+
+    private final int[] prefixes = new int[TABLE_SIZE];
+    private final byte[] lastBytes = new byte[TABLE_SIZE];
+    private final byte[] firstBytes = new byte[TABLE_SIZE];
+    private final int[] lengths = new int[TABLE_SIZE];
+    private int tableIndex;
+    private int bitsToGet = 9;
+
+    private int nextData;
+    private int nextBits;
+
+    private int oldCode;
+    private boolean started;
+    private boolean ended;
+
+    LZWDecodeInputStream(InputStream in) {
+        // any string is shorter than the table, so it always fits the rest of the buffer
+        super(in, 2 * TABLE_SIZE);
+        for (int i = 0; i < 256; i++) {
+            lastBytes[i] = (byte) i;
+            firstBytes[i] = (byte) i;
+            lengths[i] = 1;
+        }
+        initializeStringTable();
+    }
+
+    @Override
+    int decode(byte[] buffer) throws IOException {
+        if (ended) {
+            return -1;
+        }
+        if (!started) {
+            started = true;
+            if (peekEncoded(0) == 0x00 && peekEncoded(1) == 0x01) {
+                throw new PdfException(PdfException.LzwFlavourNotSupported);
+            }
+        }
+        int count = 0;
+        while (count <= buffer.length - TABLE_SIZE && !ended) {
+            count = decodeCode(getNextCode(), buffer, count);
+        }
+        return count == 0 && ended ? -1 : count;
+    }
+
+    private int decodeCode(int code, byte[] buffer, int count) throws IOException {
+        if (code == END_OF_INFORMATION) {
+            ended = true;
+        } else if (code == CLEAR_TABLE) {
+            initializeStringTable();
+            code = getNextCode();
+            if (code == END_OF_INFORMATION) {
+                ended = true;
+            } else {
+                count = writeString(code, buffer, count);
+                oldCode = code;
+            }
+        } else if (code < tableIndex) {
+            count = writeString(code, buffer, count);
+            addStringToTable(oldCode, firstBytes[code]);
+            oldCode = code;
+        } else {
+            count = writeString(oldCode, buffer, count);
+            buffer[count++] = firstBytes[oldCode];
+            addStringToTable(oldCode, firstBytes[oldCode]);
+            oldCode = code;
+        }
+        return count;
+    }
+
+    private void initializeStringTable() {
+        tableIndex = 258;
+        bitsToGet = 9;
+    }
+
+    private int writeString(int code, byte[] buffer, int count) {
+        int length = lengths[code];
+        int pos = count + length;
+        while (pos > count) {
+            buffer[--pos] = lastBytes[code];
+            code = prefixes[code];
+        }
+        return count + length;
+    }
+
+    private void addStringToTable(int prefix, byte lastByte) {
+        if (tableIndex < TABLE_SIZE) {
+            prefixes[tableIndex] = prefix;
+            lastBytes[tableIndex] = lastByte;
+            firstBytes[tableIndex] = firstBytes[prefix];
+            lengths[tableIndex] = lengths[prefix] + 1;
+            tableIndex++;
+        }
+        if (tableIndex == 511) {
+            bitsToGet = 10;
+        } else if (tableIndex == 1023) {
+            bitsToGet = 11;
+        } else if (tableIndex == 2047) {
+            bitsToGet = 12;
+        }
+    }
+
+    /**
+     * Reads the next 9, 10, 11 or 12 bits. If the encoded data ends before a code is read,
+     * the EndOfInformation code is returned, since the code could be omitted from a strip.
+     */
+    private int getNextCode() throws IOException {
+        int b = readEncoded();
+        if (b == -1) {
+            return END_OF_INFORMATION;
+        }
+        nextData = (nextData << 8) | b;
+        nextBits += 8;
+        if (nextBits < bitsToGet) {
+            b = readEncoded();
+            if (b == -1) {
+                return END_OF_INFORMATION;
+            }
+            nextData = (nextData << 8) | b;
+            nextBits += 8;
+        }
+        return takeCode();
+    }
+
+    private int takeCode() {
+        int code = (nextData >> (nextBits - bitsToGet)) & AND_TABLE[bitsToGet - 9];
+        nextBits -= bitsToGet;
+        return code;
+    }
+}
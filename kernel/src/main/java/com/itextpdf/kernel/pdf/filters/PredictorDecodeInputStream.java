@@ -0,0 +1,89 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reverses the PNG or TIFF prediction of the data on the fly, see
+ * {@link FlateDecodeFilter#decodePredictor(byte[], com.itextpdf.kernel.pdf.PdfObject)}.
+ */
+final class PredictorDecodeInputStream extends DecodeInputStream {
+
+    private final boolean tiffPredictor;
+    private final int bytesPerPixel;
+    private final int bytesPerRow;
+    private byte[] prior;
+
+    PredictorDecodeInputStream(InputStream in, boolean tiffPredictor, int bytesPerPixel, int bytesPerRow) {
+        super(in, Math.max(bytesPerRow, 1));
+        this.tiffPredictor = tiffPredictor;
+        this.bytesPerPixel = bytesPerPixel;
+        this.bytesPerRow = bytesPerRow;
+        this.prior = new byte[bytesPerRow];
+    }
+
+    @Override
+    int decode(byte[] buffer) throws IOException {
+        if (tiffPredictor) {
+            int n = readEncoded(buffer, 0, bytesPerRow);
+            if (n == bytesPerRow) {
+                for (int col = bytesPerPixel; col < bytesPerRow; col++) {
+                    buffer[col] = (byte) (buffer[col] + buffer[col - bytesPerPixel]);
+                }
+            }
+            // an incomplete last row is left as is
+            return n > 0 ? n : -1;
+        }
+        int filter = readEncoded();
+        if (filter < 0 || readEncoded(buffer, 0, bytesPerRow) < bytesPerRow) {
+            // an incomplete last row is dropped
+            return -1;
+        }
+        FlateDecodeFilter.decodePngRow(filter, buffer, prior, bytesPerPixel, bytesPerRow);
+        System.arraycopy(buffer, 0, prior, 0, bytesPerRow);
+        return bytesPerRow;
+    }
+}
@@ -49,11 +49,13 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handles RunLengthDecode filter.
  */
-public class RunLengthDecodeFilter extends MemoryLimitsAwareFilter {
+public class RunLengthDecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * {@inheritDoc}
@@ -84,4 +86,13 @@ public class RunLengthDecodeFilter extends MemoryLimitsAwareFilter {
         }
         return outputStream.toByteArray();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decode(InputStream encodedStream, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) throws IOException {
+        return new RunLengthDecodeInputStream(encodedStream);
+    }
 }
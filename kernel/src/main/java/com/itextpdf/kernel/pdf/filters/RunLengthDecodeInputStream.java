@@ -0,0 +1,97 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the run-length encoded data on the fly, see {@link RunLengthDecodeFilter}.
+ */
+final class RunLengthDecodeInputStream extends DecodeInputStream {
+
+    private static final int MAX_RUN_LENGTH = 128;
+
+    private boolean ended;
+
+    RunLengthDecodeInputStream(InputStream in) {
+        super(in, 0x1000);
+    }
+
+    @Override
+    int decode(byte[] buffer) throws IOException {
+        if (ended) {
+            return -1;
+        }
+        int count = 0;
+        while (count <= buffer.length - MAX_RUN_LENGTH) {
+            int dupCount = readEncoded();
+            if (dupCount == -1 || dupCount == 0x80) {
+                // 0x80 is the implicit end of data
+                ended = true;
+                break;
+            }
+            if ((dupCount & 0x80) == 0) {
+                int bytesToCopy = dupCount + 1;
+                int n = readEncoded(buffer, count, bytesToCopy);
+                count += n;
+                if (n < bytesToCopy) {
+                    ended = true;
+                    break;
+                }
+            } else {
+                // make dupcount copies of the next byte
+                int b = readEncoded();
+                if (b == -1) {
+                    ended = true;
+                    break;
+                }
+                for (int j = 0; j < 257 - dupCount; j++) {
+                    buffer[count++] = (byte) b;
+                }
+            }
+        }
+        return count == 0 && ended ? -1 : count;
+    }
+}
@@ -98,6 +98,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import org.slf4j.LoggerFactory;
@@ -116,6 +117,10 @@ import org.xml.sax.SAXException;
  * "compareExec", which would contain the paths to the executables of correspondingly
  * Ghostscript and ImageMagick tools.
  * <p>
+ * Alternatively the visual comparison can be performed without external tools by comparing the glyphs, paths and
+ * images painted on the pages, see {@link #enableInProcessVisualCompare()}. It is enabled for all instances if
+ * java property or environment variable "visualCompareEngine" is set to "inProcess".
+ * <p>
  * CompareTool class was mainly designed for the testing purposes of iText in order to
  * ensure that the same code produces the same PDF document. For this reason you will
  * often encounter such parameter names as "outDoc" and "cmpDoc" which stand for output
@@ -143,6 +148,8 @@ public class CompareTool {
 
     private static final String NEW_LINES = "\\r|\\n";
 
+    private static final String IN_PROCESS_VISUAL_COMPARE_ENGINE = "inProcess";
+
     private String gsExec;
     private String compareExec;
 
@@ -167,12 +174,17 @@ public class CompareTool {
     private boolean useCachedPagesForComparison = true;
     private IMetaInfo metaInfo;
 
+    private boolean inProcessVisualCompareEnabled;
+    private float visualCompareTolerance = 0.5f;
+
     /**
      * Creates an instance of the CompareTool.
      */
     public CompareTool() {
         gsExec = SystemUtil.getPropertyOrEnvironmentVariable("gsExec");
         compareExec = SystemUtil.getPropertyOrEnvironmentVariable("compareExec");
+        inProcessVisualCompareEnabled = IN_PROCESS_VISUAL_COMPARE_ENGINE.equals(
+                SystemUtil.getPropertyOrEnvironmentVariable("visualCompareEngine"));
     }
 
     /**
@@ -296,6 +308,40 @@ public class CompareTool {
         return this;
     }
 
+    /**
+     * Enables the visual comparison which doesn't use Ghostscript and ImageMagick.
+     * <p>
+     * Instead of comparing the rendered images, the content streams of the pages are processed and every painted
+     * glyph, path and image is compared with the corresponding one of the other document. The elements are matched by
+     * their visual properties, e.g. the text, font and colors of a glyph, and their positions on the page shall not
+     * differ more than the tolerance set by {@link #setVisualCompareTolerance(float)}. The pages are compared in parallel.
+     * No image files are created, the differences are listed in the returned report.
+     * <p>
+     * The clipping path, the painting order, the annotations and the transparency are not taken into account.
+     * The content which lies completely within the ignored areas is not compared.
+     * <p>
+     * IMPORTANT NOTE: this flag affects both compareVisually and compareByContent methods!
+     *
+     * @return this CompareTool instance.
+     */
+    public CompareTool enableInProcessVisualCompare() {
+        this.inProcessVisualCompareEnabled = true;
+        return this;
+    }
+
+    /**
+     * Sets the maximal distance between the corresponding points of the compared elements in default user space units
+     * for the visual comparison enabled by {@link #enableInProcessVisualCompare()}. The default value is 0.5,
+     * which is about the size of a pixel of the images rendered by Ghostscript.
+     *
+     * @param tolerance the maximal distance between the corresponding points
+     * @return this CompareTool instance.
+     */
+    public CompareTool setVisualCompareTolerance(float tolerance) {
+        this.visualCompareTolerance = tolerance;
+        return this;
+    }
+
     /**
      * Gets {@link ReaderProperties} to be passed later to the {@link PdfReader} of the output document.
      * <p>
@@ -972,6 +1018,9 @@ public class CompareTool {
     }
 
     private String compareVisually(String outPath, String differenceImagePrefix, Map<Integer, List<Rectangle>> ignoredAreas, List<Integer> equalPages) throws IOException, InterruptedException {
+        if (inProcessVisualCompareEnabled) {
+            return compareRenderedContent(ignoredAreas, equalPages);
+        }
         if (gsExec == null) {
             throw new CompareToolExecutionException(undefinedGsPath);
         }
@@ -1003,6 +1052,40 @@ public class CompareTool {
         return compareImagesOfPdfs(outPath, differenceImagePrefix, equalPages);
     }
 
+    private String compareRenderedContent(Map<Integer, List<Rectangle>> ignoredAreas, List<Integer> equalPages) throws IOException {
+        System.out.println("Comparing visually..........");
+        PdfDocument outDocument = new PdfDocument(new PdfReader(outPdf, getOutReaderProperties()), new DocumentProperties().setEventCountingMetaInfo(metaInfo));
+        PdfDocument cmpDocument = new PdfDocument(new PdfReader(cmpPdf, getCmpReaderProperties()), new DocumentProperties().setEventCountingMetaInfo(metaInfo));
+        boolean bUnexpectedNumberOfPages = outDocument.getNumberOfPages() != cmpDocument.getNumberOfPages();
+        String[] pageReports;
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pageReports = new RenderedContentComparator(visualCompareTolerance).comparePages(outDocument, cmpDocument, ignoredAreas, equalPages, pool);
+        } finally {
+            pool.shutdown();
+            outDocument.close();
+            cmpDocument.close();
+        }
+
+        List<Integer> diffPages = new ArrayList<>();
+        StringBuilder pageDifferences = new StringBuilder();
+        for (int i = 0; i < pageReports.length; i++) {
+            if (pageReports[i] != null) {
+                diffPages.add(i + 1);
+                pageDifferences.append("\nPage ").append(i + 1).append(": ").append(pageReports[i]);
+            }
+        }
+        if (!diffPages.isEmpty()) {
+            String errorMessage = differentPages.replace("<filename>", UrlUtil.toNormalizedURI(outPdf).getPath()).replace("<pagenumber>", listDiffPagesAsString(diffPages));
+            System.out.println(errorMessage + pageDifferences);
+            return errorMessage + pageDifferences;
+        } else if (bUnexpectedNumberOfPages) {
+            return unexpectedNumberOfPages.replace("<filename>", outPdf);
+        }
+        System.out.println(" done.");
+        return null;
+    }
+
     private String compareImagesOfPdfs(String outPath, String differenceImagePrefix, List<Integer> equalPages) throws IOException, InterruptedException {
         File[] imageFiles = FileUtil.listFilesInDirectoryByFilter(outPath, new PngFileFilter());
         File[] cmpImageFiles = FileUtil.listFilesInDirectoryByFilter(outPath, new CmpPngFileFilter());
@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +56,7 @@ public class PdfMerger {
     private boolean closeSrcDocuments;
     private boolean mergeTags;
     private boolean mergeOutlines;
+    private boolean streamingMode;
 
     /**
      * This class is used to merge a number of existing documents into one. By default, if source document
@@ -96,6 +98,26 @@ public class PdfMerger {
         return this;
     }
 
+    /**
+     * If set to <i>true</i> then the merged pages, the objects copied from the source document and the completed
+     * outlines are flushed to the output immediately after each <i>{@code PdfMerger#merge}</i> call, and the
+     * information on the objects copied from the source document is dropped. This keeps the memory usage flat
+     * regardless of the number of merged documents.
+     * <p>
+     * Note, that the merged pages can't be changed after they are flushed, and that the objects shared by
+     * the pages which are merged by different <i>{@code PdfMerger#merge}</i> calls are copied more than once,
+     * even if they are merged from the same source document. Smart mode of the {@link com.itextpdf.kernel.pdf.PdfWriter}
+     * can be used to avoid duplicating such objects in the output.
+     * Default value - <i>false</i>.
+     *
+     * @param streamingMode should be true to flush the merged content after each merge
+     * @return this {@code PdfMerger} instance
+     */
+    public PdfMerger setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        return this;
+    }
+
     /**
      * This method merges pages from the source document to the current one.
      * <p>
@@ -137,7 +159,10 @@ public class PdfMerger {
             pdfDocument.initializeOutlines();
         }
 
-        from.copyPagesTo(pages, pdfDocument);
+        List<PdfPage> mergedPages = from.copyPagesTo(pages, pdfDocument);
+        if (streamingMode) {
+            flushMergedContent(from, mergedPages);
+        }
         if (closeSrcDocuments) {
             from.close();
         }
@@ -155,4 +180,15 @@ public class PdfMerger {
     public void close() {
         pdfDocument.close();
     }
+
+    private void flushMergedContent(PdfDocument from, List<PdfPage> mergedPages) {
+        for (PdfPage page : mergedPages) {
+            page.flush();
+        }
+        pdfDocument.flushCopiedObjects(from);
+        if (mergeOutlines && pdfDocument.hasOutlines()) {
+            // the outlines of the next merged documents are appended after the last top-level outline
+            pdfDocument.getOutlines(false).flushChildrenExceptLast();
+        }
+    }
 }
@@ -0,0 +1,553 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.BezierCurve;
+import com.itextpdf.kernel.geom.IShape;
+import com.itextpdf.kernel.geom.LineSegment;
+import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.Point;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Subpath;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.ParsedFontCache;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compares the pages of two documents by the content they render, without rasterizing them.
+ * <p>
+ * The content streams of the pages are processed by {@link PdfCanvasProcessor} and every painted glyph, path
+ * and image is turned into an element which consists of a key, e.g. the text and font of a glyph or the colors
+ * and line style of a path, and its coordinates on the page. Two pages are considered to be visually equal if
+ * every element of one page has an element with the same key on the other page whose coordinates differ
+ * by at most the given tolerance.
+ * <p>
+ * Whitespace glyphs, invisible text and paths which are neither filled nor stroked are not compared.
+ * The clipping path, the painting order of the elements, the annotations and the transparency
+ * are not taken into account. The elements whose bounding box lies within an ignored area are not compared.
+ * <p>
+ * The pages are processed in parallel by the workers of a fork-join pool.
+ */
+final class RenderedContentComparator {
+
+    private static final int MAX_REPORTED_DIFFERENCES_PER_PAGE = 5;
+
+    private final float tolerance;
+
+    RenderedContentComparator(float tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compares the pages of the documents with the same numbers.
+     *
+     * @param outDocument  the output document
+     * @param cmpDocument  the document the output document is compared with
+     * @param ignoredAreas the ignored areas by one-based page numbers, may be null
+     * @param skippedPages zero-based indices of the pages which shall not be compared, may be null
+     * @param pool         the fork-join pool the pages are processed in
+     * @return the reports on the differences of the pages by zero-based page indices, null if the pages are equal
+     */
+    String[] comparePages(PdfDocument outDocument, PdfDocument cmpDocument, Map<Integer, List<Rectangle>> ignoredAreas,
+            List<Integer> skippedPages, ForkJoinPool pool) {
+        int pageCount = Math.min(outDocument.getNumberOfPages(), cmpDocument.getNumberOfPages());
+        PdfPage[] outPages = new PdfPage[pageCount];
+        PdfPage[] cmpPages = new PdfPage[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            if (skippedPages == null || !skippedPages.contains(i)) {
+                outPages[i] = outDocument.getPage(i + 1);
+                cmpPages[i] = cmpDocument.getPage(i + 1);
+                // page resources are initialized lazily, do it before the pages are shared with the workers
+                outPages[i].getResources();
+                cmpPages[i].getResources();
+            }
+        }
+        ComparisonContext context = new ComparisonContext(outPages, cmpPages, ignoredAreas);
+        pool.invoke(new PageComparisonTask(context, 0, pageCount));
+        return context.results;
+    }
+
+    private String comparePage(PdfPage outPage, PdfPage cmpPage, List<Rectangle> ignoredAreas, ComparisonContext context) {
+        Rectangle outPageSize = outPage.getPageSizeWithRotation();
+        Rectangle cmpPageSize = cmpPage.getPageSizeWithRotation();
+        if (!outPageSize.equalsWithEpsilon(cmpPageSize, tolerance)) {
+            return "Expected page size " + cmpPageSize + " but was " + outPageSize;
+        }
+
+        List<ContentElement> outElements = collectElements(outPage, ignoredAreas, context.outImageDigests, context);
+        List<ContentElement> cmpElements = collectElements(cmpPage, ignoredAreas, context.cmpImageDigests, context);
+
+        Map<String, List<ContentElement>> outElementsByKey = groupByKey(outElements);
+        List<ContentElement> missing = new ArrayList<>();
+        for (Map.Entry<String, List<ContentElement>> entry : groupByKey(cmpElements).entrySet()) {
+            List<ContentElement> candidates = outElementsByKey.get(entry.getKey());
+            for (ContentElement element : entry.getValue()) {
+                if (candidates == null || !matchElement(element, candidates)) {
+                    missing.add(element);
+                }
+            }
+        }
+        List<ContentElement> unexpected = new ArrayList<>();
+        for (ContentElement element : outElements) {
+            if (!element.matched) {
+                unexpected.add(element);
+            }
+        }
+        if (missing.isEmpty() && unexpected.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder report = new StringBuilder();
+        int reported = 0;
+        for (ContentElement element : missing) {
+            if (reported++ < MAX_REPORTED_DIFFERENCES_PER_PAGE) {
+                report.append("\n\tMissing ").append(element);
+            }
+        }
+        for (ContentElement element : unexpected) {
+            if (reported++ < MAX_REPORTED_DIFFERENCES_PER_PAGE) {
+                report.append("\n\tUnexpected ").append(element);
+            }
+        }
+        if (reported > MAX_REPORTED_DIFFERENCES_PER_PAGE) {
+            report.append("\n\t... and ").append(reported - MAX_REPORTED_DIFFERENCES_PER_PAGE).append(" more differences");
+        }
+        return missing.size() + " missing and " + unexpected.size() + " unexpected elements:" + report;
+    }
+
+    private List<ContentElement> collectElements(PdfPage page, List<Rectangle> ignoredAreas,
+            Map<PdfIndirectReference, String> imageDigests, ComparisonContext context) {
+        ContentCollector collector = new ContentCollector(imageDigests);
+        new PdfCanvasProcessor(collector, context.fontCache).processPageContent(page);
+        if (ignoredAreas == null || ignoredAreas.isEmpty()) {
+            return collector.elements;
+        }
+        List<ContentElement> elements = new ArrayList<>(collector.elements.size());
+        for (ContentElement element : collector.elements) {
+            if (!isIgnored(element, ignoredAreas)) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private boolean isIgnored(ContentElement element, List<Rectangle> ignoredAreas) {
+        for (Rectangle area : ignoredAreas) {
+            if (element.minX >= area.getLeft() - tolerance && element.maxX <= area.getRight() + tolerance
+                    && element.minY >= area.getBottom() - tolerance && element.maxY <= area.getTop() + tolerance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the first unmatched candidate with the coordinates close to the ones of the element as matched.
+     * The candidates are sorted by their left border.
+     */
+    private boolean matchElement(ContentElement element, List<ContentElement> candidates) {
+        int low = 0;
+        int high = candidates.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (candidates.get(middle).minX < element.minX - tolerance) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < candidates.size() && candidates.get(i).minX <= element.minX + tolerance; i++) {
+            ContentElement candidate = candidates.get(i);
+            if (!candidate.matched && element.isCloseTo(candidate, tolerance)) {
+                candidate.matched = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, List<ContentElement>> groupByKey(List<ContentElement> elements) {
+        Map<String, List<ContentElement>> elementsByKey = new LinkedHashMap<>();
+        for (ContentElement element : elements) {
+            List<ContentElement> group = elementsByKey.get(element.key);
+            if (group == null) {
+                group = new ArrayList<>();
+                elementsByKey.put(element.key, group);
+            }
+            group.add(element);
+        }
+        for (List<ContentElement> group : elementsByKey.values()) {
+            Collections.sort(group, new Comparator<ContentElement>() {
+                @Override
+                public int compare(ContentElement o1, ContentElement o2) {
+                    return Float.compare(o1.minX, o2.minX);
+                }
+            });
+        }
+        return elementsByKey;
+    }
+
+    private static class ComparisonContext {
+        final PdfPage[] outPages;
+        final PdfPage[] cmpPages;
+        final Map<Integer, List<Rectangle>> ignoredAreas;
+        final String[] results;
+        final ParsedFontCache fontCache = new ParsedFontCache();
+        // references of different documents with the same object number are equal, so each document has its own digests
+        final Map<PdfIndirectReference, String> outImageDigests = new ConcurrentHashMap<>();
+        final Map<PdfIndirectReference, String> cmpImageDigests = new ConcurrentHashMap<>();
+
+        ComparisonContext(PdfPage[] outPages, PdfPage[] cmpPages, Map<Integer, List<Rectangle>> ignoredAreas) {
+            this.outPages = outPages;
+            this.cmpPages = cmpPages;
+            this.ignoredAreas = ignoredAreas;
+            this.results = new String[outPages.length];
+        }
+    }
+
+    private class PageComparisonTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 6302582634227917423L;
+
+        private final ComparisonContext context;
+        private final int from;
+        private final int to;
+
+        PageComparisonTask(ComparisonContext context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                if (context.outPages[from] != null) {
+                    List<Rectangle> pageIgnoredAreas = context.ignoredAreas == null ? null : context.ignoredAreas.get(from + 1);
+                    context.results[from] = comparePage(context.outPages[from], context.cmpPages[from], pageIgnoredAreas, context);
+                }
+            } else if (to > from) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PageComparisonTask(context, from, middle), new PageComparisonTask(context, middle, to));
+            }
+        }
+    }
+
+    /**
+     * A painted glyph, path or image.
+     */
+    private static class ContentElement {
+        final String key;
+        final float[] coordinates;
+        final float minX;
+        final float minY;
+        final float maxX;
+        final float maxY;
+        boolean matched;
+
+        ContentElement(String key, float[] coordinates) {
+            this.key = key;
+            this.coordinates = coordinates;
+            float minX = Float.MAX_VALUE;
+            float minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE;
+            float maxY = -Float.MAX_VALUE;
+            for (int i = 0; i < coordinates.length; i += 2) {
+                minX = Math.min(minX, coordinates[i]);
+                maxX = Math.max(maxX, coordinates[i]);
+                minY = Math.min(minY, coordinates[i + 1]);
+                maxY = Math.max(maxY, coordinates[i + 1]);
+            }
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        boolean isCloseTo(ContentElement other, float tolerance) {
+            if (coordinates.length != other.coordinates.length) {
+                return false;
+            }
+            for (int i = 0; i < coordinates.length; i++) {
+                if (Math.abs(coordinates[i] - other.coordinates[i]) > tolerance) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return key + " at [" + minX + " " + minY + " " + maxX + " " + maxY + "]";
+        }
+    }
+
+    /**
+     * Collects the painted elements of a page.
+     */
+    private static class ContentCollector implements IEventListener {
+        final List<ContentElement> elements = new ArrayList<>();
+        final Map<PdfIndirectReference, String> imageDigests;
+
+        ContentCollector(Map<PdfIndirectReference, String> imageDigests) {
+            this.imageDigests = imageDigests;
+        }
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            switch (type) {
+                case RENDER_TEXT:
+                    addText((TextRenderInfo) data);
+                    break;
+                case RENDER_PATH:
+                    addPath((PathRenderInfo) data);
+                    break;
+                case RENDER_IMAGE:
+                    addImage((ImageRenderInfo) data);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return EnumSet.of(EventType.RENDER_TEXT, EventType.RENDER_PATH, EventType.RENDER_IMAGE);
+        }
+
+        private void addText(TextRenderInfo renderInfo) {
+            int renderMode = renderInfo.getTextRenderMode();
+            if (renderMode == PdfCanvasConstants.TextRenderingMode.INVISIBLE
+                    || renderMode == PdfCanvasConstants.TextRenderingMode.CLIP) {
+                return;
+            }
+            StringBuilder style = new StringBuilder(" font ").append(getFontName(renderInfo.getFont()));
+            if (renderMode != PdfCanvasConstants.TextRenderingMode.STROKE
+                    && renderMode != PdfCanvasConstants.TextRenderingMode.STROKE_CLIP) {
+                style.append(" fill ");
+                appendColor(style, renderInfo.getFillColor());
+            }
+            if (renderMode != PdfCanvasConstants.TextRenderingMode.FILL
+                    && renderMode != PdfCanvasConstants.TextRenderingMode.FILL_CLIP) {
+                style.append(" stroke ");
+                appendColor(style, renderInfo.getStrokeColor());
+            }
+            for (TextRenderInfo characterInfo : renderInfo.getCharacterRenderInfos()) {
+                String text = characterInfo.getText();
+                if (text == null || text.isEmpty()) {
+                    text = toHex(characterInfo.getPdfString().getValueBytes());
+                } else if (text.trim().isEmpty()) {
+                    continue;
+                }
+                LineSegment ascent = characterInfo.getAscentLine();
+                LineSegment descent = characterInfo.getDescentLine();
+                float[] coordinates = {
+                        ascent.getStartPoint().get(Vector.I1), ascent.getStartPoint().get(Vector.I2),
+                        ascent.getEndPoint().get(Vector.I1), ascent.getEndPoint().get(Vector.I2),
+                        descent.getStartPoint().get(Vector.I1), descent.getStartPoint().get(Vector.I2),
+                        descent.getEndPoint().get(Vector.I1), descent.getEndPoint().get(Vector.I2)};
+                elements.add(new ContentElement("text \"" + text + "\"" + style, coordinates));
+            }
+        }
+
+        private void addPath(PathRenderInfo renderInfo) {
+            int operation = renderInfo.getOperation();
+            boolean fill = (operation & PathRenderInfo.FILL) != 0;
+            boolean stroke = (operation & PathRenderInfo.STROKE) != 0;
+            if (!fill && !stroke || renderInfo.getPath().isEmpty()) {
+                return;
+            }
+            Matrix ctm = renderInfo.getCtm();
+            StringBuilder key = new StringBuilder("path ");
+            List<Float> points = new ArrayList<>();
+            for (Subpath subpath : renderInfo.getPath().getSubpaths()) {
+                key.append('m');
+                addPoint(points, subpath.getStartPoint(), ctm);
+                for (IShape segment : subpath.getSegments()) {
+                    key.append(segment instanceof BezierCurve ? 'c' : 'l');
+                    List<Point> basePoints = segment.getBasePoints();
+                    // the first point of a segment is the last point of the previous one
+                    for (int i = 1; i < basePoints.size(); i++) {
+                        addPoint(points, basePoints.get(i), ctm);
+                    }
+                }
+                if (subpath.isClosed()) {
+                    key.append('h');
+                }
+            }
+            if (fill) {
+                key.append(" fill ").append(renderInfo.getRule() == PdfCanvasConstants.FillingRule.EVEN_ODD ? "even-odd " : "nonzero ");
+                appendColor(key, renderInfo.getFillColor());
+            }
+            if (stroke) {
+                float scale = (float) Math.sqrt(Math.abs(ctm.getDeterminant()));
+                key.append(" stroke ");
+                appendColor(key, renderInfo.getStrokeColor());
+                key.append(" width ").append(round(renderInfo.getLineWidth() * scale))
+                        .append(" cap ").append(renderInfo.getLineCapStyle())
+                        .append(" join ").append(renderInfo.getLineJoinStyle());
+                PdfArray dashPattern = renderInfo.getLineDashPattern();
+                if (dashPattern != null) {
+                    key.append(" dash ").append(dashPattern);
+                }
+            }
+            float[] coordinates = new float[points.size()];
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = (float) points.get(i);
+            }
+            elements.add(new ContentElement(key.toString(), coordinates));
+        }
+
+        private void addImage(ImageRenderInfo renderInfo) {
+            PdfImageXObject image = renderInfo.getImage();
+            PdfIndirectReference reference = image.getPdfObject().getIndirectReference();
+            String digest = reference == null ? null : imageDigests.get(reference);
+            if (digest == null) {
+                digest = calculateDigest(image.getPdfObject());
+                if (reference != null) {
+                    imageDigests.put(reference, digest);
+                }
+            }
+            Matrix ctm = renderInfo.getImageCtm();
+            List<Float> points = new ArrayList<>(8);
+            addPoint(points, new Point(0, 0), ctm);
+            addPoint(points, new Point(1, 0), ctm);
+            addPoint(points, new Point(1, 1), ctm);
+            addPoint(points, new Point(0, 1), ctm);
+            float[] coordinates = new float[points.size()];
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = (float) points.get(i);
+            }
+            elements.add(new ContentElement("image " + (int) image.getWidth() + "x" + (int) image.getHeight() + " " + digest, coordinates));
+        }
+
+        private static void addPoint(List<Float> points, Point point, Matrix ctm) {
+            Vector transformed = new Vector((float) point.getX(), (float) point.getY(), 1).cross(ctm);
+            points.add(transformed.get(Vector.I1));
+            points.add(transformed.get(Vector.I2));
+        }
+
+        private static String getFontName(PdfFont font) {
+            PdfName baseFont = font.getPdfObject().getAsName(PdfName.BaseFont);
+            if (baseFont == null) {
+                return "";
+            }
+            String name = baseFont.getValue();
+            // subset fonts are prefixed with six uppercase letters and a plus sign, e.g. ABCDEF+Helvetica
+            return name.length() > 7 && name.charAt(6) == '+' ? name.substring(7) : name;
+        }
+
+        private static void appendColor(StringBuilder sb, Color color) {
+            if (color == null) {
+                sb.append("none");
+                return;
+            }
+            sb.append(color.getClass().getSimpleName());
+            float[] value = color.getColorValue();
+            if (value != null) {
+                for (float component : value) {
+                    sb.append(' ').append(round(component));
+                }
+            }
+        }
+
+        private static float round(float value) {
+            return Math.round(value * 1000) / 1000f;
+        }
+
+        private static String calculateDigest(PdfStream stream) {
+            byte[] bytes;
+            try {
+                bytes = stream.getBytes(true);
+            } catch (RuntimeException e) {
+                // the image is compressed with a filter which is not supported, e.g. DCTDecode
+                bytes = stream.getBytes(false);
+            }
+            try {
+                return toHex(MessageDigest.getInstance("MD5").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                return String.valueOf(bytes.length) + ':' + Arrays.hashCode(bytes);
+            }
+        }
+
+        private static String toHex(byte[] bytes) {
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+    }
+}
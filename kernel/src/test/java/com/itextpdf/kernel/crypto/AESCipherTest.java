@@ -0,0 +1,137 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class AESCipherTest extends ExtendedITextTest {
+
+    private static final byte[] KEY_128 = createData(16, 1);
+    private static final byte[] KEY_256 = createData(32, 2);
+    private static final byte[] IV = createData(16, 3);
+
+    @Test
+    public void encryptionMatchesBouncyCastleTest() {
+        for (byte[] key : new byte[][] {KEY_128, KEY_256}) {
+            for (int length = 0; length <= 50; length++) {
+                byte[] data = createData(length, length);
+                byte[] encrypted = process(true, key, data, true);
+                Assert.assertArrayEquals("length " + length, process(true, key, data, false), encrypted);
+                Assert.assertEquals(length / 16 * 16 + 16, encrypted.length);
+            }
+        }
+    }
+
+    @Test
+    public void decryptionOfFullBlocksMatchesBouncyCastleTest() {
+        for (byte[] key : new byte[][] {KEY_128, KEY_256}) {
+            for (int length = 0; length <= 50; length++) {
+                byte[] data = createData(length, length);
+                byte[] encrypted = process(true, key, data, false);
+                Assert.assertArrayEquals("length " + length, process(false, key, encrypted, false),
+                        process(false, key, encrypted, true));
+                Assert.assertArrayEquals("length " + length, data, process(false, key, encrypted, true));
+            }
+        }
+    }
+
+    @Test
+    public void decryptionOfIncompleteLastBlockMatchesBouncyCastleTest() {
+        byte[] encrypted = process(true, KEY_128, createData(40, 4), false);
+        for (int length = 0; length < encrypted.length; length++) {
+            if (length % 16 == 0) {
+                continue;
+            }
+            byte[] truncated = Arrays.copyOf(encrypted, length);
+            byte[] decrypted = process(false, KEY_128, truncated, true);
+            Assert.assertArrayEquals("length " + length, process(false, KEY_128, truncated, false), decrypted);
+            Assert.assertEquals(length / 16 * 16 + 16, decrypted.length);
+        }
+    }
+
+    @Test
+    public void decryptionWithBadPaddingMatchesBouncyCastleTest() {
+        byte[] encrypted = process(true, KEY_128, createData(40, 5), false);
+        for (int i = 0; i < 256; i++) {
+            byte[] corrupted = encrypted.clone();
+            // changes the padding byte of the last decrypted block, making the padding invalid in most cases
+            corrupted[corrupted.length - 17] = (byte) i;
+            Assert.assertArrayEquals("byte " + i, process(false, KEY_128, corrupted, false),
+                    process(false, KEY_128, corrupted, true));
+        }
+        byte[] decryptedWithWrongKey = process(false, KEY_256, encrypted, true);
+        Assert.assertArrayEquals(process(false, KEY_256, encrypted, false), decryptedWithWrongKey);
+    }
+
+    private static byte[] process(boolean forEncryption, byte[] key, byte[] data, boolean useJce) {
+        AESCipher cipher = new AESCipher(forEncryption, key, IV, useJce);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        // the data is passed in uneven parts to check the buffering of the incomplete blocks
+        int offset = 0;
+        for (int part = 1; offset < data.length; part += 7) {
+            int length = Math.min(part, data.length - offset);
+            byte[] processed = cipher.update(data, offset, length);
+            result.write(processed, 0, processed.length);
+            offset += length;
+        }
+        byte[] last = cipher.doFinal();
+        result.write(last, 0, last.length);
+        return result.toByteArray();
+    }
+
+    private static byte[] createData(int length, int seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.EncryptionConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Measures the throughput of the AES encryption and decryption of streams, both of the cipher streams alone
+ * and of writing and reading whole documents, compared to the unencrypted documents.
+ */
+@Category(PerformanceTest.class)
+public class AesEncryptionBenchmarkTest extends ExtendedITextTest {
+
+    private static final int STREAM_COUNT = 128;
+    private static final int STREAM_SIZE = 256 * 1024;
+    private static final int ITERATIONS = 5;
+
+    private static final byte[] USER_PASSWORD = "user".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] OWNER_PASSWORD = "owner".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Test
+    public void aesCipherStreamsBenchmarkTest() throws IOException {
+        byte[] data = createData(STREAM_SIZE);
+        for (int keyLength : new int[] {16, 32}) {
+            byte[] key = createData(keyLength);
+            byte[] encrypted = null;
+            long bestEncryptionTime = Long.MAX_VALUE;
+            long bestDecryptionTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                for (int j = 0; j < STREAM_COUNT; j++) {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream(STREAM_SIZE + 32);
+                    OutputStreamAesEncryption encryption = new OutputStreamAesEncryption(baos, key);
+                    encryption.write(data);
+                    encryption.finish();
+                    encrypted = baos.toByteArray();
+                }
+                bestEncryptionTime = Math.min(bestEncryptionTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                byte[] decrypted = null;
+                for (int j = 0; j < STREAM_COUNT; j++) {
+                    decrypted = readFully(new InputStreamDecryption(new ByteArrayInputStream(encrypted),
+                            new AesDecryptor(key, 0, key.length)));
+                }
+                bestDecryptionTime = Math.min(bestDecryptionTime, System.nanoTime() - start);
+                Assert.assertArrayEquals(data, decrypted);
+            }
+            printThroughput("AES-" + keyLength * 8 + " streams", bestEncryptionTime, bestDecryptionTime);
+        }
+    }
+
+    @Test
+    public void encryptedDocumentsBenchmarkTest() throws IOException {
+        byte[] data = createData(STREAM_SIZE);
+        int[] encryptionAlgorithms = {-1, EncryptionConstants.ENCRYPTION_AES_128, EncryptionConstants.ENCRYPTION_AES_256};
+        String[] names = {"unencrypted", "AES-128 document", "AES-256 document"};
+        for (int k = 0; k < encryptionAlgorithms.length; k++) {
+            byte[] document = null;
+            long bestWritingTime = Long.MAX_VALUE;
+            long bestReadingTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                document = createDocument(data, encryptionAlgorithms[k]);
+                bestWritingTime = Math.min(bestWritingTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                Assert.assertEquals(STREAM_COUNT, readStreams(document, data));
+                bestReadingTime = Math.min(bestReadingTime, System.nanoTime() - start);
+            }
+            printThroughput(names[k], bestWritingTime, bestReadingTime);
+        }
+    }
+
+    private static byte[] createDocument(byte[] data, int encryptionAlgorithm) throws IOException {
+        WriterProperties writerProperties = new WriterProperties().setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+        if (encryptionAlgorithm >= 0) {
+            writerProperties.setStandardEncryption(USER_PASSWORD, OWNER_PASSWORD, EncryptionConstants.ALLOW_PRINTING,
+                    encryptionAlgorithm);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(STREAM_COUNT * (STREAM_SIZE + 64));
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, writerProperties));
+        pdfDocument.addNewPage();
+        for (int i = 0; i < STREAM_COUNT; i++) {
+            PdfStream stream = new PdfStream(data);
+            stream.makeIndirect(pdfDocument);
+            stream.flush();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static int readStreams(byte[] document, byte[] data) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setPassword(USER_PASSWORD)));
+        int streamCount = 0;
+        for (int i = 1; i <= pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object instanceof PdfStream) {
+                byte[] bytes = ((PdfStream) object).getBytes();
+                if (bytes.length == data.length) {
+                    Assert.assertArrayEquals(data, bytes);
+                    streamCount++;
+                }
+            }
+        }
+        pdfDocument.close();
+        return streamCount;
+    }
+
+    private static void printThroughput(String name, long encryptionTime, long decryptionTime) {
+        double megabytes = (double) STREAM_COUNT * STREAM_SIZE / 1048576;
+        System.out.println(String.format("%-18s write %7.1f MB/s, read %7.1f MB/s", name,
+                megabytes / (encryptionTime / 1e9), megabytes / (decryptionTime / 1e9)));
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(STREAM_SIZE);
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = is.read(buffer)) >= 0) {
+            baos.write(buffer, 0, n);
+        }
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.annot.PdfTextAnnotation;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures the time of adding a single annotation to documents of different sizes in append mode.
+ * Only the modified objects are visited when the document is closed, so the time of closing the document
+ * and the size of the incremental update shall not grow with the size of the original document.
+ */
+@Category(PerformanceTest.class)
+public class AppendModeBenchmarkTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/pdf/AppendModeBenchmarkTest/";
+
+    private static final int[] PAGE_COUNTS = {1000, 10000, 100000};
+    private static final int ITERATIONS = 5;
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void addAnnotationInAppendModeBenchmarkTest() throws IOException {
+        long firstIncrementSize = -1;
+        for (int pageCount : PAGE_COUNTS) {
+            String src = destinationFolder + "pages" + pageCount + ".pdf";
+            String dest = destinationFolder + "pages" + pageCount + "_annotated.pdf";
+            createDocument(src, pageCount);
+
+            long bestTime = Long.MAX_VALUE;
+            long bestCloseTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                PdfDocument pdfDoc = new PdfDocument(
+                        new PdfReader(src, new ReaderProperties().setLazyXrefLoading(true)),
+                        new PdfWriter(dest), new StampingProperties().useAppendMode());
+                pdfDoc.getPage(pageCount / 2).addAnnotation(
+                        new PdfTextAnnotation(new Rectangle(100, 100, 20, 20)).setContents("Reviewed"));
+                long closeStart = System.nanoTime();
+                pdfDoc.close();
+                long end = System.nanoTime();
+                bestTime = Math.min(bestTime, end - start);
+                bestCloseTime = Math.min(bestCloseTime, end - closeStart);
+            }
+
+            long incrementSize = new File(dest).length() - new File(src).length();
+            if (firstIncrementSize < 0) {
+                firstIncrementSize = incrementSize;
+            }
+            // the incremental update contains the same objects regardless of the document size
+            Assert.assertTrue(incrementSize < 2 * firstIncrementSize);
+            PdfDocument resultDoc = new PdfDocument(new PdfReader(dest));
+            Assert.assertEquals(1, resultDoc.getPage(pageCount / 2).getAnnotsSize());
+            resultDoc.close();
+
+            System.out.println(String.format("%6d pages, %8.1f KB: open, annotate and close %7.2f ms, close %5.2f ms, increment %d bytes",
+                    pageCount, new File(src).length() / 1024.0, bestTime / 1e6, bestCloseTime / 1e6, incrementSize));
+        }
+    }
+
+    private static void createDocument(String filename, int pageCount) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename, new WriterProperties().setFullCompressionMode(false)));
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%page " + i + "\n"));
+            page.flush();
+        }
+        pdfDoc.close();
+    }
+}
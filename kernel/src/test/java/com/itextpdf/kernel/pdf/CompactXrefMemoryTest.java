@@ -0,0 +1,115 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Measures the heap retained by the cross-reference table for a million flushed objects
+ * with and without {@link WriterProperties#useCompactXref()}.
+ */
+@Category(PerformanceTest.class)
+public class CompactXrefMemoryTest extends ExtendedITextTest {
+
+    private static final int OBJECTS_COUNT = 1000000;
+
+    @Test
+    public void flushedReferencesHeapUsageTest() {
+        // warm-up run, so that class loading and static caches are not attributed to the first measurement
+        measureRetainedHeap(new WriterProperties());
+        long compactHeap = measureRetainedHeap(new WriterProperties().useCompactXref());
+        long regularHeap = measureRetainedHeap(new WriterProperties());
+
+        System.out.println("Retained heap per million flushed objects, regular xref: " + regularHeap + " bytes");
+        System.out.println("Retained heap per million flushed objects, compact xref: " + compactHeap + " bytes");
+        Assert.assertTrue(compactHeap < regularHeap / 2);
+    }
+
+    private static long measureRetainedHeap(WriterProperties properties) {
+        long before = getMemoryUse();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new NullOutputStream(), properties));
+        for (int i = 0; i < OBJECTS_COUNT; i++) {
+            new PdfArray().makeIndirect(pdfDocument).flush();
+        }
+        long retained = getMemoryUse() - before;
+        pdfDocument.addNewPage();
+        pdfDocument.close();
+        return retained;
+    }
+
+    private static long getMemoryUse() {
+        garbageCollect();
+        garbageCollect();
+        garbageCollect();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void garbageCollect() {
+        try {
+            System.gc();
+            Thread.sleep(200);
+            System.runFinalization();
+            Thread.sleep(200);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ChannelOutputStream;
+import com.itextpdf.io.source.MappedFileOutputStream;
+import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Compares the CPU time spent on serializing PDF objects to a file through the output backends:
+ * the buffered file stream used by {@link PdfWriter#PdfWriter(String)}, {@link ChannelOutputStream}
+ * and {@link MappedFileOutputStream}.
+ */
+@Category(PerformanceTest.class)
+public class OutputBackendBenchmarkTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/pdf/OutputBackendBenchmarkTest/";
+
+    private static final long OUTPUT_SIZE = 256L * 1024 * 1024;
+    private static final int ITERATIONS = 3;
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void outputBackendsBenchmarkTest() throws IOException {
+        PdfDictionary sample = createSampleObject();
+        String filename = destinationFolder + "output.bin";
+        long expectedLength = -1;
+        for (int backend = 0; backend < 3; backend++) {
+            long bestCpuTime = Long.MAX_VALUE;
+            long bestTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+                long startCpu = threadBean.getCurrentThreadCpuTime();
+                long start = System.nanoTime();
+                OutputStream os = createBackend(backend, filename);
+                PdfOutputStream pdfOutputStream = new PdfOutputStream(FileUtil.wrapWithBufferedOutputStream(os));
+                while (pdfOutputStream.getCurrentPos() < OUTPUT_SIZE) {
+                    pdfOutputStream.write(sample);
+                    pdfOutputStream.writeNewLine();
+                }
+                long length = pdfOutputStream.getCurrentPos();
+                pdfOutputStream.close();
+                bestCpuTime = Math.min(bestCpuTime, threadBean.getCurrentThreadCpuTime() - startCpu);
+                bestTime = Math.min(bestTime, System.nanoTime() - start);
+                Assert.assertEquals(length, new File(filename).length());
+                if (expectedLength < 0) {
+                    expectedLength = length;
+                }
+                Assert.assertEquals(expectedLength, length);
+            }
+            double megabytes = expectedLength / 1048576.0;
+            System.out.println(String.format("%-22s %.2f ms CPU/MB, %.1f MB/s", getBackendName(backend),
+                    bestCpuTime / 1e6 / megabytes, megabytes / (bestTime / 1e9)));
+        }
+        new File(filename).delete();
+    }
+
+    private static OutputStream createBackend(int backend, String filename) throws IOException {
+        switch (backend) {
+            case 0:
+                return FileUtil.getBufferedOutputStream(filename);
+            case 1:
+                return new ChannelOutputStream(new FileOutputStream(filename).getChannel());
+            default:
+                return new MappedFileOutputStream(filename);
+        }
+    }
+
+    private static String getBackendName(int backend) {
+        switch (backend) {
+            case 0:
+                return "BufferedOutputStream";
+            case 1:
+                return "ChannelOutputStream";
+            default:
+                return "MappedFileOutputStream";
+        }
+    }
+
+    private static PdfDictionary createSampleObject() {
+        PdfDictionary sample = new PdfDictionary();
+        sample.put(PdfName.Type, PdfName.Page);
+        sample.put(PdfName.MediaBox, new PdfArray(new float[] {0, 0, 595.28f, 841.89f}));
+        PdfArray widths = new PdfArray();
+        for (int i = 0; i < 100; i++) {
+            widths.add(new PdfNumber(i * 7 % 1000));
+            widths.add(new PdfNumber(i * 0.37));
+        }
+        sample.put(PdfName.Widths, widths);
+        PdfDictionary font = new PdfDictionary();
+        font.put(PdfName.BaseFont, new PdfName("Helvetica-Bold"));
+        font.put(PdfName.Subtype, PdfName.Type1);
+        sample.put(PdfName.Font, font);
+        sample.put(PdfName.Title, new PdfString("Statement of account"));
+        return sample;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares the time of generating statement-like pages one by one with the time of generating them
+ * by {@link PdfDocument#addNewPages(int, PageSize, IPageContentGenerator, ForkJoinPool)} with different parallelism.
+ */
+@Category(PerformanceTest.class)
+public class PageGenerationBenchmarkTest extends ExtendedITextTest {
+
+    private static final int PAGE_COUNT = 500;
+    private static final int LINES_PER_PAGE = 60;
+    private static final int ITERATIONS = 5;
+    private static final int[] PARALLELISM = {1, 2, 4};
+
+    @Test
+    public void pageGenerationBenchmarkTest() throws IOException {
+        System.out.println(String.format("Available processors: %d", Runtime.getRuntime().availableProcessors()));
+
+        // warm-up
+        long expectedLength = generateSequentially();
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            generateSequentially();
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+        System.out.println(String.format("%-14s %7.1f pages/s", "sequential", PAGE_COUNT / (bestTime / 1e9)));
+
+        for (int parallelism : PARALLELISM) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            bestTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+                pdfDocument.addNewPages(PAGE_COUNT, PageSize.A4, createStatementGenerator(), pool);
+                pdfDocument.close();
+                bestTime = Math.min(bestTime, System.nanoTime() - start);
+                // the same objects are written, only their numbers may differ
+                Assert.assertEquals(expectedLength, baos.size(), expectedLength / 100);
+            }
+            pool.shutdown();
+            System.out.println(String.format("%-14s %7.1f pages/s", parallelism + " thread(s)", PAGE_COUNT / (bestTime / 1e9)));
+        }
+    }
+
+    private static long generateSequentially() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        IPageContentGenerator generator = createStatementGenerator();
+        for (int pageNumber = 1; pageNumber <= PAGE_COUNT; pageNumber++) {
+            PdfPage page = pdfDocument.addNewPage(PageSize.A4);
+            generator.generateContent(page, pageNumber);
+            page.flush();
+        }
+        pdfDocument.close();
+        return baos.size();
+    }
+
+    private static IPageContentGenerator createStatementGenerator() throws IOException {
+        // the font is shared by all pages of a document
+        final PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        return new IPageContentGenerator() {
+            @Override
+            public void generateContent(PdfPage page, int pageNumber) {
+                generateStatementPage(page, pageNumber, font);
+            }
+        };
+    }
+
+    private static void generateStatementPage(PdfPage page, int pageNumber, PdfFont font) {
+        PdfCanvas canvas = new PdfCanvas(page);
+        canvas.beginText().setFontAndSize(font, 14).moveText(36, 800)
+                .showText("Statement of account, page " + pageNumber).endText();
+        for (int line = 0; line < LINES_PER_PAGE; line++) {
+            float y = 770 - line * 12;
+            canvas.beginText().setFontAndSize(font, 9).moveText(36, y)
+                    .showText("2020-01-" + (line % 28 + 1) + "  Transaction " + (pageNumber * LINES_PER_PAGE + line))
+                    .moveText(400, 0)
+                    .showText(String.format("%10.2f", (pageNumber * 31 + line * 17) % 10000 / 100.0))
+                    .endText();
+            canvas.moveTo(36, y - 3).lineTo(559, y - 3).setLineWidth(0.2f).stroke();
+        }
+        canvas.release();
+    }
+}
@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -60,6 +61,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 @Category(IntegrationTest.class)
@@ -345,4 +347,97 @@ public class PdfCopyTest extends ExtendedITextTest {
         destDoc.close();
         srcDoc.close();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void copiedStreamContentIsLoadedOnSourceCloseTest() throws IOException {
+        byte[] src = createDocumentWithContent(null);
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(src)));
+        byte[] expectedContent = srcDoc.getFirstPage().getContentBytes();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(baos));
+        srcDoc.copyPagesTo(1, 1, destDoc);
+
+        // The content of the copied stream is read from the source document on demand
+        PdfStream copiedStream = destDoc.getFirstPage().getFirstContentStream();
+        assertNull(copiedStream.getOutputStream());
+        Assert.assertArrayEquals(expectedContent, copiedStream.getBytes());
+
+        srcDoc.close();
+        assertNotNull(copiedStream.getOutputStream());
+        destDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertArrayEquals(expectedContent, resultDoc.getFirstPage().getContentBytes());
+        resultDoc.close();
+    }
+
+    @Test
+    public void copiedStreamIsNotAffectedBySourceChangesTest() throws IOException {
+        byte[] src = createDocumentWithContent(null);
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(src)));
+        byte[] expectedContent = srcDoc.getFirstPage().getContentBytes();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(baos));
+        srcDoc.copyPagesTo(1, 1, destDoc);
+        srcDoc.getFirstPage().getFirstContentStream().setData(ByteUtils.getIsoBytes("0 0 m 1 1 l S\n"));
+        destDoc.close();
+        srcDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertArrayEquals(expectedContent, resultDoc.getFirstPage().getContentBytes());
+        resultDoc.close();
+    }
+
+    @Test
+    public void copyFromEncryptedDocumentTest() throws IOException {
+        byte[] password = ByteUtils.getIsoBytes("password");
+        byte[] src = createDocumentWithContent(password);
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(src),
+                new ReaderProperties().setPassword(password)));
+        byte[] expectedContent = srcDoc.getFirstPage().getContentBytes();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(baos));
+        srcDoc.copyPagesTo(1, 1, destDoc);
+        destDoc.close();
+        srcDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertArrayEquals(expectedContent, resultDoc.getFirstPage().getContentBytes());
+        resultDoc.close();
+    }
+
+    @Test
+    public void copyToEncryptedDocumentTest() throws IOException {
+        byte[] password = ByteUtils.getIsoBytes("password");
+        byte[] src = createDocumentWithContent(null);
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(src)));
+        byte[] expectedContent = srcDoc.getFirstPage().getContentBytes();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties()
+                .setStandardEncryption(password, password, 0, EncryptionConstants.STANDARD_ENCRYPTION_128)));
+        srcDoc.copyPagesTo(1, 1, destDoc);
+        destDoc.close();
+        srcDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray()),
+                new ReaderProperties().setPassword(password)));
+        Assert.assertArrayEquals(expectedContent, resultDoc.getFirstPage().getContentBytes());
+        resultDoc.close();
+    }
+
+    private static byte[] createDocumentWithContent(byte[] password) {
+        WriterProperties properties = new WriterProperties();
+        if (password != null) {
+            properties.setStandardEncryption(password, password, 0, EncryptionConstants.STANDARD_ENCRYPTION_128);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+        for (int i = 0; i < 100; i++) {
+            canvas.moveTo(i, 0).lineTo(0, i).stroke();
+        }
+        canvas.release();
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+}
@@ -43,12 +43,18 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.io.source.DeflaterOutputStream;
 import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.annot.PdfTextAnnotation;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.kernel.pdf.filespec.PdfFileSpec;
 import com.itextpdf.kernel.pdf.navigation.PdfDestination;
 import com.itextpdf.kernel.pdf.tagging.PdfStructTreeRoot;
@@ -65,9 +71,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
 
 
 @Category(IntegrationTest.class)
@@ -451,6 +459,45 @@ public class PdfDocumentTest extends ExtendedITextTest {
         ignoreTagStructureDocument.close();
     }
 
+    @Test
+    public void addNewPagesInParallelTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        pdfDocument.addNewPage();
+        final PdfFont standardFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        final PdfFont embeddedFont = PdfFontFactory.createFont(sourceFolder + "../fonts/NotoSerif-Regular.ttf",
+                PdfEncodings.IDENTITY_H);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        pdfDocument.addNewPages(40, PageSize.A5, new IPageContentGenerator() {
+            @Override
+            public void generateContent(PdfPage page, int pageNumber) {
+                new PdfCanvas(page)
+                        .beginText()
+                        .setFontAndSize(pageNumber % 2 == 0 ? standardFont : embeddedFont, 12)
+                        .moveText(36, 500)
+                        .showText("Page " + pageNumber)
+                        .endText()
+                        .rectangle(36, 36, pageNumber, pageNumber)
+                        .fill()
+                        .release();
+            }
+        }, pool);
+        pool.shutdown();
+        Assert.assertEquals(41, pdfDocument.getNumberOfPages());
+        Assert.assertTrue(pdfDocument.getPage(41).isFlushed());
+        pdfDocument.close();
+
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(baos.toByteArray()));
+        PdfDocument resultDocument = new PdfDocument(reader);
+        Assert.assertFalse(reader.hasRebuiltXref());
+        Assert.assertEquals(41, resultDocument.getNumberOfPages());
+        for (int i = 2; i <= 41; i++) {
+            Assert.assertTrue(PageSize.A5.equalsWithEpsilon(resultDocument.getPage(i).getPageSize()));
+            Assert.assertEquals("Page " + i, PdfTextExtractor.getTextFromPage(resultDocument.getPage(i)));
+        }
+        resultDocument.close();
+    }
+
     private class IgnoreTagStructurePdfDocument extends PdfDocument {
 
         IgnoreTagStructurePdfDocument(PdfReader reader) {
@@ -42,10 +42,19 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.ITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.UnitTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -101,4 +110,95 @@ public class PdfNameTest extends ExtendedITextTest {
         Assert.assertEquals(Math.signum(oneToTwo), Math.signum(oneContentToTwo), delta);
     }
 
+    @Test
+    public void internStandardNamesTest() {
+        for (PdfName name : PdfName.staticNames.values()) {
+            byte[] content = name.getInternalContent();
+            Assert.assertSame(name, PdfName.intern(content, 0, content.length));
+        }
+    }
+
+    @Test
+    public void internSharesInstancesTest() {
+        byte[] buffer = "/F1 /Span /F1".getBytes(StandardCharsets.ISO_8859_1);
+        PdfName first = PdfName.intern(buffer, 1, 2);
+        PdfName second = PdfName.intern(buffer, 11, 2);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(new PdfName("F1"), first);
+        Assert.assertSame(PdfName.Span, PdfName.intern(buffer, 5, 4));
+    }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.DIRECTONLY_OBJECT_CANNOT_BE_INDIRECT)})
+    public void internedNameCannotBeIndirectTest() {
+        byte[] content = "InternedNameTest".getBytes(StandardCharsets.ISO_8859_1);
+        PdfName name = PdfName.intern(content, 0, content.length);
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        document.addNewPage();
+        name.makeIndirect(document);
+        Assert.assertFalse(name.isIndirect());
+        document.close();
+    }
+
+    @Test
+    public void internManyDistinctNamesTest() {
+        byte[] longName = new byte[1000];
+        Arrays.fill(longName, (byte) 'a');
+        PdfName long1 = PdfName.intern(longName, 0, longName.length);
+        PdfName long2 = PdfName.intern(longName, 0, longName.length);
+        Assert.assertNotSame(long1, long2);
+        Assert.assertEquals(long1, long2);
+
+        for (int i = 0; i < 100000; i++) {
+            byte[] content = ("Name" + i).getBytes(StandardCharsets.ISO_8859_1);
+            Assert.assertEquals("Name" + i, PdfName.intern(content, 0, content.length).getValue());
+        }
+        internStandardNamesTest();
+    }
+
+    @Test
+    public void internConcurrentlyTest() throws InterruptedException {
+        final int threadsCount = 4;
+        final PdfName[][] results = new PdfName[threadsCount][500];
+        Thread[] threads = new Thread[threadsCount];
+        for (int t = 0; t < threadsCount; t++) {
+            final PdfName[] threadResults = results[t];
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < threadResults.length; i++) {
+                        byte[] content = ("ConcurrentName" + i).getBytes(StandardCharsets.ISO_8859_1);
+                        threadResults[i] = PdfName.intern(content, 0, content.length);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < results[0].length; i++) {
+            for (int t = 0; t < threadsCount; t++) {
+                Assert.assertEquals("ConcurrentName" + i, results[t][i].getValue());
+            }
+        }
+    }
+
+    @Test
+    public void readNamesAreSharedBetweenDocumentsTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos));
+        document.addNewPage().getPdfObject().put(new PdfName("CustomKey"), new PdfName("CustomValue"));
+        document.close();
+
+        PdfDocument first = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDocument second = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfName firstValue = first.getPage(1).getPdfObject().getAsName(new PdfName("CustomKey"));
+        PdfName secondValue = second.getPage(1).getPdfObject().getAsName(new PdfName("CustomKey"));
+        Assert.assertEquals(new PdfName("CustomValue"), firstValue);
+        Assert.assertSame(firstValue, secondValue);
+        Assert.assertSame(PdfName.Page, first.getPage(1).getPdfObject().getAsName(PdfName.Type));
+        first.close();
+        second.close();
+    }
 }
@@ -51,6 +51,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.nio.charset.StandardCharsets;
+
 @Category(UnitTest.class)
 public class PdfNumberTest extends ExtendedITextTest {
 
@@ -62,4 +64,20 @@ public class PdfNumberTest extends ExtendedITextTest {
         byte[] expected = {48};
         Assert.assertArrayEquals(expected, number.getInternalContent());
     }
+
+    @Test
+    public void parsedValuesAreSameAsParseDoubleTest() {
+        String[] numbers = {"0", "-0", "+12", "-12.", ".5", "-.125", "612.0000", "0.1", "-3.14159265358979",
+                "123456789012345678", "9007199254740993", "0.00000000000000000000001234", "1e5", "."};
+        for (String number : numbers) {
+            double expected;
+            try {
+                expected = Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            double actual = new PdfNumber(number.getBytes(StandardCharsets.ISO_8859_1)).getValue();
+            Assert.assertEquals(number, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+        }
+    }
 }
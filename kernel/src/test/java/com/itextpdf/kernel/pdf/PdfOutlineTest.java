@@ -436,4 +436,71 @@ public class PdfOutlineTest extends ExtendedITextTest {
 
         Assert.assertNull(new CompareTool().compareByContent(output, cmp, destinationFolder, "diff_"));
     }
+
+    @Test
+    public void flushChildrenExceptLastTest() throws IOException {
+        String filename = destinationFolder + "flushChildrenExceptLastTest.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfOutline root = pdfDoc.getOutlines(false);
+        for (int i = 1; i <= 10; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfOutline outline = root.addOutline("Outline " + i);
+            outline.addDestination(PdfExplicitDestination.createFit(page));
+            outline.addOutline("Child " + i).addDestination(PdfExplicitDestination.createFit(page));
+            if (i % 3 == 0) {
+                PdfDictionary flushedContent = root.getAllChildren().get(0).getContent();
+                root.flushChildrenExceptLast();
+                Assert.assertTrue(flushedContent.isFlushed());
+                Assert.assertEquals(1, root.getAllChildren().size());
+            }
+        }
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfOutline resultRoot = resultDoc.getOutlines(false);
+        Assert.assertEquals(10, resultRoot.getAllChildren().size());
+        Assert.assertEquals(10, resultRoot.getContent().getAsNumber(PdfName.Count).intValue());
+        for (int i = 1; i <= 10; i++) {
+            PdfOutline outline = resultRoot.getAllChildren().get(i - 1);
+            Assert.assertEquals("Outline " + i, outline.getTitle());
+            Assert.assertEquals("Child " + i, outline.getAllChildren().get(0).getTitle());
+            Assert.assertEquals(resultDoc.getPage(i).getPdfObject(),
+                    ((PdfArray) outline.getDestination().getPdfObject()).get(0));
+        }
+        resultDoc.close();
+    }
+
+    @Test
+    public void removeOutlineAfterFlushingChildrenTest() throws IOException {
+        String filename = destinationFolder + "removeOutlineAfterFlushingChildrenTest.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfOutline root = pdfDoc.getOutlines(false);
+        for (int i = 1; i <= 3; i++) {
+            root.addOutline("Outline " + i).addDestination(PdfExplicitDestination.createFit(pdfDoc.addNewPage()));
+        }
+        root.flushChildrenExceptLast();
+        // the previous sibling is flushed and still refers to the outline, so the outline is kept
+        root.getAllChildren().get(0).removeOutline();
+        Assert.assertEquals(1, root.getAllChildren().size());
+
+        for (int i = 4; i <= 5; i++) {
+            root.addOutline("Outline " + i).addDestination(PdfExplicitDestination.createFit(pdfDoc.addNewPage()));
+        }
+        root.getAllChildren().get(2).removeOutline();
+        root.getAllChildren().get(1).removeOutline();
+        Assert.assertEquals(1, root.getAllChildren().size());
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfOutline resultRoot = resultDoc.getOutlines(false);
+        Assert.assertEquals(3, resultRoot.getAllChildren().size());
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertEquals("Outline " + i, resultRoot.getAllChildren().get(i - 1).getTitle());
+        }
+        Assert.assertEquals("Outline 3",
+                resultRoot.getContent().getAsDictionary(PdfName.Last).getAsString(PdfName.Title).toUnicodeString());
+        resultDoc.close();
+    }
 }
@@ -649,6 +649,70 @@ public class PdfPagesTest extends ExtendedITextTest {
         document.close();
     }
 
+    @Test
+    public void pageNumbersAfterInsertAndRemoveTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        for (int i = 0; i < 30; i++) {
+            document.addNewPage();
+        }
+        document.addNewPage(1);
+        document.addNewPage(15);
+        document.addNewPage(document.getNumberOfPages());
+        PdfPage removedPage = document.getPage(20);
+        document.removePage(20);
+        document.removePage(1);
+        document.removePage(document.getNumberOfPages());
+
+        Assert.assertEquals(30, document.getNumberOfPages());
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfPage page = document.getPage(i);
+            Assert.assertEquals(i, document.getPageNumber(page));
+            Assert.assertEquals(i, document.getPageNumber(page.getPdfObject()));
+        }
+        Assert.assertEquals(0, document.getPageNumber(removedPage));
+        Assert.assertEquals(0, document.getPageNumber(removedPage.getPdfObject()));
+        document.close();
+    }
+
+    @Test
+    public void pageNumbersAfterMovingPagesTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        for (int i = 1; i <= 20; i++) {
+            document.addNewPage().getPdfObject().put(PageNum, new PdfNumber(i));
+        }
+        PdfPage page = document.getPage(15);
+        Assert.assertEquals(15, document.getPageNumber(page));
+        document.movePage(15, 3);
+        Assert.assertEquals(3, document.getPageNumber(page));
+        document.movePage(3, 21);
+        document.movePage(2, 10);
+        Assert.assertEquals(20, document.getPageNumber(page));
+        document.movePage(20, 1);
+
+        int[] expectedOrder = {15, 1, 3, 4, 5, 6, 7, 8, 9, 2, 10, 11, 12, 13, 14, 16, 17, 18, 19, 20};
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfPage currentPage = document.getPage(i);
+            Assert.assertEquals(expectedOrder[i - 1], currentPage.getPdfObject().getAsNumber(PageNum).intValue());
+            Assert.assertEquals(i, document.getPageNumber(currentPage));
+            Assert.assertEquals(i, document.getPageNumber(currentPage.getPdfObject()));
+        }
+        Assert.assertEquals(0, document.getPageNumber((PdfPage) null));
+        document.close();
+    }
+
+    @Test
+    public void pageNumbersOfNotLoadedPagesTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + "1000PagesDocument.pdf"));
+        PdfDictionary lastPage = (PdfDictionary) pdfDoc.getPdfObject(3100);
+        int lastPageNumber = pdfDoc.getPageNumber(lastPage);
+
+        Assert.assertEquals(lastPage, pdfDoc.getPage(lastPageNumber).getPdfObject());
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            Assert.assertEquals(i, pdfDoc.getPageNumber(pdfDoc.getPage(i).getPdfObject()));
+        }
+        pdfDoc.close();
+    }
+
     private int getAmountOfReadPages(PdfArray pageIndRefArray) {
         int amountOfLoadedPages = 0;
         for (int i = 0; i < pageIndRefArray.size(); i++) {
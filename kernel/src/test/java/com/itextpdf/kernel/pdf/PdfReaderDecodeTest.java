@@ -43,6 +43,7 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -53,10 +54,12 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -283,4 +286,81 @@ public class PdfReaderDecodeTest extends ExtendedITextTest {
         }
         Assert.assertEquals(expectedExceptionMessage, thrownExceptionMessage);
     }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE),
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT)
+    })
+    public void customMemoryHandlerSingleStreamingTest() throws IOException {
+        MemoryLimitsAwareHandler handler = new MemoryLimitsAwareHandler();
+        handler.setMaxSizeOfSingleDecompressedPdfStream(1000);
+
+        PdfDocument pdfDocument = new PdfDocument(
+                new PdfReader(sourceFolder + "timing.pdf",
+                        new ReaderProperties().setMemoryLimitsAwareHandler(handler)),
+                new PdfWriter(new ByteArrayOutputStream()));
+
+        PdfStream stream = pdfDocument.getFirstPage().getContentStream(0);
+        byte[] b = stream.getBytes(false);
+
+        PdfArray array = new PdfArray();
+        stream.put(PdfName.Filter, array);
+
+        Assert.assertEquals(51, StreamUtil.inputStreamToArray(PdfReader.decodeStream(new ByteArrayInputStream(b), stream)).length);
+
+        array.add(PdfName.Fl);
+        Assert.assertEquals(40, StreamUtil.inputStreamToArray(PdfReader.decodeStream(new ByteArrayInputStream(b), stream)).length);
+
+        array.add(PdfName.Fl);
+        Assert.assertEquals(992, StreamUtil.inputStreamToArray(PdfReader.decodeStream(new ByteArrayInputStream(b), stream)).length);
+
+        array.add(PdfName.Fl);
+        String expectedExceptionMessage = PdfException.DuringDecompressionSingleStreamOccupiedMoreMemoryThanAllowed;
+        String thrownExceptionMessage = null;
+        try {
+            StreamUtil.inputStreamToArray(PdfReader.decodeStream(new ByteArrayInputStream(b), stream));
+        } catch (MemoryLimitsAwareException e) {
+            thrownExceptionMessage = e.getMessage();
+        }
+        Assert.assertEquals(expectedExceptionMessage, thrownExceptionMessage);
+    }
+
+    @Test
+    public void differentFiltersEmptyStreamingTest() throws IOException {
+        byte[] b = new byte[1000];
+
+        PdfArray array = new PdfArray();
+        array.add(PdfName.Fl);
+        array.add(PdfName.AHx);
+        array.add(PdfName.A85);
+        array.add(PdfName.RunLengthDecode);
+
+        PdfStream stream = new PdfStream(b);
+        stream.put(PdfName.Filter, array);
+
+        Assert.assertEquals(0, StreamUtil.inputStreamToArray(PdfReader.decodeStream(new ByteArrayInputStream(b), stream)).length);
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE, count = 3),
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT)
+    })
+    public void readStreamTest() throws IOException {
+        PdfReader reader = new PdfReader(sourceFolder + "timing.pdf");
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object instanceof PdfStream) {
+                PdfStream stream = (PdfStream) object;
+                for (boolean decode : new boolean[] {false, true}) {
+                    InputStream is = reader.readStream(stream, decode);
+                    Assert.assertArrayEquals(reader.readStreamBytes(stream, decode), StreamUtil.inputStreamToArray(is));
+                    is.close();
+                }
+            }
+        }
+        pdfDocument.close();
+    }
 }
@@ -67,6 +67,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
@@ -1727,6 +1728,85 @@ public class PdfReaderTest extends ExtendedITextTest {
         document.close();
     }
 
+    @Test
+    public void lazyXrefLoadingTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocument.pdf";
+        lazyXrefLoadingTest(filename);
+    }
+
+    @Test
+    public void lazyXrefLoadingWithFullCompressionTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        lazyXrefLoadingTest(filename);
+    }
+
+    @Test
+    public void lazyXrefLoadingSeveralXrefSectionsTest() throws IOException {
+        lazyXrefLoadingTest(sourceFolder + "1000PagesDocumentAppended.pdf");
+        lazyXrefLoadingTest(sourceFolder + "1000PagesDocumentWithFullCompressionAppended.pdf");
+    }
+
+    @Test
+    public void lazyXrefLoadingAppendModeTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        String outFilename = destinationFolder + "lazyXrefLoadingAppendMode.pdf";
+
+        PdfReader reader = new PdfReader(filename, new ReaderProperties().setLazyXrefLoading(true));
+        PdfDocument pdfDoc = new PdfDocument(reader, new PdfWriter(outFilename), new StampingProperties().useAppendMode());
+        pdfDoc.getDocumentInfo().setTitle(title);
+        pdfDoc.getPage(500).getPdfObject().put(new PdfName("Test"), new PdfString("lazy"));
+        pdfDoc.getPage(500).setModified();
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(outFilename));
+        Assert.assertEquals(1000, pdfDoc.getNumberOfPages());
+        Assert.assertEquals(title, pdfDoc.getDocumentInfo().getTitle());
+        Assert.assertEquals(new PdfString("lazy"), pdfDoc.getPage(500).getPdfObject().getAsString(new PdfName("Test")));
+        Assert.assertFalse(pdfDoc.getReader().hasRebuiltXref());
+        pdfDoc.close();
+    }
+
+    private void lazyXrefLoadingTest(String filename) throws IOException {
+        PdfDocument eagerDoc = new PdfDocument(new PdfReader(filename));
+        PdfReader lazyReader = new PdfReader(filename, new ReaderProperties().setLazyXrefLoading(true));
+        PdfDocument lazyDoc = new PdfDocument(lazyReader);
+
+        Assert.assertEquals(eagerDoc.getNumberOfPdfObjects(), lazyDoc.getNumberOfPdfObjects());
+        Assert.assertFalse(lazyReader.hasRebuiltXref());
+
+        int loadedOnOpen = countLoadedReferences(lazyDoc.getXref());
+        Assert.assertTrue("Only few references shall be created on opening, but was " + loadedOnOpen,
+                loadedOnOpen < lazyDoc.getNumberOfPdfObjects() / 10);
+
+        PdfPage eagerPage = eagerDoc.getPage(500);
+        PdfPage lazyPage = lazyDoc.getPage(500);
+        Assert.assertEquals(eagerPage.getPdfObject().getIndirectReference(), lazyPage.getPdfObject().getIndirectReference());
+        Assert.assertArrayEquals(eagerPage.getContentBytes(), lazyPage.getContentBytes());
+
+        for (int i = 1; i < eagerDoc.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference eagerRef = eagerDoc.getXref().get(i);
+            PdfIndirectReference lazyRef = lazyDoc.getXref().get(i);
+            Assert.assertEquals(eagerRef, lazyRef);
+            Assert.assertEquals(eagerRef.isFree(), lazyRef.isFree());
+            Assert.assertEquals(eagerRef.getOffset(), lazyRef.getOffset());
+            Assert.assertEquals(eagerRef.getObjStreamNumber(), lazyRef.getObjStreamNumber());
+            Assert.assertEquals(eagerRef.getIndex(), lazyRef.getIndex());
+        }
+
+        eagerDoc.close();
+        lazyDoc.close();
+    }
+
+    private static int countLoadedReferences(PdfXrefTable xref) {
+        int loaded = 0;
+        for (int i = 0; i < xref.size(); i++) {
+            if (xref.getLoaded(i) != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
     private boolean objectTypeEqualTo(PdfObject object, PdfName type) {
         PdfName objectType = ((PdfDictionary) object).getAsName(PdfName.Type);
         return type.equals(objectType);
@@ -2020,6 +2100,66 @@ public class PdfReaderTest extends ExtendedITextTest {
         readingNotCompletedTest(isEncryptedReader);
     }
 
+    @Test
+    public void concurrentObjectReadingTest() throws IOException, InterruptedException {
+        // the stream lengths are corrected and the objects are read from object streams while other threads read
+        concurrentObjectReadingTest(sourceFolder + "10PagesDocumentWithInvalidStreamLength.pdf");
+        concurrentObjectReadingTest(sourceFolder + "1000PagesDocumentWithFullCompression.pdf");
+    }
+
+    private static void concurrentObjectReadingTest(String filename) throws IOException, InterruptedException {
+        PdfDocument sequentialDocument = new PdfDocument(new PdfReader(filename));
+        final int objectsCount = sequentialDocument.getNumberOfPdfObjects();
+        final byte[][] expectedStreamBytes = new byte[objectsCount][];
+        for (int i = 1; i < objectsCount; i++) {
+            PdfObject object = sequentialDocument.getPdfObject(i);
+            if (object instanceof PdfStream) {
+                expectedStreamBytes[i] = ((PdfStream) object).getBytes(false);
+            }
+        }
+        sequentialDocument.close();
+
+        final PdfDocument pdfDocument = new PdfDocument(new PdfReader(filename));
+        final int threadsCount = 4;
+        final PdfObject[][] readObjects = new PdfObject[threadsCount][objectsCount];
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] threads = new Thread[threadsCount];
+        for (int t = 0; t < threadsCount; t++) {
+            final int threadIndex = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 1; i < objectsCount; i++) {
+                            // the threads go through the objects in different orders
+                            int objectNumber = threadIndex % 2 == 0 ? i : objectsCount - i;
+                            PdfObject object = pdfDocument.getPdfObject(objectNumber);
+                            readObjects[threadIndex][objectNumber] = object;
+                            if (object instanceof PdfStream) {
+                                Assert.assertArrayEquals(expectedStreamBytes[objectNumber], ((PdfStream) object).getBytes(false));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(Collections.<Throwable>emptyList(), errors);
+        for (int i = 1; i < objectsCount; i++) {
+            for (int t = 1; t < threadsCount; t++) {
+                // every object is read once, so all threads get the same instance
+                Assert.assertSame(readObjects[0][i], readObjects[t][i]);
+            }
+        }
+        pdfDocument.close();
+    }
+
     private PdfReader pdfDocumentNotReadTestInit() throws IOException {
         String filename = sourceFolder + "XrefWithNullOffsets.pdf";
 
@@ -66,7 +66,12 @@ import org.junit.experimental.categories.Category;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -1197,6 +1202,88 @@ public class PdfStampingTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void stampingAppendModificationsTrackingTest() throws IOException {
+        byte[] original = createDocumentWithPages(10);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)), new PdfWriter(baos),
+                new StampingProperties().useAppendMode().useModificationsTracking());
+        PdfDictionary page = pdfDoc.getPage(5).getPdfObject();
+        // the page is not marked as modified explicitly
+        page.put(PdfName.Rotate, new PdfNumber(90));
+        Set<Integer> expectedObjects = new TreeSet<>();
+        expectedObjects.add(page.getIndirectReference().getObjNumber());
+        expectedObjects.add(pdfDoc.getDocumentInfo().getPdfObject().getIndirectReference().getObjNumber());
+        pdfDoc.close();
+
+        byte[] result = baos.toByteArray();
+        assertEquals(expectedObjects, getAppendedObjects(original, result));
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)));
+        assertEquals(90, pdfDoc.getPage(5).getRotation());
+        assertEquals(0, pdfDoc.getPage(4).getRotation());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void stampingAppendWithoutModificationsTrackingTest() throws IOException {
+        byte[] original = createDocumentWithPages(10);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)), new PdfWriter(baos),
+                new StampingProperties().useAppendMode());
+        PdfDictionary page = pdfDoc.getPage(5).getPdfObject();
+        page.put(PdfName.Rotate, new PdfNumber(90));
+        assertFalse(page.isModified());
+        pdfDoc.close();
+
+        byte[] result = baos.toByteArray();
+        assertFalse(getAppendedObjects(original, result).contains(page.getIndirectReference().getObjNumber()));
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)));
+        assertEquals(0, pdfDoc.getPage(5).getRotation());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void stampingAppendModifiedObjectsXrefSectionsTest() throws IOException {
+        byte[] original = createDocumentWithPages(10);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)), new PdfWriter(baos),
+                new StampingProperties().useAppendMode());
+        Set<Integer> expectedObjects = new TreeSet<>();
+        for (int i = 2; i <= 10; i += 4) {
+            PdfDictionary page = pdfDoc.getPage(i).getPdfObject();
+            page.put(PdfName.Rotate, new PdfNumber(180));
+            page.setModified();
+            expectedObjects.add(page.getIndirectReference().getObjNumber());
+        }
+        expectedObjects.add(pdfDoc.getDocumentInfo().getPdfObject().getIndirectReference().getObjNumber());
+        pdfDoc.close();
+
+        byte[] result = baos.toByteArray();
+        String increment = new String(result, original.length, result.length - original.length, StandardCharsets.ISO_8859_1);
+        String xrefSection = increment.substring(increment.indexOf("xref\n") + 5, increment.indexOf("trailer\n"));
+        Set<Integer> xrefObjects = new TreeSet<>();
+        Matcher subsection = Pattern.compile("(?m)^(\\d+) (\\d+)$").matcher(xrefSection);
+        while (subsection.find()) {
+            int first = Integer.parseInt(subsection.group(1));
+            for (int i = 0; i < Integer.parseInt(subsection.group(2)); i++) {
+                xrefObjects.add(first + i);
+            }
+        }
+        assertEquals(expectedObjects, xrefObjects);
+        assertEquals(expectedObjects, getAppendedObjects(original, result));
+
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(result));
+        pdfDoc = new PdfDocument(reader);
+        assertFalse(reader.hasRebuiltXref());
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i % 4 == 2 ? 180 : 0, pdfDoc.getPage(i).getRotation());
+        }
+        pdfDoc.close();
+    }
+
     @Test
     public void stampingVersionTest01() throws IOException {
         // By default the version of the output file should be the same as the original one
@@ -1326,6 +1413,28 @@ public class PdfStampingTest extends ExtendedITextTest {
 
     }
 
+    private static byte[] createDocumentWithPages(int pageCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties().setFullCompressionMode(false)));
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%page " + i + "\n"));
+            page.flush();
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static Set<Integer> getAppendedObjects(byte[] original, byte[] result) {
+        String increment = new String(result, original.length, result.length - original.length, StandardCharsets.ISO_8859_1);
+        Set<Integer> objects = new TreeSet<>();
+        Matcher object = Pattern.compile("(?m)^(\\d+) \\d+ obj").matcher(increment);
+        while (object.find()) {
+            objects.add(Integer.parseInt(object.group(1)));
+        }
+        return objects;
+    }
+
     
     static void verifyPdfPagesCount(PdfObject root) {
         if (root.getType() == PdfObject.INDIRECT_REFERENCE)
@@ -47,6 +47,7 @@ import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -341,4 +342,26 @@ public class PdfTokenizerTest extends ExtendedITextTest {
         tok.nextToken();
         Assert.assertTrue(tok.tokenValueEqualsTo(data.getBytes(StandardCharsets.ISO_8859_1)));
     }
+
+    @Test
+    public void inMemoryAndGenericSourcesTokensTest() throws IOException {
+        String data = "%comment\nq 1 0 0 1 --72 -.5 cm/F1 12 Tf[(a\\)b (c) d)-250<41 42>]TJ 3.-5 <<\n/Key/Value>> BT /Nam";
+        byte[] bytes = data.getBytes(StandardCharsets.ISO_8859_1);
+        RandomAccessSourceFactory factory = new RandomAccessSourceFactory();
+        // an array source is read directly, a window over it is read byte by byte
+        PdfTokenizer inMemory = new PdfTokenizer(new RandomAccessFileOrArray(factory.createSource(bytes)));
+        PdfTokenizer generic = new PdfTokenizer(new RandomAccessFileOrArray(
+                new WindowRandomAccessSource(factory.createSource(bytes), 0)));
+        int tokensCount = 0;
+        while (inMemory.nextToken()) {
+            Assert.assertTrue(generic.nextToken());
+            Assert.assertEquals(generic.getTokenType(), inMemory.getTokenType());
+            Assert.assertArrayEquals(generic.getByteContent(), inMemory.getByteContent());
+            Assert.assertEquals(generic.isHexString(), inMemory.isHexString());
+            Assert.assertEquals(generic.getPosition(), inMemory.getPosition());
+            tokensCount++;
+        }
+        Assert.assertFalse(generic.nextToken());
+        Assert.assertEquals(25, tokensCount);
+    }
 }
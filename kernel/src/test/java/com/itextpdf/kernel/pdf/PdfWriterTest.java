@@ -42,22 +42,36 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.ChannelOutputStream;
+import com.itextpdf.io.source.MappedFileOutputStream;
 import com.itextpdf.io.util.DateTimeUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Category(IntegrationTest.class)
 public class PdfWriterTest extends ExtendedITextTest {
@@ -69,6 +83,9 @@ public class PdfWriterTest extends ExtendedITextTest {
         createDestinationFolder(destinationFolder);
     }
 
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
     @Test
     public void createEmptyDocument() throws IOException {
         PdfDocument pdfDoc = new PdfDocument(new PdfWriter(destinationFolder + "emptyDocument.pdf"));
@@ -626,4 +643,195 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void parallelCompressionTest() throws IOException {
+        byte[] expected = createDocumentWithManyStreams(new WriterProperties());
+        byte[] actual = createDocumentWithManyStreams(new WriterProperties().setParallelCompression(4));
+        Assert.assertArrayEquals(expected, actual);
+        assertDocumentIsReadable(actual);
+    }
+
+    @Test
+    public void parallelCompressionSingleThreadTest() throws IOException {
+        byte[] expected = createDocumentWithManyStreams(new WriterProperties());
+        byte[] actual = createDocumentWithManyStreams(new WriterProperties().setParallelCompression(1));
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void parallelCompressionFullCompressionTest() throws IOException {
+        byte[] expected = createDocumentWithManyStreams(new WriterProperties().setFullCompressionMode(true));
+        byte[] actual = createDocumentWithManyStreams(new WriterProperties().setFullCompressionMode(true)
+                .setParallelCompression(4));
+        Assert.assertArrayEquals(expected, actual);
+        assertDocumentIsReadable(actual);
+    }
+
+    @Test
+    public void parallelCompressionEncryptionTest() throws IOException {
+        byte[] expected = createDocumentWithManyStreams(new WriterProperties()
+                .setStandardEncryption(null, "owner".getBytes(), EncryptionConstants.ALLOW_PRINTING,
+                        EncryptionConstants.STANDARD_ENCRYPTION_128));
+        byte[] actual = createDocumentWithManyStreams(new WriterProperties().setParallelCompression(4)
+                .setStandardEncryption(null, "owner".getBytes(), EncryptionConstants.ALLOW_PRINTING,
+                        EncryptionConstants.STANDARD_ENCRYPTION_128));
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void parallelCompressionAppendModeTest() throws IOException {
+        byte[] source = createDocumentWithManyStreams(new WriterProperties());
+        byte[] expected = appendPagesWithManyStreams(source, new WriterProperties());
+        byte[] actual = appendPagesWithManyStreams(source, new WriterProperties().setParallelCompression(4));
+        Assert.assertArrayEquals(expected, actual);
+        assertDocumentIsReadable(actual);
+    }
+
+    @Test
+    public void parallelCompressionCustomExecutorTest() throws IOException {
+        final AtomicInteger createdThreadsCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                createdThreadsCount.incrementAndGet();
+                return new Thread(runnable);
+            }
+        });
+        try {
+            byte[] expected = createDocumentWithManyStreams(new WriterProperties());
+            for (int i = 0; i < 2; i++) {
+                byte[] actual = createDocumentWithManyStreams(new WriterProperties().setParallelCompression(4)
+                        .setParallelCompressionExecutor(executor));
+                Assert.assertArrayEquals(expected, actual);
+                Assert.assertFalse(executor.isShutdown());
+            }
+            Assert.assertEquals(2, createdThreadsCount.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelCompressionSharesThreadsBetweenDocumentsTest() {
+        int processorsCount = Runtime.getRuntime().availableProcessors();
+        List<PdfDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                    new WriterProperties().setParallelCompression(processorsCount)));
+            addPagesWithManyStreams(pdfDocument, 10);
+            documents.add(pdfDocument);
+        }
+        int compressionThreadsCount = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("itext-stream-compression-")) {
+                Assert.assertTrue(thread.isDaemon());
+                compressionThreadsCount++;
+            }
+        }
+        for (PdfDocument pdfDocument : documents) {
+            pdfDocument.close();
+        }
+        Assert.assertTrue(compressionThreadsCount <= processorsCount);
+    }
+
+    @Test
+    public void parallelCompressionNegativeThreadsCountTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        new WriterProperties().setParallelCompression(-1);
+    }
+
+    private static byte[] createDocumentWithManyStreams(WriterProperties properties) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        properties.setInitialDocumentId(new PdfString("initial")).setModifiedDocumentId(new PdfString("modified"));
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, properties));
+        pdfDocument.getDocumentInfo().setMoreInfo("CreationDate", "D:20200101000000+00'00'");
+        pdfDocument.getDocumentInfo().setMoreInfo("ModDate", "D:20200101000000+00'00'");
+        addPagesWithManyStreams(pdfDocument, 50);
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] appendPagesWithManyStreams(byte[] source, WriterProperties properties) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        properties.setModifiedDocumentId(new PdfString("appended"));
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)),
+                new PdfWriter(baos, properties), new StampingProperties().useAppendMode());
+        pdfDocument.getDocumentInfo().setMoreInfo("ModDate", "D:20200101000000+00'00'");
+        addPagesWithManyStreams(pdfDocument, 10);
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static void addPagesWithManyStreams(PdfDocument pdfDocument, int pagesCount) {
+        Random random = new Random(42);
+        for (int i = 0; i < pagesCount; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            for (int j = 0; j < 100; j++) {
+                canvas.rectangle(random.nextInt(500), random.nextInt(800), random.nextInt(100), random.nextInt(100));
+            }
+            canvas.fill().release();
+
+            byte[] data = new byte[random.nextInt(200000)];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = (byte) random.nextInt(i % 2 == 0 ? 4 : 256);
+            }
+            PdfStream dataStream = new PdfStream(data);
+            if (i % 3 == 0) {
+                dataStream.setCompressionLevel(CompressionConstants.BEST_COMPRESSION);
+            } else if (i % 5 == 0) {
+                dataStream.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+            }
+            page.getPdfObject().put(new PdfName("Data"), dataStream.makeIndirect(pdfDocument));
+            page.getPdfObject().put(new PdfName("Number"), new PdfNumber(i).makeIndirect(pdfDocument));
+            if (i % 4 == 0) {
+                page.flush();
+            }
+        }
+    }
+
+    private static void assertDocumentIsReadable(byte[] pdf) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)));
+        Assert.assertFalse(pdfDocument.getReader().hasRebuiltXref());
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            Assert.assertNotNull(pdfDocument.getPage(i).getContentBytes());
+            Assert.assertNotNull(pdfDocument.getPage(i).getPdfObject().getAsStream(new PdfName("Data")).getBytes());
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void nioOutputBackendsTest() throws IOException {
+        String filename = destinationFolder + "nioOutputBackends.pdf";
+        writeDocumentForBackendsTest(new FileOutputStream(filename));
+        byte[] expected = Files.readAllBytes(new File(filename).toPath());
+
+        writeDocumentForBackendsTest(new ChannelOutputStream(new FileOutputStream(filename).getChannel()));
+        Assert.assertArrayEquals(expected, Files.readAllBytes(new File(filename).toPath()));
+
+        writeDocumentForBackendsTest(new MappedFileOutputStream(filename));
+        Assert.assertArrayEquals(expected, Files.readAllBytes(new File(filename).toPath()));
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(50, pdfDocument.getNumberOfPages());
+        pdfDocument.close();
+    }
+
+    private static void writeDocumentForBackendsTest(java.io.OutputStream os) {
+        WriterProperties properties = new WriterProperties()
+                .setInitialDocumentId(new PdfString("initial"))
+                .setModifiedDocumentId(new PdfString("modified"));
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(os, properties));
+        pdfDoc.getDocumentInfo().setMoreInfo("CreationDate", "D:20200101000000+00'00'");
+        pdfDoc.getDocumentInfo().setMoreInfo("ModDate", "D:20200101000000+00'00'");
+        for (int i = 0; i < 50; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+            for (int j = 0; j < 1000; j++) {
+                canvas.moveTo(i, j).lineTo(j, i).stroke();
+            }
+            canvas.release();
+        }
+        pdfDoc.close();
+    }
 }
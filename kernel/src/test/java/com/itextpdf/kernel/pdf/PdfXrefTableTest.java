@@ -47,10 +47,15 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -169,4 +174,126 @@ public class PdfXrefTableTest extends ExtendedITextTest {
         Assert.assertEquals(1, freeRef2.genNr);
         pdfDocument.close();
     }
+
+    @Test
+    public void compactXrefFlushedReferencesTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useCompactXref()));
+        PdfPage page = pdfDocument.addNewPage();
+        PdfIndirectReference pageRef = page.getPdfObject().getIndirectReference();
+        int pageObjNr = pageRef.getObjNumber();
+        PdfXrefTable xref = pdfDocument.getXref();
+        Assert.assertSame(pageRef, xref.getLoaded(pageObjNr));
+
+        page.flush();
+
+        Assert.assertNull(xref.getLoaded(pageObjNr));
+        PdfIndirectReference flushedRef = xref.get(pageObjNr);
+        Assert.assertNotSame(pageRef, flushedRef);
+        Assert.assertEquals(pageRef, flushedRef);
+        Assert.assertTrue(flushedRef.checkState(PdfObject.FLUSHED));
+        Assert.assertEquals(pageRef.getOffset(), flushedRef.getOffset());
+        Assert.assertNull(pdfDocument.getPdfObject(pageObjNr));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void compactXrefTest() throws IOException {
+        compareCompactXrefWithRegularOne(false);
+    }
+
+    @Test
+    public void compactXrefFullCompressionTest() throws IOException {
+        compareCompactXrefWithRegularOne(true);
+    }
+
+    @Test
+    public void compactXrefAppendModeTest() throws IOException {
+        byte[] source = createDocumentWithFlushedPages(new WriterProperties(), 10);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)),
+                new PdfWriter(baos, new WriterProperties().useCompactXref()), new StampingProperties().useAppendMode());
+        PdfPage page = pdfDocument.addNewPage();
+        new PdfCanvas(page).rectangle(100, 100, 100, 100).fill();
+        page.flush();
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(11, pdfDocument.getNumberOfPages());
+        Assert.assertFalse(pdfDocument.getReader().hasRebuiltXref());
+        Assert.assertNotNull(pdfDocument.getPage(11).getContentBytes());
+        pdfDocument.close();
+    }
+
+    @Test
+    public void concurrentObjectNumbersReservationTest() throws InterruptedException {
+        final PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final int initialSize = pdfDocument.getXref().size();
+        final int threadsCount = 4;
+        final int referencesPerThread = 1000;
+        final PdfIndirectReference[][] references = new PdfIndirectReference[threadsCount][referencesPerThread];
+        Thread[] threads = new Thread[threadsCount];
+        for (int i = 0; i < threadsCount; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < referencesPerThread; j++) {
+                        references[threadIndex][j] = pdfDocument.createNextIndirectReference();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(initialSize + threadsCount * referencesPerThread, pdfDocument.getXref().size());
+        Set<Integer> objNumbers = new HashSet<>();
+        for (PdfIndirectReference[] threadReferences : references) {
+            for (PdfIndirectReference reference : threadReferences) {
+                Assert.assertTrue(objNumbers.add(reference.getObjNumber()));
+                Assert.assertSame(reference, pdfDocument.getXref().get(reference.getObjNumber()));
+            }
+        }
+    }
+
+    private static void compareCompactXrefWithRegularOne(boolean fullCompression) throws IOException {
+        byte[] regular = createDocumentWithFlushedPages(new WriterProperties()
+                .setFullCompressionMode(fullCompression), 100);
+        byte[] compact = createDocumentWithFlushedPages(new WriterProperties()
+                .setFullCompressionMode(fullCompression).useCompactXref(), 100);
+
+        PdfDocument regularDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(regular)));
+        PdfDocument compactDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(compact)));
+        Assert.assertFalse(compactDoc.getReader().hasRebuiltXref());
+        Assert.assertEquals(regularDoc.getNumberOfPages(), compactDoc.getNumberOfPages());
+        Assert.assertEquals(regularDoc.getNumberOfPdfObjects(), compactDoc.getNumberOfPdfObjects());
+        for (int i = 0; i < regularDoc.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference regularRef = regularDoc.getXref().get(i);
+            PdfIndirectReference compactRef = compactDoc.getXref().get(i);
+            Assert.assertEquals(regularRef, compactRef);
+            Assert.assertEquals(regularRef.isFree(), compactRef.isFree());
+            Assert.assertEquals(regularRef.getOffset(), compactRef.getOffset());
+            Assert.assertEquals(regularRef.getObjStreamNumber(), compactRef.getObjStreamNumber());
+            Assert.assertEquals(regularRef.getIndex(), compactRef.getIndex());
+        }
+        regularDoc.close();
+        compactDoc.close();
+    }
+
+    private static byte[] createDocumentWithFlushedPages(WriterProperties properties, int pageCount) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        properties.setInitialDocumentId(new PdfString("initial")).setModifiedDocumentId(new PdfString("modified"));
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, properties));
+        pdfDocument.getDocumentInfo().setMoreInfo("CreationDate", "D:20200101000000+00'00'");
+        for (int i = 0; i < pageCount; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            new PdfCanvas(page).moveTo(10, 10).lineTo(i, i).stroke().release();
+            page.flush();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
 }
@@ -24,8 +24,13 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.test.annotations.type.UnitTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -34,7 +39,7 @@ import org.junit.experimental.categories.Category;
 public class SmartModePdfObjectsSerializerTest {
 
     @Test
-    public void smartModeObjectSelfReferencingTest() {
+    public void smartModeObjectSelfReferencingTest() throws NoSuchAlgorithmException {
         PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
 
         PdfDictionary dict1 = new PdfDictionary();
@@ -55,16 +60,127 @@ public class SmartModePdfObjectsSerializerTest {
         SerializedObjectContent serializedObject = serializer.serializeObject(dict1);
 
         //It is essential to serialize object with huge amount of memory
-        StringBuilder stringBytes = new StringBuilder().append("$D$N/FirstDict$A$S");
-        String end = "$D$\\D$\\A$\\D";
+        StringBuilder arrayBytes = new StringBuilder().append("$A$S");
         for (int i = 0; i < 10000; i++) {
-            stringBytes.append("\0");
+            arrayBytes.append("\0");
         }
-        stringBytes.append(end);
+        arrayBytes.append("$D$\\D$\\A");
 
-        SerializedObjectContent expected = new SerializedObjectContent(
-                stringBytes.toString().getBytes(StandardCharsets.UTF_8));
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        sha256.update("$D$N/FirstDict$R".getBytes(StandardCharsets.ISO_8859_1));
+        sha256.update(MessageDigest.getInstance("SHA-256").digest(arrayBytes.toString().getBytes(StandardCharsets.ISO_8859_1)));
+        sha256.update("$\\D".getBytes(StandardCharsets.ISO_8859_1));
+
+        SerializedObjectContent expected = new SerializedObjectContent(sha256.digest());
 
         Assert.assertEquals(expected, serializedObject);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sameStructureSameContentTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+
+        SerializedObjectContent first = serializer.serializeObject(createFontLikeDictionary(document, "Helvetica"));
+        SerializedObjectContent second = serializer.serializeObject(createFontLikeDictionary(document, "Helvetica"));
+        SerializedObjectContent third = serializer.serializeObject(createFontLikeDictionary(document, "Courier"));
+
+        Assert.assertEquals(first, second);
+        Assert.assertNotEquals(first, third);
+    }
+
+    @Test
+    public void streamBytesAreHashedTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+
+        PdfStream first = new PdfStream("q 0 0 10 10 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        first.makeIndirect(document);
+        PdfStream second = new PdfStream("q 0 0 10 10 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        second.makeIndirect(document);
+        PdfStream third = new PdfStream("q 0 0 20 20 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        third.makeIndirect(document);
+
+        Assert.assertEquals(serializer.serializeObject(first), serializer.serializeObject(second));
+        Assert.assertNotEquals(serializer.serializeObject(first), serializer.serializeObject(third));
+    }
+
+    @Test
+    public void readStreamHashedWithoutDecodingTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos));
+        PdfStream stream = new PdfStream("q 0 0 10 10 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        stream.setCompressionLevel(CompressionConstants.BEST_COMPRESSION);
+        document.addNewPage().getResources().addForm(new com.itextpdf.kernel.pdf.xobject.PdfFormXObject(stream));
+        document.close();
+
+        PdfDocument readDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfStream readStream = readDocument.getPage(1).getResources().getResource(PdfName.XObject)
+                .getAsStream(new PdfName("Fm1"));
+
+        PdfDocument otherDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfStream loadedStream = new PdfStream(readStream.getBytes(false));
+        loadedStream.putAll(readStream);
+        loadedStream.makeIndirect(otherDocument);
+
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+        Assert.assertEquals(serializer.serializeObject(loadedStream), serializer.serializeObject(readStream));
+        readDocument.close();
+    }
+
+    @Test
+    public void duplicateIsConfirmedByContentTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+        HashMap<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects = new HashMap<>();
+
+        PdfDictionary helvetica = createFontLikeDictionary(document, "Helvetica");
+        PdfDictionary otherHelvetica = createFontLikeDictionary(document, "Helvetica");
+        PdfDictionary courier = createFontLikeDictionary(document, "Courier");
+
+        SerializedObjectContent content = serializer.serializeObject(helvetica);
+        serializer.saveSerializedObject(content, new PdfDictionary().makeIndirect(document).getIndirectReference(),
+                helvetica.getIndirectReference());
+
+        Assert.assertTrue(serializer.isDuplicateConfirmed(otherHelvetica, content, copiedObjects));
+        // simulates a digest collision of different objects
+        Assert.assertFalse(serializer.isDuplicateConfirmed(courier, content, copiedObjects));
+    }
+
+    @Test
+    public void streamBytesAreTrustedToDigestTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+        HashMap<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects = new HashMap<>();
+
+        PdfStream original = new PdfStream("q 0 0 10 10 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        original.put(PdfName.Subtype, PdfName.Form);
+        original.makeIndirect(document);
+        PdfStream sameDictionary = new PdfStream("q 0 0 20 20 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        sameDictionary.put(PdfName.Subtype, PdfName.Form);
+        sameDictionary.makeIndirect(document);
+        PdfStream otherDictionary = new PdfStream("q 0 0 10 10 re f Q".getBytes(StandardCharsets.ISO_8859_1));
+        otherDictionary.put(PdfName.Subtype, PdfName.Image);
+        otherDictionary.makeIndirect(document);
+
+        SerializedObjectContent content = serializer.serializeObject(original);
+        serializer.saveSerializedObject(content, new PdfDictionary().makeIndirect(document).getIndirectReference(),
+                original.getIndirectReference());
+
+        // the bytes are identified by the digest alone, only the dictionaries are compared
+        Assert.assertTrue(serializer.isDuplicateConfirmed(sameDictionary, content, copiedObjects));
+        Assert.assertFalse(serializer.isDuplicateConfirmed(otherDictionary, content, copiedObjects));
+    }
+
+    private static PdfDictionary createFontLikeDictionary(PdfDocument document, String baseFont) {
+        PdfDictionary descriptor = new PdfDictionary();
+        descriptor.put(PdfName.FontName, new PdfName(baseFont));
+        descriptor.makeIndirect(document);
+
+        PdfDictionary font = new PdfDictionary();
+        font.put(PdfName.BaseFont, new PdfName(baseFont));
+        font.put(PdfName.FontDescriptor, descriptor.getIndirectReference());
+        font.makeIndirect(document);
+        return font;
+    }
+}
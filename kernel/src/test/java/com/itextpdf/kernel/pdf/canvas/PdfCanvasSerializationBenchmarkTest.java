@@ -0,0 +1,153 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the throughput of the path-heavy {@link PdfCanvas} operators and the number of bytes
+ * allocated per operator while the content stream is serialized.
+ * Allocation is only reported on JVMs exposing {@code com.sun.management.ThreadMXBean}.
+ */
+@Category(PerformanceTest.class)
+public class PdfCanvasSerializationBenchmarkTest extends ExtendedITextTest {
+
+    private static final String[] OPERATORS = {"moveTo", "lineTo", "curveTo", "rectangle", "setLineWidth",
+            "setFillColorRgb (same)", "setFillColorRgb (alternating)", "concatMatrix", "saveState/restoreState", "stroke"};
+
+    private static final int WARMUP_OPERATIONS = 200000;
+    private static final int MEASURED_OPERATIONS = 1000000;
+    // The content stream is reset periodically so that the measurements are not dominated by buffer growth
+    private static final int RESET_INTERVAL = 10000;
+
+    @Test
+    public void pathOperatorsBenchmarkTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        for (int operator = 0; operator < OPERATORS.length; operator++) {
+            PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+            runOperator(canvas, operator, WARMUP_OPERATIONS);
+            long startAllocated = getAllocatedBytes();
+            long start = System.nanoTime();
+            long written = runOperator(canvas, operator, MEASURED_OPERATIONS);
+            long time = System.nanoTime() - start;
+            long allocated = startAllocated >= 0 ? getAllocatedBytes() - startAllocated : -1;
+            System.out.println(String.format("%-30s %12.0f ops/s  %5.1f bytes written/op  %s", OPERATORS[operator],
+                    MEASURED_OPERATIONS / (time / 1e9), (double) written / MEASURED_OPERATIONS,
+                    allocated >= 0 ? String.format("%6.1f B/op", (double) allocated / MEASURED_OPERATIONS) : "n/a"));
+        }
+        document.close();
+        Assert.assertTrue(document.isClosed());
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread, or -1 if the JVM doesn't report it.
+     */
+    private static long getAllocatedBytes() {
+        try {
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            if (threadBean instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+            }
+        } catch (NoClassDefFoundError | UnsupportedOperationException e) {
+            // The com.sun.management extension isn't available or allocation isn't measured on this JVM
+        }
+        return -1;
+    }
+
+    private static long runOperator(PdfCanvas canvas, int operator, int operations) {
+        long written = 0;
+        for (int i = 0; i < operations; i++) {
+            double x = i % 595 + 0.25;
+            double y = i % 842 * 0.5;
+            switch (operator) {
+                case 0:
+                    canvas.moveTo(x, y);
+                    break;
+                case 1:
+                    canvas.lineTo(x, y);
+                    break;
+                case 2:
+                    canvas.curveTo(x, y, x + 10.5, y + 3, x + 20, y - 7.75);
+                    break;
+                case 3:
+                    canvas.rectangle(x, y, 12.5, 30);
+                    break;
+                case 4:
+                    canvas.setLineWidth(i % 2 == 0 ? 0.5f : 1);
+                    break;
+                case 5:
+                    canvas.setFillColorRgb(0.2f, 0.4f, 0.6f);
+                    break;
+                case 6:
+                    canvas.setFillColorRgb(i % 2 == 0 ? 0.2f : 0.8f, 0.4f, 0.6f);
+                    break;
+                case 7:
+                    canvas.concatMatrix(1, 0, 0, 1, x, y);
+                    break;
+                case 8:
+                    canvas.saveState().restoreState();
+                    break;
+                default:
+                    canvas.stroke();
+                    break;
+            }
+            if ((i + 1) % RESET_INTERVAL == 0) {
+                written += canvas.getContentStream().getOutputStream().getCurrentPos();
+                canvas.getContentStream().getOutputStream().reset();
+            }
+        }
+        return written;
+    }
+}
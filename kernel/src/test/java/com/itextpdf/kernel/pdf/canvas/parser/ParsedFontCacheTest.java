@@ -0,0 +1,197 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+@Category(IntegrationTest.class)
+public class ParsedFontCacheTest extends ExtendedITextTest {
+
+    private static final int PAGES_COUNT = 10;
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void fontsAreSharedBetweenProcessorsTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocument())));
+        ParsedFontCache fontCache = new ParsedFontCache();
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            Assert.assertEquals(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i)), extractText(pdfDocument, i, fontCache));
+        }
+        // three fonts are used on every page, each line is shown with the font selected by the Tf operator
+        Assert.assertEquals(3, fontCache.size());
+        Assert.assertEquals(3, fontCache.getMissCount());
+        Assert.assertEquals(PAGES_COUNT * 30 - 3, fontCache.getHitCount());
+        Assert.assertEquals(0, fontCache.getEvictionCount());
+        Assert.assertEquals((double) (PAGES_COUNT * 30 - 3) / (PAGES_COUNT * 30), fontCache.getHitRate(), 1e-9);
+        pdfDocument.close();
+    }
+
+    @Test
+    public void leastRecentlyUsedFontIsEvictedTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocument())));
+        ParsedFontCache fontCache = new ParsedFontCache(2);
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            Assert.assertEquals(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i)), extractText(pdfDocument, i, fontCache));
+        }
+        // fonts are used in turn, so every request misses the cache of two fonts
+        Assert.assertEquals(2, fontCache.size());
+        Assert.assertEquals(0, fontCache.getHitCount());
+        Assert.assertEquals(PAGES_COUNT * 30, fontCache.getMissCount());
+        Assert.assertEquals(PAGES_COUNT * 30 - 2, fontCache.getEvictionCount());
+        pdfDocument.close();
+    }
+
+    @Test
+    public void fontsOfDifferentDocumentsAreNotMixedTest() throws IOException {
+        byte[] document = createDocument();
+        PdfDocument firstDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        PdfDocument secondDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        ParsedFontCache fontCache = new ParsedFontCache();
+        PdfDictionary firstFontDict = getFirstFont(firstDocument);
+        PdfDictionary secondFontDict = getFirstFont(secondDocument);
+        Assert.assertEquals(firstFontDict.getIndirectReference(), secondFontDict.getIndirectReference());
+
+        PdfFont firstFont = fontCache.getFont(firstFontDict);
+        PdfFont secondFont = fontCache.getFont(secondFontDict);
+        Assert.assertNotSame(firstFont, secondFont);
+        Assert.assertSame(secondFontDict, secondFont.getPdfObject());
+        Assert.assertSame(secondFont, fontCache.getFont(secondFontDict));
+        // the fonts of both documents stay in the cache
+        Assert.assertSame(firstFont, fontCache.getFont(firstFontDict));
+        Assert.assertEquals(2, fontCache.size());
+        Assert.assertEquals(2, fontCache.getHitCount());
+        Assert.assertEquals(2, fontCache.getMissCount());
+        Assert.assertEquals(0, fontCache.getEvictionCount());
+        firstDocument.close();
+        secondDocument.close();
+    }
+
+    @Test
+    public void fontsOfClosedDocumentsAreRemovedTest() throws IOException {
+        byte[] document = createDocument();
+        ParsedFontCache fontCache = new ParsedFontCache();
+        PdfDocument firstDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        fontCache.getFont(getFirstFont(firstDocument));
+        firstDocument.close();
+        Assert.assertEquals(1, fontCache.size());
+
+        PdfDocument secondDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        PdfDictionary secondFontDict = getFirstFont(secondDocument);
+        PdfFont secondFont = fontCache.getFont(secondFontDict);
+        Assert.assertSame(secondFontDict, secondFont.getPdfObject());
+        Assert.assertEquals(1, fontCache.size());
+        Assert.assertEquals(0, fontCache.getEvictionCount());
+        secondDocument.close();
+    }
+
+    @Test
+    public void directFontsAreNotCachedTest() {
+        ParsedFontCache fontCache = new ParsedFontCache();
+        PdfDictionary fontDict = new PdfDictionary();
+        fontDict.put(PdfName.Type, PdfName.Font);
+        fontDict.put(PdfName.Subtype, PdfName.Type1);
+        fontDict.put(PdfName.BaseFont, new PdfName(StandardFonts.HELVETICA));
+        Assert.assertNotSame(fontCache.getFont(fontDict), fontCache.getFont(fontDict));
+        Assert.assertEquals(0, fontCache.size());
+        Assert.assertEquals(0, fontCache.getMissCount());
+        Assert.assertEquals(0, fontCache.getHitRate(), 0);
+    }
+
+    @Test
+    public void notPositiveMaxSizeTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        new ParsedFontCache(0);
+    }
+
+    private static String extractText(PdfDocument pdfDocument, int pageNumber, ParsedFontCache fontCache) {
+        LocationTextExtractionStrategy strategy = new LocationTextExtractionStrategy();
+        new PdfCanvasProcessor(strategy, fontCache).processPageContent(pdfDocument.getPage(pageNumber));
+        return strategy.getResultantText();
+    }
+
+    private static PdfDictionary getFirstFont(PdfDocument pdfDocument) {
+        PdfDictionary fonts = pdfDocument.getPage(1).getResources().getResource(PdfName.Font);
+        return fonts.getAsDictionary(fonts.keySet().iterator().next());
+    }
+
+    private static byte[] createDocument() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont[] fonts = {PdfFontFactory.createFont(StandardFonts.HELVETICA),
+                PdfFontFactory.createFont(StandardFonts.TIMES_ROMAN), PdfFontFactory.createFont(StandardFonts.COURIER)};
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            for (int line = 0; line < 30; line++) {
+                canvas.beginText().setFontAndSize(fonts[line % fonts.length], 12)
+                        .moveText(36, 800 - line * 20)
+                        .showText("Page " + i + ", line " + line)
+                        .endText();
+            }
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+}
@@ -54,6 +54,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ISelectiveEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -70,6 +71,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
 import java.util.Set;
 import org.junit.rules.ExpectedException;
 
@@ -143,6 +147,70 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void onlyNeededDataIsCalculatedTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "tableWithImageAndText.pdf"));
+        PdfPage page = document.getPage(1);
+
+        EventCountingListener allEventsListener = new EventCountingListener(null);
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(allEventsListener);
+        processor.processPageContent(page);
+        Assert.assertNotNull(processor.getGraphicsState().getClippingPath());
+        Assert.assertTrue(allEventsListener.getCount(EventType.RENDER_PATH) > 0);
+        Assert.assertTrue(allEventsListener.getCount(EventType.CLIP_PATH_CHANGED) > 0);
+
+        EventCountingListener textListener = new EventCountingListener(EnumSet.of(EventType.RENDER_TEXT));
+        processor = new PdfCanvasProcessor(textListener);
+        processor.processPageContent(page);
+        // the clipping path is calculated unless the listener explicitly declares that it doesn't need it
+        Assert.assertNotNull(processor.getGraphicsState().getClippingPath());
+        Assert.assertEquals(allEventsListener.getCount(EventType.RENDER_TEXT), textListener.getCount(EventType.RENDER_TEXT));
+        Assert.assertEquals(0, textListener.getCount(EventType.RENDER_PATH));
+
+        EventCountingListener withoutClippingListener = new WithoutClippingListener(EnumSet.of(EventType.RENDER_PATH, EventType.CLIP_PATH_CHANGED));
+        processor = new PdfCanvasProcessor(withoutClippingListener);
+        processor.processPageContent(page);
+        Assert.assertNull(processor.getGraphicsState().getClippingPath());
+        Assert.assertEquals(allEventsListener.getCount(EventType.RENDER_PATH), withoutClippingListener.getCount(EventType.RENDER_PATH));
+        Assert.assertEquals(0, withoutClippingListener.getCount(EventType.CLIP_PATH_CHANGED));
+        document.close();
+    }
+
+    private static class EventCountingListener implements IEventListener {
+        private final Set<EventType> supportedEvents;
+        private final Map<EventType, Integer> counts = new EnumMap<>(EventType.class);
+
+        EventCountingListener(Set<EventType> supportedEvents) {
+            this.supportedEvents = supportedEvents;
+        }
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            counts.put(type, getCount(type) + 1);
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return supportedEvents;
+        }
+
+        int getCount(EventType type) {
+            Integer count = counts.get(type);
+            return count == null ? 0 : (int) count;
+        }
+    }
+
+    private static class WithoutClippingListener extends EventCountingListener implements ISelectiveEventListener {
+        WithoutClippingListener(Set<EventType> supportedEvents) {
+            super(supportedEvents);
+        }
+
+        @Override
+        public boolean isClippingPathNeeded() {
+            return false;
+        }
+    }
+
     private static class NoOpEventListener implements IEventListener {
         @Override
         public void eventOccurred(IEventData data, EventType type) {
@@ -22,15 +22,23 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.ClipperException;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.ClipperExceptionConstant;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ISelectiveEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -60,4 +68,60 @@ public class PdfContentExtractionTest extends ExtendedITextTest {
         PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
         contentParser.processContent(1, new LocationTextExtractionStrategy());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void textExtractionOnPathHeavyPageTest() throws IOException {
+        PdfDocument pdfDocument = createPathHeavyDocument(200);
+        PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
+        String expected = "Text over the paths\nand inside the clipping path";
+
+        Assert.assertEquals(expected, contentParser.processContent(1, new LocationTextExtractionStrategy()).getResultantText());
+        Assert.assertEquals(expected, contentParser.processContent(1, new TextWithoutClippingStrategy()).getResultantText());
+        Assert.assertEquals(expected, PdfTextExtractor.getTextFromPage(pdfDocument.getPage(1)));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void textExtractionOnPageWithBigCoordinatesTest() throws IOException {
+        // clipper can't handle coordinates this big, but the text extraction doesn't need the clipping path
+        PdfDocument pdfDocument = createPathHeavyDocument(100000);
+        PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
+        String expected = "Text over the paths\nand inside the clipping path";
+
+        Assert.assertEquals(expected, contentParser.processContent(1, new TextWithoutClippingStrategy()).getResultantText());
+        Assert.assertEquals(expected, PdfTextExtractor.getTextFromPage(pdfDocument.getPage(1)));
+
+        junitExpectedException.expect(ClipperException.class);
+        junitExpectedException.expectMessage(ClipperExceptionConstant.COORDINATE_OUTSIDE_ALLOWED_RANGE);
+        contentParser.processContent(1, new LocationTextExtractionStrategy());
+    }
+
+    private static PdfDocument createPathHeavyDocument(float clipSize) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        for (int i = 0; i < 500; i++) {
+            canvas.moveTo(i % 500, i % 700).lineTo(500 - i % 500, 700 - i % 700)
+                    .curveTo(10, 20, 30, 40, 50, 60).rectangle(i % 50 * 10, i / 50 * 70, 8, 60);
+            if (i % 2 == 0) {
+                canvas.fill();
+            } else {
+                canvas.stroke();
+            }
+        }
+        canvas.saveState().rectangle(0, 0, clipSize, clipSize).clip().endPath()
+                .beginText().setFontAndSize(PdfFontFactory.createFont(), 12)
+                .moveText(50, 700).showText("Text over the paths")
+                .moveText(0, -20).showText("and inside the clipping path")
+                .endText().restoreState();
+        pdfDocument.close();
+        return new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+    }
+
+    private static class TextWithoutClippingStrategy extends LocationTextExtractionStrategy implements ISelectiveEventListener {
+        @Override
+        public boolean isClippingPathNeeded() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how {@link PdfTextExtractor#getTextFromDocument(PdfDocument, ITextExtractionStrategyFactory, ForkJoinPool)}
+ * scales with the number of workers, compared to extracting the pages one by one on the calling thread,
+ * and how much extraction with a processor per page gains from a {@link ParsedFontCache}.
+ */
+@Category(PerformanceTest.class)
+public class PdfTextExtractorBenchmarkTest extends ExtendedITextTest {
+
+    private static final int PAGES_COUNT = 300;
+    private static final int ITERATIONS = 3;
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/kernel/pdf/fonts/";
+
+    @Test
+    public void documentTextExtractionScalingTest() throws IOException {
+        byte[] document = createDocument();
+        List<String> expected = null;
+        long bestSequentialTime = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+            long start = System.nanoTime();
+            List<String> texts = new ArrayList<>();
+            for (int page = 1; page <= pdfDocument.getNumberOfPages(); page++) {
+                texts.add(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(page)));
+            }
+            bestSequentialTime = Math.min(bestSequentialTime, System.nanoTime() - start);
+            pdfDocument.close();
+            expected = texts;
+        }
+        print("sequential", bestSequentialTime, bestSequentialTime);
+
+        ITextExtractionStrategyFactory strategyFactory = new ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy() {
+                return new LocationTextExtractionStrategy();
+            }
+        };
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, processors)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            long bestTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+                long start = System.nanoTime();
+                List<String> texts = PdfTextExtractor.getTextFromDocument(pdfDocument, strategyFactory, pool);
+                bestTime = Math.min(bestTime, System.nanoTime() - start);
+                pdfDocument.close();
+                Assert.assertEquals(expected, texts);
+            }
+            pool.shutdown();
+            print(parallelism + " worker(s)", bestTime, bestSequentialTime);
+            if (parallelism == processors) {
+                break;
+            }
+        }
+    }
+
+    @Test
+    public void sharedFontCacheBenchmarkTest() throws IOException {
+        byte[] document = createDocumentWithEmbeddedFonts();
+        long bestTimeWithoutCache = Long.MAX_VALUE;
+        long bestTimeWithCache = Long.MAX_VALUE;
+        ParsedFontCache fontCache = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+            long start = System.nanoTime();
+            List<String> expected = new ArrayList<>();
+            for (int page = 1; page <= pdfDocument.getNumberOfPages(); page++) {
+                expected.add(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(page)));
+            }
+            bestTimeWithoutCache = Math.min(bestTimeWithoutCache, System.nanoTime() - start);
+
+            fontCache = new ParsedFontCache();
+            start = System.nanoTime();
+            for (int page = 1; page <= pdfDocument.getNumberOfPages(); page++) {
+                LocationTextExtractionStrategy strategy = new LocationTextExtractionStrategy();
+                new PdfCanvasProcessor(strategy, fontCache).processPageContent(pdfDocument.getPage(page));
+                Assert.assertEquals(expected.get(page - 1), strategy.getResultantText());
+            }
+            bestTimeWithCache = Math.min(bestTimeWithCache, System.nanoTime() - start);
+            pdfDocument.close();
+        }
+        System.out.println(String.format("processor per page without fonts cache %8.1f pages/s", PAGES_COUNT / (bestTimeWithoutCache / 1e9)));
+        System.out.println(String.format("processor per page with shared cache   %8.1f pages/s, speedup %.2f, hit rate %.3f",
+                PAGES_COUNT / (bestTimeWithCache / 1e9), (double) bestTimeWithoutCache / bestTimeWithCache, fontCache.getHitRate()));
+    }
+
+    private static void print(String mode, long time, long sequentialTime) {
+        System.out.println(String.format("%-14s %8.1f pages/s, speedup %.2f", mode,
+                PAGES_COUNT / (time / 1e9), (double) sequentialTime / time));
+    }
+
+    private static byte[] createDocument() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont[] fonts = {PdfFontFactory.createFont(StandardFonts.HELVETICA),
+                PdfFontFactory.createFont(StandardFonts.TIMES_ROMAN), PdfFontFactory.createFont(StandardFonts.COURIER)};
+        for (int i = 0; i < PAGES_COUNT; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            for (int line = 0; line < 60; line++) {
+                canvas.beginText().setFontAndSize(fonts[(i + line) % fonts.length], 10)
+                        .moveText(36, 810 - line * 13)
+                        .showText("Line " + line + " of page " + i + ": the quick brown fox jumps over the lazy dog")
+                        .endText();
+            }
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] createDocumentWithEmbeddedFonts() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        String[] fontNames = {"NotoSerif-Regular.ttf", "Aller_Rg.ttf", "LobsterTwo-Regular.ttf"};
+        PdfFont[] fonts = new PdfFont[fontNames.length];
+        for (int i = 0; i < fontNames.length; i++) {
+            // not subsetted Identity-H fonts have large ToUnicode CMaps and widths arrays
+            fonts[i] = PdfFontFactory.createFont(FONTS_FOLDER + fontNames[i], PdfEncodings.IDENTITY_H);
+            fonts[i].setSubset(false);
+        }
+        for (int i = 0; i < PAGES_COUNT; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            for (int line = 0; line < 20; line++) {
+                canvas.beginText().setFontAndSize(fonts[(i + line) % fonts.length], 10)
+                        .moveText(36, 810 - line * 13)
+                        .showText("Line " + line + " of page " + i + ": the quick brown fox jumps over the lazy dog")
+                        .endText();
+            }
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+}
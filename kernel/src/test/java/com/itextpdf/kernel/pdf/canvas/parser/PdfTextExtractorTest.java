@@ -43,8 +43,16 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -53,7 +61,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 @Category(IntegrationTest.class)
 public class PdfTextExtractorTest extends ExtendedITextTest {
@@ -82,4 +94,50 @@ public class PdfTextExtractorTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void getTextFromDocumentTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createMultiPageDocument(40))));
+        List<String> texts = PdfTextExtractor.getTextFromDocument(pdfDocument);
+        Assert.assertEquals(40, texts.size());
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            Assert.assertEquals(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i)), texts.get(i - 1));
+            Assert.assertTrue(texts.get(i - 1).startsWith("Page " + i + " "));
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void getTextFromDocumentInCustomPoolTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createMultiPageDocument(25))));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<String> texts = PdfTextExtractor.getTextFromDocument(pdfDocument, new ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy() {
+                return new SimpleTextExtractionStrategy();
+            }
+        }, pool);
+        pool.shutdown();
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            Assert.assertEquals(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i), new SimpleTextExtractionStrategy()), texts.get(i - 1));
+        }
+        pdfDocument.close();
+    }
+
+    private static byte[] createMultiPageDocument(int pagesCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont[] fonts = {PdfFontFactory.createFont(StandardFonts.HELVETICA),
+                PdfFontFactory.createFont(StandardFonts.TIMES_ROMAN), PdfFontFactory.createFont(StandardFonts.COURIER)};
+        for (int i = 1; i <= pagesCount; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            for (int line = 0; line < 30; line++) {
+                canvas.beginText().setFontAndSize(fonts[(i + line) % fonts.length], 12)
+                        .moveText(36, 800 - line * 20)
+                        .showText((line == 0 ? "Page " + i + " " : "") + "line " + line + " of the text extraction test")
+                        .endText();
+            }
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
 }
@@ -0,0 +1,152 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.util;
+
+import com.itextpdf.io.source.IRandomAccessSource;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.source.WindowRandomAccessSource;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the speed of parsing of real content streams, the ones of all pages of the parser tests documents.
+ * The content is parsed from an in-memory array, which the tokenizer reads directly, and from a window over
+ * the same array, which is read byte by byte through the source as the files are.
+ */
+@Category(PerformanceTest.class)
+public class PdfCanvasParserBenchmarkTest extends ExtendedITextTest {
+
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/parser/";
+    private static final int ITERATIONS = 10;
+
+    @Test
+    public void contentStreamParsingBenchmarkTest() throws IOException {
+        List<PdfDocument> documents = new ArrayList<>();
+        List<PdfPage> pages = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        long contentLength = 0;
+        for (File file : listPdfFiles(new File(sourceFolder))) {
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(file.getPath()));
+            documents.add(pdfDocument);
+            for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+                byte[] content = pdfDocument.getPage(i).getContentBytes();
+                pages.add(pdfDocument.getPage(i));
+                contents.add(content);
+                contentLength += content.length;
+            }
+        }
+        long[] genericResult = parse(pages, contents, false);
+        long[] inMemoryResult = parse(pages, contents, true);
+        Assert.assertEquals(genericResult[1], inMemoryResult[1]);
+        print("byte by byte source", genericResult, contentLength);
+        print("in-memory array", inMemoryResult, contentLength);
+        for (PdfDocument pdfDocument : documents) {
+            pdfDocument.close();
+        }
+    }
+
+    private static long[] parse(List<PdfPage> pages, List<byte[]> contents, boolean inMemory) throws IOException {
+        long bestTime = Long.MAX_VALUE;
+        long operandsCount = 0;
+        RandomAccessSourceFactory factory = new RandomAccessSourceFactory();
+        List<PdfObject> operands = new ArrayList<>();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            operandsCount = 0;
+            for (int i = 0; i < contents.size(); i++) {
+                IRandomAccessSource source = factory.createSource(contents.get(i));
+                if (!inMemory) {
+                    source = new WindowRandomAccessSource(source, 0);
+                }
+                PdfCanvasParser parser = new PdfCanvasParser(new PdfTokenizer(new RandomAccessFileOrArray(source)),
+                        pages.get(i).getResources());
+                while (parser.parse(operands).size() > 0) {
+                    for (PdfObject operand : operands) {
+                        if (operand.isNumber()) {
+                            ((PdfNumber) operand).getValue();
+                        }
+                    }
+                    operandsCount += operands.size();
+                }
+            }
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+        return new long[] {bestTime, operandsCount};
+    }
+
+    private static void print(String mode, long[] result, long contentLength) {
+        System.out.println(String.format("%-20s %d objects, %.1f M objects/s, %.1f MB/s", mode, result[1],
+                result[1] / (result[0] / 1e3), contentLength / (result[0] / 1e3)));
+    }
+
+    private static List<File> listPdfFiles(File folder) {
+        List<File> files = new ArrayList<>();
+        File[] children = folder.listFiles();
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                files.addAll(listPdfFiles(child));
+            } else if (child.getName().endsWith(".pdf")) {
+                files.add(child);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.compression;
+
+import com.itextpdf.io.source.IFinishable;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compares the compression ratio and the throughput of the {@link ICompressionProvider} implementations
+ * on the decoded content of the FlateDecode streams found in the kernel test documents.
+ */
+@Category(PerformanceTest.class)
+public class CompressionProviderBenchmarkTest extends ExtendedITextTest {
+
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/pdf/";
+
+    private static final long MAX_SAMPLE_SIZE = 32 * 1024 * 1024;
+    private static final long MAX_DOCUMENT_SIZE = 4 * 1024 * 1024;
+    private static final int ITERATIONS = 5;
+
+    @Test
+    public void compressionProvidersBenchmarkTest() throws IOException {
+        List<byte[]> samples = new ArrayList<>();
+        long totalSize = collectSamples(new File(sourceFolder), samples, 0);
+        Assert.assertTrue(totalSize > 0);
+        System.out.println("Streams: " + samples.size() + ", decoded size: " + totalSize + " bytes");
+
+        for (int level : new int[] {1, 6, 9}) {
+            measure("JDK, level " + level, new JdkCompressionProvider(), level, samples, totalSize);
+        }
+        long fastSize = measure("Fast", new FastCompressionProvider(), -1, samples, totalSize);
+        Assert.assertTrue(fastSize < totalSize);
+
+        for (byte[] sample : samples) {
+            Assert.assertArrayEquals(sample, decompress(compress(new FastCompressionProvider(), sample, -1)));
+        }
+    }
+
+    private static long measure(String name, ICompressionProvider provider, int level, List<byte[]> samples,
+            long totalSize) throws IOException {
+        long compressedSize = 0;
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            compressedSize = 0;
+            long start = System.nanoTime();
+            for (byte[] sample : samples) {
+                compressedSize += compress(provider, sample, level).length;
+            }
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+        double ratio = (double) totalSize / compressedSize;
+        double throughput = totalSize / 1048576.0 / (bestTime / 1e9);
+        System.out.println(String.format("%-12s ratio %.3f, %.1f MB/s", name, ratio, throughput));
+        return compressedSize;
+    }
+
+    private static long collectSamples(File folder, List<byte[]> samples, long totalSize) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return totalSize;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (totalSize >= MAX_SAMPLE_SIZE) {
+                break;
+            }
+            if (file.isDirectory()) {
+                totalSize = collectSamples(file, samples, totalSize);
+            } else if (file.getName().endsWith(".pdf") && file.length() <= MAX_DOCUMENT_SIZE) {
+                totalSize = collectSamplesFromDocument(file, samples, totalSize);
+            }
+        }
+        return totalSize;
+    }
+
+    private static long collectSamplesFromDocument(File file, List<byte[]> samples, long totalSize) {
+        try {
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(file));
+            for (int i = 1; i <= pdfDocument.getNumberOfPdfObjects() && totalSize < MAX_SAMPLE_SIZE; i++) {
+                PdfObject object = pdfDocument.getPdfObject(i);
+                if (object instanceof PdfStream && PdfName.FlateDecode.equals(((PdfStream) object).get(PdfName.Filter))) {
+                    byte[] bytes = ((PdfStream) object).getBytes();
+                    samples.add(bytes);
+                    totalSize += bytes.length;
+                }
+            }
+            pdfDocument.close();
+        } catch (Exception ignored) {
+            // encrypted and broken documents are skipped
+        }
+        return totalSize;
+    }
+
+    private static byte[] compress(ICompressionProvider provider, byte[] data, int level) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream deflater = provider.createDeflateStream(baos, level);
+        deflater.write(data);
+        ((IFinishable) deflater).finish();
+        return baos.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(data));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = inflater.read(buffer)) >= 0) {
+            baos.write(buffer, 0, n);
+        }
+        return baos.toByteArray();
+    }
+}
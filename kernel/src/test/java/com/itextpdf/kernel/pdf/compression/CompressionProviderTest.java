@@ -0,0 +1,245 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.compression;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+@Category(IntegrationTest.class)
+public class CompressionProviderTest extends ExtendedITextTest {
+
+    public static final String destinationFolder = "./target/test/com/itextpdf/kernel/pdf/compression/CompressionProviderTest/";
+
+    private static final int PAGES_COUNT = 10;
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void fastCompressionProviderTest() throws IOException {
+        String filename = destinationFolder + "fastCompressionProvider.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(filename,
+                new WriterProperties().setCompressionProvider(new FastCompressionProvider())));
+        byte[][] contents = addPages(pdfDocument);
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(filename));
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            PdfStream contentStream = pdfDocument.getPage(i).getFirstContentStream();
+            Assert.assertEquals(PdfName.FlateDecode, contentStream.getAsName(PdfName.Filter));
+            Assert.assertArrayEquals(contents[i - 1], contentStream.getBytes());
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void fastCompressionProviderFullCompressionTest() throws IOException {
+        ByteArrayOutputStream fastOutput = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(fastOutput, new WriterProperties()
+                .setCompressionProvider(new FastCompressionProvider()).setFullCompressionMode(true)));
+        byte[][] contents = addPages(pdfDocument);
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(fastOutput.toByteArray())));
+        Assert.assertEquals(PAGES_COUNT, pdfDocument.getNumberOfPages());
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            Assert.assertArrayEquals(contents[i - 1], pdfDocument.getPage(i).getContentBytes());
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void writerCompressionProviderTest() throws IOException {
+        CountingCompressionProvider provider = new CountingCompressionProvider();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().setCompressionProvider(provider)));
+        Assert.assertSame(provider, pdfDocument.getWriter().getCompressionProvider());
+        addPages(pdfDocument);
+        pdfDocument.close();
+        Assert.assertTrue(provider.deflateStreamsCount.get() >= PAGES_COUNT);
+        Assert.assertEquals(0, provider.inflateStreamsCount.get());
+    }
+
+    @Test
+    public void defaultCompressionProviderTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        Assert.assertSame(CompressionProviders.getDefault(), pdfDocument.getWriter().getCompressionProvider());
+        byte[][] contents = addPages(pdfDocument);
+        pdfDocument.close();
+
+        CountingCompressionProvider provider = new CountingCompressionProvider();
+        CompressionProviders.setDefault(provider);
+        try {
+            pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+            for (int i = 1; i <= PAGES_COUNT; i++) {
+                Assert.assertArrayEquals(contents[i - 1], pdfDocument.getPage(i).getContentBytes());
+            }
+            pdfDocument.close();
+        } finally {
+            CompressionProviders.setDefault(null);
+        }
+        Assert.assertEquals(PAGES_COUNT, provider.inflateStreamsCount.get());
+        Assert.assertTrue(CompressionProviders.getDefault() instanceof JdkCompressionProvider);
+    }
+
+    @Test
+    public void jdkDeflaterStreamProviderTest() throws IOException {
+        checkThirdPartyProvider(new JdkCompressionProvider() {
+            @Override
+            public OutputStream createDeflateStream(OutputStream out, int compressionLevel) {
+                return new java.util.zip.DeflaterOutputStream(out, new Deflater(compressionLevel));
+            }
+        });
+    }
+
+    @Test
+    public void unfinishableStreamProviderTest() throws IOException {
+        checkThirdPartyProvider(new JdkCompressionProvider() {
+            @Override
+            public OutputStream createDeflateStream(OutputStream out, int compressionLevel) {
+                return new UnfinishableOutputStream(
+                        new java.util.zip.DeflaterOutputStream(out, new Deflater(compressionLevel)));
+            }
+        });
+    }
+
+    private static void checkThirdPartyProvider(ICompressionProvider provider) throws IOException {
+        byte[] streamBytes = new byte[10000];
+        for (int i = 0; i < streamBytes.length; i++) {
+            streamBytes[i] = (byte) (i % 7);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos,
+                new WriterProperties().setCompressionProvider(provider)));
+        byte[][] contents = addPages(pdfDocument);
+        // the streams created from an input stream are compressed while they are written
+        PdfStream stream = new PdfStream(pdfDocument, new ByteArrayInputStream(streamBytes));
+        pdfDocument.getCatalog().put(new PdfName("TestStream"), stream);
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            Assert.assertArrayEquals(contents[i - 1], pdfDocument.getPage(i).getContentBytes());
+        }
+        stream = pdfDocument.getCatalog().getPdfObject().getAsStream(new PdfName("TestStream"));
+        Assert.assertEquals(PdfName.FlateDecode, stream.getAsName(PdfName.Filter));
+        Assert.assertArrayEquals(streamBytes, stream.getBytes());
+        pdfDocument.close();
+    }
+
+    private static byte[][] addPages(PdfDocument pdfDocument) {
+        byte[][] contents = new byte[PAGES_COUNT][];
+        for (int i = 0; i < PAGES_COUNT; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            for (int j = 0; j < 1000; j++) {
+                canvas.rectangle(j % 500, (i * j) % 800, 10, 10).fill();
+            }
+            canvas.release();
+            contents[i] = pdfDocument.getPage(i + 1).getContentBytes();
+        }
+        return contents;
+    }
+
+    private static class UnfinishableOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        UnfinishableOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class CountingCompressionProvider extends JdkCompressionProvider {
+        final AtomicInteger deflateStreamsCount = new AtomicInteger();
+        final AtomicInteger inflateStreamsCount = new AtomicInteger();
+
+        @Override
+        public OutputStream createDeflateStream(OutputStream out, int compressionLevel) {
+            deflateStreamsCount.incrementAndGet();
+            return super.createDeflateStream(out, compressionLevel);
+        }
+
+        @Override
+        public InputStream createInflateStream(InputStream in) {
+            inflateStreamsCount.incrementAndGet();
+            return super.createInflateStream(in);
+        }
+    }
+}
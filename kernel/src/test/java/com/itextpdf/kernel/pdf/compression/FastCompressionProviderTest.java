@@ -0,0 +1,201 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.compression;
+
+import com.itextpdf.io.source.IFinishable;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.InflaterInputStream;
+
+@Category(UnitTest.class)
+public class FastCompressionProviderTest extends ExtendedITextTest {
+
+    private static final int[] LENGTHS = {0, 1, 3, 4, 5, 100, 4096, 65535, 65536, 65537, 300000};
+
+    @Test
+    public void randomDataTest() throws IOException {
+        Random random = new Random(42);
+        for (int length : LENGTHS) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            assertRoundTrip(data);
+        }
+    }
+
+    @Test
+    public void repetitiveDataTest() throws IOException {
+        for (int length : LENGTHS) {
+            assertRoundTrip(new byte[length]);
+        }
+    }
+
+    @Test
+    public void textDataTest() throws IOException {
+        Random random = new Random(42);
+        String[] operators = {"q ", "Q ", "BT ", "ET ", "0 0 1 rg ", "(Hello World) Tj ", "1 0 0 1 36 806 Tm ", "re f "};
+        for (int length : LENGTHS) {
+            StringBuilder text = new StringBuilder();
+            while (text.length() < length) {
+                text.append(random.nextInt(1000)).append(' ').append(operators[random.nextInt(operators.length)]);
+            }
+            assertRoundTrip(text.substring(0, length).getBytes("ISO-8859-1"));
+        }
+    }
+
+    @Test
+    public void textDataCompressionTest() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append("BT /F1 12 Tf ").append(i).append(" 700 Td (Line ").append(i).append(") Tj ET\n");
+        }
+        byte[] data = text.toString().getBytes("ISO-8859-1");
+        byte[] compressed = compress(new FastCompressionProvider(), data, -1);
+        Assert.assertTrue(compressed.length < data.length / 4);
+    }
+
+    @Test
+    public void noCompressionTest() throws IOException {
+        Random random = new Random(42);
+        byte[] data = new byte[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(4);
+        }
+        byte[] stored = compress(new FastCompressionProvider(), data, 0);
+        Assert.assertTrue(stored.length > data.length);
+        Assert.assertArrayEquals(data, decompress(stored));
+        Assert.assertTrue(compress(new FastCompressionProvider(), data, 1).length < data.length / 2);
+    }
+
+    @Test
+    public void writeByChunksTest() throws IOException {
+        Random random = new Random(42);
+        byte[] data = new byte[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(3));
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream deflater = new FastCompressionProvider().createDeflateStream(baos, -1);
+        int pos = 0;
+        while (pos < data.length) {
+            int length = Math.min(random.nextInt(10000), data.length - pos);
+            if (length == 1) {
+                deflater.write(data[pos]);
+            } else {
+                deflater.write(data, pos, length);
+            }
+            pos += length;
+        }
+        ((IFinishable) deflater).finish();
+        Assert.assertArrayEquals(data, decompress(baos.toByteArray()));
+    }
+
+    @Test
+    public void finishDoesNotCloseStreamTest() throws IOException {
+        final boolean[] closed = {false};
+        ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        OutputStream deflater = new FastCompressionProvider().createDeflateStream(baos, -1);
+        deflater.write(new byte[] {1, 2, 3});
+        ((IFinishable) deflater).finish();
+        Assert.assertFalse(closed[0]);
+        deflater.close();
+        Assert.assertTrue(closed[0]);
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, decompress(baos.toByteArray()));
+    }
+
+    @Test
+    public void inflateStreamTest() throws IOException {
+        byte[] data = "Hello World Hello World Hello World".getBytes("ISO-8859-1");
+        InputStream inflater = new FastCompressionProvider().createInflateStream(
+                new ByteArrayInputStream(compress(new JdkCompressionProvider(), data, 9)));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        int b;
+        while ((b = inflater.read()) >= 0) {
+            baos.write(b);
+        }
+        Assert.assertArrayEquals(data, baos.toByteArray());
+    }
+
+    private static void assertRoundTrip(byte[] data) throws IOException {
+        for (int level : new int[] {-1, 0, 1, 9}) {
+            byte[] compressed = compress(new FastCompressionProvider(), data, level);
+            Assert.assertArrayEquals("Round trip failed for " + data.length + " bytes with compression level " + level,
+                    data, decompress(compressed));
+        }
+    }
+
+    private static byte[] compress(ICompressionProvider provider, byte[] data, int level) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream deflater = provider.createDeflateStream(baos, level);
+        deflater.write(data);
+        ((IFinishable) deflater).finish();
+        return baos.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(data));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = inflater.read(buffer)) >= 0) {
+            baos.write(buffer, 0, n);
+        }
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.io.codec.LZWCompressor;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+@Category(UnitTest.class)
+public class StreamingFiltersTest extends ExtendedITextTest {
+
+    @Test
+    public void asciiHexDecodeTest() throws IOException {
+        byte[] data = createData(1000);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < data.length; i++) {
+            sb.append(String.format("%02X", data[i] & 0xff));
+            if (i % 30 == 29) {
+                sb.append('\n');
+            }
+        }
+        sb.append('>');
+        assertStreamingDecode(new ASCIIHexDecodeFilter(), PdfName.ASCIIHexDecode, sb.toString().getBytes(), null, data);
+        // Odd number of digits
+        assertStreamingDecode(new ASCIIHexDecodeFilter(), PdfName.ASCIIHexDecode, "4 1 4>".getBytes(), null, null);
+    }
+
+    @Test
+    public void ascii85DecodeTest() throws IOException {
+        byte[] hello = "Hello World!".getBytes();
+        assertStreamingDecode(new ASCII85DecodeFilter(), PdfName.ASCII85Decode, "87cURD]i,\"Ebo80~>".getBytes(), null, hello);
+        assertStreamingDecode(new ASCII85DecodeFilter(), PdfName.ASCII85Decode, "87cUR\nD]i, \"Ebo80~>".getBytes(), null, hello);
+        assertStreamingDecode(new ASCII85DecodeFilter(), PdfName.ASCII85Decode, "z!!~>".getBytes(), null, new byte[5]);
+    }
+
+    @Test
+    public void runLengthDecodeTest() throws IOException {
+        byte[] encoded = {2, 'a', 'b', 'c', (byte) 253, 'd', 0, 'e', (byte) 128, 'f'};
+        assertStreamingDecode(new RunLengthDecodeFilter(), PdfName.RunLengthDecode, encoded, null, "abcdddde".getBytes());
+    }
+
+    @Test
+    public void lzwDecodeTest() throws IOException {
+        byte[] data = createData(100000);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        LZWCompressor compressor = new LZWCompressor(baos, 8, true);
+        compressor.compress(data, 0, data.length);
+        compressor.flush();
+        assertStreamingDecode(new LZWDecodeFilter(), PdfName.LZWDecode, baos.toByteArray(), null, data);
+    }
+
+    @Test
+    public void flateDecodeTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        assertStreamingDecode(new FlateDecodeFilter(), PdfName.FlateDecode, encoded, null, data);
+        assertStreamingDecode(new FlateDecodeStrictFilter(), PdfName.FlateDecode, encoded, null, data);
+    }
+
+    @Test
+    public void flateDecodeCorruptedTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        encoded = Arrays.copyOf(encoded, encoded.length / 2);
+        // Decoding of a truncated stream ends at the point of corruption
+        assertStreamingDecode(new FlateDecodeFilter(), PdfName.FlateDecode, encoded, null, null);
+        encoded[encoded.length / 2] ^= 0x55;
+        assertStreamingDecode(new FlateDecodeFilter(), PdfName.FlateDecode, encoded, null, null);
+    }
+
+    @Test
+    public void flateDecodePngPredictorTest() throws IOException {
+        int columns = 37;
+        int colors = 3;
+        Random random = new Random(7);
+        ByteArrayOutputStream predicted = new ByteArrayOutputStream();
+        for (int row = 0; row < 50; row++) {
+            predicted.write(row % 5);
+            for (int i = 0; i < columns * colors; i++) {
+                predicted.write(random.nextInt(256));
+            }
+        }
+        // Incomplete last row
+        predicted.write(1);
+        predicted.write(5);
+        PdfDictionary decodeParams = new PdfDictionary();
+        decodeParams.put(PdfName.Predictor, new PdfNumber(15));
+        decodeParams.put(PdfName.Columns, new PdfNumber(columns));
+        decodeParams.put(PdfName.Colors, new PdfNumber(colors));
+        assertStreamingDecode(new FlateDecodeFilter(), PdfName.FlateDecode, deflate(predicted.toByteArray()), decodeParams, null);
+    }
+
+    @Test
+    public void flateDecodeTiffPredictorTest() throws IOException {
+        PdfDictionary decodeParams = new PdfDictionary();
+        decodeParams.put(PdfName.Predictor, new PdfNumber(2));
+        decodeParams.put(PdfName.Columns, new PdfNumber(13));
+        decodeParams.put(PdfName.Colors, new PdfNumber(2));
+        assertStreamingDecode(new FlateDecodeFilter(), PdfName.FlateDecode, deflate(createData(1000)), decodeParams, null);
+    }
+
+    @Test
+    public void flateDecodeCorruptedBufferedStreamTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        encoded = Arrays.copyOf(encoded, encoded.length / 2);
+        // a mark would make the buffered stream keep all the encoded data in memory
+        InputStream encodedStream = new BufferedInputStream(new ByteArrayInputStream(encoded)) {
+            @Override
+            public synchronized void mark(int readlimit) {
+                Assert.fail("The stream of the caller shall not be marked");
+            }
+        };
+        InputStream decodedStream = new FlateDecodeFilter().decode(encodedStream, PdfName.FlateDecode, null,
+                new PdfDictionary());
+        byte[] decoded = StreamUtil.inputStreamToArray(decodedStream);
+        Assert.assertTrue(decoded.length > 0);
+        Assert.assertArrayEquals(Arrays.copyOf(data, decoded.length), decoded);
+    }
+
+    @Test
+    public void doNothingTest() throws IOException {
+        byte[] data = createData(100);
+        assertStreamingDecode(new DoNothingFilter(), PdfName.DCTDecode, data, null, data);
+    }
+
+    private static void assertStreamingDecode(IStreamingFilterHandler filter, PdfName filterName, byte[] encoded,
+            PdfObject decodeParams, byte[] expected) throws IOException {
+        PdfDictionary streamDictionary = new PdfDictionary();
+        byte[] decodedBytes = filter.decode(encoded, filterName, decodeParams, streamDictionary);
+        if (expected != null) {
+            Assert.assertArrayEquals(expected, decodedBytes);
+        }
+        InputStream decodedStream = filter.decode(new ByteArrayInputStream(encoded), filterName, decodeParams, streamDictionary);
+        Assert.assertArrayEquals(decodedBytes, StreamUtil.inputStreamToArray(decodedStream));
+
+        // Reading by single bytes and by odd-sized chunks must give the same result
+        decodedStream = filter.decode(new ByteArrayInputStream(encoded), filterName, decodeParams, streamDictionary);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[7];
+        boolean single = true;
+        while (true) {
+            if (single) {
+                int b = decodedStream.read();
+                if (b < 0) {
+                    break;
+                }
+                baos.write(b);
+            } else {
+                int n = decodedStream.read(buffer, 0, buffer.length);
+                if (n < 0) {
+                    break;
+                }
+                baos.write(buffer, 0, n);
+            }
+            single = !single;
+        }
+        decodedStream.close();
+        Assert.assertArrayEquals(decodedBytes, baos.toByteArray());
+    }
+
+    private static byte[] createData(int length) {
+        Random random = new Random(length);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            // Repetitive enough to be compressed
+            data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt(256) : i % 17);
+        }
+        return data;
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(data);
+        zip.close();
+        return baos.toByteArray();
+    }
+}
@@ -42,6 +42,14 @@
  */
 package com.itextpdf.kernel.utils;
 
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -52,6 +60,10 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 @Category(IntegrationTest.class)
 public class CompareToolTest extends ExtendedITextTest {
@@ -138,4 +150,87 @@ public class CompareToolTest extends ExtendedITextTest {
         Assert.assertEquals(replacedExpected, new CompareTool().convertProducerLine(initial));
     }
 
+
+    @Test
+    public void inProcessVisualCompareEqualContentTest() throws IOException, InterruptedException {
+        String outPdf = destinationFolder + "inProcessVisualCompareEqualContent.pdf";
+        String cmpPdf = destinationFolder + "cmp_inProcessVisualCompareEqualContent.pdf";
+        createDocument(cmpPdf, 0, "Hello World", false);
+        // the same content is painted with a translated coordinate system and in another order
+        createDocument(outPdf, 0, "Hello World", true);
+
+        CompareTool compareTool = new CompareTool().enableInProcessVisualCompare();
+        Assert.assertNull(compareTool.compareVisually(outPdf, cmpPdf, destinationFolder, "diff_"));
+        Assert.assertEquals("Compare by content fails. No visual differences",
+                compareTool.compareByContent(outPdf, cmpPdf, destinationFolder));
+    }
+
+    @Test
+    public void inProcessVisualCompareDifferentContentTest() throws IOException, InterruptedException {
+        String outPdf = destinationFolder + "inProcessVisualCompareDifferentContent.pdf";
+        String cmpPdf = destinationFolder + "cmp_inProcessVisualCompareDifferentContent.pdf";
+        createDocument(cmpPdf, 0, "Hello World", false);
+        createDocument(outPdf, 2, "Hello World", false);
+
+        CompareTool compareTool = new CompareTool().enableInProcessVisualCompare();
+        String result = compareTool.compareVisually(outPdf, cmpPdf, destinationFolder, "diff_");
+        Assert.assertNotNull(result);
+        Assert.assertTrue(result.contains("differs on page [2]"));
+        Assert.assertTrue(result.contains("Missing text \"H\" font Helvetica fill DeviceRgb 0.0 0.0 1.0"));
+
+        Assert.assertNull(compareTool.setVisualCompareTolerance(3).compareVisually(outPdf, cmpPdf, destinationFolder, "diff_"));
+    }
+
+    @Test
+    public void inProcessVisualCompareIgnoredAreasTest() throws IOException, InterruptedException {
+        String outPdf = destinationFolder + "inProcessVisualCompareIgnoredAreas.pdf";
+        String cmpPdf = destinationFolder + "cmp_inProcessVisualCompareIgnoredAreas.pdf";
+        createDocument(cmpPdf, 0, "Hello World", false);
+        createDocument(outPdf, 0, "Hello Earth", false);
+
+        CompareTool compareTool = new CompareTool().enableInProcessVisualCompare();
+        Assert.assertNotNull(compareTool.compareVisually(outPdf, cmpPdf, destinationFolder, "diff_"));
+        List<Rectangle> ignoredAreas = Arrays.asList(new Rectangle(30, 690, 200, 40));
+        Map<Integer, List<Rectangle>> ignoredAreasByPage = Collections.singletonMap(2, ignoredAreas);
+        Assert.assertNull(compareTool.compareVisually(outPdf, cmpPdf, destinationFolder, "diff_", ignoredAreasByPage));
+    }
+
+    @Test
+    public void inProcessVisualCompareImagesWithSameObjectNumberTest() throws IOException, InterruptedException {
+        String outPdf = destinationFolder + "inProcessVisualCompareImagesWithSameObjectNumber.pdf";
+        String cmpPdf = destinationFolder + "cmp_inProcessVisualCompareImagesWithSameObjectNumber.pdf";
+        // both images are written with the same object number
+        createImageDocument(cmpPdf, (byte) 0xFF);
+        createImageDocument(outPdf, (byte) 0);
+
+        CompareTool compareTool = new CompareTool().enableInProcessVisualCompare();
+        String result = compareTool.compareVisually(outPdf, cmpPdf, destinationFolder, "diff_");
+        Assert.assertNotNull(result);
+        Assert.assertTrue(result.contains("differs on page [1]"));
+    }
+
+    private static void createImageDocument(String filename, byte gray) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(filename));
+        byte[] pixels = new byte[16];
+        Arrays.fill(pixels, gray);
+        new PdfCanvas(pdfDocument.addNewPage()).addImage(ImageDataFactory.create(4, 4, 1, 8, pixels, null), 36, 500, 100, false);
+        pdfDocument.close();
+    }
+
+    private static void createDocument(String filename, float textShift, String text, boolean translated) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(filename));
+        pdfDocument.addNewPage();
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        if (translated) {
+            canvas.concatMatrix(1, 0, 0, 1, 100, 100);
+            canvas.beginText().setFontAndSize(PdfFontFactory.createFont(StandardFonts.HELVETICA), 12)
+                    .setColor(ColorConstants.BLUE, true).moveText(-64 + textShift, 600).showText(text).endText();
+            canvas.setFillColor(ColorConstants.RED).rectangle(-64, 400, 100, 50).fill();
+        } else {
+            canvas.setFillColor(ColorConstants.RED).rectangle(36, 500, 100, 50).fill();
+            canvas.beginText().setFontAndSize(PdfFontFactory.createFont(StandardFonts.HELVETICA), 12)
+                    .setColor(ColorConstants.BLUE, true).moveText(36 + textShift, 700).showText(text).endText();
+        }
+        pdfDocument.close();
+    }
 }
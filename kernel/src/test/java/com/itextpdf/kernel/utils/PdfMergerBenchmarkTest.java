@@ -0,0 +1,179 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.navigation.PdfExplicitDestination;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Measures merging of a large document with an outline entry and a link annotation on every page,
+ * and the memory used while merging many small documents.
+ */
+@Category(PerformanceTest.class)
+public class PdfMergerBenchmarkTest extends ExtendedITextTest {
+
+    private static final int PAGES_COUNT = 20000;
+    private static final int PAGES_PER_CHAPTER = 100;
+    private static final int SOURCE_DOCUMENTS_COUNT = 2000;
+    private static final int MEMORY_CHECKPOINTS = 4;
+
+    @Test
+    public void mergeDocumentWithDenseOutlinesBenchmarkTest() throws IOException {
+        long start = System.nanoTime();
+        byte[] source = createDocumentWithDenseOutlines();
+        long created = System.nanoTime();
+
+        PdfDocument sourceDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)));
+        long lookupStart = System.nanoTime();
+        for (int i = sourceDocument.getNumberOfPages(); i > 0; i--) {
+            Assert.assertEquals(i, sourceDocument.getPageNumber(sourceDocument.getPage(i).getPdfObject()));
+        }
+        long lookupEnd = System.nanoTime();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument resultDocument = new PdfDocument(new PdfWriter(baos));
+        new PdfMerger(resultDocument, false, true).merge(sourceDocument, 1, sourceDocument.getNumberOfPages());
+        resultDocument.close();
+        sourceDocument.close();
+        long merged = System.nanoTime();
+
+        PdfDocument mergedDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(PAGES_COUNT, mergedDocument.getNumberOfPages());
+        Assert.assertEquals(PAGES_COUNT / PAGES_PER_CHAPTER,
+                mergedDocument.getOutlines(false).getAllChildren().size());
+        mergedDocument.close();
+
+        System.out.println(String.format("%d pages: creation %d ms, page number lookups %d ms, merge %d ms",
+                PAGES_COUNT, (created - start) / 1000000, (lookupEnd - lookupStart) / 1000000,
+                (merged - lookupEnd) / 1000000));
+    }
+
+    @Test
+    public void mergeManyDocumentsMemoryBenchmarkTest() throws IOException {
+        byte[] source = createSmallDocument();
+        for (int mode = 0; mode < 2; mode++) {
+            boolean streamingMode = mode == 1;
+            long start = System.nanoTime();
+            PdfDocument resultDocument = new PdfDocument(new PdfWriter(new IdleOutputStream()));
+            PdfMerger merger = new PdfMerger(resultDocument).setCloseSourceDocuments(true).setStreamingMode(streamingMode);
+            StringBuilder usedMemory = new StringBuilder();
+            for (int i = 1; i <= SOURCE_DOCUMENTS_COUNT; i++) {
+                PdfDocument sourceDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)));
+                merger.merge(sourceDocument, 1, sourceDocument.getNumberOfPages());
+                if (i % (SOURCE_DOCUMENTS_COUNT / MEMORY_CHECKPOINTS) == 0) {
+                    usedMemory.append(String.format(" %.1f", getUsedMemory() / 1048576.0));
+                }
+            }
+            Assert.assertEquals(SOURCE_DOCUMENTS_COUNT, resultDocument.getNumberOfPages());
+            merger.close();
+            System.out.println(String.format("%s: %d documents in %d ms, used MB after each %d documents:%s",
+                    streamingMode ? "streaming mode" : "default mode", SOURCE_DOCUMENTS_COUNT,
+                    (System.nanoTime() - start) / 1000000, SOURCE_DOCUMENTS_COUNT / MEMORY_CHECKPOINTS, usedMemory));
+        }
+    }
+
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static byte[] createSmallDocument() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos));
+        PdfPage page = document.addNewPage();
+        PdfCanvas canvas = new PdfCanvas(page);
+        canvas.beginText().setFontAndSize(PdfFontFactory.createFont(StandardFonts.HELVETICA), 12).moveText(36, 800);
+        for (int i = 0; i < 40; i++) {
+            canvas.showText("Invoice line " + i + ": 1 x item " + i).moveText(0, -16);
+        }
+        canvas.endText().release();
+        document.getOutlines(false).addOutline("Invoice").addDestination(PdfExplicitDestination.createFit(page));
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] createDocumentWithDenseOutlines() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < PAGES_COUNT; i++) {
+            document.addNewPage();
+        }
+        PdfOutline root = document.getOutlines(false);
+        PdfOutline chapter = null;
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            PdfPage page = document.getPage(i);
+            if (i % PAGES_PER_CHAPTER == 1) {
+                chapter = root.addOutline("Chapter " + (i / PAGES_PER_CHAPTER + 1));
+                chapter.addDestination(PdfExplicitDestination.createFit(page));
+            }
+            chapter.addOutline("Page " + i).addDestination(PdfExplicitDestination.createFit(page));
+            PdfPage target = document.getPage(PAGES_COUNT - i + 1);
+            page.addAnnotation(new PdfLinkAnnotation(new Rectangle(36, 36, 100, 20))
+                    .setDestination(PdfExplicitDestination.createFit(target)));
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+}
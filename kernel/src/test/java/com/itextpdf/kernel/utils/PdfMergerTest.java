@@ -292,4 +292,87 @@ public class PdfMergerTest extends ExtendedITextTest {
             Assert.fail(errorMessage);
         }
     }
+
+    @Test
+    public void streamingMergeDocumentTest02() throws IOException, InterruptedException {
+        String resultFile = destinationFolder + "streamingMergedResult02.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + "doc1.pdf"));
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfReader(sourceFolder + "doc2.pdf"));
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(sourceFolder + "doc3.pdf"));
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfWriter(resultFile));
+        PdfMerger merger = new PdfMerger(pdfDoc3).setCloseSourceDocuments(true).setStreamingMode(true);
+
+        merger.merge(pdfDoc, 1, 1).merge(pdfDoc1, 1, 1).merge(pdfDoc2, 1, 1).close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult02.pdf", destinationFolder, "diff_");
+        if (errorMessage != null) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY),
+            @LogMessage(messageTemplate = LogMessageConstant.CREATED_ROOT_TAG_HAS_MAPPING, count = 2)
+    })
+    public void streamingMergeDocumentTest04() throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+        String resultFile = destinationFolder + "streamingMergedResult04.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + "pdf_open_parameters.pdf"));
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfReader(sourceFolder + "iphone_user_guide.pdf"));
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfWriter(resultFile));
+        pdfDoc3.setTagged();
+
+        PdfMerger merger = new PdfMerger(pdfDoc3).setCloseSourceDocuments(true).setStreamingMode(true);
+        List<Integer> pages = new ArrayList<>();
+        pages.add(3);
+        pages.add(2);
+        pages.add(1);
+        merger.merge(pdfDoc, pages);
+
+        List<Integer> pages1 = new ArrayList<>();
+        pages1.add(5);
+        pages1.add(9);
+        pages1.add(4);
+        pages1.add(3);
+        merger.merge(pdfDoc1, pages1);
+
+        merger.close();
+
+        // the pages are flushed in the course of merging, so the parent tree indices differ from the ones in cmp file
+        String tagStructErrorMessage = new CompareTool().compareTagStructures(resultFile, sourceFolder + "cmp_mergedResult04.pdf");
+        if (tagStructErrorMessage != null) {
+            Assert.fail(tagStructErrorMessage);
+        }
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(resultFile));
+        PdfDocument cmpDoc = new PdfDocument(new PdfReader(sourceFolder + "cmp_mergedResult04.pdf"));
+        Assert.assertEquals(cmpDoc.getNumberOfPages(), resultDoc.getNumberOfPages());
+        for (int i = 1; i <= cmpDoc.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(cmpDoc.getPage(i).getContentBytes(), resultDoc.getPage(i).getContentBytes());
+        }
+        resultDoc.close();
+        cmpDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.NAME_ALREADY_EXISTS_IN_THE_NAME_TREE, count = 2)})
+    public void streamingMergeOutlinesNamedDestinations() throws IOException, InterruptedException {
+        String resultFile = destinationFolder + "streamingMergeOutlinesNamedDestinations.pdf";
+
+        PdfDocument sourceDoc = new PdfDocument(new PdfReader(sourceFolder + "outlinesNamedDestinations.pdf"));
+        PdfDocument output = new PdfDocument(new PdfWriter(resultFile));
+        PdfMerger merger = new PdfMerger(output).setStreamingMode(true);
+        merger.merge(sourceDoc, 2, 3);
+        merger.merge(sourceDoc, 2, 3);
+        sourceDoc.close();
+        merger.close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergeOutlinesNamedDestinations.pdf", destinationFolder, "diff_");
+        if (errorMessage != null) {
+            Assert.fail(errorMessage);
+        }
+    }
 }
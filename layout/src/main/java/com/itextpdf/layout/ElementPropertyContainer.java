@@ -56,6 +56,7 @@ import com.itextpdf.layout.property.BorderRadius;
 import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.Underline;
@@ -63,7 +64,6 @@ import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.layout.splitting.ISplitCharacters;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -75,7 +75,7 @@ import java.util.Map;
  */
 public abstract class ElementPropertyContainer<T extends IPropertyContainer> implements IPropertyContainer {
 
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
 
     @Override
     public void setProperty(int property, Object value) {
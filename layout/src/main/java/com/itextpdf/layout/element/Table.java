@@ -89,6 +89,7 @@ public class Table extends BlockElement<Table> implements ILargeElement {
     private Document document;
     private Cell[] lastAddedRow;
     private Div caption;
+    private int streamingRowCount;
 
     /**
      * Constructs a {@code Table} with the preferable column widths.
@@ -493,6 +494,37 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         return this;
     }
 
+    /**
+     * Gets the number of rows after which a large table flushes itself.
+     *
+     * @return the number of rows, or 0 if the table is only flushed explicitly
+     * @see #setStreamingRowCount(int)
+     */
+    public int getStreamingRowCount() {
+        return streamingRowCount;
+    }
+
+    /**
+     * Streams a large table: every time the given number of rows has been added since the last flush,
+     * the complete row groups are written to the document as if {@link #flush()} were called. The written rows
+     * are released together with their renderers and borders, so the memory used by the table does not
+     * depend on the number of its rows.
+     * <p>
+     * Large tables use fixed layout, so the column widths are defined by the widths passed to the constructor
+     * and by the very first row, and rows added later never affect the rows which have already been written.
+     * The setting only affects large tables which have been added to a {@link Document}.
+     *
+     * @param streamingRowCount the number of rows, or 0 to flush the table only explicitly
+     * @return this element
+     */
+    public Table setStreamingRowCount(int streamingRowCount) {
+        if (streamingRowCount < 0) {
+            throw new IllegalArgumentException("The streaming row count can not be negative.");
+        }
+        this.streamingRowCount = streamingRowCount;
+        return this;
+    }
+
     /**
      * Tells you if the last footer needs to be skipped (for instance if the
      * footer says "continued on the next page")
@@ -571,7 +603,7 @@ public class Table extends BlockElement<Table> implements ILargeElement {
     public Table startNewRow() {
         currentColumn = 0;
         currentRow++;
-        if (currentRow >= rows.size()) {
+        if (currentRow - rowWindowStart >= rows.size()) {
             rows.add(new Cell[columnWidths.length]);
         }
         return this;
@@ -619,6 +651,10 @@ public class Table extends BlockElement<Table> implements ILargeElement {
             }
         }
         currentColumn += cell.getColspan();
+        if (0 != streamingRowCount && !isComplete && null != document && currentColumn >= columnWidths.length
+                && 0 == (currentRow - rowWindowStart + 1) % streamingRowCount) {
+            flush();
+        }
         return this;
     }
 
@@ -779,17 +815,17 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         int firstRow = lastAddedRowGroups.get(0).startRow;
         int lastRow = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).finishRow;
 
-        List<IElement> toRemove = new ArrayList<>();
-        for (IElement cell : childElements) {
-            if (((Cell) cell).getRow() >= firstRow && ((Cell) cell).getRow() <= lastRow) {
-                toRemove.add(cell);
+        // remove the flushed cells in one pass, removing them one by one is quadratic in the number of flushed rows
+        int remainingCount = 0;
+        for (int i = 0; i < childElements.size(); i++) {
+            IElement cell = childElements.get(i);
+            if (((Cell) cell).getRow() < firstRow || ((Cell) cell).getRow() > lastRow) {
+                childElements.set(remainingCount++, cell);
             }
         }
-        childElements.removeAll(toRemove);
+        childElements.subList(remainingCount, childElements.size()).clear();
 
-        for (int i = 0; i < lastRow - firstRow; i++) {
-            rows.remove(firstRow - rowWindowStart);
-        }
+        rows.subList(firstRow - rowWindowStart, lastRow - rowWindowStart).clear();
         lastAddedRow = rows.remove(firstRow - rowWindowStart);
         rowWindowStart = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).getFinishRow() + 1;
 
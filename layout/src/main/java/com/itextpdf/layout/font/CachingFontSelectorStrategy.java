@@ -0,0 +1,116 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.font.GlyphRunCache.GlyphRun;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link FontSelectorStrategy} which replays the glyph runs cached for the text and the {@link FontSelector}.
+ * If there are no cached runs, the text is split by the wrapped strategy and its runs are cached
+ * as soon as the whole text is processed.
+ *
+ * @see GlyphRunCache
+ */
+class CachingFontSelectorStrategy extends FontSelectorStrategy {
+
+    private final FontSelectorStrategy strategy;
+    private final GlyphRunCache cache;
+    private final FontSelector selector;
+    private final List<GlyphRun> cachedRuns;
+    private List<GlyphRun> recordedRuns;
+    private int runIndex;
+    private PdfFont font;
+
+    CachingFontSelectorStrategy(String text, FontSelector selector, FontProvider provider, FontSet tempFonts,
+                                GlyphRunCache cache, FontSelectorStrategy strategy) {
+        super(text, provider, tempFonts);
+        this.selector = selector;
+        this.cache = cache;
+        this.strategy = strategy;
+        this.cachedRuns = cache.get(text, selector);
+        this.recordedRuns = cachedRuns == null ? new ArrayList<GlyphRun>() : null;
+    }
+
+    @Override
+    public boolean endOfText() {
+        if (cachedRuns != null) {
+            return runIndex >= cachedRuns.size();
+        } else {
+            return strategy.endOfText();
+        }
+    }
+
+    @Override
+    public PdfFont getCurrentFont() {
+        return cachedRuns != null ? font : strategy.getCurrentFont();
+    }
+
+    @Override
+    public List<Glyph> nextGlyphs() {
+        if (cachedRuns != null) {
+            GlyphRun run = cachedRuns.get(runIndex++);
+            font = getPdfFont(run.getFontInfo());
+            return run.getGlyphs();
+        }
+        List<Glyph> glyphs = strategy.nextGlyphs();
+        if (recordedRuns != null) {
+            FontInfo fontInfo = provider.findFontInfo(strategy.getCurrentFont());
+            if (fontInfo == null) {
+                // the font was not created by the provider, so it could not be found for the next document
+                recordedRuns = null;
+            } else {
+                recordedRuns.add(new GlyphRun(glyphs, fontInfo));
+                if (strategy.endOfText()) {
+                    cache.put(text, selector, recordedRuns);
+                    recordedRuns = null;
+                }
+            }
+        }
+        return glyphs;
+    }
+}
@@ -66,7 +66,8 @@ import java.util.Map;
  * Contains reusable {@link FontSet} and collection of {@link PdfFont}s.
  * FontProvider depends on {@link PdfDocument} due to {@link PdfFont}, so it cannot be reused for different documents
  * unless reset with {@link FontProvider#reset()} or recreated with {@link FontProvider#getFontSet()}.
- * In the former case the {@link FontSelectorCache} is reused and in the latter it's reinitialised.
+ * In the former case the {@link FontSelectorCache} is reused and in the latter it's reinitialised,
+ * unless the same cache is passed to {@link #FontProvider(FontSet, String, FontSelectorCache)}.
  * FontProvider the only end point for creating {@link PdfFont}.
  * <p>
  * It is allowed to use only one {@link FontProvider} per document. If temporary fonts per element needed,
@@ -119,9 +120,24 @@ public class FontProvider {
      * @param defaultFontFamily default font family.
      */
     public FontProvider(FontSet fontSet, String defaultFontFamily) {
+        this(fontSet, defaultFontFamily, new FontSelectorCache());
+    }
+
+    /**
+     * Creates a new instance of FontProvider which shares the given cache of font selectors
+     * and glyph runs with other providers.
+     *
+     * @param fontSet predefined set of fonts, could be null.
+     * @param defaultFontFamily default font family.
+     * @param fontSelectorCache the cache of font selectors.
+     */
+    public FontProvider(FontSet fontSet, String defaultFontFamily, FontSelectorCache fontSelectorCache) {
+        if (fontSelectorCache == null) {
+            throw new IllegalArgumentException("The font selector cache shall not be null");
+        }
         this.fontSet = fontSet != null ? fontSet : new FontSet();
         pdfFonts = new HashMap<>();
-        fontSelectorCache = new FontSelectorCache(this.fontSet);
+        this.fontSelectorCache = fontSelectorCache;
         this.defaultFontFamily = defaultFontFamily;
     }
 
@@ -216,6 +232,15 @@ public class FontProvider {
         return fontSet;
     }
 
+    /**
+     * Gets the cache of font selectors used by this provider.
+     *
+     * @return the font selector cache
+     */
+    public FontSelectorCache getFontSelectorCache() {
+        return fontSelectorCache;
+    }
+
     /**
      * Gets the default font-family
      * @return the default font-family
@@ -240,8 +265,24 @@ public class FontProvider {
         return true;
     }
 
+    /**
+     * Creates the strategy which splits the text into sub texts with one particular font.
+     * The glyph runs of short texts are cached, so a text repeated in the document, or in the next document
+     * after {@link #reset()}, is not resolved glyph by glyph again.
+     *
+     * @param text           the text to be split
+     * @param fontFamilies   target font families
+     * @param fc             instance of {@link FontCharacteristics}.
+     * @param additonalFonts set of temporary fonts, could be null.
+     * @return an instance of {@link FontSelectorStrategy}.
+     */
     public FontSelectorStrategy getStrategy(String text, List<String> fontFamilies, FontCharacteristics fc, FontSet additonalFonts) {
-        return new ComplexFontSelectorStrategy(text, getFontSelector(fontFamilies, fc, additonalFonts), this, additonalFonts);
+        FontSelector selector = getFontSelector(fontFamilies, fc, additonalFonts);
+        FontSelectorStrategy strategy = new ComplexFontSelectorStrategy(text, selector, this, additonalFonts);
+        if (GlyphRunCache.isCacheable(text)) {
+            strategy = new CachingFontSelectorStrategy(text, selector, this, additonalFonts, fontSelectorCache.getGlyphRunCache(), strategy);
+        }
+        return strategy;
     }
 
     public FontSelectorStrategy getStrategy(String text, List<String> fontFamilies, FontCharacteristics fc) {
@@ -263,10 +304,10 @@ public class FontProvider {
      */
     public final FontSelector getFontSelector(List<String> fontFamilies, FontCharacteristics fc) {
         FontSelectorKey key = new FontSelectorKey(fontFamilies, fc);
-        FontSelector fontSelector = fontSelectorCache.get(key);
+        FontSelector fontSelector = fontSelectorCache.get(key, fontSet, null, defaultFontFamily);
         if (fontSelector == null) {
             fontSelector = createFontSelector(fontSet.getFonts(), fontFamilies, fc);
-            fontSelectorCache.put(key, fontSelector);
+            fontSelectorCache.put(key, fontSet, null, defaultFontFamily, fontSelector);
         }
         return fontSelector;
     }
@@ -283,10 +324,10 @@ public class FontProvider {
     public final FontSelector getFontSelector(List<String> fontFamilies, FontCharacteristics fc,
                                               FontSet tempFonts) {
         FontSelectorKey key = new FontSelectorKey(fontFamilies, fc);
-        FontSelector fontSelector = fontSelectorCache.get(key, tempFonts);
+        FontSelector fontSelector = fontSelectorCache.get(key, fontSet, tempFonts, defaultFontFamily);
         if (fontSelector == null) {
             fontSelector = createFontSelector(fontSet.getFonts(tempFonts), fontFamilies, fc);
-            fontSelectorCache.put(key, fontSelector, tempFonts);
+            fontSelectorCache.put(key, fontSet, tempFonts, defaultFontFamily, fontSelector);
         }
         return fontSelector;
     }
@@ -344,6 +385,9 @@ public class FontProvider {
                     } else {
                         fontProgram = FontProgramFactory.createFont(fontInfo.getFontName(), getDefaultCacheFlag());
                     }
+                    if (getDefaultCacheFlag() && (tempFonts == null || !tempFonts.cacheFontProgram(fontInfo, fontProgram))) {
+                        fontSet.cacheFontProgram(fontInfo, fontProgram);
+                    }
                 }
                 String encoding = fontInfo.getEncoding();
                 if (encoding == null || encoding.length() == 0) {
@@ -376,4 +420,19 @@ public class FontProvider {
     public void reset() {
         pdfFonts.clear();
     }
+
+    /**
+     * Finds the font info the given {@link PdfFont} was created for.
+     *
+     * @param pdfFont the font created by this provider
+     * @return the font info or null if the font was not created by this provider
+     */
+    FontInfo findFontInfo(PdfFont pdfFont) {
+        for (Map.Entry<FontInfo, PdfFont> entry : pdfFonts.entrySet()) {
+            if (entry.getValue() == pdfFont) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
 }
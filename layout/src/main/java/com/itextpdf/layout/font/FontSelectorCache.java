@@ -42,90 +42,183 @@
  */
 package com.itextpdf.layout.font;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-class FontSelectorCache {
+/**
+ * A cache of the {@link FontSelector}s created by {@link FontProvider}s.
+ * <p>
+ * Every {@link FontProvider} creates its own cache by default. A cache passed to
+ * {@link FontProvider#FontProvider(FontSet, String, FontSelectorCache)} is shared by all such providers,
+ * including the ones that are used in different threads, so a service which creates a provider per document
+ * for the same {@link FontSet} selects fonts for every combination of font families and characteristics only once.
+ * The glyph runs of repeated texts are shared along with the selectors.
+ * <p>
+ * Selectors are cached by the font families, the font characteristics, the default font family of the provider
+ * and the {@link FontSet}s they were created for. A font set which has been filled with new fonts since
+ * never hits the selectors created for its previous state. The cache holds at most the given number of selectors,
+ * the least recently used selector is evicted when it is full.
+ * <p>
+ * Note, providers sharing a cache shall create the same selectors for the same keys, i.e. they shall not
+ * override {@link FontProvider#createFontSelector} in different ways.
+ */
+public class FontSelectorCache {
+
+    /**
+     * The default maximal number of the cached selectors.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    private final Map<Key, FontSelector> selectors;
+    private final GlyphRunCache glyphRunCache = new GlyphRunCache();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache which holds at most {@link #DEFAULT_MAX_SIZE} selectors.
+     */
+    public FontSelectorCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
 
-    private final FontSetSelectors defaultSelectors;
-    private final FontSet defaultFontSet;
-    private final Map<Long, FontSetSelectors> caches = new HashMap<>();
+    /**
+     * Creates a cache which holds at most the given number of selectors.
+     *
+     * @param maxSize the maximal number of the cached selectors, shall be positive
+     */
+    public FontSelectorCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximal size of the font selectors cache shall be positive");
+        }
+        this.maxSize = maxSize;
+        this.selectors = new LinkedHashMap<Key, FontSelector>(16, 0.75f, true) {
+            private static final long serialVersionUID = 7036478310935424165L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FontSelector> eldest) {
+                if (size() > FontSelectorCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
 
-    FontSelectorCache(FontSet defaultFontSet) {
-        assert defaultFontSet != null;
-        this.defaultSelectors = new FontSetSelectors();
-        this.defaultSelectors.update(defaultFontSet);
-        this.defaultFontSet = defaultFontSet;
+    /**
+     * Gets the number of the requests which were served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
     }
 
-    FontSelector get(FontSelectorKey key) {
-        if (update(null, null)) {
-            return null;
-        } else {
-            return defaultSelectors.map.get(key);
-        }
+    /**
+     * Gets the number of the requests which required creation of a selector.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
     }
 
-    FontSelector get(FontSelectorKey key, FontSet fontSet) {
-        if (fontSet == null) {
-            return get(key);
-        } else {
-            FontSetSelectors selectors = caches.get(fontSet.getId());
-            if (selectors == null) {
-                caches.put(fontSet.getId(), selectors = new FontSetSelectors());
-            }
-            if (update(selectors, fontSet)) {
-                return null;
-            } else {
-                return selectors.map.get(key);
-            }
-        }
+    /**
+     * Gets the number of the selectors which were removed from the cache to keep its size within the limit.
+     *
+     * @return the number of evicted selectors
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the ratio of the cache hits to all requests.
+     *
+     * @return the hit rate from 0 to 1, or 0 if there were no requests
+     */
+    public synchronized double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
     }
 
-    void put(FontSelectorKey key, FontSelector fontSelector) {
-        //update defaultSelectors to reset counter before pushing if needed.
-        update(null, null);
-        defaultSelectors.map.put(key, fontSelector);
+    /**
+     * Gets the number of the cached selectors.
+     *
+     * @return the number of the cached selectors
+     */
+    public synchronized int size() {
+        return selectors.size();
     }
 
-    void put(FontSelectorKey key, FontSelector fontSelector, FontSet fontSet) {
-        if (fontSet == null) {
-            put(key, fontSelector);
+    /**
+     * Removes all selectors from the cache. The statistics are kept.
+     */
+    public synchronized void clear() {
+        selectors.clear();
+    }
+
+    synchronized FontSelector get(FontSelectorKey key, FontSet fontSet, FontSet tempFonts, String defaultFontFamily) {
+        FontSelector selector = selectors.get(new Key(key, fontSet, tempFonts, defaultFontFamily));
+        if (selector != null) {
+            hitCount++;
         } else {
-            FontSetSelectors selectors = caches.get(fontSet.getId());
-            if (selectors == null) {
-                caches.put(fontSet.getId(), selectors = new FontSetSelectors());
-            }
-            //update selectors and defaultSelectors to reset counter before pushing if needed.
-            update(selectors, fontSet);
-            selectors.map.put(key, fontSelector);
+            missCount++;
         }
+        return selector;
     }
 
-    private boolean update(FontSetSelectors selectors, FontSet fontSet) {
-        boolean updated = false;
-        if (defaultSelectors.update(defaultFontSet)) {
-            updated = true;
-        }
-        if (selectors != null && selectors.update(fontSet)) {
-            updated = true;
-        }
-        return updated;
+    synchronized void put(FontSelectorKey key, FontSet fontSet, FontSet tempFonts, String defaultFontFamily,
+                          FontSelector selector) {
+        selectors.put(new Key(key, fontSet, tempFonts, defaultFontFamily), selector);
     }
 
-    private static class FontSetSelectors {
-        final Map<FontSelectorKey, FontSelector> map = new HashMap<>();
-        private int fontSetSize = -1;
+    GlyphRunCache getGlyphRunCache() {
+        return glyphRunCache;
+    }
 
-        boolean update(FontSet fontSet) {
-            assert fontSet != null;
-            if (fontSetSize == fontSet.size()) {
-                return false;
-            } else {
-                map.clear();
-                fontSetSize = fontSet.size();
-                return true;
-            }
+    private static final class Key {
+        private final FontSelectorKey key;
+        private final long fontSetId;
+        private final int fontSetSize;
+        private final long tempFontsId;
+        private final int tempFontsSize;
+        private final String defaultFontFamily;
+
+        Key(FontSelectorKey key, FontSet fontSet, FontSet tempFonts, String defaultFontFamily) {
+            this.key = key;
+            this.fontSetId = fontSet.getId();
+            // the selectors are created anew only if the number of fonts has been changed, see FontSet#addFont
+            this.fontSetSize = fontSet.size();
+            this.tempFontsId = tempFonts != null ? tempFonts.getId() : 0;
+            this.tempFontsSize = tempFonts != null ? tempFonts.size() : 0;
+            this.defaultFontFamily = defaultFontFamily;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+
+            return fontSetId == that.fontSetId && fontSetSize == that.fontSetSize
+                    && tempFontsId == that.tempFontsId && tempFontsSize == that.tempFontsSize
+                    && key.equals(that.key)
+                    && (defaultFontFamily != null ? defaultFontFamily.equals(that.defaultFontFamily) : that.defaultFontFamily == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = key.hashCode();
+            result = 31 * result + (int) (fontSetId ^ (fontSetId >>> 32));
+            result = 31 * result + fontSetSize;
+            result = 31 * result + (int) (tempFontsId ^ (tempFontsId >>> 32));
+            result = 31 * result + tempFontsSize;
+            result = 31 * result + (defaultFontFamily != null ? defaultFontFamily.hashCode() : 0);
+            return result;
         }
     }
 }
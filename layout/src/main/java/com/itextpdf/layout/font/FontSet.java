@@ -52,11 +52,11 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -76,7 +76,8 @@ public final class FontSet {
     // Due to new logic HashSet can be used instead of List.
     // But FontInfo with or without alias will be the same FontInfo.
     private final Set<FontInfo> fonts = new LinkedHashSet<>();
-    private final Map<FontInfo, FontProgram> fontPrograms = new HashMap<>();
+    // programs parsed by providers are added while the set is shared between threads
+    private final Map<FontInfo, FontProgram> fontPrograms = new ConcurrentHashMap<>();
     private final long id;
 
     /**
@@ -354,7 +355,7 @@ public final class FontSet {
         // (Yes, FontSet is final. Double check.)
         if (fontInfo != null && !fonts.contains(fontInfo)) {
             // NOTE! We SHALL NOT replace font, because it will influence on FontSelectorCache.
-            // FontSelectorCache reset cache ONLY if number of fonts has been changed,
+            // FontSelectorCache creates selectors anew ONLY if number of fonts has been changed,
             // while replacing will modify list of fonts without size change.
             fonts.add(fontInfo);
             return true;
@@ -459,5 +460,23 @@ public final class FontSet {
         return fontPrograms.get(fontInfo);
     }
 
+    /**
+     * Keeps the program parsed for a font of this set, so that it is not looked up or parsed
+     * again by the next {@link FontProvider} which uses this set.
+     *
+     * @param fontInfo    font info of this set
+     * @param fontProgram the program parsed for the font
+     * @return false if the font does not belong to this set, otherwise true
+     */
+    boolean cacheFontProgram(FontInfo fontInfo, FontProgram fontProgram) {
+        if (!fonts.contains(fontInfo)) {
+            return false;
+        }
+        if (!fontPrograms.containsKey(fontInfo)) {
+            fontPrograms.put(fontInfo, fontProgram);
+        }
+        return true;
+    }
+
     //endregion
 }
@@ -0,0 +1,161 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the glyph runs {@link ComplexFontSelectorStrategy} splits texts into.
+ * <p>
+ * Tables and forms repeat the same short strings over and over again, while every occurrence
+ * is resolved glyph by glyph against the fonts of a {@link FontSelector}. The runs are cached by the text
+ * and the selector they were resolved with, so a change of the {@link FontSet} never hits the runs of
+ * the previous selectors. Runs refer to {@link FontInfo} rather than to {@link com.itextpdf.kernel.font.PdfFont},
+ * so they stay valid after {@link FontProvider#reset()} and can be replayed for the next document.
+ * The cache belongs to a {@link FontSelectorCache}, so the providers sharing selectors share the runs as well.
+ * <p>
+ * Only texts not longer than {@link #MAX_TEXT_LENGTH} are cached, at most the given number of texts are kept
+ * and the least recently used one is evicted when the cache is full.
+ */
+class GlyphRunCache {
+
+    static final int DEFAULT_MAX_SIZE = 1024;
+
+    static final int MAX_TEXT_LENGTH = 256;
+
+    private final int maxSize;
+    private final Map<Key, List<GlyphRun>> runs;
+
+    GlyphRunCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    GlyphRunCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.runs = new LinkedHashMap<Key, List<GlyphRun>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4510916862457306741L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<GlyphRun>> eldest) {
+                return size() > GlyphRunCache.this.maxSize;
+            }
+        };
+    }
+
+    static boolean isCacheable(String text) {
+        return text != null && !text.isEmpty() && text.length() <= MAX_TEXT_LENGTH;
+    }
+
+    synchronized List<GlyphRun> get(String text, FontSelector selector) {
+        return runs.get(new Key(text, selector));
+    }
+
+    synchronized void put(String text, FontSelector selector, List<GlyphRun> textRuns) {
+        runs.put(new Key(text, selector), Collections.unmodifiableList(new ArrayList<>(textRuns)));
+    }
+
+    synchronized int size() {
+        return runs.size();
+    }
+
+    /**
+     * A part of the text which is drawn with one font.
+     */
+    static final class GlyphRun {
+        private final List<Glyph> glyphs;
+        private final FontInfo fontInfo;
+
+        GlyphRun(List<Glyph> glyphs, FontInfo fontInfo) {
+            this.glyphs = new ArrayList<>(glyphs);
+            this.fontInfo = fontInfo;
+        }
+
+        /**
+         * Gets a copy of the glyphs of the run, the caller is free to modify it.
+         *
+         * @return the glyphs of the run
+         */
+        List<Glyph> getGlyphs() {
+            return new ArrayList<>(glyphs);
+        }
+
+        FontInfo getFontInfo() {
+            return fontInfo;
+        }
+    }
+
+    private static final class Key {
+        private final String text;
+        private final FontSelector selector;
+        private final int hash;
+
+        Key(String text, FontSelector selector) {
+            this.text = text;
+            this.selector = selector;
+            this.hash = 31 * text.hashCode() + System.identityHashCode(selector);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return selector == other.selector && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
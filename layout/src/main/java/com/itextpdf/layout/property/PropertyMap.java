@@ -0,0 +1,443 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map of property values keyed by {@link Property} ids, used as the property storage of layout elements
+ * and renderers.
+ * <p>
+ * Values of the properties with ids in the range of the {@link Property} constants are stored in an array
+ * indexed by the id, together with a bit set of the present ids, so that lookups and updates neither hash
+ * the key nor allocate entries. Other keys are stored in an ordinary hash map.
+ * <p>
+ * As long as only a few such properties are set, their values are stored compactly in the order of the ids
+ * instead, and the position of a value is the number of present ids below it. Most elements and renderers
+ * set only a handful of properties, and an array indexed by the highest of them would mostly hold nulls.
+ * <p>
+ * A map created with {@link #PropertyMap(Map)}, or filled with {@link #putAll(Map)} while empty, shares the
+ * storage of the source {@link PropertyMap} until either of them is modified. This makes copying all the
+ * properties to split and overflow renderers cheap.
+ */
+public class PropertyMap extends AbstractMap<Integer, Object> {
+
+    private static final int MAX_DENSE_KEY = 255;
+    private static final int CAPACITY_INCREMENT = 16;
+    private static final int MAX_COMPACT_SIZE = 16;
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final long[] EMPTY_PRESENT_KEYS = new long[0];
+
+    // in the compact form the values are stored in the order of their keys, otherwise they are indexed by the key
+    private Object[] values = EMPTY_VALUES;
+    private long[] presentKeys = EMPTY_PRESENT_KEYS;
+    private boolean compact = true;
+    private int denseSize;
+    private Map<Integer, Object> sparseValues;
+    // true if the storage may be referenced by another map and has to be copied before modification
+    private boolean shared;
+
+    /**
+     * Creates an empty map.
+     */
+    public PropertyMap() {
+    }
+
+    /**
+     * Creates a map with the same properties as the specified map.
+     *
+     * @param properties the properties to be copied
+     */
+    public PropertyMap(Map<Integer, ?> properties) {
+        putAll(properties);
+    }
+
+    /**
+     * Gets the value of a property without boxing its id.
+     *
+     * @param property the id of the property
+     * @return the value of the property, or null if it is absent
+     */
+    private Object get(int property) {
+        if (property >= 0 && property <= MAX_DENSE_KEY) {
+            if (compact) {
+                int word = property >>> 6;
+                if (word >= presentKeys.length) {
+                    return null;
+                }
+                long mask = 1L << property;
+                long bits = presentKeys[word];
+                return (bits & mask) != 0 ? values[compactIndex(word, bits & (mask - 1))] : null;
+            }
+            return property < values.length ? values[property] : null;
+        }
+        return sparseValues == null ? null : sparseValues.get(property);
+    }
+
+    /**
+     * Checks whether the property is present in the map, possibly with a null value, without boxing its id.
+     *
+     * @param property the id of the property
+     * @return true if the map contains the property
+     */
+    private boolean containsKey(int property) {
+        if (property >= 0 && property <= MAX_DENSE_KEY) {
+            return (property >>> 6) < presentKeys.length && (presentKeys[property >>> 6] & (1L << property)) != 0;
+        }
+        return sparseValues != null && sparseValues.containsKey(property);
+    }
+
+    /**
+     * Sets the value of a property without boxing its id.
+     *
+     * @param property the id of the property
+     * @param value    the new value of the property, may be null
+     * @return the previous value of the property, or null if it was absent
+     */
+    private Object put(int property, Object value) {
+        prepareForModification();
+        if (property >= 0 && property <= MAX_DENSE_KEY) {
+            if (compact) {
+                if (!containsKey(property) && denseSize == MAX_COMPACT_SIZE) {
+                    switchToDense();
+                } else {
+                    return putCompact(property, value);
+                }
+            }
+            ensureCapacity(property);
+            long mask = 1L << property;
+            if ((presentKeys[property >>> 6] & mask) == 0) {
+                presentKeys[property >>> 6] |= mask;
+                denseSize++;
+            }
+            Object previousValue = values[property];
+            values[property] = value;
+            return previousValue;
+        }
+        if (sparseValues == null) {
+            sparseValues = new HashMap<>();
+        }
+        return sparseValues.put(property, value);
+    }
+
+    /**
+     * Removes a property from the map without boxing its id.
+     *
+     * @param property the id of the property
+     * @return the previous value of the property, or null if it was absent
+     */
+    private Object remove(int property) {
+        if (!containsKey(property)) {
+            return null;
+        }
+        prepareForModification();
+        if (property >= 0 && property <= MAX_DENSE_KEY) {
+            int word = property >>> 6;
+            long mask = 1L << property;
+            presentKeys[word] &= ~mask;
+            denseSize--;
+            if (compact) {
+                int index = compactIndex(word, presentKeys[word] & (mask - 1));
+                Object previousValue = values[index];
+                System.arraycopy(values, index + 1, values, index, denseSize - index);
+                values[denseSize] = null;
+                return previousValue;
+            }
+            Object previousValue = values[property];
+            values[property] = null;
+            return previousValue;
+        }
+        return sparseValues.remove(property);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public Object put(Integer key, Object value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ?> properties) {
+        if (properties instanceof PropertyMap) {
+            PropertyMap other = (PropertyMap) properties;
+            if (isEmpty()) {
+                values = other.values;
+                presentKeys = other.presentKeys;
+                compact = other.compact;
+                denseSize = other.denseSize;
+                sparseValues = other.sparseValues;
+                shared = true;
+                other.shared = true;
+            } else {
+                for (int key = other.nextDenseKey(0); key >= 0; key = other.nextDenseKey(key + 1)) {
+                    put(key, other.get(key));
+                }
+                if (other.sparseValues != null) {
+                    for (Map.Entry<Integer, Object> entry : other.sparseValues.entrySet()) {
+                        put((int) entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        } else {
+            for (Map.Entry<? extends Integer, ?> entry : properties.entrySet()) {
+                put((int) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return denseSize + (sparseValues == null ? 0 : sparseValues.size());
+    }
+
+    @Override
+    public void clear() {
+        values = EMPTY_VALUES;
+        presentKeys = EMPTY_PRESENT_KEYS;
+        compact = true;
+        denseSize = 0;
+        sparseValues = null;
+        shared = false;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private void prepareForModification() {
+        if (shared) {
+            values = values.clone();
+            presentKeys = presentKeys.clone();
+            if (sparseValues != null) {
+                sparseValues = new HashMap<>(sparseValues);
+            }
+            shared = false;
+        }
+    }
+
+    private int compactIndex(int word, long lowerBits) {
+        int index = Long.bitCount(lowerBits);
+        for (int i = 0; i < word; i++) {
+            index += Long.bitCount(presentKeys[i]);
+        }
+        return index;
+    }
+
+    private Object putCompact(int property, Object value) {
+        int word = property >>> 6;
+        if (word >= presentKeys.length) {
+            presentKeys = Arrays.copyOf(presentKeys, word + 1);
+        }
+        long mask = 1L << property;
+        int index = compactIndex(word, presentKeys[word] & (mask - 1));
+        if ((presentKeys[word] & mask) != 0) {
+            Object previousValue = values[index];
+            values[index] = value;
+            return previousValue;
+        }
+        if (denseSize == values.length) {
+            values = Arrays.copyOf(values, Math.max(2, Math.min(denseSize * 2, MAX_COMPACT_SIZE)));
+        }
+        System.arraycopy(values, index, values, index + 1, denseSize - index);
+        values[index] = value;
+        presentKeys[word] |= mask;
+        denseSize++;
+        return null;
+    }
+
+    private void switchToDense() {
+        Object[] compactValues = values;
+        int lastWord = presentKeys.length - 1;
+        while (presentKeys[lastWord] == 0) {
+            lastWord--;
+        }
+        int lastKey = (lastWord << 6) + 63 - Long.numberOfLeadingZeros(presentKeys[lastWord]);
+        int capacity = (lastKey / CAPACITY_INCREMENT + 1) * CAPACITY_INCREMENT;
+        values = new Object[capacity];
+        presentKeys = Arrays.copyOf(presentKeys, (capacity + 63) >>> 6);
+        int index = 0;
+        for (int key = nextDenseKey(0); key >= 0; key = nextDenseKey(key + 1)) {
+            values[key] = compactValues[index++];
+        }
+        compact = false;
+    }
+
+    private void ensureCapacity(int property) {
+        if (property >= values.length) {
+            int capacity = (property / CAPACITY_INCREMENT + 1) * CAPACITY_INCREMENT;
+            values = Arrays.copyOf(values, capacity);
+            presentKeys = Arrays.copyOf(presentKeys, (capacity + 63) >>> 6);
+        }
+    }
+
+    private int nextDenseKey(int fromKey) {
+        int word = fromKey >>> 6;
+        if (word >= presentKeys.length) {
+            return -1;
+        }
+        long bits = presentKeys[word] & (-1L << fromKey);
+        while (bits == 0) {
+            if (++word == presentKeys.length) {
+                return -1;
+            }
+            bits = presentKeys[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<Integer, Object>> {
+        @Override
+        public Iterator<Map.Entry<Integer, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return PropertyMap.this.size();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Integer, Object>> {
+        private int denseKey = nextDenseKey(0);
+        // sparse keys are iterated over a snapshot, since the sparse map is replaced when a shared map is modified
+        private List<Integer> sparseKeys = sparseValues == null ? null : new ArrayList<>(sparseValues.keySet());
+        private int nextSparseKeyIndex;
+        private Integer lastKey;
+
+        @Override
+        public boolean hasNext() {
+            return denseKey >= 0 || (sparseKeys != null && nextSparseKeyIndex < sparseKeys.size());
+        }
+
+        @Override
+        public Map.Entry<Integer, Object> next() {
+            if (denseKey >= 0) {
+                lastKey = denseKey;
+                denseKey = nextDenseKey(denseKey + 1);
+            } else if (sparseKeys != null && nextSparseKeyIndex < sparseKeys.size()) {
+                lastKey = sparseKeys.get(nextSparseKeyIndex++);
+            } else {
+                throw new NoSuchElementException();
+            }
+            return new Entry(lastKey);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            PropertyMap.this.remove((int) lastKey);
+            lastKey = null;
+        }
+    }
+
+    private class Entry implements Map.Entry<Integer, Object> {
+        private final int key;
+
+        Entry(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return getKey().equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
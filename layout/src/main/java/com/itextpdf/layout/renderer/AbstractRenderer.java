@@ -86,6 +86,7 @@ import com.itextpdf.layout.property.BoxSizingPropertyValue;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.OverflowPropertyValue;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.Transform;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.UnitValue;
@@ -95,7 +96,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -123,9 +123,13 @@ public abstract class AbstractRenderer implements IRenderer {
     protected boolean flushed = false;
     protected LayoutArea occupiedArea;
     protected IRenderer parent;
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
     protected boolean isLastRendererForModelElement = true;
 
+    // Result of the last min-max width calculation, together with the children it was calculated for
+    private MinMaxWidth cachedMinMaxWidth;
+    private IRenderer[] cachedMinMaxWidthChildren;
+
     /**
      * Creates a renderer.
      */
@@ -162,6 +166,7 @@ public abstract class AbstractRenderer implements IRenderer {
         Integer positioning = renderer.<Integer>getProperty(Property.POSITION);
         if (positioning == null || positioning == LayoutPosition.RELATIVE || positioning == LayoutPosition.STATIC) {
             childRenderers.add(renderer);
+            invalidateMinMaxWidth();
         } else if (positioning == LayoutPosition.FIXED) {
             AbstractRenderer root = this;
             while (root.parent instanceof AbstractRenderer) {
@@ -261,7 +266,10 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        if (properties.containsKey(property)) {
+            properties.remove(property);
+            onPropertyChanged(property);
+        }
     }
 
     /**
@@ -278,6 +286,7 @@ public abstract class AbstractRenderer implements IRenderer {
                 modelElement.deleteOwnProperty(property);
             }
         }
+        onPropertyChanged(property);
     }
 
     /**
@@ -325,7 +334,11 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        boolean changed = !properties.containsKey(property);
+        Object previousValue = properties.put(property, value);
+        if (changed || (previousValue == null ? value != null : !previousValue.equals(value))) {
+            onPropertyChanged(property);
+        }
     }
 
     /**
@@ -963,6 +976,10 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public IRenderer setParent(IRenderer parent) {
+        if (this.parent != parent) {
+            // inherited properties are now resolved against another parent
+            invalidateSubtreeMinMaxWidth();
+        }
         this.parent = parent;
         return this;
     }
@@ -1469,6 +1486,7 @@ public abstract class AbstractRenderer implements IRenderer {
 
     protected void addAllProperties(Map<Integer, Object> properties) {
         this.properties.putAll(properties);
+        invalidateMinMaxWidth();
     }
 
     /**
@@ -1828,6 +1846,56 @@ public abstract class AbstractRenderer implements IRenderer {
         return MinMaxWidthUtils.countDefaultMinMaxWidth(this);
     }
 
+    /**
+     * Gets the min-max width memoized with {@link #cacheMinMaxWidth(MinMaxWidth)}.
+     * The cached value is dropped as soon as a property of this renderer or of one of its descendants changes,
+     * a child is added, the renderer is moved to another parent or laid out, or its list of children
+     * is modified in any other way.
+     *
+     * @return a copy of the memoized min-max width, or null if it is absent or no longer valid
+     */
+    MinMaxWidth retrieveCachedMinMaxWidth() {
+        if (cachedMinMaxWidth == null) {
+            return null;
+        }
+        boolean sameChildren = cachedMinMaxWidthChildren.length == childRenderers.size();
+        for (int i = 0; sameChildren && i < cachedMinMaxWidthChildren.length; i++) {
+            sameChildren = cachedMinMaxWidthChildren[i] == childRenderers.get(i);
+        }
+        if (!sameChildren) {
+            invalidateMinMaxWidth();
+            return null;
+        }
+        return new MinMaxWidth(cachedMinMaxWidth.getChildrenMinWidth(), cachedMinMaxWidth.getChildrenMaxWidth(),
+                cachedMinMaxWidth.getAdditionalWidth());
+    }
+
+    /**
+     * Memoizes the min-max width of this renderer, so that subsequent calculations, e.g. by the
+     * {@link TableWidths} of each enclosing table, do not lay the content out once again.
+     *
+     * @param minMaxWidth the calculated min-max width, a copy of which is stored
+     */
+    void cacheMinMaxWidth(MinMaxWidth minMaxWidth) {
+        cachedMinMaxWidth = new MinMaxWidth(minMaxWidth.getChildrenMinWidth(), minMaxWidth.getChildrenMaxWidth(),
+                minMaxWidth.getAdditionalWidth());
+        cachedMinMaxWidthChildren = childRenderers.toArray(new IRenderer[childRenderers.size()]);
+    }
+
+    /**
+     * Drops the memoized min-max width of this renderer and of all its ancestors,
+     * since the width of a renderer depends on the widths of its children.
+     */
+    void invalidateMinMaxWidth() {
+        IRenderer renderer = this;
+        while (renderer instanceof AbstractRenderer) {
+            AbstractRenderer abstractRenderer = (AbstractRenderer) renderer;
+            abstractRenderer.cachedMinMaxWidth = null;
+            abstractRenderer.cachedMinMaxWidthChildren = null;
+            renderer = abstractRenderer.parent;
+        }
+    }
+
     protected boolean setMinMaxWidthBasedOnFixedWidth(MinMaxWidth minMaxWidth) {
         // retrieve returns max width, if there is no width.
         if (hasAbsoluteUnitValue(Property.WIDTH)) {
@@ -1842,6 +1910,27 @@ public abstract class AbstractRenderer implements IRenderer {
         return false;
     }
 
+    private void onPropertyChanged(int property) {
+        invalidateMinMaxWidth();
+        if (Property.isPropertyInherited(property)) {
+            invalidateSubtreeMinMaxWidth();
+        }
+    }
+
+    /**
+     * Drops the memoized min-max width of this renderer and of all its descendants,
+     * since descendants may resolve inherited properties against this renderer.
+     */
+    void invalidateSubtreeMinMaxWidth() {
+        cachedMinMaxWidth = null;
+        cachedMinMaxWidthChildren = null;
+        for (IRenderer child : childRenderers) {
+            if (child instanceof AbstractRenderer) {
+                ((AbstractRenderer) child).invalidateSubtreeMinMaxWidth();
+            }
+        }
+    }
+
     protected boolean isNotFittingHeight(LayoutArea layoutArea) {
         return !isPositioned() && occupiedArea.getBBox().getHeight() > layoutArea.getBBox().getHeight();
     }
@@ -88,6 +88,8 @@ public abstract class BlockRenderer extends AbstractRenderer {
 
     @Override
     public LayoutResult layout(LayoutContext layoutContext) {
+        // layout may change the children, so the min-max width has to be calculated anew
+        invalidateMinMaxWidth();
         this.isLastRendererForModelElement = true;
 
         Map<Integer, IRenderer> waitingFloatsSplitRenderers = new LinkedHashMap<>();
@@ -878,6 +880,15 @@ public abstract class BlockRenderer extends AbstractRenderer {
 
     @Override
     public MinMaxWidth getMinMaxWidth() {
+        MinMaxWidth minMaxWidth = retrieveCachedMinMaxWidth();
+        if (minMaxWidth == null) {
+            minMaxWidth = calculateMinMaxWidth();
+            cacheMinMaxWidth(minMaxWidth);
+        }
+        return minMaxWidth;
+    }
+
+    private MinMaxWidth calculateMinMaxWidth() {
         MinMaxWidth minMaxWidth = new MinMaxWidth(calculateAdditionalWidth(this));
         if (!setMinMaxWidthBasedOnFixedWidth(minMaxWidth)) {
             Float minWidth = hasAbsoluteUnitValue(Property.MIN_WIDTH) ? retrieveMinWidth(0) : null;
@@ -88,9 +88,8 @@ class CollapsedTableBorders extends TableBorders {
             }
         }
         // process right border
-        borderList = getVerticalBorder(col + colspan);
         for (int i = startRow - largeTableIndexOffset + row - rowspan + 1; i < startRow - largeTableIndexOffset + row + 1; i++) {
-            border = borderList.get(i);
+            border = getVerticalBorder(col + colspan, i);
             if (null != border && border.getWidth() > indents[1]) {
                 indents[1] = border.getWidth();
             }
@@ -104,9 +103,8 @@ class CollapsedTableBorders extends TableBorders {
             }
         }
         // process left border
-        borderList = getVerticalBorder(col);
         for (int i = startRow - largeTableIndexOffset + row - rowspan + 1; i < startRow - largeTableIndexOffset + row + 1; i++) {
-            border = borderList.get(i);
+            border = getVerticalBorder(col, i);
             if (null != border && border.getWidth() > indents[3]) {
                 indents[3] = border.getWidth();
             }
@@ -126,6 +124,32 @@ class CollapsedTableBorders extends TableBorders {
         }
     }
 
+    /**
+     * Gets a single border of {@link #getVerticalBorder(int)}. Unlike the latter, it does not collapse
+     * the whole outer vertical border, which is as long as all the rows of a large table added at once.
+     *
+     * @param index the index of the vertical border
+     * @param row   the index of the border in the vertical border
+     * @return the border at the given row
+     */
+    private Border getVerticalBorder(int index, int row) {
+        if (index == 0) {
+            return getCollapsedBorder(verticalBorders.get(0).get(row), tableBoundingBorders[3]);
+        } else if (index == numberOfColumns) {
+            return getCollapsedBorder(verticalBorders.get(verticalBorders.size() - 1).get(row), tableBoundingBorders[1]);
+        } else {
+            return verticalBorders.get(index).get(row);
+        }
+    }
+
+    private int getVerticalBorderSize(int index) {
+        if (index == numberOfColumns) {
+            return Math.min(verticalBorders.get(verticalBorders.size() - 1).size(), verticalBorders.get(0).size());
+        } else {
+            return verticalBorders.get(index).size();
+        }
+    }
+
 
     public List<Border> getHorizontalBorder(int index) {
         if (index == startRow) {
@@ -401,10 +425,10 @@ class CollapsedTableBorders extends TableBorders {
         Border lastBorder = borders.size() > j - 1 ? borders.get(j - 1) : null;
         if (lastBorder != null) {
             if (i == 0) {
-                if (getVerticalBorder(j).get(startRow - largeTableIndexOffset + i) != null)
-                    x2 += getVerticalBorder(j).get(startRow - largeTableIndexOffset + i).getWidth() / 2;
-            } else if (i == finishRow - startRow + 1 && getVerticalBorder(j).size() > startRow - largeTableIndexOffset + i - 1 && getVerticalBorder(j).get(startRow - largeTableIndexOffset + i - 1) != null) {
-                x2 += getVerticalBorder(j).get(startRow - largeTableIndexOffset + i - 1).getWidth() / 2;
+                if (getVerticalBorder(j, startRow - largeTableIndexOffset + i) != null)
+                    x2 += getVerticalBorder(j, startRow - largeTableIndexOffset + i).getWidth() / 2;
+            } else if (i == finishRow - startRow + 1 && getVerticalBorderSize(j) > startRow - largeTableIndexOffset + i - 1 && getVerticalBorder(j, startRow - largeTableIndexOffset + i - 1) != null) {
+                x2 += getVerticalBorder(j, startRow - largeTableIndexOffset + i - 1).getWidth() / 2;
             }
 
             lastBorder.drawCellBorder(canvas, x1, y1, x2, y1, Border.Side.NONE);
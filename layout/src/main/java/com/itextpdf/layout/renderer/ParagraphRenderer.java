@@ -96,6 +96,8 @@ public class ParagraphRenderer extends BlockRenderer {
     @Override
 
     public LayoutResult layout(LayoutContext layoutContext) {
+        // layout may change the children, so the min-max width has to be calculated anew
+        invalidateMinMaxWidth();
         boolean wasHeightClipped = false;
         boolean wasParentsHeightClipped = layoutContext.isClippedHeight();
         int pageNumber = layoutContext.getArea().getPageNumber();
@@ -599,6 +601,15 @@ public class ParagraphRenderer extends BlockRenderer {
 
     @Override
     public MinMaxWidth getMinMaxWidth() {
+        MinMaxWidth minMaxWidth = retrieveCachedMinMaxWidth();
+        if (minMaxWidth == null) {
+            minMaxWidth = calculateMinMaxWidth();
+            cacheMinMaxWidth(minMaxWidth);
+        }
+        return minMaxWidth;
+    }
+
+    private MinMaxWidth calculateMinMaxWidth() {
         MinMaxWidth minMaxWidth = new MinMaxWidth();
         Float rotation = this.getPropertyAsFloat(Property.ROTATION_ANGLE);
         if (!setMinMaxWidthBasedOnFixedWidth(minMaxWidth)) {
@@ -134,12 +134,32 @@ public class TableRenderer extends AbstractRenderer {
             // In in this case it will be easier handle row heights in case rowspan.
             Cell cell = (Cell) renderer.getModelElement();
             rows.get(cell.getRow() - rowRange.getStartRow() + cell.getRowspan() - 1)[cell.getCol()] = (CellRenderer) renderer;
+            invalidateMinMaxWidth();
         } else {
             Logger logger = LoggerFactory.getLogger(TableRenderer.class);
             logger.error("Only CellRenderer could be added");
         }
     }
 
+    @Override
+    void invalidateSubtreeMinMaxWidth() {
+        super.invalidateSubtreeMinMaxWidth();
+        // cells are kept in rows rather than in the list of children
+        for (CellRenderer[] row : rows) {
+            for (CellRenderer cell : row) {
+                if (cell != null) {
+                    cell.invalidateSubtreeMinMaxWidth();
+                }
+            }
+        }
+        if (headerRenderer != null) {
+            headerRenderer.invalidateSubtreeMinMaxWidth();
+        }
+        if (footerRenderer != null) {
+            footerRenderer.invalidateSubtreeMinMaxWidth();
+        }
+    }
+
     @Override
     protected Rectangle applyBorderBox(Rectangle rect, Border[] borders, boolean reverse) {
         if (bordersHandler instanceof SeparatedTableBorders) {
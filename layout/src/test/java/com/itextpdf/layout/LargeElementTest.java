@@ -146,6 +146,45 @@ public class LargeElementTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
 
+    @Test
+    public void streamedLargeTableTest() throws IOException, InterruptedException {
+        String testName = "streamedLargeTableTest.pdf";
+        String outFileName = destinationFolder + testName;
+        String cmpFileName = sourceFolder + "cmp_" + testName;
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(5), true).setStreamingRowCount(10);
+        Assert.assertEquals(10, table.getStreamingRowCount());
+
+        doc.add(table);
+        for (int i = 0; i < 95; i++) {
+            for (int j = 0; j < 5; j++) {
+                if (i % 10 == 3 && j == 0) {
+                    table.addCell(new Cell(2, 1).add(new Paragraph(MessageFormatUtil.format("Cell {0}-{1}, {2}", i + 1, i + 2, j + 1))));
+                } else if (i % 10 != 4 || j != 0) {
+                    table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, {1}", i + 1, j + 1))));
+                }
+            }
+            // the rows are written and released by the table itself
+            if (i % 10 == 9) {
+                Assert.assertEquals(0, table.getNumberOfRows());
+            } else {
+                Assert.assertTrue(table.getNumberOfRows() <= 10);
+            }
+        }
+
+        table.complete();
+        doc.close();
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeStreamingRowCountTest() {
+        new Table(UnitValue.createPercentArray(5), true).setStreamingRowCount(-1);
+    }
+
     @Test
     public void largeTableWithHeaderFooterTest01A() throws IOException, InterruptedException {
         String testName = "largeTableWithHeaderFooterTest01A.pdf";
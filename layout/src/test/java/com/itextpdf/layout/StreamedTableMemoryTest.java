@@ -0,0 +1,158 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Measures the heap retained while a large table is streamed with {@link Table#setStreamingRowCount(int)}
+ * and the layout time of large tables flushed in small and in big row groups.
+ */
+@Category(PerformanceTest.class)
+public class StreamedTableMemoryTest extends ExtendedITextTest {
+
+    private static final int COLUMNS_COUNT = 5;
+    private static final int ROWS_COUNT = 40000;
+    private static final int STREAMING_ROW_COUNT = 100;
+
+    @Test
+    public void streamedTableHeapUsageTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new NullOutputStream()));
+        Document document = new Document(pdfDocument);
+        Table table = new Table(UnitValue.createPercentArray(COLUMNS_COUNT), true).setStreamingRowCount(STREAMING_ROW_COUNT);
+        document.add(table);
+
+        long[] heap = new long[2];
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < ROWS_COUNT; i++) {
+            for (int j = 0; j < COLUMNS_COUNT; j++) {
+                table.addCell(new Cell().add(new Paragraph("Cell " + (i + 1) + ", " + (j + 1))));
+            }
+            if (i + 1 == ROWS_COUNT / 4) {
+                heap[0] = getMemoryUse();
+            }
+        }
+        heap[1] = getMemoryUse();
+        table.complete();
+        int pagesCount = pdfDocument.getNumberOfPages();
+        document.close();
+        long time = System.currentTimeMillis() - start;
+
+        System.out.println(String.format("Streamed %d rows on %d pages in %d ms, heap after %d rows: %d KB, after %d rows: %d KB",
+                ROWS_COUNT, pagesCount, time, ROWS_COUNT / 4, heap[0] / 1024, ROWS_COUNT, heap[1] / 1024));
+        // only the pages themselves are retained by the document, the released row groups must not be
+        Assert.assertTrue(heap[1] - heap[0] < 4 * 1024 * 1024);
+        Assert.assertEquals(0, table.getNumberOfRows());
+    }
+
+    @Test
+    public void flushedRowGroupSizeTimeTest() {
+        // warm-up run
+        layoutTable(ROWS_COUNT / 8, STREAMING_ROW_COUNT);
+        long smallGroupsTime = layoutTable(ROWS_COUNT / 2, STREAMING_ROW_COUNT);
+        long bigGroupsTime = layoutTable(ROWS_COUNT / 2, ROWS_COUNT / 4);
+
+        System.out.println(String.format("Layout of %d rows flushed every %d rows: %d ms", ROWS_COUNT / 2, STREAMING_ROW_COUNT, smallGroupsTime));
+        System.out.println(String.format("Layout of %d rows flushed every %d rows: %d ms", ROWS_COUNT / 2, ROWS_COUNT / 4, bigGroupsTime));
+    }
+
+    private static long layoutTable(int rowsCount, int flushedRowsCount) {
+        long start = System.currentTimeMillis();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new NullOutputStream()));
+        Document document = new Document(pdfDocument);
+        Table table = new Table(UnitValue.createPercentArray(COLUMNS_COUNT), true);
+        document.add(table);
+        for (int i = 0; i < rowsCount; i++) {
+            for (int j = 0; j < COLUMNS_COUNT; j++) {
+                table.addCell(new Cell().add(new Paragraph("Cell " + (i + 1) + ", " + (j + 1))));
+            }
+            if ((i + 1) % flushedRowsCount == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+        document.close();
+        return System.currentTimeMillis() - start;
+    }
+
+    private static long getMemoryUse() {
+        garbageCollect();
+        garbageCollect();
+        garbageCollect();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void garbageCollect() {
+        try {
+            System.gc();
+            Thread.sleep(200);
+            System.runFinalization();
+            Thread.sleep(200);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -2995,6 +2995,37 @@ public class TableTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
 
+    @Test
+    public void nestedAutoTablesTest() throws IOException, InterruptedException {
+        String testName = "nestedAutoTablesTest.pdf";
+        String outFileName = destinationFolder + testName;
+        String cmpFileName = sourceFolder + "cmp_" + testName;
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName));
+        Document doc = new Document(pdfDoc);
+
+        doc.add(createNestedAutoTable(4));
+        Table table = createNestedAutoTable(3);
+        table.setBorderCollapse(BorderCollapsePropertyValue.SEPARATE);
+        doc.add(new Div().setFontSize(8).add(table));
+
+        doc.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
+    }
+
+    private static Table createNestedAutoTable(int depth) {
+        Table table = new Table(2);
+        table.addCell(new Cell().add(new Paragraph("Level " + depth)));
+        Cell cell = new Cell().add(new Paragraph(depth % 2 == 0 ? "Short text" : TEXT_CONTENT.substring(0, 80)));
+        if (depth > 1) {
+            cell.add(createNestedAutoTable(depth - 1));
+        }
+        table.addCell(cell);
+        table.addCell(new Cell(1, 2).add(new Paragraph("Spanned cell of level " + depth).setFontColor(ColorConstants.BLUE)));
+        return table;
+    }
+
     private static class RotatedDocumentRenderer extends DocumentRenderer {
         private final PdfDocument pdfDoc;
 
@@ -0,0 +1,120 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Measures rendering of many small documents, each with its own {@link FontProvider} for the same {@link FontSet},
+ * with a font selector cache per provider and with a cache shared by all providers.
+ */
+@Category(PerformanceTest.class)
+public class FontSelectorCacheBenchmarkTest extends ExtendedITextTest {
+
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/layout/fonts/";
+
+    private static final int ITERATIONS = 3;
+    private static final int DOCUMENTS_COUNT = 300;
+
+    private static final String[] FONT_FAMILIES = {"Helvetica", "Times", "Courier", "FreeSans", "Noto Sans"};
+
+    @Test
+    public void documentPerProviderBenchmarkTest() {
+        FontProvider fontsProvider = new FontProvider();
+        fontsProvider.addStandardPdfFonts();
+        fontsProvider.addDirectory(FONTS_FOLDER);
+        FontSet fontSet = fontsProvider.getFontSet();
+        Assert.assertTrue(fontSet.size() > 14);
+
+        long privateBest = Long.MAX_VALUE;
+        long sharedBest = Long.MAX_VALUE;
+        FontSelectorCache sharedCache = new FontSelectorCache();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < DOCUMENTS_COUNT; i++) {
+                renderInvoice(new FontProvider(fontSet, "Helvetica"), i);
+            }
+            long privateEnd = System.nanoTime();
+            for (int i = 0; i < DOCUMENTS_COUNT; i++) {
+                renderInvoice(new FontProvider(fontSet, "Helvetica", sharedCache), i);
+            }
+            long sharedEnd = System.nanoTime();
+            privateBest = Math.min(privateBest, privateEnd - start);
+            sharedBest = Math.min(sharedBest, sharedEnd - privateEnd);
+        }
+        Assert.assertEquals(sharedCache.getMissCount(), sharedCache.size());
+        Assert.assertTrue(sharedCache.getHitRate() > 0.99);
+        System.out.println(String.format("%d documents: selector cache per provider %d ms, shared cache %d ms"
+                        + " (hits %d, misses %d, evictions %d)", DOCUMENTS_COUNT, privateBest / 1000000,
+                sharedBest / 1000000, sharedCache.getHitCount(), sharedCache.getMissCount(),
+                sharedCache.getEvictionCount()));
+    }
+
+    private static void renderInvoice(FontProvider provider, int number) {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document document = new Document(pdfDocument);
+        document.setFontProvider(provider);
+        document.setFontFamily(FONT_FAMILIES);
+        document.add(new Paragraph("Invoice " + number).setBold().setFontSize(16));
+        Table table = new Table(UnitValue.createPercentArray(3)).useAllAvailableWidth();
+        for (int i = 0; i < 20; i++) {
+            table.addCell(new Cell().add(new Paragraph("Item " + i).setFontFamily(FONT_FAMILIES[i % FONT_FAMILIES.length])));
+            table.addCell(new Cell().add(new Paragraph(String.valueOf(i % 3 + 1))));
+            table.addCell(new Cell().add(new Paragraph((i * 7 % 100) + ".00 EUR").setBold()));
+        }
+        document.add(table);
+        document.close();
+    }
+}
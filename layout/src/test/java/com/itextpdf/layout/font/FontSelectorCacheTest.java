@@ -0,0 +1,234 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Category(UnitTest.class)
+public class FontSelectorCacheTest extends ExtendedITextTest {
+
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/layout/fonts/";
+
+    private static final List<String> SANS_SERIF = Arrays.asList("Helvetica");
+    private static final List<String> SERIF = Arrays.asList("Times");
+
+    @Test
+    public void hitsAndMissesAreCountedTest() {
+        FontProvider provider = createProvider(new FontSelectorCache());
+        FontSelectorCache cache = provider.getFontSelectorCache();
+
+        FontSelector selector = provider.getFontSelector(SANS_SERIF, null);
+        Assert.assertSame(selector, provider.getFontSelector(SANS_SERIF, null));
+        Assert.assertSame(selector, provider.getFontSelector(SANS_SERIF, null));
+        provider.getFontSelector(SERIF, null);
+
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 1e-9);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void selectorsAreSharedBetweenProvidersTest() {
+        FontSet fontSet = createFontSet();
+        FontSelectorCache cache = new FontSelectorCache();
+        FontProvider first = new FontProvider(fontSet, "Helvetica", cache);
+        FontProvider second = new FontProvider(fontSet, "Helvetica", cache);
+
+        Assert.assertSame(first.getFontSelector(SANS_SERIF, null), second.getFontSelector(SANS_SERIF, null));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void differentDefaultFontFamiliesAreNotSharedTest() {
+        FontSet fontSet = createFontSet();
+        FontSelectorCache cache = new FontSelectorCache();
+        FontProvider sansSerif = new FontProvider(fontSet, "Helvetica", cache);
+        FontProvider serif = new FontProvider(fontSet, "Times", cache);
+
+        Assert.assertNotSame(sansSerif.getFontSelector(SANS_SERIF, null), serif.getFontSelector(SANS_SERIF, null));
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void differentFontSetsAreNotSharedTest() {
+        FontSelectorCache cache = new FontSelectorCache();
+        FontProvider first = new FontProvider(createFontSet(), "Helvetica", cache);
+        FontProvider second = new FontProvider(createFontSet(), "Helvetica", cache);
+
+        Assert.assertNotSame(first.getFontSelector(SANS_SERIF, null), second.getFontSelector(SANS_SERIF, null));
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void filledFontSetMissesPreviousSelectorsTest() {
+        FontProvider provider = createProvider(new FontSelectorCache());
+        FontSelector selector = provider.getFontSelector(SANS_SERIF, null);
+
+        Assert.assertTrue(provider.getFontSet().addFont(FONTS_FOLDER + "FreeSans.ttf"));
+        FontSelector newSelector = provider.getFontSelector(SANS_SERIF, null);
+        Assert.assertNotSame(selector, newSelector);
+        Assert.assertEquals(2, provider.getFontSelectorCache().getMissCount());
+        Assert.assertEquals(0, provider.getFontSelectorCache().getHitCount());
+    }
+
+    @Test
+    public void temporaryFontsAreCachedSeparatelyTest() {
+        FontProvider provider = createProvider(new FontSelectorCache());
+        FontSet tempFonts = new FontSet();
+        tempFonts.addFont(FONTS_FOLDER + "FreeSans.ttf");
+
+        FontSelector selector = provider.getFontSelector(SANS_SERIF, null);
+        FontSelector tempSelector = provider.getFontSelector(SANS_SERIF, null, tempFonts);
+        Assert.assertNotSame(selector, tempSelector);
+        Assert.assertSame(tempSelector, provider.getFontSelector(SANS_SERIF, null, tempFonts));
+        Assert.assertEquals(1, provider.getFontSelectorCache().getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedSelectorIsEvictedTest() {
+        FontProvider provider = createProvider(new FontSelectorCache(1));
+        FontSelectorCache cache = provider.getFontSelectorCache();
+
+        provider.getFontSelector(SANS_SERIF, null);
+        provider.getFontSelector(SERIF, null);
+        provider.getFontSelector(SANS_SERIF, null);
+
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+        Assert.assertEquals(1, cache.size());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxSizeTest() {
+        new FontSelectorCache(0);
+    }
+
+    @Test
+    public void parsedFontProgramIsReusedTest() {
+        FontSet fontSet = new FontSet();
+        fontSet.addFont(FONTS_FOLDER + "FreeSans.ttf");
+        FontInfo fontInfo = fontSet.getFonts().iterator().next();
+        Assert.assertNull(fontSet.getFontProgram(fontInfo));
+
+        FontSelectorCache cache = new FontSelectorCache();
+        PdfFont first = new FontProvider(fontSet, "FreeSans", cache).getPdfFont(fontInfo);
+        Assert.assertSame(first.getFontProgram(), fontSet.getFontProgram(fontInfo));
+
+        PdfFont second = new FontProvider(fontSet, "FreeSans", cache).getPdfFont(fontInfo);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.getFontProgram(), second.getFontProgram());
+    }
+
+    @Test
+    public void concurrentDocumentsShareCacheTest() throws Exception {
+        final FontSet fontSet = createFontSet();
+        final FontSelectorCache cache = new FontSelectorCache();
+        final int documentsCount = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < documentsCount; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+                        Document document = new Document(pdfDocument);
+                        document.setFontProvider(new FontProvider(fontSet, "Helvetica", cache));
+                        document.setFontFamily("Helvetica");
+                        for (int j = 0; j < 50; j++) {
+                            document.add(new Paragraph("Paragraph " + j % 5));
+                        }
+                        int pagesCount = pdfDocument.getNumberOfPages();
+                        document.close();
+                        return pagesCount;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(2, (int) result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.getMissCount() < documentsCount);
+        Assert.assertTrue(cache.getHitCount() > 0);
+    }
+
+    private static FontSet createFontSet() {
+        FontProvider provider = new FontProvider();
+        provider.addStandardPdfFonts();
+        return provider.getFontSet();
+    }
+
+    private static FontProvider createProvider(FontSelectorCache cache) {
+        return new FontProvider(createFontSet(), "Helvetica", cache);
+    }
+}
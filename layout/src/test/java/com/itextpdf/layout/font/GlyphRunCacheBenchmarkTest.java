@@ -0,0 +1,146 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the splitting of repeated texts into glyph runs and the layout of tabular statements
+ * which repeat the same labels in every row.
+ */
+@Category(PerformanceTest.class)
+public class GlyphRunCacheBenchmarkTest extends ExtendedITextTest {
+
+    private static final int ITERATIONS = 3;
+    private static final int TEXTS_COUNT = 2000000;
+    private static final int ROWS_COUNT = 5000;
+
+    private static final String[] LABELS = {"Opening balance", "Transfer", "Card payment", "Interest", "Fee",
+            "2020-01-15", "EUR", "300.00"};
+    private static final List<String> FONT_FAMILIES = Arrays.asList("Helvetica");
+
+    @Test
+    public void repeatedTextsStrategyBenchmarkTest() {
+        FontProvider provider = new FontProvider();
+        provider.addStandardPdfFonts();
+        FontCharacteristics fc = new FontCharacteristics();
+        long uncachedBest = Long.MAX_VALUE;
+        long cachedBest = Long.MAX_VALUE;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            int uncachedGlyphsCount = 0;
+            for (int i = 0; i < TEXTS_COUNT; i++) {
+                String text = LABELS[i % LABELS.length];
+                uncachedGlyphsCount += countGlyphs(new ComplexFontSelectorStrategy(text,
+                        provider.getFontSelector(FONT_FAMILIES, fc, null), provider, null));
+            }
+            long uncachedEnd = System.nanoTime();
+            int cachedGlyphsCount = 0;
+            for (int i = 0; i < TEXTS_COUNT; i++) {
+                cachedGlyphsCount += countGlyphs(provider.getStrategy(LABELS[i % LABELS.length], FONT_FAMILIES, fc));
+            }
+            long cachedEnd = System.nanoTime();
+            Assert.assertEquals(uncachedGlyphsCount, cachedGlyphsCount);
+            uncachedBest = Math.min(uncachedBest, uncachedEnd - start);
+            cachedBest = Math.min(cachedBest, cachedEnd - uncachedEnd);
+        }
+        System.out.println(String.format("%d texts split into glyph runs: uncached %d ms, cached %d ms", TEXTS_COUNT,
+                uncachedBest / 1000000, cachedBest / 1000000));
+    }
+
+    @Test
+    public void tabularStatementBenchmarkTest() {
+        FontProvider provider = new FontProvider();
+        provider.addStandardPdfFonts();
+        long best = Long.MAX_VALUE;
+        int pagesCount = 0;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            provider.reset();
+            PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+            Document document = new Document(pdfDocument);
+            document.setFontProvider(provider);
+            document.setFontFamily(FONT_FAMILIES.get(0));
+            Table table = new Table(4, true);
+            document.add(table);
+            for (int i = 0; i < ROWS_COUNT; i++) {
+                table.addCell(new Cell().add(new Paragraph(LABELS[5])));
+                table.addCell(new Cell().add(new Paragraph(LABELS[i % 5])));
+                table.addCell(new Cell().add(new Paragraph(LABELS[6])));
+                table.addCell(new Cell().add(new Paragraph((i % 7) + "00.00")));
+                if (i % 100 == 99) {
+                    table.flush();
+                }
+            }
+            table.complete();
+            pagesCount = pdfDocument.getNumberOfPages();
+            document.close();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        Assert.assertTrue(pagesCount > ROWS_COUNT / 50);
+        System.out.println(String.format("Statement of %d rows on %d pages: %d ms", ROWS_COUNT, pagesCount,
+                best / 1000000));
+    }
+
+    private static int countGlyphs(FontSelectorStrategy strategy) {
+        int count = 0;
+        while (!strategy.endOfText()) {
+            count += strategy.nextGlyphs().size();
+        }
+        return count;
+    }
+}
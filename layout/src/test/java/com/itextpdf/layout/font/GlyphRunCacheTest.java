@@ -0,0 +1,180 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Category(UnitTest.class)
+public class GlyphRunCacheTest extends ExtendedITextTest {
+
+    private static final List<String> FONT_FAMILIES = Arrays.asList("Helvetica");
+
+    @Test
+    public void repeatedTextIsReplayedTest() {
+        FontProvider provider = createProvider();
+        GlyphRunCache cache = new GlyphRunCache();
+
+        FontSelectorStrategy strategy = createStrategy(provider, cache, "Opening balance");
+        List<Glyph> glyphs = strategy.nextGlyphs();
+        PdfFont font = strategy.getCurrentFont();
+        Assert.assertTrue(strategy.endOfText());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotNull(cache.get("Opening balance", getSelector(provider)));
+
+        strategy = createStrategy(provider, cache, "Opening balance");
+        Assert.assertEquals(glyphs, strategy.nextGlyphs());
+        Assert.assertSame(font, strategy.getCurrentFont());
+        Assert.assertTrue(strategy.endOfText());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void replayedGlyphsCanBeModifiedTest() {
+        FontProvider provider = createProvider();
+        GlyphRunCache cache = new GlyphRunCache();
+
+        collectGlyphs(createStrategy(provider, cache, "EUR"));
+        List<Glyph> replayedGlyphs = createStrategy(provider, cache, "EUR").nextGlyphs();
+        replayedGlyphs.clear();
+        Assert.assertEquals(3, createStrategy(provider, cache, "EUR").nextGlyphs().size());
+    }
+
+    @Test
+    public void runsAreReplayedWithFontsCreatedAfterResetTest() {
+        FontProvider provider = createProvider();
+        GlyphRunCache cache = new GlyphRunCache();
+
+        FontSelectorStrategy strategy = createStrategy(provider, cache, "Transfer");
+        List<Glyph> glyphs = strategy.nextGlyphs();
+        PdfFont firstFont = strategy.getCurrentFont();
+        Assert.assertEquals(1, cache.size());
+        provider.reset();
+
+        strategy = createStrategy(provider, cache, "Transfer");
+        Assert.assertEquals(glyphs, strategy.nextGlyphs());
+        Assert.assertNotSame(firstFont, strategy.getCurrentFont());
+        Assert.assertSame(provider.getPdfFont(provider.findFontInfo(strategy.getCurrentFont())),
+                strategy.getCurrentFont());
+    }
+
+    @Test
+    public void partiallyProcessedTextIsNotCachedTest() {
+        FontProvider provider = createProvider();
+        GlyphRunCache cache = new GlyphRunCache();
+
+        // latin and greek parts of the text are separate runs
+        FontSelectorStrategy strategy = createStrategy(provider, cache, "abc αβγ");
+        strategy.nextGlyphs();
+        Assert.assertFalse(strategy.endOfText());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedTextIsEvictedTest() {
+        FontProvider provider = createProvider();
+        GlyphRunCache cache = new GlyphRunCache(2);
+        FontSelector selector = getSelector(provider);
+
+        collectGlyphs(createStrategy(provider, cache, "Interest"));
+        collectGlyphs(createStrategy(provider, cache, "Fee"));
+        collectGlyphs(createStrategy(provider, cache, "Interest"));
+        collectGlyphs(createStrategy(provider, cache, "Card payment"));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get("Interest", selector));
+        Assert.assertNull(cache.get("Fee", selector));
+        Assert.assertNotNull(cache.get("Card payment", selector));
+    }
+
+    @Test
+    public void longAndEmptyTextsAreNotCacheableTest() {
+        char[] chars = new char[GlyphRunCache.MAX_TEXT_LENGTH + 1];
+        Arrays.fill(chars, 'a');
+        Assert.assertFalse(GlyphRunCache.isCacheable(new String(chars)));
+        Assert.assertTrue(GlyphRunCache.isCacheable(new String(chars, 1, GlyphRunCache.MAX_TEXT_LENGTH)));
+        Assert.assertFalse(GlyphRunCache.isCacheable(""));
+        Assert.assertFalse(GlyphRunCache.isCacheable(null));
+    }
+
+    @Test
+    public void providerStrategyProducesSameGlyphsTest() {
+        FontProvider provider = createProvider();
+        String text = "Opening balance αβγ";
+        List<Glyph> expected = collectGlyphs(new ComplexFontSelectorStrategy(text, getSelector(provider), provider));
+        Assert.assertEquals(expected, collectGlyphs(provider.getStrategy(text, FONT_FAMILIES)));
+        Assert.assertEquals(expected, collectGlyphs(provider.getStrategy(text, FONT_FAMILIES)));
+    }
+
+    private static FontProvider createProvider() {
+        FontProvider provider = new FontProvider();
+        provider.addStandardPdfFonts();
+        return provider;
+    }
+
+    private static FontSelector getSelector(FontProvider provider) {
+        return provider.getFontSelector(FONT_FAMILIES, null, null);
+    }
+
+    private static FontSelectorStrategy createStrategy(FontProvider provider, GlyphRunCache cache, String text) {
+        FontSelector selector = getSelector(provider);
+        return new CachingFontSelectorStrategy(text, selector, provider, null, cache,
+                new ComplexFontSelectorStrategy(text, selector, provider));
+    }
+
+    private static List<Glyph> collectGlyphs(FontSelectorStrategy strategy) {
+        List<Glyph> glyphs = new ArrayList<>();
+        while (!strategy.endOfText()) {
+            glyphs.addAll(strategy.nextGlyphs());
+        }
+        return glyphs;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+@Category(UnitTest.class)
+public class PropertyMapTest extends ExtendedITextTest {
+
+    @Test
+    public void putGetAndRemoveTest() {
+        PropertyMap properties = new PropertyMap();
+        Assert.assertTrue(properties.isEmpty());
+        Assert.assertNull(properties.put(Property.FONT_SIZE, UnitValue.createPointValue(10)));
+        Assert.assertEquals(UnitValue.createPointValue(10), properties.put(Property.FONT_SIZE, UnitValue.createPointValue(12)));
+        Assert.assertEquals(UnitValue.createPointValue(12), properties.get(Property.FONT_SIZE));
+        Assert.assertFalse(properties.containsKey(Property.WIDTH));
+        Assert.assertNull(properties.get(Property.WIDTH));
+        Assert.assertEquals(1, properties.size());
+
+        Assert.assertEquals(UnitValue.createPointValue(12), properties.remove(Property.FONT_SIZE));
+        Assert.assertFalse(properties.containsKey(Property.FONT_SIZE));
+        Assert.assertNull(properties.remove(Property.FONT_SIZE));
+        Assert.assertTrue(properties.isEmpty());
+    }
+
+    @Test
+    public void nullValueIsPresentTest() {
+        PropertyMap properties = new PropertyMap();
+        properties.put(Property.ROTATION_ANGLE, null);
+        Assert.assertTrue(properties.containsKey(Property.ROTATION_ANGLE));
+        Assert.assertNull(properties.get(Property.ROTATION_ANGLE));
+        Assert.assertEquals(1, properties.size());
+    }
+
+    @Test
+    public void keysOutOfPropertyRangeTest() {
+        PropertyMap properties = new PropertyMap();
+        properties.put(-1, "negative");
+        properties.put(100000, "large");
+        properties.put(Property.FONT_SIZE, UnitValue.createPointValue(12));
+        Assert.assertEquals("negative", properties.get(-1));
+        Assert.assertEquals("large", properties.get(100000));
+        Assert.assertEquals(3, properties.size());
+        Assert.assertEquals("large", properties.remove(100000));
+        Assert.assertFalse(properties.containsKey(100000));
+        Assert.assertEquals(2, properties.size());
+    }
+
+    @Test
+    public void boxedKeysTest() {
+        Map<Integer, Object> properties = new PropertyMap();
+        properties.put(Integer.valueOf(Property.WIDTH), UnitValue.createPercentValue(50));
+        Assert.assertEquals(UnitValue.createPercentValue(50), properties.get(Integer.valueOf(Property.WIDTH)));
+        Assert.assertTrue(properties.containsKey(Integer.valueOf(Property.WIDTH)));
+        Assert.assertNull(properties.get("width"));
+        Assert.assertFalse(properties.containsKey("width"));
+        Assert.assertNull(properties.remove("width"));
+        Assert.assertEquals(1, properties.size());
+    }
+
+    @Test
+    public void copyIsIndependentFromSourceTest() {
+        PropertyMap source = new PropertyMap();
+        source.put(Property.FONT_SIZE, UnitValue.createPointValue(12));
+        source.put(200000, "sparse");
+        PropertyMap copy = new PropertyMap(source);
+        Assert.assertEquals(source, copy);
+
+        copy.put(Property.FONT_SIZE, UnitValue.createPointValue(14));
+        copy.put(200000, "changed");
+        copy.put(Property.WIDTH, UnitValue.createPointValue(100));
+        Assert.assertEquals(UnitValue.createPointValue(12), source.get(Property.FONT_SIZE));
+        Assert.assertEquals("sparse", source.get(200000));
+        Assert.assertFalse(source.containsKey(Property.WIDTH));
+
+        source.remove(Property.FONT_SIZE);
+        Assert.assertEquals(UnitValue.createPointValue(14), copy.get(Property.FONT_SIZE));
+        Assert.assertEquals(3, copy.size());
+        Assert.assertEquals(1, source.size());
+    }
+
+    @Test
+    public void putAllMergesWithExistingPropertiesTest() {
+        PropertyMap source = new PropertyMap();
+        source.put(Property.FONT_SIZE, UnitValue.createPointValue(12));
+        source.put(Property.WIDTH, UnitValue.createPointValue(100));
+        PropertyMap target = new PropertyMap();
+        target.put(Property.WIDTH, UnitValue.createPointValue(50));
+        target.put(Property.HEIGHT, UnitValue.createPointValue(20));
+        target.putAll(source);
+
+        Assert.assertEquals(3, target.size());
+        Assert.assertEquals(UnitValue.createPointValue(100), target.get(Property.WIDTH));
+        Assert.assertEquals(UnitValue.createPointValue(12), target.get(Property.FONT_SIZE));
+        Assert.assertEquals(UnitValue.createPointValue(20), target.get(Property.HEIGHT));
+    }
+
+    @Test
+    public void equalsHashMapTest() {
+        Map<Integer, Object> hashMap = new HashMap<>();
+        PropertyMap properties = new PropertyMap();
+        int[] keys = {Property.WIDTH, Property.ACTION, Property.LIST_SYMBOL_ORDINAL_VALUE, -5, 1000};
+        for (int key : keys) {
+            hashMap.put(key, "value " + key);
+            properties.put(key, "value " + key);
+        }
+        hashMap.put(Property.FONT, null);
+        properties.put(Property.FONT, null);
+
+        Assert.assertEquals(hashMap, properties);
+        Assert.assertEquals(properties, hashMap);
+        Assert.assertEquals(hashMap.hashCode(), properties.hashCode());
+        Assert.assertEquals(hashMap.keySet(), properties.keySet());
+        Assert.assertEquals(hashMap, new PropertyMap(hashMap));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        PropertyMap properties = new PropertyMap();
+        for (int key = 0; key < 130; key++) {
+            properties.put(key, (Object) key);
+        }
+        properties.put(-3, (Object) (-3));
+        PropertyMap copy = new PropertyMap(properties);
+        for (Iterator<Map.Entry<Integer, Object>> iterator = properties.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Integer, Object> entry = iterator.next();
+            if (entry.getKey() % 2 != 0) {
+                iterator.remove();
+            } else {
+                entry.setValue("even");
+            }
+        }
+
+        Assert.assertEquals(65, properties.size());
+        Assert.assertFalse(properties.containsKey(-3));
+        Assert.assertEquals("even", properties.get(128));
+        Assert.assertFalse(properties.containsKey(129));
+        Assert.assertEquals(131, copy.size());
+        Assert.assertEquals(128, copy.get(128));
+    }
+
+    @Test
+    public void growsFromFewToManyPropertiesTest() {
+        PropertyMap properties = new PropertyMap();
+        Map<Integer, Object> expected = new HashMap<>();
+        for (int key = 120; key >= 0; key -= 5) {
+            properties.put(key, "value " + key);
+            expected.put(key, "value " + key);
+            Assert.assertEquals(expected, properties);
+        }
+        PropertyMap copy = new PropertyMap(properties);
+        for (int key = 120; key >= 0; key -= 10) {
+            Assert.assertEquals("value " + key, properties.remove(key));
+            expected.remove(key);
+            Assert.assertEquals(expected, properties);
+        }
+        Assert.assertEquals(25, copy.size());
+        Assert.assertEquals("value 120", copy.get(120));
+    }
+
+    @Test
+    public void fewPropertiesIterationTest() {
+        PropertyMap properties = new PropertyMap();
+        properties.put(Property.WIDTH, "width");
+        properties.put(Property.FONT_SIZE, "font size");
+        properties.put(Property.ACTION, "action");
+        PropertyMap copy = new PropertyMap(properties);
+        int previousKey = -1;
+        for (Iterator<Map.Entry<Integer, Object>> iterator = properties.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Integer, Object> entry = iterator.next();
+            Assert.assertTrue(entry.getKey() > previousKey);
+            previousKey = entry.getKey();
+            if (entry.getKey() == Property.FONT_SIZE) {
+                iterator.remove();
+            }
+        }
+
+        Assert.assertEquals(2, properties.size());
+        Assert.assertFalse(properties.containsKey(Property.FONT_SIZE));
+        Assert.assertEquals("width", properties.get(Property.WIDTH));
+        Assert.assertEquals("action", properties.get(Property.ACTION));
+        Assert.assertEquals(3, copy.size());
+    }
+}
@@ -0,0 +1,160 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures property lookups in the property storage of elements and renderers, and the layout of a document
+ * in which every piece of text is styled separately.
+ */
+@Category(PerformanceTest.class)
+public class PropertyStorageBenchmarkTest extends ExtendedITextTest {
+
+    private static final int ITERATIONS = 3;
+    private static final int LOOKUPS_COUNT = 20000000;
+    private static final int PARAGRAPHS_COUNT = 5000;
+
+    // the properties most often looked up during layout
+    private static final int[] KEYS = {Property.FONT, Property.FONT_SIZE, Property.WIDTH, Property.MARGIN_LEFT,
+            Property.POSITION, Property.FLOAT, Property.ROTATION_ANGLE, Property.TEXT_RISE, Property.OVERFLOW_X,
+            Property.BORDER_TOP};
+
+    @Test
+    public void propertyLookupBenchmarkTest() {
+        Map<Integer, Object> hashMap = new HashMap<>();
+        PropertyMap propertyMap = new PropertyMap();
+        for (int i = 0; i < KEYS.length; i += 2) {
+            hashMap.put(KEYS[i], "value " + i);
+            propertyMap.put(KEYS[i], "value " + i);
+        }
+        long hashMapBest = Long.MAX_VALUE;
+        long propertyMapBest = Long.MAX_VALUE;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            Assert.assertEquals(LOOKUPS_COUNT / 2, lookUp(hashMap));
+            long hashMapEnd = System.nanoTime();
+            Assert.assertEquals(LOOKUPS_COUNT / 2, lookUp(propertyMap));
+            long propertyMapEnd = System.nanoTime();
+            hashMapBest = Math.min(hashMapBest, hashMapEnd - start);
+            propertyMapBest = Math.min(propertyMapBest, propertyMapEnd - hashMapEnd);
+        }
+        System.out.println(String.format("%d lookups: HashMap %d ms, PropertyMap %d ms", LOOKUPS_COUNT,
+                hashMapBest / 1000000, propertyMapBest / 1000000));
+    }
+
+    @Test
+    public void propertyHeavyLayoutBenchmarkTest() {
+        long best = Long.MAX_VALUE;
+        int pagesCount = 0;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+            Document document = new Document(pdfDocument);
+            for (int i = 0; i < PARAGRAPHS_COUNT; i++) {
+                document.add(createStyledDiv(i));
+            }
+            pagesCount = pdfDocument.getNumberOfPages();
+            document.close();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        Assert.assertTrue(pagesCount > PARAGRAPHS_COUNT / 50);
+        System.out.println(String.format("%d styled paragraphs on %d pages: %d ms", PARAGRAPHS_COUNT, pagesCount,
+                best / 1000000));
+    }
+
+    private static int lookUp(Map<Integer, Object> properties) {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS_COUNT; i++) {
+            int key = KEYS[i % KEYS.length];
+            if (properties.get(key) != null || properties.containsKey(key)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static int lookUp(PropertyMap properties) {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS_COUNT; i++) {
+            int key = KEYS[i % KEYS.length];
+            if (properties.get(key) != null || properties.containsKey(key)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static Div createStyledDiv(int index) {
+        Paragraph paragraph = new Paragraph()
+                .setFirstLineIndent(10)
+                .setMarginBottom(2)
+                .setBorderLeft(new SolidBorder(ColorConstants.GRAY, 1))
+                .setPaddingLeft(4);
+        for (int i = 0; i < 8; i++) {
+            Text text = new Text("Item " + index + " part " + i + " ");
+            text.setFontSize(8 + i % 3).setFontColor(i % 2 == 0 ? ColorConstants.BLACK : ColorConstants.BLUE);
+            if (i % 4 == 0) {
+                text.setBold().setUnderline();
+            }
+            paragraph.add(text);
+        }
+        return new Div().setKeepTogether(true).setBackgroundColor(ColorConstants.LIGHT_GRAY).add(paragraph);
+    }
+}
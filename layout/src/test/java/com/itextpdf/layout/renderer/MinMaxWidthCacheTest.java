@@ -0,0 +1,199 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.minmaxwidth.MinMaxWidth;
+import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.UnitValue;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class MinMaxWidthCacheTest extends AbstractRendererUnitTest {
+
+    private static final double EPS = 1e-5;
+
+    @Test
+    public void repeatedCalculationIsCachedTest() {
+        Document document = createDocument();
+        CountingParagraphRenderer paragraphRenderer = createCountingParagraphRenderer("Hello world");
+        DivRenderer divRenderer = createDivRenderer(document, paragraphRenderer);
+
+        MinMaxWidth first = divRenderer.getMinMaxWidth();
+        MinMaxWidth second = divRenderer.getMinMaxWidth();
+        Assert.assertEquals(1, paragraphRenderer.layoutsCount);
+        Assert.assertEquals(first.getMinWidth(), second.getMinWidth(), EPS);
+        Assert.assertEquals(first.getMaxWidth(), second.getMaxWidth(), EPS);
+    }
+
+    @Test
+    public void cachedWidthIsNotSharedWithCallersTest() {
+        Document document = createDocument();
+        DivRenderer divRenderer = createDivRenderer(document, createCountingParagraphRenderer("Hello world"));
+
+        MinMaxWidth first = divRenderer.getMinMaxWidth();
+        float maxWidth = first.getMaxWidth();
+        first.setChildrenMaxWidth(1000);
+        Assert.assertEquals(maxWidth, divRenderer.getMinMaxWidth().getMaxWidth(), EPS);
+    }
+
+    @Test
+    public void childPropertyChangeInvalidatesCacheTest() {
+        Document document = createDocument();
+        CountingParagraphRenderer paragraphRenderer = createCountingParagraphRenderer("Hello world");
+        DivRenderer divRenderer = createDivRenderer(document, paragraphRenderer);
+
+        float maxWidth = divRenderer.getMinMaxWidth().getMaxWidth();
+        paragraphRenderer.setProperty(Property.MARGIN_LEFT, UnitValue.createPointValue(50));
+        Assert.assertEquals(maxWidth + 50, divRenderer.getMinMaxWidth().getMaxWidth(), EPS);
+        Assert.assertEquals(2, paragraphRenderer.layoutsCount);
+
+        // setting an equal value keeps the cached width
+        paragraphRenderer.setProperty(Property.MARGIN_LEFT, UnitValue.createPointValue(50));
+        Assert.assertEquals(maxWidth + 50, divRenderer.getMinMaxWidth().getMaxWidth(), EPS);
+        Assert.assertEquals(2, paragraphRenderer.layoutsCount);
+    }
+
+    @Test
+    public void inheritedPropertyChangeInvalidatesDescendantsTest() {
+        Document document = createDocument();
+        CountingParagraphRenderer paragraphRenderer = createCountingParagraphRenderer("Hello world");
+        DivRenderer divRenderer = createDivRenderer(document, paragraphRenderer);
+
+        float maxWidth = divRenderer.getMinMaxWidth().getMaxWidth();
+        divRenderer.setProperty(Property.FONT_SIZE, UnitValue.createPointValue(24));
+        Assert.assertTrue(divRenderer.getMinMaxWidth().getMaxWidth() > maxWidth);
+        Assert.assertTrue(paragraphRenderer.getMinMaxWidth().getMaxWidth() > maxWidth);
+        Assert.assertEquals(2, paragraphRenderer.layoutsCount);
+    }
+
+    @Test
+    public void addedChildInvalidatesCacheTest() {
+        Document document = createDocument();
+        DivRenderer divRenderer = createDivRenderer(document, createCountingParagraphRenderer("Hello"));
+
+        float maxWidth = divRenderer.getMinMaxWidth().getMaxWidth();
+        divRenderer.addChild(createCountingParagraphRenderer("Hello world, hello world"));
+        Assert.assertTrue(divRenderer.getMinMaxWidth().getMaxWidth() > maxWidth);
+    }
+
+    @Test
+    public void modifiedChildrenListInvalidatesCacheTest() {
+        Document document = createDocument();
+        DivRenderer divRenderer = createDivRenderer(document, createCountingParagraphRenderer("Hello"));
+
+        float maxWidth = divRenderer.getMinMaxWidth().getMaxWidth();
+        divRenderer.getChildRenderers().set(0, createCountingParagraphRenderer("Hello world, hello world"));
+        Assert.assertTrue(divRenderer.getMinMaxWidth().getMaxWidth() > maxWidth);
+    }
+
+    @Test
+    public void nestedTableCellsAreLaidOutOncePerPassTest() {
+        Document document = createDocument();
+        Table table = new Table(1);
+        CountingParagraphRenderer[] paragraphRenderers = new CountingParagraphRenderer[4];
+        Table current = table;
+        for (int i = 0; i < paragraphRenderers.length; i++) {
+            Paragraph paragraph = new Paragraph("Level " + i);
+            paragraphRenderers[i] = new CountingParagraphRenderer(paragraph);
+            paragraph.setNextRenderer(paragraphRenderers[i]);
+            Cell cell = new Cell().add(paragraph);
+            current.addCell(cell);
+            if (i + 1 < paragraphRenderers.length) {
+                Table nested = new Table(1);
+                cell.add(nested);
+                current = nested;
+            }
+        }
+        IRenderer tableRenderer = table.createRendererSubTree().setParent(document.getRenderer());
+        LayoutResult result = tableRenderer.layout(new LayoutContext(createLayoutArea(500, 500)));
+
+        Assert.assertEquals(LayoutResult.FULL, result.getStatus());
+        for (CountingParagraphRenderer paragraphRenderer : paragraphRenderers) {
+            // one layout to calculate the min-max width and one actual layout
+            Assert.assertEquals(2, paragraphRenderer.layoutsCount);
+        }
+    }
+
+    private static DivRenderer createDivRenderer(Document document, IRenderer child) {
+        DivRenderer divRenderer = (DivRenderer) new Div().createRendererSubTree().setParent(document.getRenderer());
+        divRenderer.addChild(child);
+        return divRenderer;
+    }
+
+    private static CountingParagraphRenderer createCountingParagraphRenderer(String text) {
+        Paragraph paragraph = new Paragraph(text);
+        CountingParagraphRenderer renderer = new CountingParagraphRenderer(paragraph);
+        renderer.addChild(new TextRenderer(new Text(text)));
+        return renderer;
+    }
+
+    private static class CountingParagraphRenderer extends ParagraphRenderer {
+        private int layoutsCount;
+
+        CountingParagraphRenderer(Paragraph modelElement) {
+            super(modelElement);
+        }
+
+        @Override
+        public LayoutResult layout(LayoutContext layoutContext) {
+            layoutsCount++;
+            return super.layout(layoutContext);
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new CountingParagraphRenderer((Paragraph) modelElement);
+        }
+    }
+}
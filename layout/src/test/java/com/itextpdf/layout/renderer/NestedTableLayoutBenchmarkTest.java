@@ -0,0 +1,132 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Measures the layout of deeply nested tables with automatic column widths, counting how many times
+ * the paragraphs in their cells are laid out.
+ */
+@Category(PerformanceTest.class)
+public class NestedTableLayoutBenchmarkTest extends ExtendedITextTest {
+
+    private static final int ITERATIONS = 3;
+    private static final int MAX_DEPTH = 7;
+    private static final int CHAIN_DEPTH = 30;
+
+    private int layoutsCount;
+
+    @Test
+    public void nestedAutoTablesLayoutBenchmarkTest() {
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            measure(depth, 2);
+        }
+        measure(CHAIN_DEPTH, 1);
+    }
+
+    private void measure(int depth, int cellsPerTable) {
+        int paragraphsCount = 0;
+        for (int level = 0, tables = 1; level < depth; level++, tables *= cellsPerTable) {
+            paragraphsCount += tables * cellsPerTable;
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            layoutsCount = 0;
+            long start = System.nanoTime();
+            Document document = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())));
+            document.add(createNestedTable(depth, cellsPerTable));
+            document.close();
+            best = Math.min(best, System.nanoTime() - start);
+            // each paragraph is laid out once to calculate the min-max width and once to be placed
+            Assert.assertEquals(2 * paragraphsCount, layoutsCount);
+        }
+        System.out.println(String.format("depth %d, %d cells per table: %d paragraphs, %d paragraph layouts, %d ms",
+                depth, cellsPerTable, paragraphsCount, layoutsCount, best / 1000000));
+    }
+
+    private Table createNestedTable(int depth, int cellsPerTable) {
+        Table table = new Table(cellsPerTable);
+        for (int i = 0; i < cellsPerTable; i++) {
+            Paragraph paragraph = new Paragraph("Level " + depth + ", cell " + i);
+            paragraph.setNextRenderer(new CountingParagraphRenderer(paragraph));
+            Cell cell = new Cell().add(paragraph);
+            if (depth > 1) {
+                cell.add(createNestedTable(depth - 1, cellsPerTable));
+            }
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private class CountingParagraphRenderer extends ParagraphRenderer {
+
+        CountingParagraphRenderer(Paragraph modelElement) {
+            super(modelElement);
+        }
+
+        @Override
+        public LayoutResult layout(LayoutContext layoutContext) {
+            layoutsCount++;
+            return super.layout(layoutContext);
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new CountingParagraphRenderer((Paragraph) modelElement);
+        }
+    }
+}